@@ -20,12 +20,18 @@ import io.gravitee.management.idp.api.identity.IdentityReference;
 import io.gravitee.management.idp.api.identity.SearchableUser;
 import io.gravitee.management.idp.api.identity.User;
 import io.gravitee.management.idp.core.authentication.IdentityManager;
+import io.gravitee.management.model.metrics.LatencyMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static java.util.Optional.empty;
@@ -44,6 +50,20 @@ public class CompositeIdentityManager implements IdentityManager {
 
     private Collection<IdentityLookup> identityLookups = new ArrayList<>();
 
+    private final static int SEARCH_QUEUE_SIZE = 100;
+    private final static long METRICS_LOG_INTERVAL = 1_000;
+
+    @Value("${security.search.timeout:3000}")
+    private long searchTimeout;
+
+    @Value("${security.search.pool.size:8}")
+    private int searchPoolSize;
+
+    private ThreadPoolExecutor searchExecutor;
+
+    private final Map<String, LatencyMetrics> metrics = new ConcurrentHashMap<>();
+    private final AtomicLong searches = new AtomicLong();
+
     @Override
     public Optional<User> lookup(final String reference) {
         LOGGER.debug("Looking for a user: reference[{}]", reference);
@@ -65,22 +85,100 @@ public class CompositeIdentityManager implements IdentityManager {
         return empty();
     }
 
+    /**
+     * Query all the searchable lookups in parallel and merge their results as they come. Lookups which do not answer
+     * before the deadline are ignored, so that a slow or unreachable directory does not block the whole search.
+     */
     @Override
     public Collection<SearchableUser> search(String query) {
-        Set<SearchableUser> users = new HashSet<>();
-        for (IdentityLookup identityLookup : identityLookups) {
-            if (identityLookup.searchable()) {
-                Collection<User> lookupUsers = identityLookup.search(query);
-                if (lookupUsers != null) {
-                    users.addAll(lookupUsers
-                            .stream()
-                            .map((Function<User, SearchableUser>) DefaultSearchableUser::new)
-                            .collect(Collectors.toSet()));
+        final List<IdentityLookup> searchableLookups = identityLookups.stream()
+                .filter(IdentityLookup::searchable)
+                .collect(Collectors.toList());
+
+        final Map<String, SearchableUser> users = new LinkedHashMap<>();
+        if (searchableLookups.isEmpty()) {
+            return users.values();
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(searchTimeout);
+        final CompletionService<LookupResult> completionService = new ExecutorCompletionService<>(searchExecutor);
+        final Map<Future<LookupResult>, IdentityLookup> pending = new HashMap<>();
+
+        for (IdentityLookup identityLookup : searchableLookups) {
+            try {
+                pending.put(completionService.submit(() -> {
+                    final long start = System.nanoTime();
+                    return new LookupResult(identityLookup.search(query), System.nanoTime() - start);
+                }), identityLookup);
+            } catch (RejectedExecutionException ree) {
+                LOGGER.warn("Too many concurrent searches, skipping identity lookup {}", identityLookup.getClass().getSimpleName());
+                metrics(identityLookup).increment("failed");
+            }
+        }
+
+        try {
+            while (!pending.isEmpty()) {
+                final long remaining = deadline - System.nanoTime();
+                final Future<LookupResult> future = remaining > 0 ? completionService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (future == null) {
+                    break;
+                }
+                final IdentityLookup identityLookup = pending.remove(future);
+                try {
+                    final LookupResult result = future.get();
+                    metrics(identityLookup).record(result.latency);
+                    if (result.users != null) {
+                        for (User user : result.users) {
+                            final String id = user.getReference() != null ? user.getReference() : user.getId();
+                            final String key = id != null ? user.getSource() + ':' + id : String.valueOf(users.size());
+                            users.putIfAbsent(key, new DefaultSearchableUser(user));
+                        }
+                    }
+                } catch (ExecutionException ee) {
+                    metrics(identityLookup).increment("failed");
+                    LOGGER.error("An error occurs while searching users with {}", identityLookup.getClass().getSimpleName(), ee.getCause());
                 }
             }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Remaining lookups did not answer in time: return partial results
+        pending.forEach((future, identityLookup) -> {
+            future.cancel(true);
+            metrics(identityLookup).increment("timed out");
+            LOGGER.warn("Identity lookup {} did not answer within {} ms, its users are not part of the search results",
+                    identityLookup.getClass().getSimpleName(), searchTimeout);
+        });
+
+        if (searches.incrementAndGet() % METRICS_LOG_INTERVAL == 0) {
+            metrics.values().forEach(lookupMetrics -> lookupMetrics.log(LOGGER));
         }
 
-        return users;
+        return users.values();
+    }
+
+    @PostConstruct
+    public void init() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        searchExecutor = new ThreadPoolExecutor(searchPoolSize, searchPoolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(SEARCH_QUEUE_SIZE), runnable -> {
+                    final Thread thread = new Thread(runnable, "identity-search-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        searchExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (searchExecutor != null) {
+            searchExecutor.shutdownNow();
+        }
+    }
+
+    private LatencyMetrics metrics(IdentityLookup identityLookup) {
+        return metrics.computeIfAbsent(identityLookup.getClass().getSimpleName(), name -> new LatencyMetrics("Identity lookup " + name));
     }
 
     public void addIdentityLookup(IdentityLookup identityLookup) {
@@ -126,4 +224,14 @@ public class CompositeIdentityManager implements IdentityManager {
             return user.getLastname();
         }
     }
+
+    private static final class LookupResult {
+        private final Collection<User> users;
+        private final long latency;
+
+        private LookupResult(Collection<User> users, long latency) {
+            this.users = users;
+            this.latency = latency;
+        }
+    }
 }
@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.idp.core.authentication.impl;
+
+import io.gravitee.management.idp.api.identity.IdentityLookup;
+import io.gravitee.management.idp.api.identity.IdentityReference;
+import io.gravitee.management.idp.api.identity.SearchableUser;
+import io.gravitee.management.idp.api.identity.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CompositeIdentityManagerTest {
+
+    private static final long SEARCH_TIMEOUT = 200;
+
+    @InjectMocks
+    private CompositeIdentityManager identityManager = new CompositeIdentityManager();
+
+    @Mock
+    private ReferenceSerializer referenceSerializer;
+
+    @Before
+    public void init() {
+        setField(identityManager, "searchTimeout", SEARCH_TIMEOUT);
+        setField(identityManager, "searchPoolSize", 4);
+        identityManager.init();
+    }
+
+    @After
+    public void close() {
+        identityManager.close();
+    }
+
+    @Test
+    public void shouldMergeResultsOfAllLookups() {
+        identityManager.addIdentityLookup(new TestLookup(query -> Arrays.asList(user("ldap", "1", "John"), user("ldap", "2", "Jane"))));
+        identityManager.addIdentityLookup(new TestLookup(query -> Collections.singletonList(user("memory", "1", "Admin"))));
+
+        assertEquals(new HashSet<>(Arrays.asList("John", "Jane", "Admin")), displayNames(identityManager.search("query")));
+    }
+
+    @Test
+    public void shouldNotReturnDuplicatedUsers() {
+        identityManager.addIdentityLookup(new TestLookup(query -> Arrays.asList(user("ldap", "1", "John"), user("ldap", "1", "John"))));
+        identityManager.addIdentityLookup(new TestLookup(query -> Arrays.asList(user("ldap", "1", "John"), user("memory", "1", "John"))));
+
+        // same ID from another source is another user
+        assertEquals(2, identityManager.search("john").size());
+    }
+
+    @Test
+    public void shouldKeepUsersWithoutId() {
+        identityManager.addIdentityLookup(new TestLookup(query -> Arrays.asList(user("ldap", null, "John"), user("ldap", null, "Jane"))));
+
+        assertEquals(new HashSet<>(Arrays.asList("John", "Jane")), displayNames(identityManager.search("query")));
+    }
+
+    @Test
+    public void shouldReturnPartialResultsWhenLookupTimesOut() {
+        identityManager.addIdentityLookup(new TestLookup(query -> {
+            try {
+                Thread.sleep(SEARCH_TIMEOUT * 50);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.singletonList(user("ldap", "1", "Slow"));
+        }));
+        identityManager.addIdentityLookup(new TestLookup(query -> Collections.singletonList(user("memory", "1", "Fast"))));
+
+        final long start = System.currentTimeMillis();
+        final Collection<SearchableUser> users = identityManager.search("query");
+        final long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(Collections.singleton("Fast"), displayNames(users));
+        assertTrue("Search took " + elapsed + " ms", elapsed >= SEARCH_TIMEOUT && elapsed < SEARCH_TIMEOUT * 10);
+    }
+
+    @Test
+    public void shouldIgnoreFailingLookup() {
+        identityManager.addIdentityLookup(new TestLookup(query -> {
+            throw new IllegalStateException("Directory unreachable");
+        }));
+        identityManager.addIdentityLookup(new TestLookup(query -> null));
+        identityManager.addIdentityLookup(new TestLookup(query -> Collections.singletonList(user("memory", "1", "Admin"))));
+
+        assertEquals(Collections.singleton("Admin"), displayNames(identityManager.search("query")));
+    }
+
+    @Test
+    public void shouldNotSearchWithNotSearchableLookup() {
+        final TestLookup notSearchable = new TestLookup(query -> Collections.singletonList(user("ldap", "1", "John")), false);
+        identityManager.addIdentityLookup(notSearchable);
+
+        assertTrue(identityManager.search("query").isEmpty());
+        assertEquals(0, notSearchable.searches);
+    }
+
+    private static Set<String> displayNames(Collection<SearchableUser> users) {
+        return users.stream().map(SearchableUser::getDisplayName).collect(Collectors.toSet());
+    }
+
+    private static User user(String source, String id, String displayName) {
+        return new User() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getFirstname() {
+                return displayName;
+            }
+
+            @Override
+            public String getLastname() {
+                return null;
+            }
+
+            @Override
+            public String getEmail() {
+                return null;
+            }
+
+            @Override
+            public String getDisplayName() {
+                return displayName;
+            }
+
+            @Override
+            public String getSource() {
+                return source;
+            }
+        };
+    }
+
+    private static class TestLookup implements IdentityLookup {
+        private final Function<String, Collection<User>> search;
+        private final boolean searchable;
+        private volatile int searches;
+
+        private TestLookup(Function<String, Collection<User>> search) {
+            this(search, true);
+        }
+
+        private TestLookup(Function<String, Collection<User>> search, boolean searchable) {
+            this.search = search;
+            this.searchable = searchable;
+        }
+
+        @Override
+        public boolean canHandle(IdentityReference identityReference) {
+            return false;
+        }
+
+        @Override
+        public User retrieve(IdentityReference identityReference) {
+            return null;
+        }
+
+        @Override
+        public Collection<User> search(String query) {
+            searches++;
+            return search.apply(query);
+        }
+
+        @Override
+        public boolean searchable() {
+            return searchable;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import org.springframework.ldap.support.LdapNameBuilder;
 import javax.naming.ldap.LdapName;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -61,6 +62,11 @@ public class LdapIdentityLookup implements IdentityLookup, InitializingBean {
     private final static String LDAP_ATTRIBUTE_MAIL = "mail";
     private final static String LDAP_ATTRIBUTE_DISPLAYNAME = "displayName";
 
+    private final static int USER_CACHE_SIZE = 1_000;
+    private final static long DEFAULT_USER_CACHE_TTL_SECONDS = 300;
+    private final static int SEARCH_CACHE_SIZE = 200;
+    private final static long DEFAULT_SEARCH_CACHE_TTL_SECONDS = 30;
+
     @Autowired
     private LdapTemplate ldapTemplate;
 
@@ -71,6 +77,17 @@ public class LdapIdentityLookup implements IdentityLookup, InitializingBean {
 
     private LdapName baseDn;
 
+    /**
+     * Users retrieved by DN, looked up on every member add and user detail view.
+     */
+    private ExpiringCache<String, User> users;
+
+    /**
+     * Results of the last searches, so that typing in a search box does not query the server again for the
+     * queries already made.
+     */
+    private ExpiringCache<String, Collection<User>> searches;
+
     @Override
     public void afterPropertiesSet() throws Exception {
         String searchFilter = environment.getProperty("user-search-filter");
@@ -90,10 +107,20 @@ public class LdapIdentityLookup implements IdentityLookup, InitializingBean {
                 .build();
 
         LOGGER.info("User search is based on DN [{}]", baseDn);
+
+        users = new ExpiringCache<>(USER_CACHE_SIZE,
+                environment.getProperty("lookup-cache-ttl", long.class, DEFAULT_USER_CACHE_TTL_SECONDS), TimeUnit.SECONDS);
+        searches = new ExpiringCache<>(SEARCH_CACHE_SIZE,
+                environment.getProperty("lookup-search-cache-ttl", long.class, DEFAULT_SEARCH_CACHE_TTL_SECONDS), TimeUnit.SECONDS);
     }
 
     @Override
     public Collection<User> search(String query) {
+        Collection<User> cachedUsers = searches.get(query);
+        if (cachedUsers != null) {
+            return cachedUsers;
+        }
+
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
@@ -120,7 +147,9 @@ public class LdapIdentityLookup implements IdentityLookup, InitializingBean {
                     .filter(new AndFilter().and(classFilter).and(queryFilter));
 
 
-            return ldapTemplate.search(ldapQuery, USER_CONTEXT_MAPPER);
+            Collection<User> foundUsers = Collections.unmodifiableList(ldapTemplate.search(ldapQuery, USER_CONTEXT_MAPPER));
+            searches.put(query, foundUsers);
+            return foundUsers;
         } catch(LimitExceededException lee) {
             LOGGER.info("Too much results while searching for [{}]. Returns an empty list.", query);
             return Collections.emptyList();
@@ -139,16 +168,23 @@ public class LdapIdentityLookup implements IdentityLookup, InitializingBean {
 
     @Override
     public User retrieve(IdentityReference identityReference) {
+        User cachedUser = users.get(identityReference.getReference());
+        if (cachedUser != null) {
+            return cachedUser;
+        }
+
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
-            return ldapTemplate.lookup(
+            User user = ldapTemplate.lookup(
                     identityReference.getReference(),
                     new String [] {
                             identifierAttribute, LDAP_ATTRIBUTE_GIVENNAME, LDAP_ATTRIBUTE_SURNAME,
                             LDAP_ATTRIBUTE_MAIL, LDAP_ATTRIBUTE_DISPLAYNAME
                     },
                     USER_CONTEXT_MAPPER);
+            users.put(identityReference.getReference(), user);
+            return user;
         } catch (final NameNotFoundException nnfe) {
             return null;
         } finally {
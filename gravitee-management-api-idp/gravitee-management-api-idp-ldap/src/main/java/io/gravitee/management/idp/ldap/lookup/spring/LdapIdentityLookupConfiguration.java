@@ -16,10 +16,20 @@
 package io.gravitee.management.idp.ldap.lookup.spring;
 
 import io.gravitee.management.idp.ldap.lookup.LdapContextSourceFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.ldap.core.LdapTemplate;
 import org.springframework.ldap.core.support.LdapContextSource;
+import org.springframework.ldap.pool2.factory.PoolConfig;
+import org.springframework.ldap.pool2.factory.PooledContextSource;
+import org.springframework.ldap.pool2.validation.DefaultDirContextValidator;
 
 /**
  * @author David BRASSELY (david at gravitee.io)
@@ -28,13 +38,51 @@ import org.springframework.ldap.core.support.LdapContextSource;
 @Configuration
 public class LdapIdentityLookupConfiguration {
 
+    @Autowired
+    private Environment environment;
+
     @Bean
     public LdapContextSourceFactory contextSourceFactory() {
         return new LdapContextSourceFactory();
     }
 
+    /**
+     * Lookups and searches reuse pooled connections, validated when borrowed and while idle, instead of opening a
+     * new connection to the LDAP server for each call. The pool, and its evictor thread, only exist when
+     * lookup-pool-enabled is true (the default).
+     */
+    @Bean
+    @Conditional(LookupPoolEnabled.class)
+    public PooledContextSource pooledContextSource(LdapContextSource contextSource) {
+        PoolConfig poolConfig = new PoolConfig();
+        poolConfig.setMaxTotalPerKey(environment.getProperty("lookup-pool-max-active", int.class, 8));
+        poolConfig.setMaxIdlePerKey(environment.getProperty("lookup-pool-max-idle", int.class, 8));
+        poolConfig.setMinIdlePerKey(environment.getProperty("lookup-pool-min-idle", int.class, 0));
+        poolConfig.setMaxWaitMillis(environment.getProperty("lookup-pool-max-wait", long.class, 5_000L));
+        poolConfig.setTestOnBorrow(environment.getProperty("lookup-pool-test-on-borrow", boolean.class, true));
+        poolConfig.setTestWhileIdle(environment.getProperty("lookup-pool-test-while-idle", boolean.class, true));
+        poolConfig.setTimeBetweenEvictionRunsMillis(
+                environment.getProperty("lookup-pool-time-between-eviction-runs", long.class, 60_000L));
+        poolConfig.setMinEvictableIdleTimeMillis(
+                environment.getProperty("lookup-pool-min-evictable-idle-time", long.class, 300_000L));
+
+        PooledContextSource pooledContextSource = new PooledContextSource(poolConfig);
+        pooledContextSource.setContextSource(contextSource);
+        pooledContextSource.setDirContextValidator(new DefaultDirContextValidator());
+        return pooledContextSource;
+    }
+
     @Bean
-    public LdapTemplate ldapTemplate(LdapContextSource contextSource) {
-        return new LdapTemplate(contextSource);
+    public LdapTemplate ldapTemplate(LdapContextSource contextSource, ObjectProvider<PooledContextSource> pooledContextSource) {
+        final PooledContextSource pool = pooledContextSource.getIfAvailable();
+        return new LdapTemplate(pool != null ? pool : contextSource);
+    }
+
+    static class LookupPoolEnabled implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return context.getEnvironment().getProperty("lookup-pool-enabled", boolean.class, true);
+        }
     }
 }
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.idp.ldap.lookup;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    public void shouldReturnCachedValue() {
+        final ExpiringCache<String, String> cache = new ExpiringCache<>(10, 60, TimeUnit.SECONDS, now::get);
+
+        cache.put("key", "value");
+        now.addAndGet(TimeUnit.SECONDS.toMillis(60));
+
+        assertEquals("value", cache.get("key"));
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    public void shouldExpireValue() {
+        final ExpiringCache<String, String> cache = new ExpiringCache<>(10, 60, TimeUnit.SECONDS, now::get);
+
+        cache.put("key", "value");
+        now.addAndGet(TimeUnit.SECONDS.toMillis(60) + 1);
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedValue() {
+        final ExpiringCache<String, String> cache = new ExpiringCache<>(2, 60, TimeUnit.SECONDS, now::get);
+
+        cache.put("key1", "value1");
+        cache.put("key2", "value2");
+        cache.get("key1");
+        cache.put("key3", "value3");
+
+        assertEquals("value1", cache.get("key1"));
+        assertNull(cache.get("key2"));
+        assertEquals("value3", cache.get("key3"));
+    }
+
+    @Test
+    public void shouldNotCacheWhenDisabled() {
+        final ExpiringCache<String, String> cache = new ExpiringCache<>(10, 0, TimeUnit.SECONDS, now::get);
+
+        cache.put("key", "value");
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get("key"));
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.idp.ldap.lookup;
+
+import io.gravitee.management.idp.ldap.lookup.spring.LdapIdentityLookupConfiguration;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.ldap.core.LdapTemplate;
+import org.springframework.ldap.core.support.LdapContextSource;
+import org.springframework.ldap.pool2.factory.PooledContextSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LdapIdentityLookupConfigurationTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @After
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    public void shouldUsePooledContextSourceByDefault() {
+        start(null);
+
+        assertEquals(1, context.getBeansOfType(PooledContextSource.class).size());
+        final PooledContextSource pooledContextSource = context.getBean(PooledContextSource.class);
+        assertSame(pooledContextSource, context.getBean(LdapTemplate.class).getContextSource());
+        assertSame(context.getBean(LdapContextSource.class), pooledContextSource.getContextSource());
+    }
+
+    @Test
+    public void shouldUsePooledContextSourceWhenEnabled() {
+        start(true);
+
+        assertTrue(context.getBean(LdapTemplate.class).getContextSource() instanceof PooledContextSource);
+    }
+
+    @Test
+    public void shouldNotCreatePoolWhenDisabled() {
+        start(false);
+
+        assertTrue(context.getBeansOfType(PooledContextSource.class).isEmpty());
+        assertSame(context.getBean(LdapContextSource.class), context.getBean(LdapTemplate.class).getContextSource());
+    }
+
+    private void start(Boolean poolEnabled) {
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put("context-source-url", "ldap://localhost:389");
+        properties.put("context-source-base", "dc=example,dc=com");
+        if (poolEnabled != null) {
+            properties.put("lookup-pool-enabled", poolEnabled);
+        }
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("ldap", properties));
+        context.register(LdapIdentityLookupConfiguration.class);
+        context.refresh();
+    }
+}
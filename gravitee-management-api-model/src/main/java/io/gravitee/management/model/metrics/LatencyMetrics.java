@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.metrics;
+
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of the calls to a component, with optional named counters (failures, timeouts...), maxima (queue
+ * depth...) and percentiles over the last calls. Values are accumulated without locking, except for percentile
+ * samples, and reset each time they are logged.
+ *
+ * @author GraviteeSource Team
+ */
+public class LatencyMetrics {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicLong> maxima = new ConcurrentSkipListMap<>();
+    private final long[] samples;
+    private long sampleCount;
+
+    public LatencyMetrics(String name) {
+        this(name, 0);
+    }
+
+    /**
+     * @param samples number of the last latencies kept to log their percentiles, none if 0.
+     */
+    public LatencyMetrics(String name, int samples) {
+        this.name = name;
+        this.samples = new long[samples];
+    }
+
+    /**
+     * Record a call which lasted the given number of nanoseconds.
+     */
+    public void record(long latency) {
+        calls.increment();
+        totalLatency.add(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        if (samples.length > 0) {
+            synchronized (samples) {
+                samples[(int) (sampleCount++ % samples.length)] = latency;
+            }
+        }
+    }
+
+    public void increment(String counter) {
+        add(counter, 1);
+    }
+
+    public void add(String counter, long value) {
+        counters.computeIfAbsent(counter, key -> new LongAdder()).add(value);
+    }
+
+    public void max(String maximum, long value) {
+        maxima.computeIfAbsent(maximum, key -> new AtomicLong()).accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Number of calls recorded since the last time the metrics have been logged.
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    public synchronized void log(Logger logger) {
+        final long count = calls.sumThenReset();
+        final long latency = totalLatency.sumThenReset();
+        final long max = maxLatency.getAndSet(0);
+
+        final StringBuilder message = new StringBuilder(name).append(": ").append(count).append(" calls");
+        if (count > 0) {
+            // the average is computed in nanoseconds so that sub-millisecond calls are not reported as 0 ms
+            message.append(", latency avg ").append(toMillis(latency / count))
+                    .append(" ms / max ").append(toMillis(max)).append(" ms");
+            appendPercentiles(message);
+        }
+        boolean empty = count == 0;
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+            final long value = counter.getValue().sumThenReset();
+            empty &= value == 0;
+            message.append(", ").append(value).append(' ').append(counter.getKey());
+        }
+        for (Map.Entry<String, AtomicLong> maximum : maxima.entrySet()) {
+            message.append(", ").append(maximum.getKey()).append(' ').append(maximum.getValue().getAndSet(0));
+        }
+
+        if (!empty) {
+            logger.info(message.toString());
+        }
+    }
+
+    private void appendPercentiles(StringBuilder message) {
+        if (samples.length == 0) {
+            return;
+        }
+        final long[] snapshot;
+        synchronized (samples) {
+            snapshot = Arrays.copyOf(samples, (int) Math.min(sampleCount, samples.length));
+        }
+        if (snapshot.length == 0) {
+            return;
+        }
+        Arrays.sort(snapshot);
+        message.append(", over the last ").append(snapshot.length).append(" calls p50 ").append(percentile(snapshot, 50))
+                .append(" ms / p95 ").append(percentile(snapshot, 95))
+                .append(" ms / p99 ").append(percentile(snapshot, 99)).append(" ms");
+    }
+
+    private static String percentile(long[] sorted, int percentile) {
+        final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return toMillis(sorted[Math.max(index, 0)]);
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
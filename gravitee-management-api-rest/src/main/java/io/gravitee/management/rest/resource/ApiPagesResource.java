@@ -131,9 +131,10 @@ public class ApiPagesResource extends AbstractResource {
         List<PageListItem> pages = pageService.findApiPagesByApi(api);
         String contributor = getAuthenticatedUser();
 
-        pages.stream()
+        pageService.fetchAll(pages.stream()
                 .filter(pageListItem -> pageListItem.getSource() != null)
-                .forEach(pageListItem -> pageService.fetch(pageListItem.getId(), contributor));
+                .map(PageListItem::getId)
+                .collect(Collectors.toList()), contributor);
 
         return Response.noContent().build();
     }
@@ -44,7 +44,6 @@ import javax.ws.rs.*;
 import javax.ws.rs.container.ResourceContext;
 import javax.ws.rs.core.*;
 import javax.ws.rs.core.Response.Status;
-import java.io.ByteArrayOutputStream;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -105,9 +104,10 @@ public class ApiResource extends AbstractResource {
     private void setPicture(final ApiEntity apiEntity) {
         final UriBuilder ub = uriInfo.getAbsolutePathBuilder();
         final UriBuilder uriBuilder = ub.path("picture");
-        if (apiEntity.getPicture() != null) {
+        final String pictureHash = apiService.getPictureHash(apiEntity);
+        if (pictureHash != null) {
             // force browser to get if updated
-            uriBuilder.queryParam("hash", apiEntity.getPicture().hashCode());
+            uriBuilder.queryParam("hash", pictureHash);
         }
         apiEntity.setPictureUrl(uriBuilder.build().toString());
         apiEntity.setPicture(null);
@@ -123,7 +123,7 @@ public class ApiResource extends AbstractResource {
     public Response picture(
             @Context Request request,
             @PathParam("api") String api) throws ApiNotFoundException {
-        ApiEntity apiEntity = apiService.findById(api);
+        ApiEntity apiEntity = apiService.findByIdLight(api);
         if (Visibility.PUBLIC.equals(apiEntity.getVisibility())
                 || hasPermission(RolePermission.API_DEFINITION, api, RolePermissionAction.READ)) {
 
@@ -133,9 +133,11 @@ public class ApiResource extends AbstractResource {
             cc.setNoCache(false);
             cc.setMaxAge(86400);
 
-            InlinePictureEntity image = apiService.getPicture(api);
+            // The decoded picture is cached for the update date of the API, so revalidations are answered from its
+            // content hash without reading the picture again
+            InlinePictureEntity image = apiService.getPicture(api, apiEntity.getUpdatedAt());
 
-            EntityTag etag = new EntityTag(Integer.toString(new String(image.getContent()).hashCode()));
+            EntityTag etag = new EntityTag(image.getHash());
             Response.ResponseBuilder builder = request.evaluatePreconditions(etag);
 
             if (builder != null) {
@@ -145,11 +147,8 @@ public class ApiResource extends AbstractResource {
                         .build();
             }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            baos.write(image.getContent(), 0, image.getContent().length);
-
             return Response
-                    .ok(baos)
+                    .ok(image.getContent())
                     .cacheControl(cc)
                     .tag(etag)
                     .type(image.getType())
@@ -43,6 +43,8 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 import java.net.URI;
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -123,6 +125,74 @@ public class ApiSubscriptionsResource extends AbstractResource {
                 .build();
     }
 
+    @POST
+    @Path("_process")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Process several pending subscriptions of the API",
+            notes = "User must have the MANAGE_PLANS permission to use this service")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Subscriptions successfully processed", response = Subscription.class,
+                    responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Bad subscription format"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    @Permissions({
+            @Permission(value = RolePermission.API_SUBSCRIPTION, acls = RolePermissionAction.UPDATE)
+    })
+    public List<Subscription> processApiSubscriptions(
+            @PathParam("api") String api,
+            @ApiParam(name = "subscriptions", required = true) @Valid @NotNull List<ProcessSubscriptionEntity> processSubscriptionEntities) {
+        return subscriptionService.process(api, processSubscriptionEntities, getAuthenticatedUser())
+                .stream()
+                .map(this::convert)
+                .collect(Collectors.toList());
+    }
+
+    @POST
+    @Path("_close")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Close several accepted subscriptions of the API",
+            notes = "User must have the MANAGE_PLANS permission to use this service")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Subscriptions successfully closed", response = Subscription.class,
+                    responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Status changes not authorized"),
+            @ApiResponse(code = 404, message = "API subscription does not exist"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    @Permissions({
+            @Permission(value = RolePermission.API_SUBSCRIPTION, acls = RolePermissionAction.UPDATE)
+    })
+    public List<Subscription> closeApiSubscriptions(
+            @PathParam("api") String api,
+            @ApiParam(name = "subscriptions", required = true) @NotNull List<String> subscriptions) {
+        return subscriptionService.close(api, subscriptions)
+                .stream()
+                .map(this::convert)
+                .collect(Collectors.toList());
+    }
+
+    @POST
+    @Path("_renew")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Renew the API keys of several accepted subscriptions of the API",
+            notes = "User must have the MANAGE_API_KEYS permission to use this service")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "The new API keys", response = ApiKeyEntity.class,
+                    responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Subscription is closed"),
+            @ApiResponse(code = 404, message = "API subscription does not exist"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    @Permissions({
+            @Permission(value = RolePermission.API_SUBSCRIPTION, acls = RolePermissionAction.UPDATE)
+    })
+    public List<ApiKeyEntity> renewApiKeys(
+            @PathParam("api") String api,
+            @ApiParam(name = "subscriptions", required = true) @NotNull List<String> subscriptions) {
+        return subscriptionService.renewApiKeys(api, subscriptions);
+    }
+
     @Path("{subscription}")
     public ApiSubscriptionResource getApiSubscriptionResource() {
         return resourceContext.getResource(ApiSubscriptionResource.class);
@@ -16,6 +16,7 @@
 package io.gravitee.management.rest.resource;
 
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.ImportSwaggerDescriptorEntity;
 import io.gravitee.management.model.RatingSummaryEntity;
@@ -25,6 +26,8 @@ import io.gravitee.management.model.api.ApiQuery;
 import io.gravitee.management.model.api.NewApiEntity;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.rest.model.PagedResult;
+import io.gravitee.management.rest.model.Pageable;
 import io.gravitee.management.rest.resource.param.ApisParam;
 import io.gravitee.management.rest.resource.param.VerifyApiParam;
 import io.gravitee.management.rest.security.Permission;
@@ -55,6 +58,7 @@ import java.util.stream.Collectors;
 import static io.gravitee.management.model.Visibility.PUBLIC;
 import static io.gravitee.repository.management.model.View.ALL_ID;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -89,19 +93,7 @@ public class ApisResource extends AbstractResource {
             @ApiResponse(code = 500, message = "Internal server error")})
     public List<ApiListItem> listApis(@BeanParam final ApisParam apisParam) {
 
-        final ApiQuery apiQuery = new ApiQuery();
-        if (apisParam.getGroup() != null) {
-            apiQuery.setGroups(Collections.singletonList(apisParam.getGroup()));
-        }
-        apiQuery.setContextPath(apisParam.getContextPath());
-        apiQuery.setLabel(apisParam.getLabel());
-        apiQuery.setVersion(apisParam.getVersion());
-        apiQuery.setName(apisParam.getName());
-        apiQuery.setTag(apisParam.getTag());
-        apiQuery.setState(apisParam.getState());
-        if (!ALL_ID.equals(apisParam.getView())) {
-            apiQuery.setView(apisParam.getView());
-        }
+        final ApiQuery apiQuery = toQuery(apisParam);
 
         final Collection<ApiEntity> apis;
         if (isAdmin()) {
@@ -117,20 +109,72 @@ public class ApisResource extends AbstractResource {
 
         if (apisParam.isTop()) {
             final List<String> visibleApis = apis.stream().map(ApiEntity::getId).collect(toList());
-            return topApiService.findAll().stream()
+            return convert(topApiService.findAll().stream()
                     .filter(topApi -> visibleApis.contains(topApi.getApi()))
                     .map(topApiEntity -> apiService.findById(topApiEntity.getApi()))
-                    .map(this::convert)
-                    .collect(toList());
+                    .collect(toList()));
         }
 
-        return apis.stream()
-                .map(this::convert)
+        return convert(apis).stream()
                 .map(this::setManageable)
                 .sorted((o1, o2) -> String.CASE_INSENSITIVE_ORDER.compare(o1.getName(), o2.getName()))
                 .collect(toList());
     }
 
+    @GET
+    @Path("_paged")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "List a page of APIs",
+            notes = "List a page of the APIs accessible to the current user or only public APIs for non authenticated users, sorted by name.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Page of accessible APIs for current user", response = PagedResult.class),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    public PagedResult<ApiListItem> listApisPaged(@BeanParam final ApisParam apisParam,
+                                                  @Valid @BeanParam final Pageable pageable) {
+        final ApiQuery apiQuery = toQuery(apisParam);
+
+        if (!isAdmin() && isAuthenticated()) {
+            // only the APIs of the page are loaded
+            final Page<ApiEntity> apis = apiService.findByUser(getAuthenticatedUser(), apiQuery, pageable.toPageable());
+            final List<ApiListItem> items = convert(apis.getContent()).stream()
+                    .map(this::setManageable)
+                    .collect(toList());
+            return new PagedResult<>(items, apis.getPageNumber(), pageable.getSize(), (int) apis.getTotalElements());
+        }
+
+        if (!isAdmin()) {
+            apiQuery.setVisibility(PUBLIC);
+        }
+        final List<ApiEntity> apis = apiService.search(apiQuery).stream()
+                .sorted((o1, o2) -> String.CASE_INSENSITIVE_ORDER.compare(o1.getName(), o2.getName()))
+                .collect(toList());
+        final List<ApiListItem> items = convert(apis.stream()
+                .skip((long) (pageable.getPage() - 1) * pageable.getSize())
+                .limit(pageable.getSize())
+                .collect(toList())).stream()
+                .map(this::setManageable)
+                .collect(toList());
+        return new PagedResult<>(items, pageable.getPage(), pageable.getSize(), apis.size());
+    }
+
+    private ApiQuery toQuery(ApisParam apisParam) {
+        final ApiQuery apiQuery = new ApiQuery();
+        if (apisParam.getGroup() != null) {
+            apiQuery.setGroups(Collections.singletonList(apisParam.getGroup()));
+        }
+        apiQuery.setContextPath(apisParam.getContextPath());
+        apiQuery.setLabel(apisParam.getLabel());
+        apiQuery.setVersion(apisParam.getVersion());
+        apiQuery.setName(apisParam.getName());
+        apiQuery.setTag(apisParam.getTag());
+        apiQuery.setState(apisParam.getState());
+        if (!ALL_ID.equals(apisParam.getView())) {
+            apiQuery.setView(apisParam.getView());
+        }
+        return apiQuery;
+    }
+
     /**
      * Create a new API for the authenticated user.
      * @param newApiEntity
@@ -235,25 +279,24 @@ public class ApisResource extends AbstractResource {
             @ApiParam(name = "q", required = true)
             @NotNull @QueryParam("q") String query) {
         try {
-            final Collection<ApiEntity> apis;
+            final Set<String> apiIds;
             if (isAdmin()) {
-                apis = apiService.search(new ApiQuery());
+                apiIds = apiService.search(new ApiQuery()).stream().map(ApiEntity::getId).collect(Collectors.toSet());
             } else {
                 if (isAuthenticated()) {
-                    apis = apiService.findByUser(getAuthenticatedUser(), new ApiQuery());
+                    apiIds = apiService.findIdsByUser(getAuthenticatedUser());
                 } else {
                     ApiQuery apiQuery = new ApiQuery();
                     apiQuery.setVisibility(PUBLIC);
-                    apis = apiService.search(apiQuery);
+                    apiIds = apiService.search(apiQuery).stream().map(ApiEntity::getId).collect(Collectors.toSet());
                 }
             }
 
             Map<String, Object> filters = new HashMap<>();
-            filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
+            filters.put("api", apiIds);
 
-            return Response.ok().entity(apiService.search(query, filters)
+            return Response.ok().entity(convert(apiService.search(query, filters))
                     .stream()
-                    .map(this::convert)
                     .map(this::setManageable)
                     .collect(toList())).build();
         } catch (TechnicalException te) {
@@ -271,7 +314,16 @@ public class ApisResource extends AbstractResource {
         return resourceContext.getResource(ApiMediaResource.class);
     }
 
-    private ApiListItem convert(ApiEntity api) {
+    private List<ApiListItem> convert(Collection<ApiEntity> apis) {
+        final Map<String, RatingSummaryEntity> ratingSummaries = ratingService.isEnabled() ?
+                ratingService.findSummariesByApis(apis.stream().map(ApiEntity::getId).collect(toSet())) :
+                Collections.emptyMap();
+        return apis.stream()
+                .map(api -> convert(api, ratingSummaries.get(api.getId())))
+                .collect(toList());
+    }
+
+    private ApiListItem convert(ApiEntity api, RatingSummaryEntity ratingSummary) {
         final ApiListItem apiItem = new ApiListItem();
 
         apiItem.setId(api.getId());
@@ -281,9 +333,10 @@ public class ApisResource extends AbstractResource {
 
         final UriBuilder ub = uriInfo.getBaseUriBuilder();
         final UriBuilder uriBuilder = ub.path("apis").path(api.getId()).path("picture");
-        if (api.getPicture() != null) {
+        final String pictureHash = apiService.getPictureHash(api);
+        if (pictureHash != null) {
             // force browser to get if updated
-            uriBuilder.queryParam("hash", api.getPicture().hashCode());
+            uriBuilder.queryParam("hash", pictureHash);
         }
         apiItem.setPictureUrl(uriBuilder.build().toString());
         apiItem.setViews(api.getViews());
@@ -305,8 +358,7 @@ public class ApisResource extends AbstractResource {
             apiItem.setContextPath(api.getProxy().getContextPath());
         }
 
-        if (ratingService.isEnabled()) {
-            final RatingSummaryEntity ratingSummary = ratingService.findSummaryByApi(api.getId());
+        if (ratingSummary != null) {
             apiItem.setRate(ratingSummary.getAverageRate());
             apiItem.setNumberOfRatings(ratingSummary.getNumberOfRatings());
         }
@@ -17,6 +17,7 @@ package io.gravitee.management.rest.resource;
 
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.notification.NotifierEntity;
+import io.gravitee.management.model.notification.WebhookDeadLetterEntity;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.rest.resource.configuration.identity.IdentityProvidersResource;
@@ -26,6 +27,7 @@ import io.gravitee.management.rest.security.Permissions;
 import io.gravitee.management.service.NotifierService;
 import io.gravitee.management.service.notification.Hook;
 import io.gravitee.management.service.notification.PortalHook;
+import io.gravitee.management.service.notifiers.WebNotifierService;
 import io.gravitee.repository.management.model.NotificationReferenceType;
 import io.gravitee.repository.management.model.PortalNotificationDefaultReferenceId;
 import io.swagger.annotations.Api;
@@ -55,6 +57,9 @@ public class ConfigurationResource {
     @Inject
     private NotifierService notifierService;
 
+    @Inject
+    private WebNotifierService webNotifierService;
+
     @GET
     @Path("/hooks")
     @ApiOperation("Get the list of available hooks")
@@ -73,6 +78,17 @@ public class ConfigurationResource {
         return notifierService.list(NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name());
     }
 
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("notifiers/webhook/deadletters")
+    @ApiOperation("Get the last given up webhook deliveries of this node, most recent first")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_NOTIFICATION, acls = RolePermissionAction.READ)
+    })
+    public List<WebhookDeadLetterEntity> getWebhookDeadLetters() {
+        return webNotifierService.findDeadLetters();
+    }
+
     @Path("views")
     public ViewsResource getViewResource() {
         return resourceContext.getResource(ViewsResource.class);
@@ -22,6 +22,7 @@ import io.gravitee.management.idp.api.authentication.UserDetails;
 import io.gravitee.management.model.*;
 import io.gravitee.management.rest.model.PagedResult;
 import io.gravitee.management.rest.model.TokenEntity;
+import io.gravitee.management.rest.resource.auth.LoginLatencies;
 import io.gravitee.management.security.cookies.JWTCookieGenerator;
 import io.gravitee.management.service.TaskService;
 import io.gravitee.management.service.UserService;
@@ -189,6 +190,7 @@ public class CurrentUserResource extends AbstractResource {
     @ApiOperation(value = "Login")
     @Produces(MediaType.APPLICATION_JSON)
     public Response login(final @Context javax.ws.rs.core.HttpHeaders headers, final @Context HttpServletResponse servletResponse) {
+        final long start = System.nanoTime();
         final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails) {
             // JWT signer
@@ -238,6 +240,8 @@ public class CurrentUserResource extends AbstractResource {
             final Cookie bearerCookie = jwtCookieGenerator.generate("Bearer%20" + sign);
             servletResponse.addCookie(bearerCookie);
 
+            LoginLatencies.record(start);
+
             return ok(tokenEntity).build();
         }
         return ok().build();
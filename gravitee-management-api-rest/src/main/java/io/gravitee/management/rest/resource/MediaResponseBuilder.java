@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource;
+
+import io.gravitee.management.model.MediaEntity;
+import org.apache.commons.io.IOUtils;
+
+import javax.ws.rs.core.*;
+import java.io.InputStream;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Build the response of a media download. Media are addressed by the hash of their content, so once the media is known
+ * to exist, conditional requests are answered from the hash without reading the content. Single byte ranges are
+ * supported.
+ *
+ * @author GraviteeSource Team
+ */
+final class MediaResponseBuilder {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private MediaResponseBuilder() {
+    }
+
+    static Response build(Request request, String hash, String range, boolean exists, Supplier<MediaEntity> media) {
+        // A deleted media must not be revalidated by a client still holding its hash
+        if (!exists) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        CacheControl cc = new CacheControl();
+        cc.setNoTransform(true);
+        cc.setMustRevalidate(false);
+        cc.setNoCache(false);
+        cc.setMaxAge(86400);
+
+        EntityTag etag = new EntityTag(hash);
+        Response.ResponseBuilder builder = request.evaluatePreconditions(etag);
+
+        if (builder != null) {
+            // Preconditions are not met, returning HTTP 304 'not-modified'
+            return builder
+                    .cacheControl(cc)
+                    .build();
+        }
+
+        final MediaEntity mediaEntity = media.get();
+        if (mediaEntity == null) {
+            // deleted since it has been checked
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        final long size = mediaEntity.getSize();
+        final Matcher matcher = range == null ? null : RANGE_PATTERN.matcher(range.trim());
+
+        if (matcher == null || !matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return Response
+                    .ok(stream(mediaEntity.getData(), 0, size))
+                    .type(mediaEntity.getMimeType())
+                    .header(HttpHeaders.CONTENT_LENGTH, size)
+                    .header("Accept-Ranges", "bytes")
+                    .cacheControl(cc)
+                    .tag(etag)
+                    .build();
+        }
+
+        final long start;
+        final long end;
+        if (matcher.group(1).isEmpty()) {
+            // suffix range: last n bytes
+            start = Math.max(0, size - Long.parseLong(matcher.group(2)));
+            end = size - 1;
+        } else {
+            start = Long.parseLong(matcher.group(1));
+            end = matcher.group(2).isEmpty() ? size - 1 : Math.min(Long.parseLong(matcher.group(2)), size - 1);
+        }
+
+        if (start >= size || start > end) {
+            return Response
+                    .status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", "bytes */" + size)
+                    .build();
+        }
+
+        final long length = end - start + 1;
+        return Response
+                .status(Response.Status.PARTIAL_CONTENT)
+                .entity(stream(mediaEntity.getData(), start, length))
+                .type(mediaEntity.getMimeType())
+                .header(HttpHeaders.CONTENT_LENGTH, length)
+                .header("Content-Range", "bytes " + start + '-' + end + '/' + size)
+                .header("Accept-Ranges", "bytes")
+                .cacheControl(cc)
+                .tag(etag)
+                .build();
+    }
+
+    /**
+     * The media repository stores the content as a byte array, so the media is already in memory: this only avoids
+     * copying the requested range before writing it.
+     */
+    private static StreamingOutput stream(InputStream data, long offset, long length) {
+        return output -> {
+            try (InputStream in = data) {
+                IOUtils.copyLarge(in, output, offset, length);
+            }
+        };
+    }
+}
@@ -70,10 +70,10 @@ public class PlatformEventsResource  extends AbstractResource {
         } else if (!isAdmin()) {
             properties.put(
                     Event.EventProperties.API_ID.getValue(),
-                    apiService.findByUser(getAuthenticatedUser(), null)
+                    apiService.findIdsByUser(getAuthenticatedUser())
                             .stream()
-                            .filter(api -> permissionService.hasPermission(API_ANALYTICS, api.getId(), READ))
-                            .map(ApiEntity::getId).collect(Collectors.joining(",")));
+                            .filter(apiId -> permissionService.hasPermission(API_ANALYTICS, apiId, READ))
+                            .collect(Collectors.joining(",")));
         }
 
         Page<EventEntity> events = eventService.search(
@@ -74,36 +74,9 @@ public class PortalMediaResource extends AbstractResource {
     @Path("/{hash}")
     public Response getImage(
             @Context Request request,
-            @PathParam("hash") String hash) {
-
-        MediaEntity mediaEntity = mediaService.findby(hash);
-
-        if (mediaEntity == null) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        }
-
-        CacheControl cc = new CacheControl();
-        cc.setNoTransform(true);
-        cc.setMustRevalidate(false);
-        cc.setNoCache(false);
-        cc.setMaxAge(86400);
-
-
-        EntityTag etag = new EntityTag(hash);
-        Response.ResponseBuilder builder = request.evaluatePreconditions(etag);
-
-        if (builder != null) {
-            // Preconditions are not met, returning HTTP 304 'not-modified'
-            return builder
-                    .cacheControl(cc)
-                    .build();
-        }
-
-        return Response
-                .ok(mediaEntity.getData())
-                .type(mediaEntity.getMimeType())
-                .cacheControl(cc)
-                .tag(etag)
-                .build();
+            @PathParam("hash") String hash,
+            @HeaderParam("Range") String range) {
+        return MediaResponseBuilder.build(request, hash, range,
+                mediaService.exists(hash, null), () -> mediaService.findby(hash));
     }
 }
@@ -205,9 +205,10 @@ public class PortalPagesResource extends AbstractResource {
     public Response fetchAllPages() {
         List<PageListItem> pages = pageService.findPortalPagesByHomepage(false, false);
         String contributor = getAuthenticatedUser();
-        pages.stream()
+        pageService.fetchAll(pages.stream()
             .filter(pageListItem -> pageListItem.getSource() != null)
-            .forEach(pageListItem -> pageService.fetch(pageListItem.getId(), contributor));
+            .map(PageListItem::getId)
+            .collect(Collectors.toList()), contributor);
 
         return Response.noContent().build();
     }
@@ -19,16 +19,12 @@ import com.auth0.jwt.JWTSigner;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.management.idp.api.authentication.UserDetails;
-import io.gravitee.management.model.RoleEntity;
 import io.gravitee.management.model.UserEntity;
+import io.gravitee.management.model.UserRoleEntity;
 import io.gravitee.management.rest.model.TokenEntity;
 import io.gravitee.management.security.cookies.JWTCookieGenerator;
-import io.gravitee.management.service.MembershipService;
 import io.gravitee.management.service.UserService;
 import io.gravitee.management.service.common.JWTHelper;
-import io.gravitee.repository.management.model.MembershipDefaultReferenceId;
-import io.gravitee.repository.management.model.MembershipReferenceType;
-import io.gravitee.repository.management.model.RoleScope;
 import org.hibernate.validator.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
@@ -61,8 +57,6 @@ abstract class AbstractAuthenticationResource {
     @Autowired
     protected UserService userService;
     @Autowired
-    protected MembershipService membershipService;
-    @Autowired
     protected JWTCookieGenerator jwtCookieGenerator;
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
@@ -84,6 +78,7 @@ abstract class AbstractAuthenticationResource {
     }
 
     protected Response connectUser(String userId, final HttpServletResponse servletResponse) {
+        final long start = System.nanoTime();
         UserEntity user = userService.connect(userId);
 
         final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -93,23 +88,12 @@ abstract class AbstractAuthenticationResource {
         // Manage authorities, initialize it with dynamic permissions from the IDP
         Set<GrantedAuthority> authorities = new HashSet<>(userDetails.getAuthorities());
 
-        // We must also load permissions from repository for configured management or portal role
-        RoleEntity role = membershipService.getRole(
-                MembershipReferenceType.MANAGEMENT,
-                MembershipDefaultReferenceId.DEFAULT.toString(),
-                userDetails.getId(),
-                RoleScope.MANAGEMENT);
-        if (role != null) {
-            authorities.add(new SimpleGrantedAuthority(role.getScope().toString() + ':' + role.getName()));
-        }
-
-        role = membershipService.getRole(
-                MembershipReferenceType.PORTAL,
-                MembershipDefaultReferenceId.DEFAULT.toString(),
-                userDetails.getId(),
-                RoleScope.PORTAL);
-        if (role != null) {
-            authorities.add(new SimpleGrantedAuthority(role.getScope().toString() + ':' + role.getName()));
+        // We must also load permissions from repository for configured management or portal role, they have been
+        // resolved while connecting the user
+        if (user.getRoles() != null) {
+            for (UserRoleEntity role : user.getRoles()) {
+                authorities.add(new SimpleGrantedAuthority(role.getScope().toString() + ':' + role.getName()));
+            }
         }
 
         // JWT signer
@@ -135,6 +119,8 @@ abstract class AbstractAuthenticationResource {
         final Cookie bearerCookie = jwtCookieGenerator.generate("Bearer%20" + sign);
         servletResponse.addCookie(bearerCookie);
 
+        LoginLatencies.record(start);
+
         return Response
                 .ok(tokenEntity)
                 .build();
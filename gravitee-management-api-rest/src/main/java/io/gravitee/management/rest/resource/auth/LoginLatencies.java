@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource.auth;
+
+import io.gravitee.management.model.metrics.LatencyMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the latencies of the last logins and periodically logs their average and percentiles.
+ *
+ * @author GraviteeSource Team
+ */
+public final class LoginLatencies {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginLatencies.class);
+
+    private final static int SAMPLES_SIZE = 1024;
+    private final static long LOG_INTERVAL = 1_000;
+
+    private static final LatencyMetrics METRICS = new LatencyMetrics("Logins", SAMPLES_SIZE);
+
+    private LoginLatencies() {
+    }
+
+    public static void record(long startNanos) {
+        METRICS.record(System.nanoTime() - startNanos);
+        if (METRICS.calls() >= LOG_INTERVAL) {
+            METRICS.log(LOGGER);
+        }
+    }
+}
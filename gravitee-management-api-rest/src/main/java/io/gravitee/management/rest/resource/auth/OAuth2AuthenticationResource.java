@@ -22,6 +22,7 @@ import com.jayway.jsonpath.ReadContext;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.el.TemplateEngine;
 import io.gravitee.management.idp.api.authentication.UserDetails;
+import io.gravitee.management.model.metrics.LatencyMetrics;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.configuration.identity.GroupMappingEntity;
 import io.gravitee.management.model.configuration.identity.RoleMappingEntity;
@@ -37,6 +38,11 @@ import io.gravitee.repository.management.model.MembershipDefaultReferenceId;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 import io.swagger.annotations.Api;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
 import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +50,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
@@ -57,6 +64,8 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -84,12 +93,26 @@ public class OAuth2AuthenticationResource extends AbstractAuthenticationResource
     @Autowired
     protected MembershipService membershipService;
 
-    private Client client;
-
     private static final String ACCESS_TOKEN_PROPERTY = "access_token";
 
-    public OAuth2AuthenticationResource() {
-        this.client = ClientBuilder.newClient();
+    private final static int DEFAULT_TIMEOUT = 10_000;
+    private final static int DEFAULT_POOL_MAX_SIZE = 20;
+    private final static int CONNECTION_TTL_SECONDS = 60;
+    private final static int VALIDATE_AFTER_INACTIVITY = 2_000;
+    private final static long METRICS_LOG_INTERVAL = 1_000;
+
+    /**
+     * One client by identity provider, each one with its own bounded pool of keep-alive connections so that a slow
+     * provider can not exhaust the connections of the others.
+     */
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+
+    private final Map<String, LatencyMetrics> metrics = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    public void close() {
+        clients.values().forEach(Client::close);
+        clients.clear();
     }
 
     @POST
@@ -106,7 +129,8 @@ public class OAuth2AuthenticationResource extends AbstractAuthenticationResource
                 // Step1. Check the token by invoking the introspection endpoint
                 final MultivaluedStringMap introspectData = new MultivaluedStringMap();
                 introspectData.add(TOKEN, token);
-                Response response = client
+                final long start = System.nanoTime();
+                Response response = client(identityProvider)
                         //TODO: what is the correct introspection URL here ?
                         .target(identityProvider.getTokenIntrospectionEndpoint())
                         .request(javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE)
@@ -119,6 +143,7 @@ public class OAuth2AuthenticationResource extends AbstractAuthenticationResource
 
                 if (response.getStatus() == Response.Status.OK.getStatusCode()) {
                     JsonNode introspectPayload = response.readEntity(JsonNode.class);
+                    record(identityProvider, "introspection", start);
                     boolean active = introspectPayload.path("active").asBoolean(true);
 
                     if (active) {
@@ -131,9 +156,11 @@ public class OAuth2AuthenticationResource extends AbstractAuthenticationResource
                     }
                 }
 
+                final String introspectError = response.hasEntity() ? response.readEntity(String.class) : null;
+                record(identityProvider, "introspection", start);
                 return Response
                         .status(response.getStatusInfo())
-                        .entity(response.getEntity())
+                        .entity(introspectError)
                         .build();
             } else {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -161,16 +188,22 @@ public class OAuth2AuthenticationResource extends AbstractAuthenticationResource
             accessData.add(CLIENT_SECRET, identityProvider.getClientSecret());
             accessData.add(CODE_KEY, payload.getCode());
             accessData.add(GRANT_TYPE_KEY, AUTH_CODE);
-            Response response = client.target(identityProvider.getTokenEndpoint())
+            final long start = System.nanoTime();
+            Response response = client(identityProvider).target(identityProvider.getTokenEndpoint())
                     .request(javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE)
                     .post(Entity.form(accessData));
             accessData.clear();
 
             if (response.getStatus() == Response.Status.OK.getStatusCode()) {
                 final String accessToken = (String) getResponseEntity(response).get(ACCESS_TOKEN_PROPERTY);
+                record(identityProvider, "token", start);
                 return authenticateUser(identityProvider, servletResponse, accessToken);
             }
 
+            // Release the connection to the pool
+            response.close();
+            record(identityProvider, "token", start);
+
             return Response
                     .status(Response.Status.UNAUTHORIZED)
                     .build();
@@ -188,7 +221,8 @@ public class OAuth2AuthenticationResource extends AbstractAuthenticationResource
                                       final HttpServletResponse servletResponse,
                                       final String accessToken) throws IOException {
         // Step 2. Retrieve profile information about the authenticated end-user.
-        Response response = client
+        final long start = System.nanoTime();
+        Response response = client(socialProvider)
                 .target(socialProvider.getUserInfoEndpoint())
                 .request(javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE)
                 .header(HttpHeaders.AUTHORIZATION, String.format(socialProvider.getAuthorizationHeader(), accessToken))
@@ -196,6 +230,7 @@ public class OAuth2AuthenticationResource extends AbstractAuthenticationResource
 
         // Step 3. Process the authenticated user.
         final String userInfo = getResponseEntityAsString(response);
+        record(socialProvider, "userinfo", start);
         if (response.getStatus() == Response.Status.OK.getStatusCode()) {
             return processUser(socialProvider, servletResponse, userInfo);
         }
@@ -203,6 +238,37 @@ public class OAuth2AuthenticationResource extends AbstractAuthenticationResource
         return Response.status(response.getStatusInfo()).build();
     }
 
+    private Client client(final SocialIdentityProviderEntity identityProvider) {
+        return clients.computeIfAbsent(identityProvider.getId(), id -> {
+            final int timeout = environment.getProperty("httpClient.timeout", Integer.class, DEFAULT_TIMEOUT);
+            final int maxSize = environment.getProperty("httpClient.oauth2.pool.maxSize", Integer.class, DEFAULT_POOL_MAX_SIZE);
+
+            final PoolingHttpClientConnectionManager connectionManager =
+                    new PoolingHttpClientConnectionManager(CONNECTION_TTL_SECONDS, TimeUnit.SECONDS);
+            connectionManager.setMaxTotal(maxSize);
+            connectionManager.setDefaultMaxPerRoute(maxSize);
+            connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY);
+
+            final ClientConfig config = new ClientConfig()
+                    .connectorProvider(new ApacheConnectorProvider())
+                    .property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager)
+                    .property(ClientProperties.CONNECT_TIMEOUT, timeout)
+                    .property(ClientProperties.READ_TIMEOUT, timeout);
+            return ClientBuilder.newClient(config);
+        });
+    }
+
+    private void record(final SocialIdentityProviderEntity identityProvider, final String endpoint, final long start) {
+        final String name = identityProvider.getId() + '/' + endpoint;
+        final LatencyMetrics endpointMetrics = metrics.computeIfAbsent(name, key -> new LatencyMetrics("Identity provider " + key));
+        final long latency = System.nanoTime() - start;
+        LOGGER.debug("Identity provider {} answered in {} ms", name, TimeUnit.NANOSECONDS.toMillis(latency));
+        endpointMetrics.record(latency);
+        if (endpointMetrics.calls() >= METRICS_LOG_INTERVAL) {
+            endpointMetrics.log(LOGGER);
+        }
+    }
+
     private Response processUser(final SocialIdentityProviderEntity socialProvider, final HttpServletResponse servletResponse, final String userInfo) {
         HashMap<String, String> attrs = getUserProfileAttrs(socialProvider.getUserProfileMapping(), userInfo);
 
@@ -35,13 +35,12 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static io.gravitee.management.model.Visibility.PUBLIC;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * Defines the API to retrieve APIS from the portal.
@@ -75,32 +74,38 @@ public class PortalApisResource extends AbstractResource {
             @ApiParam(name = "q", required = true)
             @NotNull @QueryParam("q") String query) {
         try {
-            final Collection<ApiEntity> apis;
+            final Set<String> apiIds;
             if (isAdmin()) {
-                apis = apiService.search(new ApiQuery());
+                apiIds = apiService.search(new ApiQuery()).stream().map(ApiEntity::getId).collect(Collectors.toSet());
             } else {
                 if (isAuthenticated()) {
-                    apis = apiService.findByUser(getAuthenticatedUser(), new ApiQuery());
+                    apiIds = apiService.findIdsByUser(getAuthenticatedUser());
                 } else {
                     ApiQuery apiQuery = new ApiQuery();
                     apiQuery.setVisibility(PUBLIC);
-                    apis = apiService.search(apiQuery);
+                    apiIds = apiService.search(apiQuery).stream().map(ApiEntity::getId).collect(Collectors.toSet());
                 }
             }
 
             Map<String, Object> filters = new HashMap<>();
-            filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
+            filters.put("api", apiIds);
 
-            return Response.ok().entity(apiService.search(query, filters)
-                    .stream()
-                    .map(this::convert)
-                    .collect(toList())).build();
+            return Response.ok().entity(convert(apiService.search(query, filters))).build();
         } catch (TechnicalException te) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(te).build();
         }
     }
 
-    private ApiListItem convert(ApiEntity api) {
+    private List<ApiListItem> convert(Collection<ApiEntity> apis) {
+        final Map<String, RatingSummaryEntity> ratingSummaries = ratingService.isEnabled() ?
+                ratingService.findSummariesByApis(apis.stream().map(ApiEntity::getId).collect(toSet())) :
+                Collections.emptyMap();
+        return apis.stream()
+                .map(api -> convert(api, ratingSummaries.get(api.getId())))
+                .collect(toList());
+    }
+
+    private ApiListItem convert(ApiEntity api, RatingSummaryEntity ratingSummary) {
         final ApiListItem apiItem = new ApiListItem();
 
         apiItem.setId(api.getId());
@@ -110,9 +115,10 @@ public class PortalApisResource extends AbstractResource {
 
         final UriBuilder ub = uriInfo.getBaseUriBuilder();
         final UriBuilder uriBuilder = ub.path("apis").path(api.getId()).path("picture");
-        if (api.getPicture() != null) {
+        final String pictureHash = apiService.getPictureHash(api);
+        if (pictureHash != null) {
             // force browser to get if updated
-            uriBuilder.queryParam("hash", api.getPicture().hashCode());
+            uriBuilder.queryParam("hash", pictureHash);
         }
         apiItem.setPictureUrl(uriBuilder.build().toString());
         apiItem.setViews(api.getViews());
@@ -134,8 +140,7 @@ public class PortalApisResource extends AbstractResource {
             apiItem.setContextPath(api.getProxy().getContextPath());
         }
 
-        if (ratingService.isEnabled()) {
-            final RatingSummaryEntity ratingSummary = ratingService.findSummaryByApi(api.getId());
+        if (ratingSummary != null) {
             apiItem.setRate(ratingSummary.getAverageRate());
             apiItem.setNumberOfRatings(ratingSummary.getNumberOfRatings());
         }
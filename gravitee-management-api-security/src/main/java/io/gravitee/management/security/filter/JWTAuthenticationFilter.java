@@ -16,6 +16,9 @@
 package io.gravitee.management.security.filter;
 
 import com.auth0.jwt.JWTVerifier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.management.idp.api.authentication.UserDetails;
@@ -24,6 +27,8 @@ import io.gravitee.management.service.common.JWTHelper.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.GenericFilterBean;
@@ -36,8 +41,10 @@ import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.net.URLDecoder.decode;
 import static java.nio.charset.Charset.defaultCharset;
@@ -51,16 +58,35 @@ public class JWTAuthenticationFilter extends GenericFilterBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JWTAuthenticationFilter.class);
 
+    private final static String AUTH_COOKIE_NAME = "Auth-Graviteeio-APIM";
+    private final static String AUTHORIZATION_SCHEMA = "Bearer";
+    private final static long AUTHENTICATION_CACHE_SIZE = 10_000;
+    private final static long AUTHENTICATION_CACHE_TTL_SECONDS = 300;
+    private final static long AUTHENTICATION_CACHE_STATS_INTERVAL = 10_000;
+
     private final JWTVerifier jwtVerifier;
     private JWTCookieGenerator jwtCookieGenerator;
 
+    /**
+     * Claims of already verified tokens, keyed by the token digest. The cache belongs to the filter, which is built
+     * from the signing secret: changing the secret means a new filter and so an empty cache.
+     * Only immutable values are cached, the authentication and its user details are built for each request since
+     * they are mutable and owned by the security context of that request.
+     */
+    private final Cache<String, VerifiedToken> verifiedTokens = CacheBuilder.newBuilder()
+            .maximumSize(AUTHENTICATION_CACHE_SIZE)
+            .expireAfterWrite(AUTHENTICATION_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+
+    private final AtomicLong lookups = new AtomicLong();
+
     public JWTAuthenticationFilter(final String jwtSecret, final JWTCookieGenerator jwtCookieGenerator) {
         this.jwtVerifier = new JWTVerifier(jwtSecret);
         this.jwtCookieGenerator = jwtCookieGenerator;
     }
 
     @Override
-    @SuppressWarnings(value = "unchecked")
     public void doFilter(final ServletRequest request, final ServletResponse response,
                          final FilterChain chain) throws IOException, ServletException {
         HttpServletRequest req = (HttpServletRequest) request;
@@ -69,42 +95,22 @@ public class JWTAuthenticationFilter extends GenericFilterBean {
         String stringToken = req.getHeader(HttpHeaders.AUTHORIZATION);
 
         if (isEmpty(stringToken) && req.getCookies() != null) {
-            final String authCookieName = "Auth-Graviteeio-APIM";
-            final Optional<Cookie> optionalStringToken = Arrays.stream(req.getCookies())
-                    .filter(cookie -> authCookieName.equals(cookie.getName()))
-                    .findAny();
-            if (optionalStringToken.isPresent()) {
-                stringToken = decode(optionalStringToken.get().getValue(), defaultCharset().name());
+            for (Cookie cookie : req.getCookies()) {
+                if (AUTH_COOKIE_NAME.equals(cookie.getName())) {
+                    final String value = cookie.getValue();
+                    stringToken = value != null && value.indexOf('%') != -1 ? decode(value, defaultCharset().name()) : value;
+                    break;
+                }
             }
         }
 
         if (isEmpty(stringToken)) {
             LOGGER.debug("Authorization header/cookie not found");
         } else {
-            final String authorizationSchema = "Bearer";
-            if (stringToken.contains(authorizationSchema)) {
-                final String jwtToken = stringToken.substring(authorizationSchema.length()).trim();
+            if (stringToken.contains(AUTHORIZATION_SCHEMA)) {
+                final String jwtToken = stringToken.substring(AUTHORIZATION_SCHEMA.length()).trim();
                 try {
-                    final Map<String, Object> verify = jwtVerifier.verify(jwtToken);
-
-                    List<Map> permissions = (List<Map>) verify.get(Claims.PERMISSIONS);
-                    List<SimpleGrantedAuthority> authorities;
-
-                    if (permissions != null) {
-                        authorities = ((List<Map>) verify.get(Claims.PERMISSIONS)).stream()
-                                .map(map -> new SimpleGrantedAuthority(map.get("authority").toString()))
-                                .collect(Collectors.toList());
-                    } else {
-                        authorities = Collections.emptyList();
-                    }
-
-                    final UserDetails userDetails = new UserDetails(getStringValue(verify.get(Claims.SUBJECT)), "",
-                            authorities);
-                    userDetails.setEmail((String) verify.get(Claims.EMAIL));
-                    userDetails.setFirstname((String) verify.get(Claims.FIRSTNAME));
-                    userDetails.setLastname((String) verify.get(Claims.LASTNAME));
-
-                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+                    SecurityContextHolder.getContext().setAuthentication(authenticate(jwtToken));
                 } catch (final Exception e) {
                     final String errorMessage = "Invalid token";
                     if (LOGGER.isDebugEnabled()) {
@@ -123,6 +129,53 @@ public class JWTAuthenticationFilter extends GenericFilterBean {
         chain.doFilter(request, response);
     }
 
+    private Authentication authenticate(final String jwtToken) throws Exception {
+        final String digest = Hashing.sha256().hashString(jwtToken, StandardCharsets.UTF_8).toString();
+        final long now = System.currentTimeMillis();
+
+        if (lookups.incrementAndGet() % AUTHENTICATION_CACHE_STATS_INTERVAL == 0) {
+            LOGGER.debug("Verified JWT cache: {}", verifiedTokens.stats());
+        }
+
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(digest);
+        if (verifiedToken != null) {
+            if (verifiedToken.expiresAt > now) {
+                return verifiedToken.toAuthentication();
+            }
+            verifiedTokens.invalidate(digest);
+        }
+
+        verifiedToken = verify(jwtToken);
+        if (verifiedToken.expiresAt > now) {
+            verifiedTokens.put(digest, verifiedToken);
+        }
+
+        return verifiedToken.toAuthentication();
+    }
+
+    @SuppressWarnings(value = "unchecked")
+    private VerifiedToken verify(final String jwtToken) throws Exception {
+        final Map<String, Object> verify = jwtVerifier.verify(jwtToken);
+        final List<Map> permissions = (List<Map>) verify.get(Claims.PERMISSIONS);
+        final List<GrantedAuthority> authorities;
+
+        if (permissions != null) {
+            authorities = new ArrayList<>(permissions.size());
+            for (Map permission : permissions) {
+                authorities.add(new SimpleGrantedAuthority(permission.get("authority").toString()));
+            }
+        } else {
+            authorities = Collections.emptyList();
+        }
+
+        final Object exp = verify.get(Claims.EXPIRATION);
+        final long expiresAt = exp instanceof Number ? ((Number) exp).longValue() * 1000 : Long.MAX_VALUE;
+
+        return new VerifiedToken(getStringValue(verify.get(Claims.SUBJECT)), (String) verify.get(Claims.EMAIL),
+                (String) verify.get(Claims.FIRSTNAME), (String) verify.get(Claims.LASTNAME),
+                Collections.unmodifiableList(authorities), expiresAt);
+    }
+
     private String getStringValue(final Object object) {
         if (object == null) {
             return "";
@@ -130,4 +183,31 @@ public class JWTAuthenticationFilter extends GenericFilterBean {
         return object.toString();
     }
 
+    private static final class VerifiedToken {
+        private final String subject;
+        private final String email;
+        private final String firstname;
+        private final String lastname;
+        private final List<GrantedAuthority> authorities;
+        private final long expiresAt;
+
+        private VerifiedToken(String subject, String email, String firstname, String lastname,
+                              List<GrantedAuthority> authorities, long expiresAt) {
+            this.subject = subject;
+            this.email = email;
+            this.firstname = firstname;
+            this.lastname = lastname;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+
+        private Authentication toAuthentication() {
+            final UserDetails userDetails = new UserDetails(subject, "", authorities);
+            userDetails.setEmail(email);
+            userDetails.setFirstname(firstname);
+            userDetails.setLastname(lastname);
+
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        }
+    }
 }
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.security.filter;
+
+import com.auth0.jwt.JWTSigner;
+import com.google.common.cache.Cache;
+import io.gravitee.common.http.HttpHeaders;
+import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.management.idp.api.authentication.UserDetails;
+import io.gravitee.management.security.cookies.JWTCookieGenerator;
+import io.gravitee.management.service.common.JWTHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.getField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class JWTAuthenticationFilterTest {
+
+    private static final String JWT_SECRET = "myJWT4Gr4v1t33_S3cr3t";
+
+    @Mock
+    private JWTCookieGenerator jwtCookieGenerator;
+    @Mock
+    private HttpServletRequest request;
+    @Mock
+    private HttpServletResponse response;
+    @Mock
+    private FilterChain chain;
+
+    private JWTAuthenticationFilter filter;
+
+    @Before
+    public void init() {
+        filter = new JWTAuthenticationFilter(JWT_SECRET, jwtCookieGenerator);
+    }
+
+    @After
+    public void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void shouldReuseAuthenticationOfVerifiedToken() throws Exception {
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JWTHelper.Claims.SUBJECT, "user-id");
+        claims.put(JWTHelper.Claims.EMAIL, "user@gravitee.io");
+        claims.put(JWTHelper.Claims.PERMISSIONS, Collections.singletonList(Collections.singletonMap("authority", "ADMIN")));
+        final JWTSigner.Options options = new JWTSigner.Options();
+        options.setExpirySeconds(60);
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + new JWTSigner(JWT_SECRET).sign(claims, options));
+
+        filter.doFilter(request, response, chain);
+        final Authentication first = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        final Authentication second = SecurityContextHolder.getContext().getAuthentication();
+
+        assertNotNull(first);
+        assertEquals(1, ((Cache<?, ?>) getField(filter, "verifiedTokens")).stats().hitCount());
+        verify(chain, times(2)).doFilter(request, response);
+
+        // each request gets its own authentication, built from the same claims
+        assertNotSame(first, second);
+        assertNotSame(first.getPrincipal(), second.getPrincipal());
+        for (Authentication authentication : Arrays.asList(first, second)) {
+            assertEquals("user-id", ((UserDetails) authentication.getPrincipal()).getUsername());
+            assertEquals("user@gravitee.io", ((UserDetails) authentication.getPrincipal()).getEmail());
+            assertEquals("ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+        }
+    }
+
+    @Test
+    public void shouldNotShareAuthenticationChangesBetweenRequests() throws Exception {
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(JWTHelper.Claims.SUBJECT, "user-id");
+        claims.put(JWTHelper.Claims.EMAIL, "user@gravitee.io");
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + new JWTSigner(JWT_SECRET).sign(claims));
+
+        filter.doFilter(request, response, chain);
+        final Authentication first = SecurityContextHolder.getContext().getAuthentication();
+        ((UserDetails) first.getPrincipal()).setEmail("changed@gravitee.io");
+        first.setAuthenticated(false);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        final Authentication second = SecurityContextHolder.getContext().getAuthentication();
+
+        assertTrue(second.isAuthenticated());
+        assertEquals("user@gravitee.io", ((UserDetails) second.getPrincipal()).getEmail());
+    }
+
+    @Test
+    public void shouldRejectTokenSignedWithAnotherSecret() throws Exception {
+        final Map<String, Object> claims = Collections.singletonMap(JWTHelper.Claims.SUBJECT, "user-id");
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + new JWTSigner("another secret").sign(claims));
+
+        filter.doFilter(request, response, chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(response).sendError(HttpStatusCode.UNAUTHORIZED_401);
+        verify(chain, never()).doFilter(request, response);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the API key generation, by a single thread and by 8 contending threads, compared to
+ * {@link UUID#randomUUID()} which all the threads share.
+ *
+ * @author GraviteeSource Team
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiKeyGeneratorBenchmark {
+
+    @Param({"uuid", "hex", "base64url"})
+    private String format;
+
+    private SecureRandomApiKeyGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new SecureRandomApiKeyGenerator();
+        ReflectionTestUtils.setField(generator, "format", format);
+        generator.init();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generateSingleThread() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateContended() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID randomUUIDSingleThread() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID randomUUIDContended() {
+        return UUID.randomUUID();
+    }
+}
@@ -17,6 +17,8 @@ package io.gravitee.management.service;
 
 import io.gravitee.management.model.ApiKeyEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -27,10 +29,27 @@ public interface ApiKeyService {
 
     ApiKeyEntity generate(String subscription);
 
+    /**
+     * Generate an API key for each of the given subscriptions, resolving the plans they share once.
+     */
+    List<ApiKeyEntity> generate(Collection<String> subscriptions);
+
     ApiKeyEntity renew(String subscription);
 
+    /**
+     * Renew the API key of each of the given subscriptions, resolving the plans, applications and APIs they share once.
+     * Subscriptions are renewed in chunks, and the notifications of each chunk are sent at once, grouped by API.
+     */
+    List<ApiKeyEntity> renew(Collection<String> subscriptions);
+
     void revoke(String apiKey, boolean notify);
 
+    /**
+     * Revoke the given API keys, resolving the plans, applications and APIs they share once.
+     * API keys are revoked in chunks, and the notifications of each chunk are sent at once, grouped by API.
+     */
+    void revoke(Collection<String> apiKeys, boolean notify);
+
     Set<ApiKeyEntity> findBySubscription(String subscription);
 
     ApiKeyEntity findByKey(String apiKey);
@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.management.model.ApiModelEntity;
 import io.gravitee.management.model.EventType;
 import io.gravitee.management.model.InlinePictureEntity;
@@ -24,6 +25,7 @@ import io.gravitee.management.model.api.ApiQuery;
 import io.gravitee.management.model.api.NewApiEntity;
 import io.gravitee.management.model.api.UpdateApiEntity;
 import io.gravitee.management.model.api.header.ApiHeaderEntity;
+import io.gravitee.management.model.common.Pageable;
 import io.gravitee.repository.exceptions.TechnicalException;
 
 import java.util.*;
@@ -37,12 +39,27 @@ public interface ApiService {
 
     ApiEntity findById(String apiId);
 
+    /**
+     * Find an API without its definition, picture and primary owner.
+     */
+    ApiEntity findByIdLight(String apiId);
+
     Set<ApiEntity> findAll();
 
     Set<ApiEntity> findAllLight();
 
     Set<ApiEntity> findByUser(String userId, ApiQuery apiQuery);
 
+    /**
+     * Find a page of the APIs a user can see, sorted by name. Only the APIs of the page are loaded with their definition.
+     */
+    Page<ApiEntity> findByUser(String userId, ApiQuery apiQuery, Pageable pageable);
+
+    /**
+     * Find the IDs of the APIs a user can see, without loading the APIs themselves.
+     */
+    Set<String> findIdsByUser(String userId);
+
     Set<ApiEntity> findByVisibility(Visibility visibility);
 
     ApiEntity create(NewApiEntity api, String userId);
@@ -76,6 +93,21 @@ public interface ApiService {
 
     InlinePictureEntity getPicture(String apiId);
 
+    /**
+     * Get the picture of an API already read by the caller.
+     *
+     * @param apiId the API ID.
+     * @param updatedAt the update date of the API as read by the caller, <code>null</code> forces the picture to be read.
+     */
+    InlinePictureEntity getPicture(String apiId, Date updatedAt);
+
+    /**
+     * Get the content hash of the picture of an API already read by the caller with its picture.
+     *
+     * @return the hash, <code>null</code> if the API has no valid picture.
+     */
+    String getPictureHash(ApiEntity api);
+
     byte[] getDefaultPicture();
 
     void deleteViewFromAPIs(String viewId);
@@ -84,8 +116,24 @@ public interface ApiService {
 
     void checkContextPath(String newContextPath) throws TechnicalException;
 
+    /**
+     * Load the index of the context paths used by the APIs, which is then kept current by the creations, updates and
+     * deletions of APIs. It is loaded on first use if not already loaded at boot.
+     */
+    void loadContextPaths();
+
+    /**
+     * Find the model of an API exposed to templates. Each call returns a copy of the cached model, which callers may
+     * modify freely.
+     */
     ApiModelEntity findByIdForTemplates(String apiId);
 
+    /**
+     * Find the template models of the given APIs, loading the missing ones in bulk.
+     * Unknown APIs are absent from the returned map.
+     */
+    Map<String, ApiModelEntity> findByIdsForTemplates(Collection<String> apiIds);
+
     boolean exists(String apiId);
 
     ApiEntity importPathMappingsFromPage(ApiEntity apiEntity, String page);
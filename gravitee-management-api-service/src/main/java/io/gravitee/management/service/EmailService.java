@@ -15,6 +15,8 @@
  */
 package io.gravitee.management.service;
 
+import java.util.Collection;
+
 /**
  * @author Azize Elamrani (azize dot elamrani at gmail dot com)
  */
@@ -23,4 +25,12 @@ public interface EmailService {
     void sendEmailNotification(EmailNotification emailNotification);
 
     void sendAsyncEmailNotification(EmailNotification emailNotification);
+
+    /**
+     * Send the notifications in batches sharing the same SMTP connection. Notifications using the same template and
+     * parameters are rendered only once.
+     */
+    void sendEmailNotifications(Collection<EmailNotification> emailNotifications);
+
+    void sendAsyncEmailNotifications(Collection<EmailNotification> emailNotifications);
 }
@@ -17,9 +17,18 @@ package io.gravitee.management.service;
 
 import io.gravitee.common.component.LifecycleComponent;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com) 
  * @author GraviteeSource Team
  */
 public interface InitializerService<T> extends LifecycleComponent<T> {
+
+    /**
+     * Completion of the initializations which are still running in background once the service is started.
+     */
+    default CompletableFuture<Void> backgroundCompletion() {
+        return CompletableFuture.completedFuture(null);
+    }
 }
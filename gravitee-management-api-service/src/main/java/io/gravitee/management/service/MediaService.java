@@ -29,5 +29,12 @@ public interface MediaService {
     MediaEntity findby(String id);
     MediaEntity findby(String id, String api);
 
+    /**
+     * Check that a media exists, without reading its content again when it is already known.
+     *
+     * @param api the API of the media, <code>null</code> for a portal media.
+     */
+    boolean exists(String id, String api);
+
     Long getMediaMaxSize();
 }
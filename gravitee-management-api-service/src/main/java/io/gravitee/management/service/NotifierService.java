@@ -31,6 +31,14 @@ import java.util.Map;
 public interface NotifierService {
      void trigger(final ApiHook hook, final String apiId, Map<String, Object> params);
      void trigger(final ApplicationHook hook, final String applicationId, Map<String, Object> params);
+     /**
+      * Triggers the same hook once per given parameters, looking up the notification configurations of the API only once.
+      */
+     void triggerAll(final ApiHook hook, final String apiId, List<Map<String, Object>> params);
+     /**
+      * Triggers the same hook once per given parameters, looking up the notification configurations of the application only once.
+      */
+     void triggerAll(final ApplicationHook hook, final String applicationId, List<Map<String, Object>> params);
      void trigger(final PortalHook hook, Map<String, Object> params);
      List<NotifierEntity> list(NotificationReferenceType referenceType, String referenceId);
 }
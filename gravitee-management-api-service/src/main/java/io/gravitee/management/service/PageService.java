@@ -19,6 +19,7 @@ import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.documentation.PageQuery;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -57,4 +58,9 @@ public interface PageService {
 	boolean isDisplayable(ApiEntity api, boolean isPagePublished, String username);
 
 	PageEntity fetch(String pageId, String contributor);
+
+	/**
+	 * Fetch the content of the given pages concurrently, then update them.
+	 */
+	List<PageEntity> fetchAll(Collection<String> pageIds, String contributor);
 }
@@ -19,6 +19,9 @@ import io.gravitee.common.data.domain.Page;
 import io.gravitee.management.model.*;
 import io.gravitee.repository.management.api.search.Pageable;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * @author Azize ELAMRANI (azize at graviteesource.com)
  * @author GraviteeSource Team
@@ -33,6 +36,8 @@ public interface RatingService {
 
     RatingSummaryEntity findSummaryByApi(String api);
 
+    Map<String, RatingSummaryEntity> findSummariesByApis(Collection<String> apis);
+
     RatingEntity findByApiForConnectedUser(String api);
 
     RatingEntity update(UpdateRatingEntity rating);
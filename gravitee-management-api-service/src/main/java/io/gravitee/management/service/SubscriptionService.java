@@ -16,6 +16,7 @@
 package io.gravitee.management.service;
 
 import io.gravitee.common.data.domain.Page;
+import io.gravitee.management.model.ApiKeyEntity;
 import io.gravitee.management.model.NewSubscriptionEntity;
 import io.gravitee.management.model.ProcessSubscriptionEntity;
 import io.gravitee.management.model.SubscriptionEntity;
@@ -56,6 +57,28 @@ public interface SubscriptionService {
 
     SubscriptionEntity close(String subscription);
 
+    /**
+     * Process the pending subscriptions of an API, resolving the shared plans, applications and API once.
+     * A subscription must appear only once. All the subscriptions are checked before any is processed, so nothing is
+     * processed if one of them is unknown, already processed or has a closed plan. If the repository fails while they
+     * are processed, the subscriptions processed before the failure stay processed.
+     */
+    List<SubscriptionEntity> process(String api, Collection<ProcessSubscriptionEntity> processSubscriptions, String validator);
+
+    /**
+     * Close the accepted subscriptions of an API, resolving the shared plans, applications and API once.
+     * Duplicated subscriptions are closed once. All the subscriptions are checked before any is closed, so nothing is
+     * closed if one of them is unknown or not accepted. If the repository fails while they are closed, the
+     * subscriptions closed before the failure stay closed.
+     */
+    List<SubscriptionEntity> close(String api, Collection<String> subscriptions);
+
+    /**
+     * Renew the API keys of accepted subscriptions of an API, for a mass rotation of the keys for instance.
+     * Duplicated subscriptions are renewed once. All the subscriptions are checked before any key is renewed.
+     */
+    List<ApiKeyEntity> renewApiKeys(String api, Collection<String> subscriptions);
+
     void delete(String subscription);
 
     Collection<SubscriptionEntity> search(SubscriptionQuery query);
@@ -15,6 +15,9 @@
  */
 package io.gravitee.management.service;
 
+import java.util.Collection;
+import java.util.Collections;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -24,4 +27,35 @@ public interface Upgrader {
     boolean upgrade();
 
     int getOrder();
+
+    /**
+     * Upgraders which must be completed before running this one, in addition to the ones of a lower order when the
+     * upgrader is ordered. Upgraders which do not depend on each other are run concurrently.
+     */
+    default Collection<Class<? extends Upgrader>> getDependencies() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Whether the upgrader waits for the ordered upgraders of a lower {@link #getOrder() order}. An upgrader which is
+     * not ordered only waits for its {@link #getDependencies() dependencies}, and ordered upgraders do not wait for it.
+     */
+    default boolean isOrdered() {
+        return true;
+    }
+
+    /**
+     * Fingerprint of what the upgrader installs. The upgrader is skipped when the fingerprint is the one recorded
+     * by its last successful run. A <code>null</code> fingerprint means the upgrader is run at each startup.
+     */
+    default String getFingerprint() {
+        return null;
+    }
+
+    /**
+     * Whether the upgrader can be run in background, once the node has been started.
+     */
+    default boolean isBackground() {
+        return false;
+    }
 }
@@ -28,6 +28,7 @@ public interface JWTHelper {
         String EMAIL = "email";
         String FIRSTNAME = "firstname";
         String LASTNAME = "lastname";
+        String EXPIRATION = "exp";
     }
 
     interface DefaultValues {
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.event;
+
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.management.model.metrics.LatencyMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * {@link EventListener} decorator dispatching the events to the delegate listener asynchronously, so that the
+ * publisher is not held by the listener processing.
+ *
+ * Events are spread over a fixed number of lanes according to their key: events sharing the same key are always
+ * handled by the same lane, in the order they have been published. Each lane is bounded; when it is full, the
+ * publisher waits for a free slot instead of dropping the event.
+ *
+ * @author GraviteeSource Team
+ */
+public class AsyncEventListener<T extends Enum, S> implements EventListener<T, S> {
+
+    private final Logger logger = LoggerFactory.getLogger(AsyncEventListener.class);
+
+    private final static int METRICS_LOG_INTERVAL = 100;
+
+    private final String name;
+    private final EventListener<T, S> delegate;
+    private final Function<? super S, ?> keyMapper;
+    private final ThreadPoolExecutor[] lanes;
+    private final LatencyMetrics metrics;
+    private final LatencyMetrics waits;
+
+    public AsyncEventListener(String name, EventListener<T, S> delegate, Function<? super S, ?> keyMapper,
+                              int lanes, int capacity) {
+        this.name = name;
+        this.delegate = delegate;
+        this.keyMapper = keyMapper;
+        this.metrics = new LatencyMetrics(name + " events");
+        this.waits = new LatencyMetrics(name + " events queue wait");
+        this.lanes = new ThreadPoolExecutor[Math.max(1, lanes)];
+        for (int i = 0; i < this.lanes.length; i++) {
+            final String threadName = name + "-events-" + i;
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, capacity)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    this::waitForCapacity);
+        }
+    }
+
+    @Override
+    public void onEvent(Event<T, S> event) {
+        final Object key = event.content() == null ? null : keyMapper.apply(event.content());
+        final ThreadPoolExecutor lane = lanes[key == null ? 0 : Math.abs(key.hashCode() % lanes.length)];
+        final long publishedAt = System.nanoTime();
+
+        lane.execute(() -> {
+            final long start = System.nanoTime();
+            try {
+                delegate.onEvent(event);
+            } catch (Exception ex) {
+                metrics.increment("failed");
+                logger.error("{} failed to handle event {}", name, event.type(), ex);
+            } finally {
+                waits.record(start - publishedAt);
+                metrics.record(System.nanoTime() - start);
+                if (metrics.calls() >= METRICS_LOG_INTERVAL) {
+                    logMetrics();
+                }
+            }
+        });
+        metrics.max("max queue depth", lane.getQueue().size());
+    }
+
+    public void close() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        logMetrics();
+    }
+
+    private void logMetrics() {
+        metrics.log(logger);
+        waits.log(logger);
+    }
+
+    private void waitForCapacity(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            logger.warn("{} is stopped, event discarded", name);
+            return;
+        }
+
+        metrics.increment("blocked publications");
+        try {
+            lane.getQueue().put(task);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException(name + " interrupted while waiting for capacity", ie);
+        }
+    }
+}
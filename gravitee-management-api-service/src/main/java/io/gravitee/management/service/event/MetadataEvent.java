@@ -13,22 +13,22 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package io.gravitee.management.service.impl;
-
-import io.gravitee.management.service.ApiKeyGenerator;
-import org.springframework.stereotype.Component;
-
-import java.util.UUID;
+package io.gravitee.management.service.event;
 
 /**
- * @author David BRASSELY (david.brassely at graviteesource.com)
+ * Published when metadata are created, updated or deleted.
+ *
  * @author GraviteeSource Team
  */
-@Component
-public class UUIDApiKeyGenerator implements ApiKeyGenerator {
+public enum MetadataEvent {
+
+    /**
+     * Metadata of a single API has changed, the event content is the API ID.
+     */
+    API_METADATA_UPDATED,
 
-    @Override
-    public String generate() {
-        return UUID.randomUUID().toString();
-    }
+    /**
+     * A default metadata has changed, the event content is the metadata key.
+     */
+    DEFAULT_METADATA_UPDATED;
 }
@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.collect.Iterables;
 import io.gravitee.management.model.*;
 import io.gravitee.management.service.*;
 import io.gravitee.management.service.exceptions.ApiKeyNotFoundException;
@@ -33,6 +34,7 @@ import org.springframework.stereotype.Component;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.management.model.ApiKey.AuditEvent.*;
@@ -50,6 +52,13 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
      */
     private final Logger LOGGER = LoggerFactory.getLogger(ApiKeyServiceImpl.class);
 
+    /**
+     * Number of API keys handled together by the bulk operations. The API key repository has no batch write, so the
+     * keys of a chunk are still written one by one, but their notifications are sent at once, grouped by API, when
+     * the chunk is done.
+     */
+    private static final int BULK_CHUNK_SIZE = 100;
+
     @Autowired
     private ApiKeyRepository apiKeyRepository;
 
@@ -79,6 +88,19 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
     @Override
     public ApiKeyEntity generate(String subscription) {
+        return generate(subscription, new Lookups());
+    }
+
+    @Override
+    public List<ApiKeyEntity> generate(Collection<String> subscriptions) {
+        LOGGER.debug("Generate API Keys for {} subscriptions", subscriptions.size());
+        final Lookups lookups = new Lookups();
+        final List<ApiKeyEntity> apiKeys = new ArrayList<>(subscriptions.size());
+        inChunks(subscriptions, (subscription, notifications) -> apiKeys.add(generate(subscription, lookups)));
+        return apiKeys;
+    }
+
+    private ApiKeyEntity generate(String subscription, Lookups lookups) {
         try {
             LOGGER.debug("Generate an API Key for subscription {}", subscription);
 
@@ -88,7 +110,7 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
             //TODO: Send a notification to the application owner
 
             // Audit
-            final PlanEntity plan = planService.findById(apiKey.getPlan());
+            final PlanEntity plan = lookups.plan(apiKey.getPlan());
             auditService.createApiAuditLog(
                     plan.getApis().iterator().next(),
                     Collections.singletonMap(API_KEY, apiKey.getKey()),
@@ -106,6 +128,23 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
     @Override
     public ApiKeyEntity renew(String subscription) {
+        final PendingNotifications notifications = new PendingNotifications(notifierService);
+        final ApiKeyEntity apiKey = renew(subscription, new Lookups(), notifications);
+        notifications.trigger();
+        return apiKey;
+    }
+
+    @Override
+    public List<ApiKeyEntity> renew(Collection<String> subscriptions) {
+        LOGGER.debug("Renew API Keys for {} subscriptions", subscriptions.size());
+        final Lookups lookups = new Lookups();
+        final List<ApiKeyEntity> apiKeys = new ArrayList<>(subscriptions.size());
+        inChunks(subscriptions, (subscription, notifications) ->
+                apiKeys.add(renew(subscription, lookups, notifications)));
+        return apiKeys;
+    }
+
+    private ApiKeyEntity renew(String subscription, Lookups lookups, PendingNotifications notifications) {
         try {
             LOGGER.debug("Renew API Key for subscription {}", subscription);
 
@@ -120,12 +159,12 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
             Set<ApiKey> oldKeys = apiKeyRepository.findBySubscription(subscription);
             for (ApiKey oldKey : oldKeys) {
                 if (! oldKey.equals(newApiKey)) {
-                    setExpiration(expirationDate, oldKey);
+                    setExpiration(expirationDate, oldKey, lookups, notifications);
                 }
             }
 
             // Audit
-            final PlanEntity plan = planService.findById(newApiKey.getPlan());
+            final PlanEntity plan = lookups.plan(newApiKey.getPlan());
             auditService.createApiAuditLog(
                     plan.getApis().iterator().next(),
                     Collections.singletonMap(API_KEY, newApiKey.getKey()),
@@ -135,8 +174,8 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
                     newApiKey);
 
             // Notification
-            final ApplicationEntity application = applicationService.findById(newApiKey.getApplication());
-            final ApiModelEntity api = apiService.findByIdForTemplates(plan.getApis().iterator().next());
+            final ApplicationEntity application = lookups.application(newApiKey.getApplication());
+            final ApiModelEntity api = lookups.api(plan.getApis().iterator().next());
             final PrimaryOwnerEntity owner = application.getPrimaryOwner();
             final Map<String, Object> params = new NotificationParamsBuilder()
                     .application(application)
@@ -145,7 +184,7 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
                     .owner(owner)
                     .apikey(newApiKey)
                     .build();
-            notifierService.trigger(ApiHook.APIKEY_RENEWED, plan.getApis().iterator().next(), params);
+            notifications.add(ApiHook.APIKEY_RENEWED, plan.getApis().iterator().next(), params);
 
             return convert(newApiKey);
         } catch (TechnicalException ex) {
@@ -185,6 +224,19 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
     @Override
     public void revoke(String apiKey, boolean notify) {
+        final PendingNotifications notifications = new PendingNotifications(notifierService);
+        revoke(apiKey, notify, new Lookups(), notifications);
+        notifications.trigger();
+    }
+
+    @Override
+    public void revoke(Collection<String> apiKeys, boolean notify) {
+        LOGGER.debug("Revoke {} API Keys", apiKeys.size());
+        final Lookups lookups = new Lookups();
+        inChunks(apiKeys, (apiKey, notifications) -> revoke(apiKey, notify, lookups, notifications));
+    }
+
+    private void revoke(String apiKey, boolean notify, Lookups lookups, PendingNotifications notifications) {
         try {
             LOGGER.debug("Revoke API Key {}", apiKey);
             Optional<ApiKey> optKey = apiKeyRepository.findById(apiKey);
@@ -201,7 +253,7 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
                 apiKeyRepository.update(key);
 
-                final PlanEntity plan = planService.findById(key.getPlan());
+                final PlanEntity plan = lookups.plan(key.getPlan());
                 // Audit
                 auditService.createApiAuditLog(
                         plan.getApis().iterator().next(),
@@ -213,8 +265,8 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
                 // notify
                 if (notify) {
-                    final ApplicationEntity application = applicationService.findById(key.getApplication());
-                    final ApiModelEntity api = apiService.findByIdForTemplates(plan.getApis().iterator().next());
+                    final ApplicationEntity application = lookups.application(key.getApplication());
+                    final ApiModelEntity api = lookups.api(plan.getApis().iterator().next());
                     final PrimaryOwnerEntity owner = application.getPrimaryOwner();
                     final Map<String, Object> params = new NotificationParamsBuilder()
                             .application(application)
@@ -223,7 +275,7 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
                             .owner(owner)
                             .apikey(key)
                             .build();
-                    notifierService.trigger(ApiHook.APIKEY_REVOKED, api.getId(), params);
+                    notifications.add(ApiHook.APIKEY_REVOKED, api.getId(), params);
                 }
             } else {
                 LOGGER.info("API Key {} already revoked. Skipping...", apiKey);
@@ -279,7 +331,9 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
             ApiKey key = optKey.get();
 
-            setExpiration(apiKeyEntity.getExpireAt(), key);
+            final PendingNotifications notifications = new PendingNotifications(notifierService);
+            setExpiration(apiKeyEntity.getExpireAt(), key, new Lookups(), notifications);
+            notifications.trigger();
 
             return convert(key);
         } catch (TechnicalException ex) {
@@ -311,7 +365,8 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
         */
     }
 
-    private void setExpiration(Date expirationDate, ApiKey key) throws TechnicalException {
+    private void setExpiration(Date expirationDate, ApiKey key, Lookups lookups, PendingNotifications notifications)
+            throws TechnicalException {
         ApiKey oldkey = new ApiKey(key);
         if (!key.isRevoked() && key.getExpireAt() == null) {
             key.setUpdatedAt(new Date());
@@ -319,9 +374,9 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
             apiKeyRepository.update(key);
 
             //notify
-            final ApplicationEntity application = applicationService.findById(key.getApplication());
-            final PlanEntity plan = planService.findById(key.getPlan());
-            final ApiModelEntity api = apiService.findByIdForTemplates(plan.getApis().iterator().next());
+            final ApplicationEntity application = lookups.application(key.getApplication());
+            final PlanEntity plan = lookups.plan(key.getPlan());
+            final ApiModelEntity api = lookups.api(plan.getApis().iterator().next());
             final PrimaryOwnerEntity owner = application.getPrimaryOwner();
 
             NotificationParamsBuilder paramsBuilder = new NotificationParamsBuilder();
@@ -337,7 +392,7 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
             final Map<String, Object> params = paramsBuilder.build();
 
-            notifierService.trigger(ApiHook.APIKEY_EXPIRED, api.getId(), params);
+            notifications.add(ApiHook.APIKEY_EXPIRED, api.getId(), params);
 
             // Audit
             auditService.createApiAuditLog(
@@ -350,6 +405,21 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
         }
     }
 
+    /**
+     * Handle the given items chunk by chunk, see {@link #BULK_CHUNK_SIZE}. The notifications of a chunk are sent
+     * once it is done, or once it has failed for the items handled before the failure.
+     */
+    private <T> void inChunks(Collection<T> items, BiConsumer<T, PendingNotifications> action) {
+        for (List<T> chunk : Iterables.partition(items, BULK_CHUNK_SIZE)) {
+            final PendingNotifications notifications = new PendingNotifications(notifierService);
+            try {
+                chunk.forEach(item -> action.accept(item, notifications));
+            } finally {
+                notifications.trigger();
+            }
+        }
+    }
+
     private static ApiKeyEntity convert(ApiKey apiKey) {
         ApiKeyEntity apiKeyEntity = new ApiKeyEntity();
 
@@ -365,4 +435,27 @@ public class ApiKeyServiceImpl extends TransactionalService implements ApiKeySer
 
         return apiKeyEntity;
     }
+
+    /**
+     * Plans, applications and APIs resolved while handling several API keys, so that keys sharing them do not look
+     * them up again.
+     */
+    private final class Lookups {
+
+        private final Map<String, PlanEntity> plans = new HashMap<>();
+        private final Map<String, ApplicationEntity> applications = new HashMap<>();
+        private final Map<String, ApiModelEntity> apis = new HashMap<>();
+
+        PlanEntity plan(String plan) {
+            return plans.computeIfAbsent(plan, planService::findById);
+        }
+
+        ApplicationEntity application(String application) {
+            return applications.computeIfAbsent(application, applicationService::findById);
+        }
+
+        ApiModelEntity api(String api) {
+            return apis.computeIfAbsent(api, apiService::findByIdForTemplates);
+        }
+    }
 }
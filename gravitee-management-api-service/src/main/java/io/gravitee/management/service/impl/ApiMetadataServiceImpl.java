@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service.impl;
 
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.utils.IdGenerator;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
@@ -22,6 +23,7 @@ import io.gravitee.management.service.ApiMetadataService;
 import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.MetadataService;
+import io.gravitee.management.service.event.MetadataEvent;
 import io.gravitee.management.service.exceptions.ApiMetadataNotFoundException;
 import io.gravitee.management.service.exceptions.DuplicateMetadataNameException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
@@ -63,6 +65,9 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public List<ApiMetadataEntity> findAllByApi(final String apiId) {
         try {
@@ -127,6 +132,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
         final ApiMetadataEntity apiMetadata = findByIdAndApi(metadataId, apiId);
         try {
             metadataRepository.delete(metadataId, apiMetadata.getApiId(), MetadataReferenceType.API);
+            eventManager.publishEvent(MetadataEvent.API_METADATA_UPDATED, apiId);
             // Audit
             auditService.createApiAuditLog(
                     apiId,
@@ -167,6 +173,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
             metadata.setCreatedAt(now);
             metadata.setUpdatedAt(now);
             metadataRepository.create(metadata);
+            eventManager.publishEvent(MetadataEvent.API_METADATA_UPDATED, apiEntity.getId());
             // Audit
             auditService.createApiAuditLog(
                     apiEntity.getId(),
@@ -230,6 +237,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
                         null,
                         metadata);
             }
+            eventManager.publishEvent(MetadataEvent.API_METADATA_UPDATED, apiEntity.getId());
             final ApiMetadataEntity apiMetadataEntity = convert(savedMetadata, null);
             optDefaultMetadata.ifPresent(defaultMetadata -> apiMetadataEntity.setDefaultValue(defaultMetadata.getValue()));
 
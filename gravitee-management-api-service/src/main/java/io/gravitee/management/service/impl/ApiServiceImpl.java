@@ -19,10 +19,17 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.definition.model.EndpointGroup;
 import io.gravitee.definition.model.Path;
@@ -30,6 +37,7 @@ import io.gravitee.definition.model.Proxy;
 import io.gravitee.definition.model.endpoint.HttpEndpoint;
 import io.gravitee.management.idp.api.identity.SearchableUser;
 import io.gravitee.management.model.*;
+import io.gravitee.management.model.common.Pageable;
 import io.gravitee.management.model.EventType;
 import io.gravitee.management.model.PageType;
 import io.gravitee.management.model.api.ApiEntity;
@@ -42,6 +50,9 @@ import io.gravitee.management.model.notification.GenericNotificationConfigEntity
 import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.model.plan.PlanQuery;
 import io.gravitee.management.service.*;
+import io.gravitee.management.service.event.ApiModelEvent;
+import io.gravitee.management.service.event.MembershipEvent;
+import io.gravitee.management.service.event.MetadataEvent;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.impl.search.SearchResult;
 import io.gravitee.management.service.jackson.ser.api.ApiSerializer;
@@ -67,10 +78,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 
-import javax.xml.bind.DatatypeConverter;
+import javax.annotation.PostConstruct;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -92,10 +108,21 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
  * @author GraviteeSource Team
  */
 @Component
-public class ApiServiceImpl extends TransactionalService implements ApiService {
+public class ApiServiceImpl extends TransactionalService implements ApiService, EventListener<MetadataEvent, String> {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(ApiServiceImpl.class);
 
+    private final static long PICTURE_CACHE_MAX_WEIGHT = 32 * 1024 * 1024;
+    private final static String PICTURE_PREFIX = "data:image/";
+    private final static String PICTURE_ENCODING = ";base64";
+    private final static long TEMPLATE_MODEL_CACHE_MAX_SIZE = 1_000;
+    private final static long TEMPLATE_MODEL_CACHE_TTL_SECONDS = 60;
+    private final static long USER_API_IDS_CACHE_MAX_SIZE = 10_000;
+    private final static long USER_API_IDS_CACHE_TTL_SECONDS = 30;
+    private final static String PUBLIC_API_IDS = "public";
+    private final static ApiFieldExclusionFilter LIGHT_API_FILTER =
+            new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build();
+
     @Autowired
     private ApiRepository apiRepository;
     @Autowired
@@ -140,6 +167,91 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
     private ApiHeaderService apiHeaderService;
     @Autowired
     private Configuration freemarkerConfiguration;
+    @Autowired
+    private EventManager eventManager;
+
+    /**
+     * Decoded API pictures, keyed by API ID and validated against the API update date.
+     */
+    private final Cache<String, CachedPicture> pictures = CacheBuilder.newBuilder()
+            .maximumWeight(PICTURE_CACHE_MAX_WEIGHT)
+            .weigher((String apiId, CachedPicture cachedPicture) -> cachedPicture.picture.getContent().length)
+            .build();
+
+    private volatile InlinePictureEntity defaultPicture;
+
+    /**
+     * Template models, keyed by API ID and stamped with the versions they have been built from. Local changes bump
+     * the versions so that a model built concurrently with a change is never served, the TTL bounds the staleness
+     * for changes made on other nodes.
+     */
+    private final Cache<String, TemplateModel> templateModels = CacheBuilder.newBuilder()
+            .maximumSize(TEMPLATE_MODEL_CACHE_MAX_SIZE)
+            .expireAfterWrite(TEMPLATE_MODEL_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * The IDs of the APIs a user can see are the public APIs, the APIs the user is member of and the APIs of the groups
+     * the user is member of. Each part is cached on its own so that a change only evicts the part it affects: the
+     * memberships of a user, the APIs of a group or the public APIs. Local changes evict them, the TTL bounds the
+     * staleness for changes made on other nodes.
+     */
+    private final Cache<String, UserMemberships> userMemberships = CacheBuilder.newBuilder()
+            .maximumSize(USER_API_IDS_CACHE_MAX_SIZE)
+            .expireAfterWrite(USER_API_IDS_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    private final Cache<String, Set<String>> groupApiIds = CacheBuilder.newBuilder()
+            .maximumSize(USER_API_IDS_CACHE_MAX_SIZE)
+            .expireAfterWrite(USER_API_IDS_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    private final Cache<String, Set<String>> publicApiIds = CacheBuilder.newBuilder()
+            .expireAfterWrite(USER_API_IDS_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    private final ConcurrentMap<String, AtomicLong> templateModelVersions = new ConcurrentHashMap<>();
+    private final AtomicLong templateModelsVersion = new AtomicLong();
+
+    private final ContextPathIndex contextPaths = new ContextPathIndex();
+
+    @PostConstruct
+    public void init() {
+        eventManager.subscribeForEvents(this, MetadataEvent.class);
+        eventManager.subscribeForEvents((EventListener<MembershipEvent, String>) this::onMembershipEvent, MembershipEvent.class);
+    }
+
+    @Override
+    public void onEvent(io.gravitee.common.event.Event<MetadataEvent, String> event) {
+        switch (event.type()) {
+            case API_METADATA_UPDATED:
+                templateModelVersion(event.content()).incrementAndGet();
+                templateModels.invalidate(event.content());
+                break;
+            case DEFAULT_METADATA_UPDATED:
+                templateModelsVersion.incrementAndGet();
+                templateModels.invalidateAll();
+                break;
+        }
+    }
+
+    private void invalidateTemplateModel(String apiId) {
+        templateModelVersion(apiId).incrementAndGet();
+        templateModels.invalidate(apiId);
+        eventManager.publishEvent(ApiModelEvent.UPDATED, apiId);
+    }
+
+    private void onMembershipEvent(io.gravitee.common.event.Event<MembershipEvent, String> event) {
+        switch (event.type()) {
+            case USER_MEMBERSHIPS_UPDATED:
+                userMemberships.invalidate(event.content());
+                break;
+            case MEMBERSHIPS_UPDATED:
+                // the reference is a group whose APIs have changed, its members are kept
+                groupApiIds.invalidate(event.content());
+                break;
+        }
+    }
 
     @Override
     public ApiEntity create(NewApiEntity newApiEntity, String userId) throws ApiAlreadyExistsException {
@@ -225,7 +337,19 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                     repoApi.getGroups().addAll(defaultGroups);
                 }
 
-                Api createdApi = apiRepository.create(repoApi);
+                // Reject an invalid picture before anything is written
+                final InlinePictureEntity picture = repoApi.getPicture() == null ? null : decodePicture(repoApi.getPicture());
+
+                reserveContextPath(api.getProxy().getContextPath(), id);
+                final Api createdApi;
+                try {
+                    createdApi = apiRepository.create(repoApi);
+                } catch (TechnicalException | RuntimeException ex) {
+                    contextPaths.remove(id);
+                    throw ex;
+                }
+                contextPaths.confirm(id);
+                cachePicture(createdApi, picture);
                 // Audit
                 auditService.createApiAuditLog(
                         createdApi.getId(),
@@ -242,6 +366,8 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                 membership.setCreatedAt(repoApi.getCreatedAt());
                 membership.setUpdatedAt(repoApi.getCreatedAt());
                 membershipRepository.create(membership);
+                userMemberships.invalidate(primaryOwner.getId());
+                invalidateApiIds(null, createdApi);
                 // create the default mail notification
                 if (primaryOwner.getEmail() != null && !primaryOwner.getEmail().isEmpty()) {
                     GenericNotificationConfigEntity notificationConfigEntity = new GenericNotificationConfigEntity();
@@ -273,30 +399,64 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
     }
 
     private void checkContextPath(String newContextPath, final String apiId) throws TechnicalException {
-        if (newContextPath.charAt(0) != '/') {
-            newContextPath = '/' + newContextPath;
+        final String newSubContextPath = toSubContextPath(newContextPath);
+        if (currentContextPaths().findConflict(newSubContextPath, apiId) != null) {
+            throw new ApiContextPathAlreadyExistsException(newSubContextPath);
         }
-        if (newContextPath.charAt(newContextPath.length() - 1) == '/') {
-            newContextPath = newContextPath.substring(0, newContextPath.length() - 1);
+    }
+
+    private void reserveContextPath(String newContextPath, final String apiId) throws TechnicalException {
+        final String newSubContextPath = toSubContextPath(newContextPath);
+        if (currentContextPaths().reserve(apiId, newSubContextPath) != null) {
+            throw new ApiContextPathAlreadyExistsException(newSubContextPath);
         }
+    }
 
-        final int indexOfEndOfNewSubContextPath = newContextPath.lastIndexOf('/', 1);
-        final String newSubContextPath = newContextPath.substring(0, indexOfEndOfNewSubContextPath <= 0 ?
-                newContextPath.length() : indexOfEndOfNewSubContextPath) + '/';
+    private ContextPathIndex currentContextPaths() {
+        if (!contextPaths.isLoaded()) {
+            loadContextPaths();
+        }
+        return contextPaths;
+    }
+
+    @Override
+    public void loadContextPaths() {
+        LOGGER.debug("Load the context paths of all APIs");
+        contextPaths.beginLoad();
+        boolean loaded = false;
+        try {
+            final Map<String, String> paths = new HashMap<>();
+            for (Api api : apiRepository.search(null)) {
+                final String subContextPath = subContextPathOf(api);
+                if (subContextPath != null) {
+                    paths.put(api.getId(), subContextPath);
+                }
+            }
+            contextPaths.load(paths);
+            loaded = true;
+        } finally {
+            if (!loaded) {
+                contextPaths.cancelLoad();
+            }
+        }
+    }
 
-        final boolean contextPathExists = apiRepository.search(null).stream()
-                .filter(api -> !api.getId().equals(apiId))
-                .anyMatch(api -> {
-                    final String contextPath = convert(api, null).getProxy().getContextPath();
-                    final int indexOfEndOfSubContextPath = contextPath.lastIndexOf('/', 1);
-                    final String subContextPath = contextPath.substring(0, indexOfEndOfSubContextPath <= 0 ?
-                            contextPath.length() : indexOfEndOfSubContextPath) + '/';
+    private String subContextPathOf(Api api) {
+        final Proxy proxy = convert(api, null).getProxy();
+        return proxy == null || proxy.getContextPath() == null ? null : toSubContextPath(proxy.getContextPath());
+    }
 
-                    return subContextPath.startsWith(newSubContextPath) || newSubContextPath.startsWith(subContextPath);
-                });
-        if (contextPathExists) {
-            throw new ApiContextPathAlreadyExistsException(newSubContextPath);
+    private String toSubContextPath(String contextPath) {
+        if (contextPath.charAt(0) != '/') {
+            contextPath = '/' + contextPath;
         }
+        if (contextPath.charAt(contextPath.length() - 1) == '/') {
+            contextPath = contextPath.substring(0, contextPath.length() - 1);
+        }
+
+        final int indexOfEndOfSubContextPath = contextPath.lastIndexOf('/', 1);
+        return contextPath.substring(0, indexOfEndOfSubContextPath <= 0 ?
+                contextPath.length() : indexOfEndOfSubContextPath) + '/';
     }
 
     @Override
@@ -329,6 +489,25 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         }
     }
 
+    @Override
+    public ApiEntity findByIdLight(String apiId) {
+        return convert(findLightById(apiId));
+    }
+
+    private Api findLightById(String apiId) {
+        try {
+            LOGGER.debug("Find API by ID without some fields (definition, picture...): {}", apiId);
+            return apiRepository.search(new ApiCriteria.Builder().ids(apiId).build(),
+                    new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                    .stream()
+                    .findFirst()
+                    .orElseThrow(() -> new ApiNotFoundException(apiId));
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find an API using its ID: {}", apiId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find an API using its ID: " + apiId, ex);
+        }
+    }
+
     @Override
     public Set<ApiEntity> findByVisibility(io.gravitee.management.model.Visibility visibility) {
         try {
@@ -368,42 +547,120 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
         try {
             LOGGER.debug("Find APIs by user {}", userId);
 
-            //get all public apis
-            List<Api> publicApis = apiRepository.search(queryToCriteria(apiQuery).visibility(PUBLIC).build());
+            final Set<String> apiIds = findIdsByUser(userId);
+            if (apiIds.isEmpty()) {
+                return emptySet();
+            }
 
-            // get user apis
-            List<Api> userApis = emptyList();
-            final String[] userApiIds = membershipRepository
-                    .findByUserAndReferenceType(userId, MembershipReferenceType.API).stream()
-                    .map(Membership::getReferenceId)
-                    .toArray(String[]::new);
-            if (userApiIds.length > 0) {
-                userApis = apiRepository.search(queryToCriteria(apiQuery).ids(userApiIds).build());
+            // only hydrate the visible APIs matching the query
+            return convert(apiRepository.search(queryToCriteria(apiQuery).ids(apiIds.toArray(new String[0])).build()));
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find APIs for user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find APIs for user " + userId, ex);
+        }
+    }
+
+    @Override
+    public io.gravitee.common.data.domain.Page<ApiEntity> findByUser(String userId, ApiQuery apiQuery, Pageable pageable) {
+        try {
+            LOGGER.debug("Find page {} of APIs by user {}", pageable.getPageNumber(), userId);
+
+            final Set<String> apiIds = findIdsByUser(userId);
+            if (apiIds.isEmpty()) {
+                return new io.gravitee.common.data.domain.Page<>(emptyList(), pageable.getPageNumber(), 0, 0);
             }
 
-            // get user groups apis
-            List<Api> groupApis = emptyList();
-            final String[] groupIds = membershipRepository
-                    .findByUserAndReferenceType(userId, MembershipReferenceType.GROUP).stream()
-                    .filter(m -> m.getRoles().keySet().contains(RoleScope.API.getId()))
-                    .map(Membership::getReferenceId)
+            // sort the visible APIs matching the query without their definition, then only hydrate the requested page
+            final List<Api> lightApis = apiRepository.search(
+                    queryToCriteria(apiQuery).ids(apiIds.toArray(new String[0])).build(), LIGHT_API_FILTER);
+            final String[] pageIds = lightApis.stream()
+                    .sorted(comparing(Api::getName, String.CASE_INSENSITIVE_ORDER))
+                    .skip((long) (pageable.getPageNumber() - 1) * pageable.getPageSize())
+                    .limit(pageable.getPageSize())
+                    .map(Api::getId)
                     .toArray(String[]::new);
-            if (groupIds.length > 0 && groupIds[0] != null) {
-                groupApis = apiRepository.search(queryToCriteria(apiQuery).groups(groupIds).build());
+            if (pageIds.length == 0) {
+                return new io.gravitee.common.data.domain.Page<>(emptyList(), pageable.getPageNumber(), 0, lightApis.size());
             }
 
-            // merge all apis
-            final Set<ApiEntity> apis = new HashSet<>(publicApis.size() + userApis.size() + groupApis.size());
-            apis.addAll(convert(publicApis));
-            apis.addAll(convert(userApis));
-            apis.addAll(convert(groupApis));
-            return apis;
+            final List<ApiEntity> apis = convert(apiRepository.search(new ApiCriteria.Builder().ids(pageIds).build()))
+                    .stream()
+                    .sorted(comparing(ApiEntity::getName, String.CASE_INSENSITIVE_ORDER))
+                    .collect(toList());
+            return new io.gravitee.common.data.domain.Page<>(apis, pageable.getPageNumber(), apis.size(), lightApis.size());
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to find APIs for user {}", userId, ex);
             throw new TechnicalManagementException("An error occurs while trying to find APIs for user " + userId, ex);
         }
     }
 
+    @Override
+    public Set<String> findIdsByUser(String userId) {
+        try {
+            final Set<String> apiIds = new HashSet<>(publicApiIds.get(PUBLIC_API_IDS, this::loadPublicApiIds));
+            final UserMemberships memberships = userMemberships.get(userId, () -> loadUserMemberships(userId));
+            apiIds.addAll(memberships.apis);
+            for (String group : memberships.groups) {
+                apiIds.addAll(groupApiIds.get(group, () -> loadGroupApiIds(group)));
+            }
+            return unmodifiableSet(apiIds);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            Throwables.throwIfUnchecked(ex.getCause());
+            LOGGER.error("An error occurs while trying to find API IDs for user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find API IDs for user " + userId, ex);
+        }
+    }
+
+    private Set<String> loadPublicApiIds() {
+        LOGGER.debug("Load public API IDs");
+        return unmodifiableSet(apiRepository.search(new ApiCriteria.Builder().visibility(PUBLIC).build(), LIGHT_API_FILTER)
+                .stream()
+                .map(Api::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    private UserMemberships loadUserMemberships(String userId) throws TechnicalException {
+        LOGGER.debug("Load API and group memberships of user {}", userId);
+        final Set<String> apis = membershipRepository.findByUserAndReferenceType(userId, MembershipReferenceType.API)
+                .stream()
+                .map(Membership::getReferenceId)
+                .collect(Collectors.toSet());
+        final Set<String> groups = membershipRepository.findByUserAndReferenceType(userId, MembershipReferenceType.GROUP)
+                .stream()
+                .filter(m -> m.getRoles().keySet().contains(RoleScope.API.getId()))
+                .map(Membership::getReferenceId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return new UserMemberships(apis, groups);
+    }
+
+    private Set<String> loadGroupApiIds(String group) {
+        LOGGER.debug("Load API IDs of group {}", group);
+        return unmodifiableSet(apiRepository.search(new ApiCriteria.Builder().groups(group).build(), LIGHT_API_FILTER)
+                .stream()
+                .map(Api::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Evict the cached API IDs affected by the creation, update or deletion of an API: the public APIs if the API is or
+     * was public, and the APIs of the groups it has been added to or removed from.
+     */
+    private void invalidateApiIds(Api previous, Api current) {
+        final Visibility previousVisibility = previous == null ? null : previous.getVisibility();
+        final Visibility currentVisibility = current == null ? null : current.getVisibility();
+        if (previousVisibility != currentVisibility && (previousVisibility == PUBLIC || currentVisibility == PUBLIC)) {
+            publicApiIds.invalidateAll();
+        }
+
+        final Set<String> previousGroups = previous == null || previous.getGroups() == null ?
+                emptySet() : previous.getGroups();
+        final Set<String> currentGroups = current == null || current.getGroups() == null ?
+                emptySet() : current.getGroups();
+        previousGroups.stream().filter(group -> !currentGroups.contains(group)).forEach(groupApiIds::invalidate);
+        currentGroups.stream().filter(group -> !previousGroups.contains(group)).forEach(groupApiIds::invalidate);
+    }
+
     @Override
     public ApiEntity update(String apiId, UpdateApiEntity updateApiEntity) {
         try {
@@ -450,7 +707,21 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                     api.setViews(apiToUpdate.getViews());
                 }
 
-                Api updatedApi = apiRepository.update(api);
+                // Reject an invalid picture before anything is written
+                final InlinePictureEntity picture = api.getPicture() == null ? null : decodePicture(api.getPicture());
+
+                reserveContextPath(updateApiEntity.getProxy().getContextPath(), apiId);
+                final Api updatedApi;
+                try {
+                    updatedApi = apiRepository.update(api);
+                } catch (TechnicalException | RuntimeException ex) {
+                    contextPaths.restore(apiId, subContextPathOf(apiToUpdate));
+                    throw ex;
+                }
+                contextPaths.confirm(apiId);
+                invalidateTemplateModel(apiId);
+                cachePicture(updatedApi, picture);
+                invalidateApiIds(apiToUpdate, updatedApi);
 
                 // Audit
                 auditService.createApiAuditLog(
@@ -514,6 +785,11 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
 
                 // Delete API
                 apiRepository.delete(apiId);
+                pictures.invalidate(apiId);
+                invalidateTemplateModel(apiId);
+                // the members of the API keep its ID until their memberships expire, it is not found anymore
+                invalidateApiIds(optApi.get(), null);
+                contextPaths.remove(apiId);
                 // Delete top API
                 topApiService.delete(apiId);
                 // Audit
@@ -669,6 +945,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             apiValue.setUpdatedAt(new Date());
             apiValue.setDeployedAt(apiValue.getUpdatedAt());
             apiValue = apiRepository.update(apiValue);
+            invalidateTemplateModel(apiId);
 
             Map<String, String> properties = new HashMap<>();
             properties.put(Event.EventProperties.API_ID.getValue(), apiValue.getId());
@@ -893,29 +1170,113 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
 
     @Override
     public InlinePictureEntity getPicture(String apiId) {
-        ApiEntity apiEntity = findById(apiId);
-        InlinePictureEntity imageEntity = new InlinePictureEntity();
-        if (apiEntity.getPicture() == null) {
-            imageEntity.setType("image/png");
-            imageEntity.setContent(getDefaultPicture());
+        return getPicture(apiId, findLightById(apiId).getUpdatedAt());
+    }
+
+    @Override
+    public InlinePictureEntity getPicture(String apiId, Date updatedAt) {
+        final CachedPicture cachedPicture = pictures.getIfPresent(apiId);
+        if (cachedPicture != null && updatedAt != null && updatedAt.equals(cachedPicture.updatedAt)) {
+            return cachedPicture.picture;
+        }
+
+        try {
+            final Api api = apiRepository.findById(apiId).orElseThrow(() -> new ApiNotFoundException(apiId));
+            if (api.getPicture() == null) {
+                pictures.invalidate(apiId);
+                return getDefaultInlinePicture();
+            }
+            return cachePicture(api, decodePicture(api.getPicture()));
+        } catch (InvalidDataException ide) {
+            // written before pictures were validated
+            LOGGER.warn("The picture of API {} is invalid: {}", apiId, ide.getMessage());
+            pictures.invalidate(apiId);
+            return getDefaultInlinePicture();
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to get the picture of API {}", apiId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to get the picture of API " + apiId, ex);
+        }
+    }
+
+    @Override
+    public String getPictureHash(ApiEntity api) {
+        if (api.getPicture() == null) {
+            return null;
+        }
+        final CachedPicture cachedPicture = pictures.getIfPresent(api.getId());
+        if (cachedPicture != null && api.getUpdatedAt() != null && api.getUpdatedAt().equals(cachedPicture.updatedAt)) {
+            return cachedPicture.picture.getHash();
+        }
+        try {
+            final InlinePictureEntity picture = decodePicture(api.getPicture());
+            if (api.getUpdatedAt() != null) {
+                pictures.put(api.getId(), new CachedPicture(api.getUpdatedAt(), picture));
+            }
+            return picture.getHash();
+        } catch (InvalidDataException ide) {
+            LOGGER.warn("The picture of API {} is invalid: {}", api.getId(), ide.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Keep the decoded picture of a written or loaded API for the readers of this version of the API.
+     */
+    private InlinePictureEntity cachePicture(Api api, InlinePictureEntity picture) {
+        if (picture == null || api.getUpdatedAt() == null) {
+            // without update date, the picture can not be validated by readers
+            pictures.invalidate(api.getId());
         } else {
-            String[] parts = apiEntity.getPicture().split(";", 2);
-            imageEntity.setType(parts[0].split(":")[1]);
-            String base64Content = apiEntity.getPicture().split(",", 2)[1];
-            imageEntity.setContent(DatatypeConverter.parseBase64Binary(base64Content));
+            pictures.put(api.getId(), new CachedPicture(api.getUpdatedAt(), picture));
+        }
+        return picture;
+    }
+
+    /**
+     * Decode, validate and hash a picture given as a base64 data URI, such as <code>data:image/png;base64,...</code>.
+     */
+    private static InlinePictureEntity decodePicture(String picture) {
+        final int separator = picture.indexOf(',');
+        final String header = separator < 0 ? "" : picture.substring(0, separator);
+        if (!header.startsWith(PICTURE_PREFIX) || !header.endsWith(PICTURE_ENCODING)) {
+            throw new InvalidDataException("The picture must be a base64 encoded image data URI");
         }
 
+        final InlinePictureEntity imageEntity = new InlinePictureEntity();
+        imageEntity.setType(header.substring("data:".length(), header.length() - PICTURE_ENCODING.length()));
+        try {
+            imageEntity.setContent(Base64.getDecoder().decode(picture.substring(separator + 1)));
+        } catch (IllegalArgumentException iae) {
+            throw new InvalidDataException("The picture is not a valid base64 content", iae);
+        }
+        imageEntity.setHash(hash(imageEntity.getContent()));
         return imageEntity;
     }
 
     @Override
     public byte[] getDefaultPicture() {
-        try {
-            return IOUtils.toByteArray(new FileInputStream(defaultIcon));
-        } catch (IOException ioe) {
-            LOGGER.error("Default icon for API does not exist", ioe);
+        final InlinePictureEntity defaultInlinePicture = getDefaultInlinePicture();
+        return defaultInlinePicture == null ? null : defaultInlinePicture.getContent();
+    }
+
+    private InlinePictureEntity getDefaultInlinePicture() {
+        if (defaultPicture == null) {
+            try (FileInputStream defaultIconStream = new FileInputStream(defaultIcon)) {
+                final InlinePictureEntity imageEntity = new InlinePictureEntity();
+                imageEntity.setType("image/png");
+                imageEntity.setContent(IOUtils.toByteArray(defaultIconStream));
+                imageEntity.setHash(hash(imageEntity.getContent()));
+                defaultPicture = imageEntity;
+            } catch (IOException ioe) {
+                LOGGER.error("Default icon for API does not exist", ioe);
+                return null;
+            }
         }
-        return null;
+        return defaultPicture;
+    }
+
+    private static String hash(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
     }
 
     @Override
@@ -936,6 +1297,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
                 api.getViews().remove(viewId);
                 api.setUpdatedAt(new Date());
                 apiRepository.update(api);
+                invalidateTemplateModel(apiId);
                 // Audit
                 auditService.createApiAuditLog(
                         apiId,
@@ -964,8 +1326,54 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
 
     @Override
     public ApiModelEntity findByIdForTemplates(String apiId) {
-        final ApiEntity apiEntity = findById(apiId);
+        final TemplateModel cachedModel = templateModels.getIfPresent(apiId);
+        if (cachedModel != null && cachedModel.isCurrent()) {
+            return copyForTemplates(cachedModel.model);
+        }
+
+        final TemplateModel templateModel = new TemplateModel(apiId);
+        templateModel.model = convertForTemplates(findById(apiId));
+        templateModels.put(apiId, templateModel);
+        return copyForTemplates(templateModel.model);
+    }
+
+    @Override
+    public Map<String, ApiModelEntity> findByIdsForTemplates(Collection<String> apiIds) {
+        final Map<String, ApiModelEntity> models = new HashMap<>(apiIds.size());
+        final Map<String, TemplateModel> missingModels = new HashMap<>();
+        for (String apiId : apiIds) {
+            final TemplateModel cachedModel = templateModels.getIfPresent(apiId);
+            if (cachedModel != null && cachedModel.isCurrent()) {
+                models.put(apiId, copyForTemplates(cachedModel.model));
+            } else {
+                missingModels.put(apiId, new TemplateModel(apiId));
+            }
+        }
+
+        if (!missingModels.isEmpty()) {
+            try {
+                LOGGER.debug("Load {} API models for templates", missingModels.size());
+                final String[] missingIds = missingModels.keySet().toArray(new String[0]);
+                for (ApiEntity apiEntity : convert(apiRepository.search(new ApiCriteria.Builder().ids(missingIds).build()))) {
+                    final TemplateModel templateModel = missingModels.get(apiEntity.getId());
+                    templateModel.model = convertForTemplates(apiEntity);
+                    templateModels.put(apiEntity.getId(), templateModel);
+                    models.put(apiEntity.getId(), copyForTemplates(templateModel.model));
+                }
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to find API models using their IDs: {}", apiIds, ex);
+                throw new TechnicalManagementException("An error occurs while trying to find API models using their IDs: " + apiIds, ex);
+            }
+        }
+        return models;
+    }
+
+    private AtomicLong templateModelVersion(String apiId) {
+        return templateModelVersions.computeIfAbsent(apiId, key -> new AtomicLong());
+    }
 
+    private ApiModelEntity convertForTemplates(ApiEntity apiEntity) {
+        final String apiId = apiEntity.getId();
         final ApiModelEntity apiModelEntity = new ApiModelEntity();
 
         apiModelEntity.setId(apiEntity.getId());
@@ -993,11 +1401,43 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             final Map<String, String> mapMetadata = new HashMap<>(metadataList.size());
             metadataList.forEach(metadata -> mapMetadata.put(metadata.getKey(),
                     metadata.getValue() == null ? metadata.getDefaultValue() : metadata.getValue()));
-            apiModelEntity.setMetadata(mapMetadata);
+            apiModelEntity.setMetadata(unmodifiableMap(mapMetadata));
         }
         return apiModelEntity;
     }
 
+    /**
+     * Copy a cached template model, so that callers never modify the cached instance. The definition objects
+     * (proxy, services, properties, paths and primary owner) are shared and must be treated as read-only.
+     */
+    private static ApiModelEntity copyForTemplates(ApiModelEntity model) {
+        final ApiModelEntity copy = new ApiModelEntity();
+        copy.setId(model.getId());
+        copy.setName(model.getName());
+        copy.setDescription(model.getDescription());
+        copy.setCreatedAt(copyOf(model.getCreatedAt()));
+        copy.setDeployedAt(copyOf(model.getDeployedAt()));
+        copy.setUpdatedAt(copyOf(model.getUpdatedAt()));
+        copy.setGroups(model.getGroups() == null ? null : new HashSet<>(model.getGroups()));
+        copy.setVisibility(model.getVisibility());
+        copy.setViews(model.getViews() == null ? null : new HashSet<>(model.getViews()));
+        copy.setVersion(model.getVersion());
+        copy.setState(model.getState());
+        copy.setTags(model.getTags() == null ? null : new HashSet<>(model.getTags()));
+        copy.setServices(model.getServices());
+        copy.setPaths(model.getPaths() == null ? null : new HashMap<>(model.getPaths()));
+        copy.setPicture(model.getPicture());
+        copy.setPrimaryOwner(model.getPrimaryOwner());
+        copy.setProperties(model.getProperties());
+        copy.setProxy(model.getProxy());
+        copy.setMetadata(model.getMetadata() == null ? null : new HashMap<>(model.getMetadata()));
+        return copy;
+    }
+
+    private static Date copyOf(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+
     @Override
     public boolean exists(final String apiId) {
         try {
@@ -1109,6 +1549,7 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             api.setUpdatedAt(new Date());
             api.setLifecycleState(lifecycleState);
             ApiEntity apiEntity = convert(apiRepository.update(api));
+            invalidateTemplateModel(apiId);
             // Audit
             auditService.createApiAuditLog(
                     apiId,
@@ -1348,4 +1789,51 @@ public class ApiServiceImpl extends TransactionalService implements ApiService {
             return result;
         }
     }
+
+    /**
+     * The APIs and the groups a user is member of.
+     */
+    private static final class UserMemberships {
+
+        private final Set<String> apis;
+        private final Set<String> groups;
+
+        private UserMemberships(Set<String> apis, Set<String> groups) {
+            this.apis = unmodifiableSet(apis);
+            this.groups = unmodifiableSet(groups);
+        }
+    }
+
+    /**
+     * A template model with the versions read before building it: if the API, its metadata or the default metadata
+     * change meanwhile, the model may miss the change and is not current anymore.
+     */
+    private final class TemplateModel {
+
+        private final String apiId;
+        private final long version;
+        private final long allVersion;
+        private ApiModelEntity model;
+
+        private TemplateModel(String apiId) {
+            this.apiId = apiId;
+            this.allVersion = templateModelsVersion.get();
+            this.version = templateModelVersion(apiId).get();
+        }
+
+        private boolean isCurrent() {
+            return allVersion == templateModelsVersion.get() && version == templateModelVersion(apiId).get();
+        }
+    }
+
+    private static final class CachedPicture {
+
+        private final Date updatedAt;
+        private final InlinePictureEntity picture;
+
+        private CachedPicture(Date updatedAt, InlinePictureEntity picture) {
+            this.updatedAt = updatedAt;
+            this.picture = picture;
+        }
+    }
 }
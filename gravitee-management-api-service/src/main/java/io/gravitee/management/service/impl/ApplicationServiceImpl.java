@@ -193,17 +193,7 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
             LOGGER.debug("Create {} for user {}", newApplicationEntity, userId);
 
             // If clientId is set, check for uniqueness
-            String clientId = newApplicationEntity.getClientId();
-
-            if (clientId != null && ! clientId.trim().isEmpty()) {
-                LOGGER.debug("Check that client_id is unique among all applications");
-                final Set<Application> applications = applicationRepository.findAll(ApplicationStatus.ACTIVE);
-                final boolean alreadyExistingApp = applications.stream().anyMatch(application -> clientId.equals(application.getClientId()));
-                if (alreadyExistingApp) {
-                    LOGGER.error("An application already exists with the same client_id");
-                    throw new ClientIdAlreadyExistsException(clientId);
-                }
-            }
+            checkClientIdIsUnique(newApplicationEntity.getClientId(), null);
 
             if (newApplicationEntity.getGroups() != null && !newApplicationEntity.getGroups().isEmpty()) {
                 //throw a NotFoundException if the group doesn't exist
@@ -267,6 +257,23 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
         }
     }
 
+    private void checkClientIdIsUnique(String clientId, String applicationId) throws TechnicalException {
+        if (clientId != null && ! clientId.trim().isEmpty()) {
+            LOGGER.debug("Check that client_id is unique among all applications");
+            Optional<Application> byClientId = applicationRepository.findByClientId(clientId);
+            if (byClientId.isPresent() && byClientId.get().getStatus() != ApplicationStatus.ACTIVE) {
+                // the client_id is held by an archived application, an active one may still share it
+                byClientId = applicationRepository.findAll(ApplicationStatus.ACTIVE).stream()
+                        .filter(application -> clientId.equals(application.getClientId()))
+                        .findAny();
+            }
+            if (byClientId.isPresent() && !byClientId.get().getId().equals(applicationId)) {
+                LOGGER.error("An application already exists with the same client_id");
+                throw new ClientIdAlreadyExistsException(clientId);
+            }
+        }
+    }
+
     @Override
     public ApplicationEntity update(String applicationId, UpdateApplicationEntity updateApplicationEntity) {
         try {
@@ -281,17 +288,7 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
             }
 
             // If clientId is set, check for uniqueness
-            String clientId = updateApplicationEntity.getClientId();
-
-            if (clientId != null && ! clientId.trim().isEmpty()) {
-                LOGGER.debug("Check that client_id is unique among all applications");
-                final Set<Application> applications = applicationRepository.findAll(ApplicationStatus.ACTIVE);
-                final Optional<Application> byClientId = applications.stream().filter(application -> clientId.equals(application.getClientId())).findAny();
-                if (byClientId.isPresent() && !byClientId.get().getId().equals(optApplicationToUpdate.get().getId())) {
-                    LOGGER.error("An application already exists with the same client_id");
-                    throw new ClientIdAlreadyExistsException(clientId);
-                }
-            }
+            checkClientIdIsUnique(updateApplicationEntity.getClientId(), optApplicationToUpdate.get().getId());
 
             Application application = convert(updateApplicationEntity);
             application.setId(applicationId);
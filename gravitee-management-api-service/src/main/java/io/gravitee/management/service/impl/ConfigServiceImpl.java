@@ -15,94 +15,133 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.management.model.PortalConfigEntity;
 import io.gravitee.management.model.PortalConfigEntity.Enabled;
 import io.gravitee.management.model.annotations.ParameterKey;
 import io.gravitee.management.model.parameters.Key;
 import io.gravitee.management.service.ConfigService;
 import io.gravitee.management.service.ParameterService;
+import io.gravitee.management.service.event.ParameterEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class ConfigServiceImpl extends AbstractService implements ConfigService {
+public class ConfigServiceImpl extends AbstractService implements ConfigService, EventListener<ParameterEvent, String> {
 
     private final Logger LOGGER = LoggerFactory.getLogger(ConfigServiceImpl.class);
 
+    private final static String PORTAL_CONFIG_CACHE_KEY = "portal";
+    private final static long PORTAL_CONFIG_CACHE_TTL_SECONDS = 30;
+
     @Autowired
     private ParameterService parameterService;
 
     @Autowired
     private ConfigurableEnvironment environment;
 
+    @Autowired
+    private EventManager eventManager;
+
+    /**
+     * Bindings between the portal configuration fields and their parameters, resolved once.
+     */
+    private final List<Binding> bindings = compileBindings();
+
+    private final List<Key> parameterKeys = bindings.stream().map(binding -> binding.key).collect(toList());
+
+    /**
+     * Values of the portal configuration fields, in the order of the bindings. Local parameter changes evict it, the
+     * TTL bounds the staleness for changes made on other nodes.
+     */
+    private final Cache<String, List<Object>> portalConfigValues = CacheBuilder.newBuilder()
+            .expireAfterWrite(PORTAL_CONFIG_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    @PostConstruct
+    public void init() {
+        eventManager.subscribeForEvents(this, ParameterEvent.class);
+    }
+
+    @Override
+    public void onEvent(Event<ParameterEvent, String> event) {
+        portalConfigValues.invalidateAll();
+    }
+
     @Override
     public PortalConfigEntity getPortalConfig() {
+        final List<Object> values;
+        try {
+            values = portalConfigValues.get(PORTAL_CONFIG_CACHE_KEY, this::loadPortalConfigValues);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+
         PortalConfigEntity portalConfigEntity = new PortalConfigEntity();
         Object[] objects = getObjectArray(portalConfigEntity);
-
-        // get values from DB
-        final List<Key> parameterKeys = new ArrayList<>();
-        for (Object o : objects) {
-            for (Field f : o.getClass().getDeclaredFields()) {
-                ParameterKey parameterKey = f.getAnnotation(ParameterKey.class);
-                if (parameterKey != null) {
-                    parameterKeys.add(parameterKey.value());
-                }
+        for (int i = 0; i < bindings.size(); i++) {
+            final Binding binding = bindings.get(i);
+            final Object value = values.get(i);
+            try {
+                binding.setter.invoke(objects[binding.holder], Enabled.class.isAssignableFrom(binding.type)
+                        ? new Enabled((Boolean) value)
+                        : value);
+            } catch (Throwable t) {
+                LOGGER.error("Unable to set parameter {}. Use the default value", binding.key.key(), t);
             }
         }
+
+        enhanceFromConfigFile(portalConfigEntity);
+        return portalConfigEntity;
+    }
+
+    private List<Object> loadPortalConfigValues() {
+        // get values from DB
         Map<String, List<String>> parameterMap = parameterService.findAll(parameterKeys);
 
-        // set values
-        for (Object o : objects) {
-            for (Field f : o.getClass().getDeclaredFields()) {
-                ParameterKey parameterKey = f.getAnnotation(ParameterKey.class);
-                if (parameterKey != null) {
-                    boolean accessible = f.isAccessible();
-                    f.setAccessible(true);
-                    try {
-                        final List<String> values = parameterMap.get(parameterKey.value().key());
-                        if (Enabled.class.isAssignableFrom(f.getType())) {
-                            f.set(o, Boolean.valueOf(getFirstValueOrDefault(values, parameterKey.value().defaultValue()))
-                                    ? new Enabled(true)
-                                    : new Enabled(false)
-                            );
-                        } else if (Boolean.class.isAssignableFrom(f.getType())) {
-                            f.set(o, Boolean.valueOf(getFirstValueOrDefault(values, parameterKey.value().defaultValue())));
-                        } else if (Integer.class.isAssignableFrom(f.getType())) {
-                            f.set(o, Integer.valueOf(getFirstValueOrDefault(values, parameterKey.value().defaultValue())));
-                        } else if (List.class.isAssignableFrom(f.getType())) {
-                            if (values == null || values.isEmpty()) {
-                                f.set(o, Collections.emptyList());
-                            } else {
-                                f.set(o, values);
-                            }
-                        } else {
-                            f.set(o, getFirstValueOrDefault(values, parameterKey.value().defaultValue()));
-                        }
-                    } catch (IllegalAccessException e) {
-                        LOGGER.error("Unable to set parameter {}. Use the default value", parameterKey.value().key(), e);
-                    }
-                    f.setAccessible(accessible);
+        final List<Object> values = new ArrayList<>(bindings.size());
+        for (Binding binding : bindings) {
+            final List<String> parameterValues = parameterMap.get(binding.key.key());
+            if (Enabled.class.isAssignableFrom(binding.type) || Boolean.class.isAssignableFrom(binding.type)) {
+                values.add(Boolean.valueOf(getFirstValueOrDefault(parameterValues, binding.key.defaultValue())));
+            } else if (Integer.class.isAssignableFrom(binding.type)) {
+                values.add(Integer.valueOf(getFirstValueOrDefault(parameterValues, binding.key.defaultValue())));
+            } else if (List.class.isAssignableFrom(binding.type)) {
+                if (parameterValues == null || parameterValues.isEmpty()) {
+                    values.add(Collections.emptyList());
+                } else {
+                    values.add(Collections.unmodifiableList(new ArrayList<>(parameterValues)));
                 }
+            } else {
+                values.add(getFirstValueOrDefault(parameterValues, binding.key.defaultValue()));
             }
         }
-
-        enhanceFromConfigFile(portalConfigEntity);
-        return portalConfigEntity;
+        return Collections.unmodifiableList(values);
     }
 
     private String getFirstValueOrDefault(final List<String> values, final String defaultValue) {
@@ -140,35 +179,34 @@ public class ConfigServiceImpl extends AbstractService implements ConfigService
     public void save(PortalConfigEntity portalConfigEntity) {
         Object[] objects = getObjectArray(portalConfigEntity);
 
-        for (Object o : objects) {
-            for (Field f : o.getClass().getDeclaredFields()) {
-                ParameterKey parameterKey = f.getAnnotation(ParameterKey.class);
-                if (parameterKey != null) {
-                    boolean accessible = f.isAccessible();
-                    f.setAccessible(true);
-                    try {
-                        Object value;
-                        if (f.get(o) != null && Enabled.class.isAssignableFrom(f.getType())) {
-                            value = Boolean.toString(((Enabled) f.get(o)).isEnabled());
-                        } else if (f.get(o) != null && !Collection.class.isAssignableFrom(f.getType())) {
-                            value = f.get(o).toString();
-                        } else {
-                            value = f.get(o);
-                        }
+        try {
+            for (Binding binding : bindings) {
+                try {
+                    final Object fieldValue = binding.getter.invoke(objects[binding.holder]);
+                    Object value;
+                    if (fieldValue != null && Enabled.class.isAssignableFrom(binding.type)) {
+                        value = Boolean.toString(((Enabled) fieldValue).isEnabled());
+                    } else if (fieldValue != null && !Collection.class.isAssignableFrom(binding.type)) {
+                        value = fieldValue.toString();
+                    } else {
+                        value = fieldValue;
+                    }
 
-                        if (value != null) {
-                            if (List.class.isAssignableFrom(f.getType())) {
-                                parameterService.save(parameterKey.value(), (List) value);
-                            } else {
-                                parameterService.save(parameterKey.value(), (String) value);
-                            }
+                    if (value != null) {
+                        if (List.class.isAssignableFrom(binding.type)) {
+                            parameterService.save(binding.key, (List) value);
+                        } else {
+                            parameterService.save(binding.key, (String) value);
                         }
-                    } catch (IllegalAccessException e) {
-                        LOGGER.error("Unable to set parameter {}. Use the default value", parameterKey.value().key(), e);
                     }
-                    f.setAccessible(accessible);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Throwable t) {
+                    LOGGER.error("Unable to set parameter {}. Use the default value", binding.key.key(), t);
                 }
             }
+        } finally {
+            portalConfigValues.invalidateAll();
         }
     }
 
@@ -196,4 +234,45 @@ public class ConfigServiceImpl extends AbstractService implements ConfigService
                 portalConfigEntity.getApiQualityMetrics()
         };
     }
+
+    private List<Binding> compileBindings() {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final Object[] objects = getObjectArray(new PortalConfigEntity());
+        final List<Binding> compiledBindings = new ArrayList<>();
+
+        for (int holder = 0; holder < objects.length; holder++) {
+            for (Field f : objects[holder].getClass().getDeclaredFields()) {
+                ParameterKey parameterKey = f.getAnnotation(ParameterKey.class);
+                if (parameterKey != null) {
+                    f.setAccessible(true);
+                    try {
+                        compiledBindings.add(new Binding(holder, parameterKey.value(), f.getType(),
+                                lookup.unreflectGetter(f), lookup.unreflectSetter(f)));
+                    } catch (IllegalAccessException e) {
+                        LOGGER.error("Unable to bind parameter {}. Use the default value", parameterKey.value().key(), e);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(compiledBindings);
+    }
+
+    private static final class Binding {
+        /**
+         * Index of the object holding the field in the portal configuration object array.
+         */
+        private final int holder;
+        private final Key key;
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Binding(int holder, Key key, Class<?> type, MethodHandle getter, MethodHandle setter) {
+            this.holder = holder;
+            this.key = key;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
 }
@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import java.util.*;
+
+/**
+ * In-memory index of the sub context paths owned by each API, used to enforce their uniqueness without loading and
+ * parsing every API definition. Two sub context paths conflict when one of them is a prefix of the other.
+ *
+ * The index is loaded from the repository once, at boot or on first use, and then kept current by the creations,
+ * updates and deletions of APIs. A load reads the repository without holding the index: the changes made meanwhile
+ * (reservations, confirmations and removals) are recorded and applied again on top of the loaded paths, so that a
+ * write confirmed during a load is not lost. A path may be owned by several APIs, as legacy definitions may share one,
+ * so that removing one of them keeps the path owned by the others.
+ *
+ * @author GraviteeSource Team
+ */
+final class ContextPathIndex {
+
+    private final NavigableMap<String, Set<String>> apisByPath = new TreeMap<>();
+    private final Map<String, String> pathsByApi = new HashMap<>();
+    private final Set<String> pendingApis = new HashSet<>();
+
+    /**
+     * Sub context paths changed while a load is in progress, keyed by API ID, a <code>null</code> path for a removed API.
+     */
+    private final Map<String, String> changesDuringLoad = new LinkedHashMap<>();
+    private int loads;
+    private boolean loaded;
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Start recording the changes to apply on top of the paths read by a load, which must then be ended by
+     * {@link #load(Map)} or {@link #cancelLoad()}.
+     */
+    synchronized void beginLoad() {
+        loads++;
+    }
+
+    synchronized void cancelLoad() {
+        endLoad();
+    }
+
+    /**
+     * Replace the content of the index by the given sub context paths, keyed by API ID. Paths reserved by writes which
+     * are still in progress and changes made since the load began are kept.
+     */
+    synchronized void load(Map<String, String> paths) {
+        final Map<String, String> pendingPaths = new HashMap<>();
+        pendingApis.forEach(apiId -> pendingPaths.put(apiId, pathsByApi.get(apiId)));
+
+        apisByPath.clear();
+        pathsByApi.clear();
+        paths.forEach(this::put);
+        changesDuringLoad.forEach((apiId, subContextPath) -> {
+            if (subContextPath == null) {
+                removePath(apiId);
+            } else {
+                put(apiId, subContextPath);
+            }
+        });
+        pendingPaths.forEach(this::put);
+        loaded = true;
+        endLoad();
+    }
+
+    private void endLoad() {
+        if (loads > 0 && --loads == 0) {
+            changesDuringLoad.clear();
+        }
+    }
+
+    /**
+     * Find an API, other than the given one, owning a sub context path which conflicts with the given one.
+     *
+     * @return the ID of the conflicting API or <code>null</code> if the sub context path is available.
+     */
+    synchronized String findConflict(String subContextPath, String apiId) {
+        // paths which are a prefix of the given one
+        for (int index = subContextPath.indexOf('/'); index >= 0; index = subContextPath.indexOf('/', index + 1)) {
+            final String owner = otherOwner(apisByPath.get(subContextPath.substring(0, index + 1)), apiId);
+            if (owner != null) {
+                return owner;
+            }
+        }
+
+        // paths starting with the given one
+        for (Map.Entry<String, Set<String>> entry : apisByPath.tailMap(subContextPath, false).entrySet()) {
+            if (!entry.getKey().startsWith(subContextPath)) {
+                break;
+            }
+            final String owner = otherOwner(entry.getValue(), apiId);
+            if (owner != null) {
+                return owner;
+            }
+        }
+        return null;
+    }
+
+    private static String otherOwner(Set<String> owners, String apiId) {
+        if (owners != null) {
+            for (String owner : owners) {
+                if (!owner.equals(apiId)) {
+                    return owner;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Atomically check that the given sub context path is available and assign it to the API until the write is
+     * confirmed or cancelled.
+     *
+     * @return the ID of the conflicting API or <code>null</code> if the sub context path has been reserved.
+     */
+    synchronized String reserve(String apiId, String subContextPath) {
+        final String conflict = findConflict(subContextPath, apiId);
+        if (conflict == null) {
+            put(apiId, subContextPath);
+            pendingApis.add(apiId);
+            recordChange(apiId, subContextPath);
+        }
+        return conflict;
+    }
+
+    /**
+     * Confirm the sub context path reserved by the API, once written.
+     */
+    synchronized void confirm(String apiId) {
+        if (pendingApis.remove(apiId)) {
+            recordChange(apiId, pathsByApi.get(apiId));
+        }
+    }
+
+    /**
+     * Give back to the API the sub context path it owned before a reservation whose write has failed, if any.
+     */
+    synchronized void restore(String apiId, String previousSubContextPath) {
+        pendingApis.remove(apiId);
+        if (previousSubContextPath == null) {
+            removePath(apiId);
+        } else {
+            put(apiId, previousSubContextPath);
+        }
+        recordChange(apiId, previousSubContextPath);
+    }
+
+    synchronized void remove(String apiId) {
+        pendingApis.remove(apiId);
+        removePath(apiId);
+        recordChange(apiId, null);
+    }
+
+    private void recordChange(String apiId, String subContextPath) {
+        if (loads > 0) {
+            changesDuringLoad.remove(apiId);
+            changesDuringLoad.put(apiId, subContextPath);
+        }
+    }
+
+    private void removePath(String apiId) {
+        final String subContextPath = pathsByApi.remove(apiId);
+        if (subContextPath != null) {
+            removeOwner(subContextPath, apiId);
+        }
+    }
+
+    private void put(String apiId, String subContextPath) {
+        final String previous = pathsByApi.put(apiId, subContextPath);
+        if (previous != null) {
+            removeOwner(previous, apiId);
+        }
+        apisByPath.computeIfAbsent(subContextPath, path -> new HashSet<>(1)).add(apiId);
+    }
+
+    private void removeOwner(String subContextPath, String apiId) {
+        final Set<String> owners = apisByPath.get(subContextPath);
+        if (owners != null && owners.remove(apiId) && owners.isEmpty()) {
+            apisByPath.remove(subContextPath);
+        }
+    }
+}
@@ -15,8 +15,14 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
+import io.gravitee.management.model.metrics.LatencyMetrics;
 import io.gravitee.management.service.EmailNotification;
 import io.gravitee.management.service.EmailService;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
@@ -28,16 +34,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import javax.activation.MimetypesFileTypeMap;
+import javax.mail.internet.MimeMessage;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -55,6 +63,10 @@ public class EmailServiceImpl extends TransactionalService implements EmailServi
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EmailServiceImpl.class);
 
+    private final static int DEFAULT_BATCH_SIZE = 50;
+    private final static long INLINED_CONTENT_CACHE_SIZE = 100;
+    private final static long METRICS_LOG_INTERVAL = 100;
+
     @Autowired
     private JavaMailSender mailSender;
     @Autowired
@@ -67,76 +79,226 @@ public class EmailServiceImpl extends TransactionalService implements EmailServi
     private boolean enabled;
     @Value("${email.from}")
     private String defaultFrom;
+    @Value("${email.batch.size:" + DEFAULT_BATCH_SIZE + "}")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    @Value("${email.batch.rate:0}")
+    private double batchRate;
+
+    /**
+     * Jsoup processing of the rendered html, keyed by the rendered html itself.
+     */
+    private final Cache<String, InlinedContent> inlinedContents = CacheBuilder.newBuilder()
+            .maximumSize(INLINED_CONTENT_CACHE_SIZE)
+            .build();
+
+    /**
+     * Latency of the SMTP sends, with the number of sent and failed messages.
+     */
+    private final LatencyMetrics metrics = new LatencyMetrics("Email sends");
+
+    private volatile RateLimiter rateLimiter;
 
     public void sendEmailNotification(final EmailNotification emailNotification) {
         if (enabled) {
             try {
-                final MimeMessageHelper mailMessage = new MimeMessageHelper(mailSender.createMimeMessage(), true, StandardCharsets.UTF_8.name());
+                final MimeMessage message = prepareMessage(emailNotification, render(emailNotification));
+                final long start = System.nanoTime();
+                mailSender.send(message);
+                recordSend(start, 1);
+            } catch (final Exception ex) {
+                metrics.increment("failed");
+                LOGGER.error("Error while sending email notification", ex);
+                throw new TechnicalManagementException("Error while sending email notification", ex);
+            }
+        }
+    }
 
-                final Template template = freemarkerConfiguration.getTemplate(emailNotification.getTemplate());
-                final String content = processTemplateIntoString(template, emailNotification.getParams());
+    @Async
+    public void sendAsyncEmailNotification(final EmailNotification emailNotification) {
+        try {
+            sendEmailNotification(emailNotification);
+        } catch (final TechnicalManagementException ex) {
+            // Already logged, there is no caller to report it to
+        }
+    }
 
-                final String from = isNull(emailNotification.getFrom()) || emailNotification.getFrom().isEmpty()
-                        ? defaultFrom
-                        : emailNotification.getFrom();
+    @Override
+    public void sendEmailNotifications(final Collection<EmailNotification> emailNotifications) {
+        if (!enabled || emailNotifications == null || emailNotifications.isEmpty()) {
+            return;
+        }
 
-                if (isEmpty(emailNotification.getFromName())) {
-                    mailMessage.setFrom(from);
-                } else {
-                    mailMessage.setFrom(from, emailNotification.getFromName());
-                }
+        // Rendering is only valid for the current dispatch: params may hold values evaluated at send time.
+        final Map<RenderKey, String> rendered = new HashMap<>();
+        final List<MimeMessage> batch = new ArrayList<>(Math.min(getBatchSize(), emailNotifications.size()));
+        int failures = 0;
 
-                mailMessage.setTo(emailNotification.getTo());
-                if (emailNotification.isCopyToSender() && emailNotification.getFrom() != null) {
-                    mailMessage.setBcc(emailNotification.getFrom());
-                }
-                if (emailNotification.getBcc() != null && emailNotification.getBcc().length > 0) {
-                    mailMessage.setBcc(emailNotification.getBcc());
+        for (final EmailNotification emailNotification : emailNotifications) {
+            try {
+                final RenderKey key = new RenderKey(emailNotification.getTemplate(), emailNotification.getParams());
+                String content = rendered.get(key);
+                if (content == null) {
+                    content = render(emailNotification);
+                    rendered.put(key, content);
                 }
-                mailMessage.setSubject(format(subject, emailNotification.getSubject()));
+                batch.add(prepareMessage(emailNotification, content));
+            } catch (final Exception ex) {
+                failures++;
+                metrics.increment("failed");
+                LOGGER.error("Error while preparing email notification", ex);
+            }
 
-                final String html = addResourcesInMessage(mailMessage, content);
+            if (batch.size() >= getBatchSize()) {
+                failures += sendBatch(batch);
+                batch.clear();
+            }
+        }
 
-                LOGGER.debug("Sending an email to: {}\nSubject: {}\nMessage: {}",
-                        emailNotification.getTo(), emailNotification.getSubject(), html);
+        if (!batch.isEmpty()) {
+            failures += sendBatch(batch);
+        }
 
-                mailSender.send(mailMessage.getMimeMessage());
-            } catch (final Exception ex) {
-                LOGGER.error("Error while sending email notification", ex);
-                throw new TechnicalManagementException("Error while sending email notification", ex);
-            }
+        LOGGER.debug("Email dispatch done: {} notifications, {} templates rendered, {} failures",
+                emailNotifications.size(), rendered.size(), failures);
+
+        if (failures == emailNotifications.size()) {
+            LOGGER.error("Error while sending email notifications: none of the {} emails has been sent", failures);
+            throw new TechnicalManagementException("Error while sending email notifications: no email has been sent");
         }
     }
 
     @Async
-    public void sendAsyncEmailNotification(final EmailNotification emailNotification) {
-        sendEmailNotification(emailNotification);
+    @Override
+    public void sendAsyncEmailNotifications(final Collection<EmailNotification> emailNotifications) {
+        try {
+            sendEmailNotifications(emailNotifications);
+        } catch (final TechnicalManagementException ex) {
+            // Already logged, there is no caller to report it to
+        }
+    }
+
+    /**
+     * Send a batch of messages through a single SMTP transport. Returns the number of messages which have not been
+     * delivered.
+     */
+    private int sendBatch(final List<MimeMessage> batch) {
+        final RateLimiter limiter = getRateLimiter();
+        if (limiter != null) {
+            limiter.acquire(batch.size());
+        }
+
+        final long start = System.nanoTime();
+        try {
+            mailSender.send(batch.toArray(new MimeMessage[batch.size()]));
+            recordSend(start, batch.size());
+            return 0;
+        } catch (final MailSendException ex) {
+            final int failed = ex.getFailedMessages().isEmpty() ? batch.size() : ex.getFailedMessages().size();
+            recordSend(start, batch.size() - failed);
+            metrics.add("failed", failed);
+            LOGGER.error("Error while sending {} email notification(s) out of {}", failed, batch.size(), ex);
+            return failed;
+        } catch (final Exception ex) {
+            metrics.add("failed", batch.size());
+            LOGGER.error("Error while sending {} email notification(s)", batch.size(), ex);
+            return batch.size();
+        }
+    }
+
+    private void recordSend(long start, int sent) {
+        metrics.record(System.nanoTime() - start);
+        metrics.add("sent", sent);
+        if (metrics.calls() >= METRICS_LOG_INTERVAL) {
+            metrics.log(LOGGER);
+        }
+    }
+
+    private String render(final EmailNotification emailNotification) throws Exception {
+        final Template template = freemarkerConfiguration.getTemplate(emailNotification.getTemplate());
+        return processTemplateIntoString(template, emailNotification.getParams());
+    }
+
+    private MimeMessage prepareMessage(final EmailNotification emailNotification, final String content) throws Exception {
+        final MimeMessageHelper mailMessage = new MimeMessageHelper(mailSender.createMimeMessage(), true, StandardCharsets.UTF_8.name());
+
+        final String from = isNull(emailNotification.getFrom()) || emailNotification.getFrom().isEmpty()
+                ? defaultFrom
+                : emailNotification.getFrom();
+
+        if (isEmpty(emailNotification.getFromName())) {
+            mailMessage.setFrom(from);
+        } else {
+            mailMessage.setFrom(from, emailNotification.getFromName());
+        }
+
+        mailMessage.setTo(emailNotification.getTo());
+        if (emailNotification.isCopyToSender() && emailNotification.getFrom() != null) {
+            mailMessage.setBcc(emailNotification.getFrom());
+        }
+        if (emailNotification.getBcc() != null && emailNotification.getBcc().length > 0) {
+            mailMessage.setBcc(emailNotification.getBcc());
+        }
+        mailMessage.setSubject(format(subject, emailNotification.getSubject()));
+
+        final String html = addResourcesInMessage(mailMessage, content);
+
+        LOGGER.debug("Sending an email to: {}\nSubject: {}\nMessage: {}",
+                emailNotification.getTo(), emailNotification.getSubject(), html);
+
+        return mailMessage.getMimeMessage();
     }
 
     private String addResourcesInMessage(final MimeMessageHelper mailMessage, final String htmlText) throws Exception {
-        final Document document = Jsoup.parse(htmlText);
+        final InlinedContent inlined;
+        try {
+            inlined = inlinedContents.get(htmlText, () -> inline(htmlText));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            Throwables.throwIfUnchecked(ex.getCause());
+            throw new TechnicalManagementException("Error while processing email content", ex.getCause());
+        }
+
+        mailMessage.setText(inlined.html, true);
+
+        for (final String res : inlined.resources) {
+            final FileSystemResource templateResource = new FileSystemResource(new File(templatesPath, res));
+            mailMessage.addInline(res, templateResource, getContentTypeByFileName(res));
+        }
 
-        final List<String> resources = new ArrayList<>();
+        return inlined.html;
+    }
+
+    private InlinedContent inline(final String htmlText) {
+        final Document document = Jsoup.parse(htmlText);
 
         final Elements imageElements = document.getElementsByTag("img");
-        resources.addAll(imageElements.stream()
+        final List<String> resources = imageElements.stream()
                 .filter(imageElement -> imageElement.hasAttr("src"))
                 .map(imageElement -> {
                     final String src = imageElement.attr("src");
                     imageElement.attr("src", "cid:" + src);
                     return src;
                 })
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
 
-        final String html = document.html();
-        mailMessage.setText(html, true);
+        return new InlinedContent(document.html(), resources);
+    }
 
-        for (final String res : resources) {
-            final FileSystemResource templateResource = new FileSystemResource(new File(templatesPath, res));
-            mailMessage.addInline(res, templateResource, getContentTypeByFileName(res));
-        }
+    private int getBatchSize() {
+        return batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
 
-        return html;
+    private RateLimiter getRateLimiter() {
+        if (batchRate <= 0) {
+            return null;
+        }
+        if (rateLimiter == null) {
+            synchronized (this) {
+                if (rateLimiter == null) {
+                    rateLimiter = RateLimiter.create(batchRate);
+                }
+            }
+        }
+        return rateLimiter;
     }
 
     private String getContentTypeByFileName(final String fileName) {
@@ -147,4 +309,37 @@ public class EmailServiceImpl extends TransactionalService implements EmailServi
         }
         return MimetypesFileTypeMap.getDefaultFileTypeMap().getContentType(fileName);
     }
-}
\ No newline at end of file
+
+    private static final class RenderKey {
+        private final String template;
+        private final Map<String, Object> params;
+
+        private RenderKey(String template, Map<String, Object> params) {
+            this.template = template;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RenderKey renderKey = (RenderKey) o;
+            return Objects.equals(template, renderKey.template) && Objects.equals(params, renderKey.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(template, params);
+        }
+    }
+
+    private static final class InlinedContent {
+        private final String html;
+        private final List<String> resources;
+
+        private InlinedContent(String html, List<String> resources) {
+            this.html = html;
+            this.resources = resources;
+        }
+    }
+}
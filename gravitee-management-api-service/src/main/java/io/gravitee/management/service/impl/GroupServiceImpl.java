@@ -15,6 +15,13 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.Visibility;
@@ -25,6 +32,7 @@ import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.GroupService;
 import io.gravitee.management.service.MembershipService;
 import io.gravitee.management.service.PermissionService;
+import io.gravitee.management.service.event.MembershipEvent;
 import io.gravitee.management.service.exceptions.GroupNameAlreadyExistsException;
 import io.gravitee.management.service.exceptions.GroupNotFoundException;
 import io.gravitee.management.service.exceptions.GroupsNotFoundException;
@@ -42,7 +50,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.gravitee.management.model.permissions.RolePermissionAction.*;
@@ -54,9 +65,12 @@ import static io.gravitee.repository.management.model.Group.AuditEvent.*;
  * @author GraviteeSource Team
  */
 @Component
-public class GroupServiceImpl extends AbstractService implements GroupService {
+public class GroupServiceImpl extends AbstractService implements GroupService, EventListener<MembershipEvent, String> {
     private final Logger logger = LoggerFactory.getLogger(GroupServiceImpl.class);
 
+    private final static long USER_GROUPS_CACHE_MAX_SIZE = 10_000;
+    private final static long USER_GROUPS_CACHE_TTL_SECONDS = 30;
+
     @Autowired
     private GroupRepository groupRepository;
 
@@ -78,6 +92,35 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
     @Autowired
     private PermissionService permissionService;
 
+    @Autowired
+    private EventManager eventManager;
+
+    /**
+     * IDs of the groups a user is member of, keyed by user ID. Local membership changes evict them, the TTL bounds the
+     * staleness for changes made on other nodes.
+     */
+    private final Cache<String, Set<String>> userGroups = CacheBuilder.newBuilder()
+            .maximumSize(USER_GROUPS_CACHE_MAX_SIZE)
+            .expireAfterWrite(USER_GROUPS_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    @PostConstruct
+    public void init() {
+        eventManager.subscribeForEvents(this, MembershipEvent.class);
+    }
+
+    @Override
+    public void onEvent(Event<MembershipEvent, String> event) {
+        switch (event.type()) {
+            case USER_MEMBERSHIPS_UPDATED:
+                userGroups.invalidate(event.content());
+                break;
+            case MEMBERSHIPS_UPDATED:
+                userGroups.invalidateAll();
+                break;
+        }
+    }
+
     @Override
     public List<GroupEntity> findAll() {
         try {
@@ -311,6 +354,7 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
             });
             //remove group
             groupRepository.delete(groupId);
+            eventManager.publishEvent(MembershipEvent.MEMBERSHIPS_UPDATED, groupId);
 
             // Audit
             auditService.createPortalAuditLog(
@@ -344,26 +388,16 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
 
             // for public apis, default authorized groups are all groups,
             // for private apis, default authorized groups are all apis groups
-            Set<String> authorizedGroups = Collections.emptySet();
-            if (Visibility.PRIVATE.equals(api.getVisibility()) && api.getGroups() != null && !api.getGroups().isEmpty()) {
-                authorizedGroups = new HashSet<>(api.getGroups());
-            }
-            if (Visibility.PUBLIC.equals(api.getVisibility())) {
-                try {
-                    authorizedGroups = groupRepository.findAll().stream().map(Group::getId).collect(Collectors.toSet());
-                } catch (TechnicalException ex) {
-                    logger.error("An error occurs while trying to find all groups", ex);
-                    throw new TechnicalManagementException("An error occurs while trying to find all groups", ex);
-                }
+            // so the user must belong to one of them which is not excluded
+            Set<String> authorizedGroups = new HashSet<>(findUserGroupIds(username));
+            if (Visibility.PRIVATE.equals(api.getVisibility())) {
+                authorizedGroups.retainAll(api.getGroups() == null ? Collections.emptySet() : api.getGroups());
+            } else if (!Visibility.PUBLIC.equals(api.getVisibility())) {
+                authorizedGroups.clear();
             }
 
             authorizedGroups.removeAll(excludedGroups);
-            for (String authorizedGroupId : authorizedGroups) {
-                if (membershipService.getMember(MembershipReferenceType.GROUP, authorizedGroupId, username, RoleScope.API) != null) {
-                    return true;
-                }
-            }
-            return false;
+            return !authorizedGroups.isEmpty();
         }
         return true;
     }
@@ -376,26 +410,28 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
         }
 
         if (excludedGroups != null && !excludedGroups.isEmpty()) {
-            // for public apis, default authorized groups are all groups,
-            Set<String> authorizedGroups;
-            try {
-                authorizedGroups = groupRepository.findAll().stream().map(Group::getId).collect(Collectors.toSet());
-            } catch (TechnicalException ex) {
-                logger.error("An error occurs while trying to find all groups", ex);
-                throw new TechnicalManagementException("An error occurs while trying to find all groups", ex);
-            }
-
+            // default authorized groups are all groups, so the user must belong to one of them which is not excluded
+            Set<String> authorizedGroups = new HashSet<>(findUserGroupIds(username));
             authorizedGroups.removeAll(excludedGroups);
-            for (String authorizedGroupId : authorizedGroups) {
-                if (membershipService.getMember(MembershipReferenceType.GROUP, authorizedGroupId, username, RoleScope.API) != null) {
-                    return true;
-                }
-            }
-            return false;
+            return !authorizedGroups.isEmpty();
         }
         return true;
     }
 
+    private Set<String> findUserGroupIds(String username) {
+        try {
+            return userGroups.get(username, () -> Collections.unmodifiableSet(
+                    membershipRepository.findByUserAndReferenceType(username, MembershipReferenceType.GROUP)
+                            .stream()
+                            .map(Membership::getReferenceId)
+                            .collect(Collectors.toSet())));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            Throwables.throwIfUnchecked(ex.getCause());
+            logger.error("An error occurs while trying to find all user groups", ex);
+            throw new TechnicalManagementException("An error occurs while trying to find all user groups", ex);
+        }
+    }
+
     @Override
     public Set<GroupEntity> findByUser(String user) {
         try {
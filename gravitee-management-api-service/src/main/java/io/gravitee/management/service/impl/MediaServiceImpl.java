@@ -15,15 +15,17 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.MediaEntity;
 import io.gravitee.management.service.ConfigService;
 import io.gravitee.management.service.MediaService;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.exceptions.UploadUnAuthorized;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.media.api.MediaRepository;
 import io.gravitee.repository.media.model.Media;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,9 +34,14 @@ import org.springframework.stereotype.Component;
 import javax.xml.bind.DatatypeConverter;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Guillaume Gillon
@@ -44,12 +51,38 @@ public class MediaServiceImpl implements MediaService {
 
     private static final Logger logger = LoggerFactory.getLogger(MediaServiceImpl.class);
 
+    private static final int BUFFER_SIZE = 8192;
+    private static final long MEDIA_CACHE_MAX_WEIGHT = 64 * 1024 * 1024;
+    private static final long MEDIA_CACHE_TTL_MINUTES = 10;
+    private static final long KNOWN_MEDIA_CACHE_MAX_SIZE = 10_000;
+    private static final String PORTAL_MEDIA = "__portal__";
+
     @Autowired
     private MediaRepository mediaRepository;
 
     @Autowired
     private ConfigService configService;
 
+    /**
+     * Hot media, keyed by API (or portal) and hash. Since the hash is computed from the content, a cached media is
+     * never stale: it is only evicted when the media is written again, and the TTL bounds how long a media deleted
+     * from the repository is still served.
+     */
+    private final Cache<String, Media> medias = CacheBuilder.newBuilder()
+            .maximumWeight(MEDIA_CACHE_MAX_WEIGHT)
+            .weigher((String key, Media media) -> media.getData() == null ? 0 : media.getData().length)
+            .expireAfterWrite(MEDIA_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Keys of the media known to exist, kept longer than their content so that revalidations of media evicted from
+     * the content cache are answered without reading them again.
+     */
+    private final Cache<String, Boolean> knownMedias = CacheBuilder.newBuilder()
+            .maximumSize(KNOWN_MEDIA_CACHE_MAX_SIZE)
+            .expireAfterWrite(MEDIA_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+
     @Override
     public String savePortalMedia(MediaEntity mediaEntity) {
         return this.saveApiMedia(null, mediaEntity);
@@ -57,54 +90,98 @@ public class MediaServiceImpl implements MediaService {
 
     @Override
     public String saveApiMedia(String api, MediaEntity mediaEntity) {
-
+        Path tempFile = null;
         try {
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            byte[] fileBites = IOUtils.toByteArray(mediaEntity.getData());
-            byte[] hash = digest.digest(fileBites);
-            String hashString = DatatypeConverter.printHexBinary(hash);
-
-            String id = UUID.toString(UUID.random());
+            // Spool the upload to a temporary file while computing its hash, so that the size limit is enforced
+            // before the whole media is loaded in memory
+            tempFile = Files.createTempFile("gravitee-media-", ".tmp");
+            final MessageDigest digest = MessageDigest.getInstance("MD5");
+            final long maxSize = getMediaMaxSize();
+            long size = 0;
+
+            try (InputStream in = mediaEntity.getData(); OutputStream out = Files.newOutputStream(tempFile)) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new UploadUnAuthorized("Max size achieved " + size);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
 
-            Optional<Media> checkMedia = null;
+            String hashString = DatatypeConverter.printHexBinary(digest.digest());
 
+            Optional<Media> checkMedia;
             if (api != null) {
                 checkMedia = mediaRepository.findByHash(hashString, api, mediaEntity.getType());
             } else {
                 checkMedia = mediaRepository.findByHash(hashString, mediaEntity.getType());
             }
 
-
-            if(checkMedia.isPresent()) {
+            if (checkMedia.isPresent()) {
                 return checkMedia.get().getHash();
             } else {
                 Media media = convert(mediaEntity);
-                media.setId(id);
+                media.setId(UUID.toString(UUID.random()));
                 media.setHash(hashString);
-                media.setSize((long) fileBites.length);
+                media.setSize(size);
                 media.setApi(api);
-                media.setData(fileBites);
+                media.setData(Files.readAllBytes(tempFile));
                 mediaRepository.save(media);
 
+                // the media may have been deleted and written again
+                medias.invalidate(key(api, hashString));
+                knownMedias.put(key(api, hashString), Boolean.TRUE);
+
                 return hashString;
             }
-
         } catch (TechnicalException | NoSuchAlgorithmException | IOException ex) {
             logger.error("An error occurs while trying to create {}", mediaEntity, ex);
             throw new TechnicalManagementException("An error occurs while trying create " + mediaEntity, ex);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ioe) {
+                    logger.warn("Unable to delete temporary media file {}", tempFile, ioe);
+                }
+            }
         }
     }
 
     @Override
     public MediaEntity findby(String id) {
-        Optional<Media> mediaData = mediaRepository.findByHash(id, "image");
-        return mediaData.isPresent() ? convert(mediaData.get()) : null;
+        return findby(id, null);
     }
 
     @Override
     public MediaEntity findby(String id, String api) {
-        Optional<Media> mediaData = mediaRepository.findByHash(id, api, "image");
-        return mediaData.isPresent() ? convert(mediaData.get()): null;
+        final String key = key(api, id);
+        Media media = medias.getIfPresent(key);
+        if (media == null) {
+            Optional<Media> mediaData = (api == null) ?
+                    mediaRepository.findByHash(id, "image") : mediaRepository.findByHash(id, api, "image");
+            if (!mediaData.isPresent()) {
+                knownMedias.invalidate(key);
+                return null;
+            }
+            media = mediaData.get();
+            medias.put(key, media);
+            knownMedias.put(key, Boolean.TRUE);
+        }
+        return convert(media);
+    }
+
+    @Override
+    public boolean exists(String id, String api) {
+        return knownMedias.getIfPresent(key(api, id)) != null || findby(id, api) != null;
+    }
+
+    private static String key(String api, String id) {
+        return (api == null ? PORTAL_MEDIA : api) + '/' + id;
     }
 
     public Long getMediaMaxSize() {
@@ -117,7 +194,6 @@ public class MediaServiceImpl implements MediaService {
         media.setSize(imageEntity.getSize());
         media.setType(imageEntity.getType());
         media.setSubType(imageEntity.getSubType());
-        //media.setData(new ByteArrayInputStream(imageEntity.getData()));
         return media;
     }
 
@@ -127,7 +203,7 @@ public class MediaServiceImpl implements MediaService {
                 media.getType(),
                 media.getSubType(),
                 media.getFileName(),
-                media.getSize());
+                media.getData().length);
         mediaEntity.setUploadDate(media.getCreatedAt());
         return mediaEntity;
     }
@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service.impl;
 
+import io.gravitee.common.event.EventManager;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.api.ApiQuery;
@@ -23,6 +24,7 @@ import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.model.providers.User;
 import io.gravitee.management.service.*;
 import io.gravitee.management.service.builder.EmailNotificationBuilder;
+import io.gravitee.management.service.event.MembershipEvent;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.notification.NotificationParamsBuilder;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -96,6 +98,9 @@ public class MembershipServiceImpl extends AbstractService implements Membership
     @Autowired
     private ApplicationRepository applicationRepository;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public Set<MemberEntity> getMembers(MembershipReferenceType referenceType, String referenceId, RoleScope roleScope) {
         return getMembers(referenceType, referenceId, roleScope, null);
@@ -302,6 +307,8 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 }
             }
 
+            eventManager.publishEvent(MembershipEvent.USER_MEMBERSHIPS_UPDATED, userEntity.getId());
+
             return convert(returnedMembership, role.getScope());
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to add member for {} {}", reference.getType(), reference.getId(), ex);
@@ -327,6 +334,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
             Membership membership = new Membership(userId, referenceId, referenceType);
             membershipRepository.delete(membership);
             createAuditLog(MEMBERSHIP_DELETED, new Date(), membership, null);
+            eventManager.publishEvent(MembershipEvent.USER_MEMBERSHIPS_UPDATED, userId);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete member {} for {} {}", userId, referenceType, referenceId, ex);
             throw new TechnicalManagementException("An error occurs while trying to delete member " + userId + " for " + referenceType + " " + referenceId, ex);
@@ -404,6 +412,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                 } else {
                     membershipRepository.update(membership);
                     createAuditLog(MEMBERSHIP_UPDATED, membership.getUpdatedAt(), previousMembership, membership);
+                    eventManager.publishEvent(MembershipEvent.USER_MEMBERSHIPS_UPDATED, userId);
                     return true;
                 }
             }
@@ -434,6 +443,7 @@ public class MembershipServiceImpl extends AbstractService implements Membership
             for(Membership membership : membershipRepository.findByUser(userId)) {
                 membershipRepository.delete(membership);
             }
+            eventManager.publishEvent(MembershipEvent.USER_MEMBERSHIPS_UPDATED, userId);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to remove user {}", userId, ex);
             throw new TechnicalManagementException("An error occurs while trying to remove user " + userId, ex);
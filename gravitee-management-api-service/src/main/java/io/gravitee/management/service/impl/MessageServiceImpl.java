@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.collect.Iterables;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
@@ -34,6 +35,7 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.api.SubscriptionRepository;
+import io.gravitee.repository.management.api.UserRepository;
 import io.gravitee.repository.management.api.search.SubscriptionCriteria;
 import io.gravitee.repository.management.model.*;
 import org.slf4j.Logger;
@@ -59,6 +61,8 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
 
     private final Logger LOGGER = LoggerFactory.getLogger(MessageServiceImpl.class);
 
+    private final static int RECIPIENTS_PAGE_SIZE = 500;
+
     @Autowired
     ApiRepository apiRepository;
 
@@ -72,7 +76,7 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
     PortalNotificationService portalNotificationService;
 
     @Autowired
-    UserService userService;
+    UserRepository userRepository;
 
     @Autowired
     AuditService auditService;
@@ -92,6 +96,9 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
     @Value("${email.from}")
     private String defaultFrom;
 
+    @Value("${email.batch.maxRecipients:100}")
+    private int maxRecipientsPerEmail;
+
     public enum MesssageEvent implements Audit.AuditEvent {
         MESSAGE_SENT
     }
@@ -141,17 +148,7 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
     private int send(Api api, MessageEntity message, Set<String> recipientsId) {
         switch (message.getChannel()) {
             case MAIL:
-                Set<String> mails = getRecipientsEmails(recipientsId);
-                    if (!mails.isEmpty()) {
-                        emailService.sendAsyncEmailNotification(new EmailNotificationBuilder()
-                                .to(defaultFrom)
-                                .bcc(mails.toArray(new String[0]))
-                                .subject(message.getTitle())
-                                .template(EmailNotificationBuilder.EmailTemplate.GENERIC_MESSAGE)
-                                .params(Collections.singletonMap("message", message.getText()))
-                                .build());
-                }
-                return mails.size();
+                return sendMails(message, recipientsId);
 
             case PORTAL:
                 Hook hook = api==null ? PortalHook.MESSAGE : ApiHook.MESSAGE;
@@ -195,51 +192,48 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
             final Set<String> recipientIds = new HashSet<>();
             // CASE 1 : global sending
             if (api == null && RoleScope.MANAGEMENT.name().equals(recipientEntity.getRoleScope())) {
-                for (String roleName: recipientEntity.getRoleValues()) {
-                    recipientIds.addAll(
-                            membershipRepository.findByRole(RoleScope.MANAGEMENT, roleName)
-                                    .stream()
-                                    .map(Membership::getUserId)
-                                    .collect(Collectors.toSet()));
+                for (String roleName: new HashSet<>(recipientEntity.getRoleValues())) {
+                    membershipRepository.findByRole(RoleScope.MANAGEMENT, roleName)
+                            .forEach(membership -> recipientIds.add(membership.getUserId()));
                 }
             }
             // CASE 2 : specific api consumers
             else if (api != null && RoleScope.APPLICATION.name().equals(recipientEntity.getRoleScope())) {
 
-                // Get apps allowed to consume the api
-                List<String> applicationIds = subscriptionRepository.search(
+                // Get apps allowed to consume the api (an application may hold several subscriptions)
+                final Set<String> applicationIds = subscriptionRepository.search(
                         new SubscriptionCriteria.Builder()
                                 .apis(Collections.singleton(api.getId()))
                                 .status(Subscription.Status.ACCEPTED)
                                 .build())
                         .stream()
                         .map(Subscription::getApplication)
-                        .collect(Collectors.toList());
+                        .collect(Collectors.toSet());
+
+                final Set<String> roleNames = new HashSet<>(recipientEntity.getRoleValues());
 
                 // Get members of the applications (direct members)
-                for (String roleName: recipientEntity.getRoleValues()) {
-                    recipientIds.addAll(
-                            membershipRepository.findByReferencesAndRole(
-                                    MembershipReferenceType.APPLICATION,
-                                    applicationIds,
-                                    RoleScope.APPLICATION,
-                                    roleName)
-                                    .stream()
-                                    .map(Membership::getUserId)
-                                    .collect(Collectors.toSet()));
+                if (!applicationIds.isEmpty()) {
+                    final List<String> applications = new ArrayList<>(applicationIds);
+                    for (String roleName : roleNames) {
+                        membershipRepository.findByReferencesAndRole(
+                                MembershipReferenceType.APPLICATION,
+                                applications,
+                                RoleScope.APPLICATION,
+                                roleName)
+                                .forEach(membership -> recipientIds.add(membership.getUserId()));
+                    }
                 }
                 // Get members of the applications (group members)
                 if (api.getGroups() != null && !api.getGroups().isEmpty()) {
-                    for (String roleName: recipientEntity.getRoleValues()) {
-                        recipientIds.addAll(
-                                membershipRepository.findByReferencesAndRole(
-                                        MembershipReferenceType.GROUP,
-                                        new ArrayList<>(api.getGroups()),
-                                        RoleScope.APPLICATION,
-                                        roleName)
-                                        .stream()
-                                        .map(Membership::getUserId)
-                                        .collect(Collectors.toSet()));
+                    final List<String> groups = new ArrayList<>(api.getGroups());
+                    for (String roleName : roleNames) {
+                        membershipRepository.findByReferencesAndRole(
+                                MembershipReferenceType.GROUP,
+                                groups,
+                                RoleScope.APPLICATION,
+                                roleName)
+                                .forEach(membership -> recipientIds.add(membership.getUserId()));
                     }
                 }
             }
@@ -250,17 +244,59 @@ public class MessageServiceImpl extends AbstractService implements MessageServic
         }
     }
 
-    private Set<String> getRecipientsEmails(Set<String> recipientsId) {
-        if(recipientsId.isEmpty()) {
-            return Collections.emptySet();
+    /**
+     * Resolve the recipients emails page by page and send them as soon as a page has been resolved, so that only the
+     * emails (not the whole users) are kept in memory.
+     */
+    private int sendMails(MessageEntity message, Set<String> recipientsId) {
+        if (recipientsId.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            // SMTP servers limit the number of recipients per message, split them into several emails
+            // which share the same rendered content and are sent over a single connection.
+            final Map<String, Object> params = Collections.singletonMap("message", message.getText());
+            final int chunkSize = maxRecipientsPerEmail > 0 ? maxRecipientsPerEmail : Integer.MAX_VALUE;
+            final Set<String> mails = new HashSet<>();
+            List<String> bcc = new ArrayList<>();
+
+            for (List<String> page : Iterables.partition(recipientsId, RECIPIENTS_PAGE_SIZE)) {
+                final List<EmailNotification> notifications = new ArrayList<>();
+                for (User user : userRepository.findByIds(page)) {
+                    if (!StringUtils.isEmpty(user.getEmail()) && mails.add(user.getEmail())) {
+                        bcc.add(user.getEmail());
+                        if (bcc.size() >= chunkSize) {
+                            notifications.add(buildMessageNotification(message, params, bcc));
+                            bcc = new ArrayList<>();
+                        }
+                    }
+                }
+                if (!notifications.isEmpty()) {
+                    emailService.sendAsyncEmailNotifications(notifications);
+                }
+            }
+
+            if (!bcc.isEmpty()) {
+                emailService.sendAsyncEmailNotifications(
+                        Collections.singletonList(buildMessageNotification(message, params, bcc)));
+            }
+
+            return mails.size();
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to get recipients emails", ex);
+            throw new TechnicalManagementException("An error occurs while trying to get recipients emails", ex);
         }
+    }
 
-        Set<String> emails = userService.findByIds(new ArrayList<>(recipientsId))
-                .stream()
-                .filter(userEntity -> !StringUtils.isEmpty(userEntity.getEmail()))
-                .map(UserEntity::getEmail)
-                .collect(Collectors.toSet());
-       return emails;
+    private EmailNotification buildMessageNotification(MessageEntity message, Map<String, Object> params, List<String> bcc) {
+        return new EmailNotificationBuilder()
+                .to(defaultFrom)
+                .bcc(bcc.toArray(new String[0]))
+                .subject(message.getTitle())
+                .template(EmailNotificationBuilder.EmailTemplate.GENERIC_MESSAGE)
+                .params(params)
+                .build();
     }
 
     private void assertMessageNotEmpty(MessageEntity messageEntity) {
@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service.impl;
 
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.utils.IdGenerator;
 import io.gravitee.management.model.MetadataEntity;
 import io.gravitee.management.model.MetadataFormat;
@@ -22,6 +23,7 @@ import io.gravitee.management.model.NewMetadataEntity;
 import io.gravitee.management.model.UpdateMetadataEntity;
 import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.MetadataService;
+import io.gravitee.management.service.event.MetadataEvent;
 import io.gravitee.management.service.exceptions.DuplicateMetadataNameException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -65,6 +67,9 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public List<MetadataEntity> findAllDefault() {
         try {
@@ -102,6 +107,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
             metadata.setCreatedAt(now);
             metadata.setUpdatedAt(now);
             metadataRepository.create(metadata);
+            eventManager.publishEvent(MetadataEvent.DEFAULT_METADATA_UPDATED, metadata.getKey());
             // Audit
             auditService.createPortalAuditLog(
                     Collections.singletonMap(METADATA, metadata.getKey()),
@@ -134,6 +140,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
             final Date now = new Date();
             metadata.setUpdatedAt(now);
             metadataRepository.update(metadata);
+            eventManager.publishEvent(MetadataEvent.DEFAULT_METADATA_UPDATED, metadata.getKey());
             // Audit
             auditService.createPortalAuditLog(
                     Collections.singletonMap(METADATA, metadata.getKey()),
@@ -175,6 +182,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
                             metadata,
                             null);
                 }
+                eventManager.publishEvent(MetadataEvent.DEFAULT_METADATA_UPDATED, key);
             }
         } catch(TechnicalException ex){
             LOGGER.error("An error occurs while trying to delete metadata {}", key, ex);
@@ -38,6 +38,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -76,6 +77,12 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
     @Override
     @Async
     public void trigger(final ApiHook hook, final String apiId, Map<String, Object> params) {
+        triggerAll(hook, apiId, Collections.singletonList(params));
+    }
+
+    @Override
+    @Async
+    public void triggerAll(final ApiHook hook, final String apiId, List<Map<String, Object>> params) {
         triggerPortalNotifications(hook, NotificationReferenceType.API, apiId, params);
         triggerGenericNotifications(hook, NotificationReferenceType.API, apiId, params);
     }
@@ -83,6 +90,12 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
     @Override
     @Async
     public void trigger(final ApplicationHook hook, final String applicationId, Map<String, Object> params) {
+        triggerAll(hook, applicationId, Collections.singletonList(params));
+    }
+
+    @Override
+    @Async
+    public void triggerAll(final ApplicationHook hook, final String applicationId, List<Map<String, Object>> params) {
         triggerPortalNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
         triggerGenericNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
     }
@@ -90,33 +103,33 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
     @Override
     @Async
     public void trigger(final PortalHook hook, Map<String, Object> params) {
-        triggerPortalNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
-        triggerGenericNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
+        triggerPortalNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), Collections.singletonList(params));
+        triggerGenericNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), Collections.singletonList(params));
     }
 
-    private void triggerPortalNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final Map<String, Object> params) {
+    private void triggerPortalNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final List<Map<String, Object>> params) {
         try {
             List<String> userIds = portalNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId).
                     stream().
                     map(PortalNotificationConfig::getUser).
                     collect(Collectors.toList());
             if (!userIds.isEmpty()) {
-                portalNotificationService.create(hook, userIds, params);
+                params.forEach(p -> portalNotificationService.create(hook, userIds, p));
             }
         } catch (TechnicalException e) {
             LOGGER.error("Error looking for PortalNotificationConfig with {}/{}/{}", hook, refType, refId, e);
         }
     }
 
-    private void triggerGenericNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final Map<String, Object> params) {
+    private void triggerGenericNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final List<Map<String, Object>> params) {
         try {
             for (GenericNotificationConfig genericNotificationConfig : genericNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId)) {
                 switch (genericNotificationConfig.getNotifier()) {
                     case DEFAULT_EMAIL_NOTIFIER_ID:
-                        emailNotifierService.trigger(hook, genericNotificationConfig, params);
+                        params.forEach(p -> emailNotifierService.trigger(hook, genericNotificationConfig, p));
                         break;
                     case DEFAULT_WEBHOOK_NOTIFIER_ID:
-                        webhookNotifierService.trigger(hook, genericNotificationConfig, params);
+                        params.forEach(p -> webhookNotifierService.trigger(hook, genericNotificationConfig, p));
                         break;
                     default:
                         LOGGER.error("Unknown notifier {}", genericNotificationConfig.getNotifier());
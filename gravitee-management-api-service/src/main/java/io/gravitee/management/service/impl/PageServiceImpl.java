@@ -16,10 +16,16 @@
 package io.gravitee.management.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.Gson;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.fetcher.api.Fetcher;
@@ -32,6 +38,8 @@ import io.gravitee.management.model.documentation.PageQuery;
 import io.gravitee.management.model.permissions.ApiPermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.service.*;
+import io.gravitee.management.service.event.ApiModelEvent;
+import io.gravitee.management.service.event.MetadataEvent;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.search.SearchEngineService;
 import io.gravitee.plugin.core.api.PluginManager;
@@ -46,15 +54,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
 import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 
-import java.io.BufferedReader;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.management.model.Audit.AuditProperties.PAGE;
@@ -69,12 +86,23 @@ import static java.util.Collections.emptyList;
  * @author Guillaume Gillon
  */
 @Component
-public class PageServiceImpl extends TransactionalService implements PageService, ApplicationContextAware {
+public class PageServiceImpl extends TransactionalService implements PageService, ApplicationContextAware,
+		EventListener<MetadataEvent, String> {
 
 	private static final Gson gson = new Gson();
 
 	private static final Logger logger = LoggerFactory.getLogger(PageServiceImpl.class);
 
+	private static final long RENDERED_PAGES_MAX_SIZE = 1_000;
+	private static final long RENDERED_PAGES_TTL_MINUTES = 5;
+
+	private static final int FETCHER_POOL_SIZE = 4;
+	private static final int FETCHER_QUEUE_SIZE = 100;
+	private static final long FETCHER_CONFIGURATIONS_MAX_SIZE = 100;
+	private static final long FETCHER_CONFIGURATIONS_TTL_MINUTES = 30;
+	private static final long FETCH_TIMEOUT_MILLIS = 60_000;
+	private static final int FETCHED_CONTENT_MAX_SIZE = 5 * 1024 * 1024;
+
 	@Autowired
 	private PageRepository pageRepository;
 
@@ -108,6 +136,98 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	@Autowired
 	private SearchEngineService searchEngineService;
 
+	@Autowired
+	private EventManager eventManager;
+
+	@Value("${fetchers.pool.size:" + FETCHER_POOL_SIZE + "}")
+	private int fetcherPoolSize = FETCHER_POOL_SIZE;
+
+	@Value("${fetchers.timeout:" + FETCH_TIMEOUT_MILLIS + "}")
+	private long fetchTimeout = FETCH_TIMEOUT_MILLIS;
+
+	@Value("${fetchers.cache.size:" + FETCHER_CONFIGURATIONS_MAX_SIZE + "}")
+	private long fetcherConfigurationsMaxSize = FETCHER_CONFIGURATIONS_MAX_SIZE;
+
+	/**
+	 * Rendered pages, validated against the update date of the page read by the caller. API and metadata changes are
+	 * notified through {@link ApiModelEvent} and {@link MetadataEvent}, the TTL bounds the staleness for changes made
+	 * on other nodes.
+	 */
+	private final Cache<String, RenderedPage> renderedPages = CacheBuilder.newBuilder()
+			.maximumSize(RENDERED_PAGES_MAX_SIZE)
+			.expireAfterWrite(RENDERED_PAGES_TTL_MINUTES, TimeUnit.MINUTES)
+			.build();
+
+	private final LongAdder renderedPagesHits = new LongAdder();
+	private final LongAdder renderedPagesMisses = new LongAdder();
+
+	/**
+	 * Fetcher classes resolved through the plugin classloader, by fetcher type.
+	 */
+	private final Map<String, FetcherClasses> fetcherClasses = new ConcurrentHashMap<>();
+
+	/**
+	 * Parsed fetcher configurations, by fetcher type and configuration. Fetchers are not thread-safe, so a new one is
+	 * built from its cached configuration for each fetch.
+	 */
+	private Cache<String, FetcherConfiguration> fetcherConfigurations;
+
+	private ExecutorService fetcherExecutor;
+
+	@PostConstruct
+	public void init() {
+		fetcherConfigurations = CacheBuilder.newBuilder()
+				.maximumSize(fetcherConfigurationsMaxSize)
+				.expireAfterAccess(FETCHER_CONFIGURATIONS_TTL_MINUTES, TimeUnit.MINUTES)
+				.build();
+		fetcherExecutor = new ThreadPoolExecutor(fetcherPoolSize, fetcherPoolSize,
+				0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(FETCHER_QUEUE_SIZE), new ThreadFactory() {
+					private final AtomicInteger counter = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						final Thread thread = new Thread(runnable, "page-fetcher-" + counter.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		eventManager.subscribeForEvents(this, MetadataEvent.class);
+		eventManager.subscribeForEvents((EventListener<ApiModelEvent, String>) this::onApiModelEvent, ApiModelEvent.class);
+	}
+
+	@PreDestroy
+	public void close() {
+		fetcherExecutor.shutdownNow();
+	}
+
+	@Override
+	public void onEvent(Event<MetadataEvent, String> event) {
+		switch (event.type()) {
+			case API_METADATA_UPDATED:
+				discardRenderedContent(event.content());
+				break;
+			case DEFAULT_METADATA_UPDATED:
+				discardRenderedContent(null);
+				break;
+		}
+	}
+
+	private void onApiModelEvent(Event<ApiModelEvent, String> event) {
+		if (event.type() == ApiModelEvent.UPDATED) {
+			discardRenderedContent(event.content());
+		}
+	}
+
+	/**
+	 * Discard the content rendered from the model of the given API (of all APIs if <code>null</code>), the compiled
+	 * templates do not depend on the model and are kept.
+	 */
+	private void discardRenderedContent(String api) {
+		renderedPages.asMap().replaceAll((pageId, renderedPage) ->
+				renderedPage.template != null && (api == null || api.equals(renderedPage.api)) ?
+						renderedPage.withoutContent() : renderedPage);
+	}
+
 	@Override
 	public List<PageListItem> findApiPagesByApi(String apiId) {
 	    return findApiPagesByApiAndHomepage(apiId, null, null);
@@ -201,10 +321,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
 			if (page.isPresent()) {
 				PageEntity pageEntity = convert(page.get());
 				if (transform) {
-					transformUsingConfiguration(pageEntity);
-					if (page.get().getApi() != null) {
-						transformWithTemplate(pageEntity, page.get().getApi());
-					}
+					render(pageEntity, page.get());
 				}
 
 				return pageEntity;
@@ -249,23 +366,62 @@ public class PageServiceImpl extends TransactionalService implements PageService
 		}
 	}
 
-	private void transformWithTemplate(final PageEntity pageEntity, final String api) {
-		if (pageEntity.getContent() != null) {
-			try {
-				Template template = new Template(pageEntity.getId(), pageEntity.getContent(), freemarkerConfiguration);
+	private void render(final PageEntity pageEntity, final Page page) {
+		final RenderedPage cachedPage = renderedPages.getIfPresent(page.getId());
+
+		if (cachedPage != null && cachedPage.isUpToDate(page.getUpdatedAt())) {
+			renderedPagesHits.increment();
+			logger.debug("Page {} served from the rendered pages cache ({} hits, {} misses)",
+					page.getId(), renderedPagesHits.sum(), renderedPagesMisses.sum());
+			pageEntity.setContent(cachedPage.content);
+			return;
+		}
 
-				ApiModelEntity apiEntity = apiService.findByIdForTemplates(api);
-				Map<String, Object> model = new HashMap<>();
-				model.put("api", apiEntity);
+		renderedPagesMisses.increment();
 
-				final String content =
-						FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+		final Template template;
+		if (cachedPage != null && Objects.equals(cachedPage.pageUpdatedAt, page.getUpdatedAt())) {
+			// only the API model has changed, the compiled template can be reused
+			template = cachedPage.template;
+		} else {
+			transformUsingConfiguration(pageEntity);
+			template = page.getApi() == null ? null : compileTemplate(pageEntity);
+		}
+
+		if (template != null) {
+			transformWithTemplate(pageEntity, template, page.getApi());
+		}
 
-				pageEntity.setContent(content);
-			} catch (IOException | TemplateException ex) {
+		renderedPages.put(page.getId(),
+				new RenderedPage(page.getApi(), page.getUpdatedAt(), template, pageEntity.getContent()));
+		logger.debug("Page {} rendered ({} hits, {} misses)",
+				page.getId(), renderedPagesHits.sum(), renderedPagesMisses.sum());
+	}
+
+	private Template compileTemplate(final PageEntity pageEntity) {
+		if (pageEntity.getContent() != null) {
+			try {
+				return new Template(pageEntity.getId(), pageEntity.getContent(), freemarkerConfiguration);
+			} catch (IOException ex) {
 				logger.error("An error occurs while transforming page content for {}", pageEntity.getId(), ex);
 			}
 		}
+		return null;
+	}
+
+	private void transformWithTemplate(final PageEntity pageEntity, final Template template, final String api) {
+		try {
+			ApiModelEntity apiEntity = apiService.findByIdForTemplates(api);
+			Map<String, Object> model = new HashMap<>();
+			model.put("api", apiEntity);
+
+			final String content =
+					FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+
+			pageEntity.setContent(content);
+		} catch (IOException | TemplateException ex) {
+			logger.error("An error occurs while transforming page content for {}", pageEntity.getId(), ex);
+		}
 	}
 
 	@Override
@@ -447,6 +603,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
 				return null;
 			} else {
 				Page updatedPage = pageRepository.update(page);
+				renderedPages.invalidate(pageId);
 				createAuditLog(page.getApi(), PAGE_UPDATED, page.getUpdatedAt(), pageToUpdate, page);
 
 				PageEntity pageEntity = convert(updatedPage);
@@ -462,31 +619,84 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	}
 
 	private String getContentFromFetcher(PageSource ps) throws FetcherException {
-		if (ps.getConfiguration().isEmpty()) {
-			return null;
+		return awaitContent(fetchContent(ps));
+	}
+
+	private Future<String> fetchContent(PageSource ps) throws FetcherException {
+		if (ps.getConfiguration() == null || ps.getConfiguration().isEmpty()) {
+			return CompletableFuture.completedFuture(null);
 		}
+		final Fetcher fetcher = createFetcher(ps);
+		return fetcherExecutor.submit(() -> readContent(fetcher));
+	}
+
+	private String awaitContent(Future<String> content) throws FetcherException {
 		try {
-			FetcherPlugin fetcherPlugin = fetcherPluginManager.get(ps.getType());
-			ClassLoader fetcherCL = fetcherPlugin.fetcher().getClassLoader();
-			Class<? extends FetcherConfiguration> fetcherConfigurationClass = (Class<? extends FetcherConfiguration>) fetcherCL.loadClass(fetcherPlugin.configuration().getName());
-			Class<? extends Fetcher> fetcherClass = (Class<? extends Fetcher>) fetcherCL.loadClass(fetcherPlugin.clazz());
-			FetcherConfiguration fetcherConfigurationInstance = fetcherConfigurationFactory.create(fetcherConfigurationClass, ps.getConfiguration());
-			Fetcher fetcher = fetcherClass.getConstructor(fetcherConfigurationClass).newInstance(fetcherConfigurationInstance);
-			// Autowire fetcher
-			applicationContext.getAutowireCapableBeanFactory().autowireBean(fetcher);
+			return content.get(fetchTimeout, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			content.cancel(true);
+			logger.error("Content has not been fetched within {} ms", fetchTimeout, e);
+			throw new FetcherException("Content has not been fetched within " + fetchTimeout + " ms", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FetcherException(e.getMessage(), e);
+		} catch (ExecutionException e) {
+			final Throwable cause = e.getCause();
+			logger.error(cause.getMessage(), cause);
+			if (cause instanceof FetcherException) {
+				throw (FetcherException) cause;
+			}
+			throw new FetcherException(cause.getMessage(), cause);
+		}
+	}
 
-			StringBuilder sb = new StringBuilder();
-			try (BufferedReader br = new BufferedReader(new InputStreamReader(fetcher.fetch()))) {
-				String line;
-				while ((line = br.readLine()) != null) {
-					sb.append(line);
-					sb.append("\n");
+	private String readContent(Fetcher fetcher) throws FetcherException, IOException {
+		try (InputStream is = fetcher.fetch()) {
+			final ByteArrayOutputStream content = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[8192];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				if (content.size() + read > FETCHED_CONTENT_MAX_SIZE) {
+					throw new FetcherException("Fetched content exceeds the maximum size of " + FETCHED_CONTENT_MAX_SIZE + " bytes", null);
 				}
+				content.write(buffer, 0, read);
 			}
-			return sb.toString();
-		} catch (Exception e) {
-		    logger.error(e.getMessage(), e);
-            throw new FetcherException(e.getMessage(), e);
+			return new String(content.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private Fetcher createFetcher(PageSource ps) throws FetcherException {
+		try {
+			final FetcherClasses classes = fetcherClasses.computeIfAbsent(ps.getType(), this::loadFetcherClasses);
+			final FetcherConfiguration fetcherConfigurationInstance = fetcherConfigurations.get(
+					ps.getType() + ':' + ps.getConfiguration(),
+					() -> fetcherConfigurationFactory.create(classes.configuration, ps.getConfiguration()));
+			Fetcher fetcher = classes.constructor.newInstance(fetcherConfigurationInstance);
+			// Autowire fetcher
+			applicationContext.getAutowireCapableBeanFactory().autowireBean(fetcher);
+			return fetcher;
+		} catch (ExecutionException | UncheckedExecutionException | InvocationTargetException e) {
+			final Throwable cause = e.getCause();
+			logger.error(cause.getMessage(), cause);
+			throw new FetcherException(cause.getMessage(), cause);
+		} catch (ReflectiveOperationException | IllegalStateException e) {
+			logger.error(e.getMessage(), e);
+			throw new FetcherException(e.getMessage(), e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private FetcherClasses loadFetcherClasses(String type) {
+		try {
+			FetcherPlugin fetcherPlugin = fetcherPluginManager.get(type);
+			ClassLoader fetcherCL = fetcherPlugin.fetcher().getClassLoader();
+			final Class<? extends Fetcher> fetcherClass =
+					(Class<? extends Fetcher>) fetcherCL.loadClass(fetcherPlugin.clazz());
+			final Class<? extends FetcherConfiguration> configurationClass =
+					(Class<? extends FetcherConfiguration>) fetcherCL.loadClass(fetcherPlugin.configuration().getName());
+			return new FetcherClasses(fetcherClass.getConstructor(configurationClass), configurationClass);
+		} catch (ClassNotFoundException | NoSuchMethodException e) {
+			throw new IllegalStateException(e.getMessage(), e);
 		}
 	}
 
@@ -539,6 +749,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
 			}
 
 			pageRepository.delete(pageId);
+			renderedPages.invalidate(pageId);
             createAuditLog(optPage.get().getApi(), PAGE_DELETED, new Date(), optPage.get(), null);
 			if(io.gravitee.repository.management.model.PageType.FOLDER.equals(optPage.get().getType())) {
                 pageRepository.removeAllFolderParentWith(pageId, optPage.get().getApi());
@@ -602,35 +813,86 @@ public class PageServiceImpl extends TransactionalService implements PageService
 		try {
 			logger.debug("Fetch page {}", pageId);
 
-			Optional<Page> optPageToUpdate = pageRepository.findById(pageId);
-			if (!optPageToUpdate.isPresent()) {
-				throw new PageNotFoundException(pageId);
+			Page page = findFetchablePage(pageId);
+
+			String fetchedContent;
+			try {
+				fetchedContent = this.getContentFromFetcher(page.getSource());
+			} catch (FetcherException e) {
+				throw onUpdateFail(pageId, e);
 			}
 
-			Page page = optPageToUpdate.get();
+			return updateFetchedPage(page, fetchedContent, contributor);
+		} catch (TechnicalException ex) {
+			throw onUpdateFail(pageId, ex);
+		}
+	}
 
-			if (page.getSource() == null) {
-				throw new NoFetcherDefinedException(pageId);
+	@Override
+	public List<PageEntity> fetchAll(Collection<String> pageIds, String contributor) {
+		logger.debug("Fetch pages {}", pageIds);
+
+		// contents are fetched concurrently, pages are then updated one by one
+		final Map<Page, Future<String>> fetchedContents = new LinkedHashMap<>();
+		try {
+			for (String pageId : pageIds) {
+				Page page = findFetchablePage(pageId);
+				try {
+					fetchedContents.put(page, fetchContent(page.getSource()));
+				} catch (FetcherException e) {
+					throw onUpdateFail(pageId, e);
+				}
 			}
 
-			try {
-				String fetchedContent = this.getContentFromFetcher(page.getSource());
-				if (fetchedContent != null && !fetchedContent.isEmpty()) {
-					page.setContent(fetchedContent);
+			final List<PageEntity> pages = new ArrayList<>(fetchedContents.size());
+			for (Map.Entry<Page, Future<String>> fetchedContent : fetchedContents.entrySet()) {
+				Page page = fetchedContent.getKey();
+				try {
+					pages.add(updateFetchedPage(page, awaitContent(fetchedContent.getValue()), contributor));
+				} catch (FetcherException e) {
+					throw onUpdateFail(page.getId(), e);
+				} catch (TechnicalException ex) {
+					throw onUpdateFail(page.getId(), ex);
 				}
-			} catch (FetcherException e) {
-				throw onUpdateFail(pageId, e);
 			}
+			return pages;
+		} catch (TechnicalException ex) {
+			logger.error("An error occurs while trying to fetch pages {}", pageIds, ex);
+			throw new TechnicalManagementException("An error occurs while trying to fetch pages " + pageIds, ex);
+		} finally {
+			// a page failed, the fetches still running are useless
+			fetchedContents.values().stream()
+					.filter(future -> !future.isDone())
+					.forEach(future -> future.cancel(true));
+		}
+	}
 
-			page.setUpdatedAt(new Date());
-			page.setLastContributor(contributor);
+	private Page findFetchablePage(String pageId) throws TechnicalException {
+		Optional<Page> optPageToUpdate = pageRepository.findById(pageId);
+		if (!optPageToUpdate.isPresent()) {
+			throw new PageNotFoundException(pageId);
+		}
 
-			Page updatedPage = pageRepository.update(page);
-			createAuditLog(page.getApi(), PAGE_UPDATED, page.getUpdatedAt(), page, page);
-			return convert(updatedPage);
-		} catch (TechnicalException ex) {
-			throw onUpdateFail(pageId, ex);
+		Page page = optPageToUpdate.get();
+
+		if (page.getSource() == null) {
+			throw new NoFetcherDefinedException(pageId);
+		}
+		return page;
+	}
+
+	private PageEntity updateFetchedPage(Page page, String fetchedContent, String contributor) throws TechnicalException {
+		if (fetchedContent != null && !fetchedContent.isEmpty()) {
+			page.setContent(fetchedContent);
 		}
+
+		page.setUpdatedAt(new Date());
+		page.setLastContributor(contributor);
+
+		Page updatedPage = pageRepository.update(page);
+		renderedPages.invalidate(page.getId());
+		createAuditLog(page.getApi(), PAGE_UPDATED, page.getUpdatedAt(), page, page);
+		return convert(updatedPage);
 	}
 
 	private boolean isDisplayableForMember(MemberEntity member, boolean pageIsPublished) {
@@ -870,4 +1132,47 @@ public class PageServiceImpl extends TransactionalService implements PageService
 			);
 		}
 	}
+
+	private static final class RenderedPage {
+
+		private final String api;
+		private final Date pageUpdatedAt;
+		private final Template template;
+		private final String content;
+		/**
+		 * <code>false</code> once the model of the API has changed, only the compiled template can then be reused.
+		 */
+		private final boolean rendered;
+
+		private RenderedPage(String api, Date pageUpdatedAt, Template template, String content) {
+			this(api, pageUpdatedAt, template, content, true);
+		}
+
+		private RenderedPage(String api, Date pageUpdatedAt, Template template, String content, boolean rendered) {
+			this.api = api;
+			this.pageUpdatedAt = pageUpdatedAt;
+			this.template = template;
+			this.content = content;
+			this.rendered = rendered;
+		}
+
+		private RenderedPage withoutContent() {
+			return new RenderedPage(api, pageUpdatedAt, template, null, false);
+		}
+
+		private boolean isUpToDate(Date pageUpdatedAt) {
+			return rendered && Objects.equals(this.pageUpdatedAt, pageUpdatedAt);
+		}
+	}
+
+	private static final class FetcherClasses {
+
+		private final Constructor<? extends Fetcher> constructor;
+		private final Class<? extends FetcherConfiguration> configuration;
+
+		private FetcherClasses(Constructor<? extends Fetcher> constructor, Class<? extends FetcherConfiguration> configuration) {
+			this.constructor = constructor;
+			this.configuration = configuration;
+		}
+	}
 }
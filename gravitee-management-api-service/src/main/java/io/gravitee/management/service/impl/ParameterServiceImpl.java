@@ -15,9 +15,11 @@
  */
 package io.gravitee.management.service.impl;
 
+import io.gravitee.common.event.EventManager;
 import io.gravitee.management.model.parameters.Key;
 import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.ParameterService;
+import io.gravitee.management.service.event.ParameterEvent;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ParameterRepository;
@@ -25,6 +27,8 @@ import io.gravitee.repository.management.model.Parameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.inject.Inject;
 import java.util.*;
@@ -56,6 +60,8 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
     private ParameterRepository parameterRepository;
     @Inject
     private AuditService auditService;
+    @Inject
+    private EventManager eventManager;
 
     @Override
     public boolean findAsBoolean(final Key key) {
@@ -146,9 +152,11 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
             if (updateMode) {
                 if (value == null) {
                     parameterRepository.delete(key.key());
+                    publishUpdated(key.key());
                     return null;
                 } else {
                     final Parameter updatedParameter = parameterRepository.update(parameter);
+                    publishUpdated(key.key());
                     auditService.createPortalAuditLog(
                             singletonMap(PARAMETER, updatedParameter.getKey()),
                             PARAMETER_UPDATED,
@@ -162,6 +170,7 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
                     return null;
                 }
                 final Parameter savedParameter = parameterRepository.create(parameter);
+                publishUpdated(key.key());
                 auditService.createPortalAuditLog(
                         singletonMap(PARAMETER, savedParameter.getKey()),
                         PARAMETER_CREATED,
@@ -182,4 +191,21 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
     public Parameter save(final Key key, final List<String> values) {
         return save(key, values==null ? null : join(SEPARATOR, values));
     }
+
+    /**
+     * Listeners read the parameter back from the repository, so they are only notified once the transaction saving it
+     * has been committed.
+     */
+    private void publishUpdated(final String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    eventManager.publishEvent(ParameterEvent.UPDATED, key);
+                }
+            });
+        } else {
+            eventManager.publishEvent(ParameterEvent.UPDATED, key);
+        }
+    }
 }
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import io.gravitee.management.service.NotifierService;
+import io.gravitee.management.service.notification.ApiHook;
+import io.gravitee.management.service.notification.ApplicationHook;
+
+import java.util.*;
+
+/**
+ * Notifications of several entities handled together, grouped by hook and API / application so that the notification
+ * configurations of each API / application are only looked up once when they are triggered.
+ *
+ * @author GraviteeSource Team
+ */
+final class PendingNotifications {
+
+    private final NotifierService notifierService;
+    private final Map<ApiHook, Map<String, List<Map<String, Object>>>> apiNotifications = new EnumMap<>(ApiHook.class);
+    private final Map<ApplicationHook, Map<String, List<Map<String, Object>>>> applicationNotifications =
+            new EnumMap<>(ApplicationHook.class);
+
+    PendingNotifications(NotifierService notifierService) {
+        this.notifierService = notifierService;
+    }
+
+    void add(ApiHook hook, String api, Map<String, Object> params) {
+        apiNotifications.computeIfAbsent(hook, h -> new LinkedHashMap<>())
+                .computeIfAbsent(api, a -> new ArrayList<>()).add(params);
+    }
+
+    void add(ApplicationHook hook, String application, Map<String, Object> params) {
+        applicationNotifications.computeIfAbsent(hook, h -> new LinkedHashMap<>())
+                .computeIfAbsent(application, a -> new ArrayList<>()).add(params);
+    }
+
+    /**
+     * Trigger the pending notifications, then forget them.
+     */
+    void trigger() {
+        apiNotifications.forEach((hook, notifications) -> notifications.forEach((api, params) -> {
+            if (params.size() == 1) {
+                notifierService.trigger(hook, api, params.get(0));
+            } else {
+                notifierService.triggerAll(hook, api, params);
+            }
+        }));
+        applicationNotifications.forEach((hook, notifications) -> notifications.forEach((application, params) -> {
+            if (params.size() == 1) {
+                notifierService.trigger(hook, application, params.get(0));
+            } else {
+                notifierService.triggerAll(hook, application, params);
+            }
+        }));
+        apiNotifications.clear();
+        applicationNotifications.clear();
+    }
+}
@@ -15,10 +15,10 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.collect.Iterables;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import io.gravitee.common.utils.UUID;
-import io.gravitee.management.model.notification.NewPortalNotificationEntity;
 import io.gravitee.management.model.notification.PortalNotificationEntity;
 import io.gravitee.management.service.PortalNotificationService;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
@@ -46,6 +46,7 @@ public class PortalNotificationServiceImpl extends AbstractService implements Po
 
     private final Logger LOGGER = LoggerFactory.getLogger(PortalNotificationServiceImpl.class);
     private final static String RELATIVE_TPL_PATH = "notifications/portal/";
+    private final static int NOTIFICATIONS_BATCH_SIZE = 500;
 
     @Autowired
     private PortalNotificationRepository portalNotificationRepository;
@@ -69,28 +70,20 @@ public class PortalNotificationServiceImpl extends AbstractService implements Po
 
     @Override
     public void create(Hook hook, List<String> users, Object params) {
+        final Map<String, String> load;
         try {
-            // get notification template
+            // get notification template, rendered once for all the users
             String tpl = RELATIVE_TPL_PATH + hook.getScope().name() + "." + hook.name() + ".yml";
             final Template template = freemarkerConfiguration.getTemplate(tpl);
             final String yamlContent = processTemplateIntoString(template, params);
             Yaml yaml = new Yaml();
-            Map<String, String> load = yaml.loadAs(yamlContent, HashMap.class);
-
-            List<NewPortalNotificationEntity> notifications = new ArrayList<>(users.size());
-            users.forEach(user -> {
-                NewPortalNotificationEntity notification = new NewPortalNotificationEntity();
-                notification.setUser(user);
-                notification.setTitle(load.get("title"));
-                notification.setMessage(load.get("message"));
-                notifications.add(notification);
-            });
-
-            create(notifications);
+            load = yaml.loadAs(yamlContent, HashMap.class);
         } catch (final Exception ex) {
             LOGGER.error("Error while sending notification", ex);
             throw new TechnicalManagementException("Error while sending notification", ex);
         }
+
+        create(new LinkedHashSet<>(users), load.get("title"), load.get("message"));
     }
 
     @Override
@@ -113,32 +106,33 @@ public class PortalNotificationServiceImpl extends AbstractService implements Po
         }
     }
 
-    private void create(List<NewPortalNotificationEntity> notificationEntities) {
+    /**
+     * Write the notifications by batches so that a hook subscribed by a large number of users does not build all the
+     * rows in memory nor send them in a single repository call. The repository only stores one row per user, hence the
+     * same message is written for each of them.
+     */
+    private void create(Collection<String> users, String title, String message) {
         final Date now = new Date();
-        List<PortalNotification> notifications = notificationEntities.
-                stream().
-                map(this::convert).
-                collect(Collectors.toList());
-        notifications.forEach( n -> {
-            n.setId(UUID.toString(UUID.random()));
-            n.setCreatedAt(now);
-        });
-        try {
-            portalNotificationRepository.create(notifications);
-        } catch (TechnicalException ex) {
-            LOGGER.error("An error occurs while trying to create {}", notifications, ex);
-            throw new TechnicalManagementException("An error occurs while trying create " + notifications, ex);
+        for (List<String> batch : Iterables.partition(users, NOTIFICATIONS_BATCH_SIZE)) {
+            List<PortalNotification> notifications = new ArrayList<>(batch.size());
+            for (String user : batch) {
+                PortalNotification notification = new PortalNotification();
+                notification.setId(UUID.toString(UUID.random()));
+                notification.setTitle(title);
+                notification.setMessage(message);
+                notification.setUser(user);
+                notification.setCreatedAt(now);
+                notifications.add(notification);
+            }
+            try {
+                portalNotificationRepository.create(notifications);
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to create {} notifications", notifications.size(), ex);
+                throw new TechnicalManagementException("An error occurs while trying create " + notifications.size() + " notifications", ex);
+            }
         }
     }
 
-    private PortalNotification convert(NewPortalNotificationEntity entity) {
-        PortalNotification notification = new PortalNotification();
-        notification.setTitle(entity.getTitle());
-        notification.setMessage(entity.getMessage());
-        notification.setUser(entity.getUser());
-        return notification;
-    }
-
     private PortalNotificationEntity convert(PortalNotification notification) {
         PortalNotificationEntity entity = new PortalNotificationEntity();
         entity.setId(notification.getId());
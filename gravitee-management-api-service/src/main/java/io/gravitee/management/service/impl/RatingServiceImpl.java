@@ -15,6 +15,11 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
@@ -38,10 +43,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
-import java.util.OptionalDouble;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.Comparator.comparing;
 import static java.util.Comparator.reverseOrder;
@@ -57,6 +68,10 @@ public class RatingServiceImpl extends AbstractService implements RatingService
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RatingServiceImpl.class);
 
+    private static final long SUMMARY_CACHE_MAX_SIZE = 10_000;
+    private static final long SUMMARY_CACHE_REFRESH_MINUTES = 10;
+    private static final int SUMMARY_LOAD_MAX_ATTEMPTS = 3;
+
     @Autowired
     private RatingRepository ratingRepository;
     @Autowired
@@ -77,6 +92,66 @@ public class RatingServiceImpl extends AbstractService implements RatingService
     @Autowired
     private ApiService apiService;
 
+    /**
+     * Rating summaries are loaded once from the repository and then maintained incrementally on rating create,
+     * update and delete. They are periodically rebuilt in background to catch up with changes made on other nodes.
+     */
+    private final ExecutorService summaryRefreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "rating-summary-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Revisions of the summaries, bumped around each incremental update so that a load or a background refresh
+     * racing with a rating change does not overwrite the summary with a read which may or may not include it.
+     */
+    private final ConcurrentMap<String, SummaryRevision> summaryRevisions = new ConcurrentHashMap<>();
+
+    private final LoadingCache<String, RatingSummary> summaries = CacheBuilder.newBuilder()
+            .maximumSize(SUMMARY_CACHE_MAX_SIZE)
+            .refreshAfterWrite(SUMMARY_CACHE_REFRESH_MINUTES, TimeUnit.MINUTES)
+            .build(new CacheLoader<String, RatingSummary>() {
+                @Override
+                public RatingSummary load(String api) throws TechnicalException {
+                    RatingSummary summary = null;
+                    for (int attempt = 0; summary == null && attempt < SUMMARY_LOAD_MAX_ATTEMPTS; attempt++) {
+                        summary = read(api);
+                    }
+                    // still changing, the incremental updates and the next refresh will converge
+                    return summary != null ? summary : RatingSummary.of(ratingRepository.findByApi(api));
+                }
+
+                /**
+                 * The repository can only read ratings API by API and has no grouped read: the missing summaries are
+                 * read one after the other by the calling thread rather than by a pool hammering the repository.
+                 */
+                @Override
+                public Map<String, RatingSummary> loadAll(Iterable<? extends String> apis) throws TechnicalException {
+                    final Map<String, RatingSummary> loaded = new HashMap<>();
+                    for (String api : apis) {
+                        loaded.put(api, load(api));
+                    }
+                    return loaded;
+                }
+
+                @Override
+                public ListenableFuture<RatingSummary> reload(String api, RatingSummary oldSummary) {
+                    final ListenableFutureTask<RatingSummary> task = ListenableFutureTask.create(() -> {
+                        final RatingSummary summary = read(api);
+                        // a rating changed meanwhile, keep the incrementally maintained summary
+                        return summary != null ? summary : summaries.asMap().getOrDefault(api, oldSummary);
+                    });
+                    summaryRefreshExecutor.execute(task);
+                    return task;
+                }
+            });
+
+    @PreDestroy
+    public void close() {
+        summaryRefreshExecutor.shutdownNow();
+    }
+
     @Override
     public RatingEntity create(final NewRatingEntity ratingEntity) {
         if (!isEnabled()) {
@@ -87,7 +162,14 @@ public class RatingServiceImpl extends AbstractService implements RatingService
             if (ratingOptional.isPresent()) {
                 throw new RatingAlreadyExistsException(ratingEntity.getApi(), getAuthenticatedUsername());
             }
-            Rating rating = ratingRepository.create(convert(ratingEntity));
+            final Rating rating;
+            final SummaryRevision revision = beginSummaryUpdate(ratingEntity.getApi());
+            try {
+                rating = ratingRepository.create(convert(ratingEntity));
+                summaries.asMap().computeIfPresent(rating.getApi(), (api, summary) -> summary.add(rating.getRate()));
+            } finally {
+                revision.end();
+            }
             auditService.createApiAuditLog(rating.getApi(), null, Rating.RatingEvent.RATING_CREATED, rating.getCreatedAt(), null, rating);
 
             notifierService.trigger(
@@ -159,19 +241,24 @@ public class RatingServiceImpl extends AbstractService implements RatingService
             throw new ApiRatingUnavailableException();
         }
         try {
-            final List<Rating> ratings = ratingRepository.findByApi(api);
-            final RatingSummaryEntity ratingSummary = new RatingSummaryEntity();
-            ratingSummary.setApi(api);
-            ratingSummary.setNumberOfRatings(ratings.size());
-            final OptionalDouble optionalAvg = ratings.stream().mapToInt(Rating::getRate).average();
-            if (optionalAvg.isPresent()) {
-                ratingSummary.setAverageRate(optionalAvg.getAsDouble());
-            }
-            ratingSummary.setNumberOfRatingsByRate(ratings.stream().collect(groupingBy(Rating::getRate, counting())));
-            return ratingSummary;
-        } catch (TechnicalException ex) {
+            return summaries.get(api).toEntity(api);
+        } catch (ExecutionException ex) {
             LOGGER.error("An error occurred while trying to find summary rating for api {}", api, ex);
-            throw new TechnicalManagementException("An error occurred while trying to find summary rating for api " + api, ex);
+            throw new TechnicalManagementException("An error occurred while trying to find summary rating for api " + api, ex.getCause());
+        }
+    }
+
+    @Override
+    public Map<String, RatingSummaryEntity> findSummariesByApis(final Collection<String> apis) {
+        if (!isEnabled()) {
+            throw new ApiRatingUnavailableException();
+        }
+        try {
+            return summaries.getAll(apis).entrySet().stream()
+                    .collect(toMap(Map.Entry::getKey, entry -> entry.getValue().toEntity(entry.getKey())));
+        } catch (ExecutionException ex) {
+            LOGGER.error("An error occurred while trying to find summary ratings for apis {}", apis, ex);
+            throw new TechnicalManagementException("An error occurred while trying to find summary ratings for apis " + apis, ex.getCause());
         }
     }
 
@@ -204,6 +291,7 @@ public class RatingServiceImpl extends AbstractService implements RatingService
             if (!rating.getApi().equals(ratingEntity.getApi())) {
                 throw new RatingNotFoundException(ratingEntity.getId(), ratingEntity.getApi());
             }
+            final byte oldRate = rating.getRate();
             final Date now = new Date();
             rating.setUpdatedAt(now);
             rating.setRate(ratingEntity.getRate());
@@ -215,7 +303,15 @@ public class RatingServiceImpl extends AbstractService implements RatingService
             if (isBlank(rating.getComment())) {
                 rating.setComment(ratingEntity.getComment());
             }
-            Rating updatedRating = ratingRepository.update(rating);
+            final Rating updatedRating;
+            final SummaryRevision revision = beginSummaryUpdate(rating.getApi());
+            try {
+                updatedRating = ratingRepository.update(rating);
+                summaries.asMap().computeIfPresent(updatedRating.getApi(),
+                        (api, summary) -> summary.remove(oldRate).add(updatedRating.getRate()));
+            } finally {
+                revision.end();
+            }
             auditService.createApiAuditLog(rating.getApi(), null, Rating.RatingEvent.RATING_UPDATED, updatedRating.getUpdatedAt(), oldRating, updatedRating);
             return convert(updatedRating);
         } catch (TechnicalException ex) {
@@ -231,7 +327,13 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         }
         try {
             Rating rating = findById(id);
-            ratingRepository.delete(id);
+            final SummaryRevision revision = beginSummaryUpdate(rating.getApi());
+            try {
+                ratingRepository.delete(id);
+                summaries.asMap().computeIfPresent(rating.getApi(), (api, summary) -> summary.remove(rating.getRate()));
+            } finally {
+                revision.end();
+            }
             auditService.createApiAuditLog(rating.getApi(), null, Rating.RatingEvent.RATING_DELETED, new Date(), rating, null);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete rating {}", id, ex);
@@ -275,6 +377,26 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         }
     }
 
+    private SummaryRevision beginSummaryUpdate(String api) {
+        final SummaryRevision revision = summaryRevisions.computeIfAbsent(api, key -> new SummaryRevision());
+        revision.begin();
+        return revision;
+    }
+
+    /**
+     * Reads the summary of the given API from the repository, or returns <code>null</code> when one of its ratings is
+     * changed concurrently since the read may or may not include a change the cached summary already accounts for.
+     */
+    private RatingSummary read(String api) throws TechnicalException {
+        final SummaryRevision revision = summaryRevisions.computeIfAbsent(api, key -> new SummaryRevision());
+        final long stamp = revision.stamp();
+        if (stamp == SummaryRevision.UPDATING) {
+            return null;
+        }
+        final RatingSummary summary = RatingSummary.of(ratingRepository.findByApi(api));
+        return revision.stamp() == stamp ? summary : null;
+    }
+
     private RatingEntity convert(final Rating rating) {
         final RatingEntity ratingEntity = new RatingEntity();
 
@@ -337,4 +459,76 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         rating.setUpdatedAt(now);
         return rating;
     }
+
+    /**
+     * Immutable aggregate of the ratings of an API: number of ratings, sum of rates and histogram by rate.
+     */
+    private static final class SummaryRevision {
+
+        static final long UPDATING = -1;
+
+        private final AtomicInteger updates = new AtomicInteger();
+        private final AtomicLong revision = new AtomicLong();
+
+        void begin() {
+            updates.incrementAndGet();
+            revision.incrementAndGet();
+        }
+
+        void end() {
+            revision.incrementAndGet();
+            updates.decrementAndGet();
+        }
+
+        long stamp() {
+            final long current = revision.get();
+            return updates.get() > 0 ? UPDATING : current;
+        }
+    }
+
+    private static final class RatingSummary {
+
+        private final int count;
+        private final long sum;
+        private final Map<Byte, Long> countByRate;
+
+        private RatingSummary(int count, long sum, Map<Byte, Long> countByRate) {
+            this.count = count;
+            this.sum = sum;
+            this.countByRate = countByRate;
+        }
+
+        static RatingSummary of(List<Rating> ratings) {
+            final Map<Byte, Long> countByRate = ratings.stream().collect(groupingBy(Rating::getRate, counting()));
+            final long sum = ratings.stream().mapToLong(Rating::getRate).sum();
+            return new RatingSummary(ratings.size(), sum, countByRate);
+        }
+
+        RatingSummary add(byte rate) {
+            final Map<Byte, Long> newCountByRate = new HashMap<>(countByRate);
+            newCountByRate.merge(rate, 1L, Long::sum);
+            return new RatingSummary(count + 1, sum + rate, newCountByRate);
+        }
+
+        RatingSummary remove(byte rate) {
+            if (!countByRate.containsKey(rate)) {
+                // unknown rate, the summary will be fixed by the next rebuild
+                return this;
+            }
+            final Map<Byte, Long> newCountByRate = new HashMap<>(countByRate);
+            newCountByRate.computeIfPresent(rate, (r, c) -> c > 1 ? c - 1 : null);
+            return new RatingSummary(count - 1, sum - rate, newCountByRate);
+        }
+
+        RatingSummaryEntity toEntity(String api) {
+            final RatingSummaryEntity ratingSummary = new RatingSummaryEntity();
+            ratingSummary.setApi(api);
+            ratingSummary.setNumberOfRatings(count);
+            if (count > 0) {
+                ratingSummary.setAverageRate((double) sum / count);
+            }
+            ratingSummary.setNumberOfRatingsByRate(new HashMap<>(countByRate));
+            return ratingSummary;
+        }
+    }
 }
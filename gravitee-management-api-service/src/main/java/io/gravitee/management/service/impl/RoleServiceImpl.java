@@ -15,6 +15,8 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.management.model.NewRoleEntity;
 import io.gravitee.management.model.RoleEntity;
 import io.gravitee.management.model.UpdateRoleEntity;
@@ -36,6 +38,7 @@ import org.springframework.stereotype.Component;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -63,16 +66,33 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
     @Autowired
     private AuditService auditService;
 
+    private final static long ROLE_CACHE_SIZE = 1_000;
+    private final static long ROLE_CACHE_TTL_SECONDS = 60;
+
+    /**
+     * Role definitions are read on each login and each membership lookup but rarely change. The cache is cleared on
+     * every role write made by this node, the TTL bounds the staleness of writes made by other nodes.
+     */
+    private final Cache<String, Role> roles = CacheBuilder.newBuilder()
+            .maximumSize(ROLE_CACHE_SIZE)
+            .expireAfterWrite(ROLE_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
     @Override
     public RoleEntity findById(final RoleScope scope, final String name) {
         try {
             LOGGER.debug("Find Role by id");
 
-            Optional<Role> role = roleRepository.findById(scope, name);
-            if (!role.isPresent()) {
-                throw new RoleNotFoundException(scope, name);
+            Role role = roles.getIfPresent(scope + ":" + name);
+            if (role == null) {
+                Optional<Role> optRole = roleRepository.findById(scope, name);
+                if (!optRole.isPresent()) {
+                    throw new RoleNotFoundException(scope, name);
+                }
+                role = optRole.get();
+                roles.put(scope + ":" + name, role);
             }
-            return convert(role.get());
+            return convert(role);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to find a role : {} {}", scope, name,  ex);
             throw new TechnicalManagementException("An error occurs while trying to find a role : " + scope + " " + name, ex);
@@ -85,7 +105,10 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             LOGGER.debug("Find all Roles");
             return roleRepository.findAll()
                     .stream()
-                    .map(this::convert).collect(Collectors.toList());
+                    .map(role -> {
+                        roles.put(role.getScope() + ":" + role.getName(), role);
+                        return convert(role);
+                    }).collect(Collectors.toList());
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to find all roles", ex);
             throw new TechnicalManagementException("An error occurs while trying to find all roles", ex);
@@ -102,6 +125,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             role.setCreatedAt(new Date());
             role.setUpdatedAt(role.getCreatedAt());
             RoleEntity entity = convert(roleRepository.create(role));
+            roles.invalidateAll();
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope() + ":" + role.getName()),
                     ROLE_CREATED,
@@ -134,6 +158,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
         Optional<Role> existingRole = roleRepository.findById(systemRole.getScope(), systemRole.getName());
         if (existingRole.isPresent() && permissionsAreDifferent(existingRole.get(), systemRole)) {
             roleRepository.update(systemRole);
+            roles.invalidateAll();
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, systemRole.getScope() + ":" + systemRole.getName()),
                     ROLE_UPDATED,
@@ -142,6 +167,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
                     systemRole);
         } else if (!existingRole.isPresent()) {
             roleRepository.create(systemRole);
+            roles.invalidateAll();
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, systemRole.getScope() + ":" + systemRole.getName()),
                     ROLE_CREATED,
@@ -185,6 +211,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             Role updatedRole = convert(roleEntity);
             updatedRole.setCreatedAt(role.getCreatedAt());
             RoleEntity entity = convert(roleRepository.update(updatedRole));
+            roles.invalidateAll();
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
                     ROLE_UPDATED,
@@ -223,6 +250,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             membershipService.removeRoleUsage(scope, name, defaultRoleByScopes.get(0).getName());
 
             roleRepository.delete(scope, name);
+            roles.invalidateAll();
 
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
@@ -301,6 +329,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
                 role.setDefaultRole(false);
                 role.setUpdatedAt(new Date());
                 roleRepository.update(role);
+                roles.invalidateAll();
                 auditService.createPortalAuditLog(
                         Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
                         ROLE_UPDATED,
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import io.gravitee.management.service.ApiKeyGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Generate API keys from a <code>SHA1PRNG</code> {@link SecureRandom} per thread, each one explicitly seeded from the
+ * platform source when the thread first uses it. Unlike the default (<code>NativePRNG</code>) instances, which all
+ * share the global state of the platform source, they do not contend when keys are generated concurrently.
+ *
+ * The <code>uuid</code> format (default) generates random (version 4) UUIDs. The <code>hex</code> and
+ * <code>base64url</code> formats encode <code>api.key.entropy</code> random bytes, at least 16.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class SecureRandomApiKeyGenerator implements ApiKeyGenerator {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final String ALGORITHM = "SHA1PRNG";
+    private static final int SEED_LENGTH = 32;
+    private static final int MIN_ENTROPY = 16;
+
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+
+    private static final ThreadLocal<SecureRandom> RANDOM =
+            ThreadLocal.withInitial(SecureRandomApiKeyGenerator::newRandom);
+
+    @Value("${api.key.format:uuid}")
+    private String format = "uuid";
+
+    @Value("${api.key.entropy:16}")
+    private int entropy = 16;
+
+    @PostConstruct
+    public void init() {
+        if (entropy < MIN_ENTROPY) {
+            throw new IllegalStateException(
+                    "api.key.entropy must be at least " + MIN_ENTROPY + " bytes, but was " + entropy);
+        }
+    }
+
+    @Override
+    public String generate() {
+        switch (format) {
+            case "hex":
+                return hex(randomBytes(entropy));
+            case "base64url":
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes(entropy));
+            default:
+                return uuid(randomBytes(16));
+        }
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            final SecureRandom random = SecureRandom.getInstance(ALGORITHM);
+            final byte[] seed = new byte[SEED_LENGTH];
+            SEED_SOURCE.nextBytes(seed);
+            // Seeding before the first use replaces the self-seeding of the instance
+            random.setSeed(seed);
+            return random;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to create a " + ALGORITHM + " secure random", ex);
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        final byte[] bytes = new byte[length];
+        RANDOM.get().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String uuid(byte[] bytes) {
+        // Version 4, IETF variant, as UUID.randomUUID()
+        bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x40);
+        bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80);
+        final String hex = hex(bytes);
+        return hex.substring(0, 8) + '-' + hex.substring(8, 12) + '-' + hex.substring(12, 16) + '-'
+                + hex.substring(16, 20) + '-' + hex.substring(20);
+    }
+
+    private static String hex(byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+}
@@ -15,7 +15,9 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.util.concurrent.Striped;
 import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
@@ -23,6 +25,7 @@ import io.gravitee.management.model.common.Pageable;
 import io.gravitee.management.model.pagedresult.Metadata;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
 import io.gravitee.management.service.*;
+import io.gravitee.management.service.event.SubscriptionEvent;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.notification.ApiHook;
 import io.gravitee.management.service.notification.ApplicationHook;
@@ -40,6 +43,8 @@ import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -61,6 +66,13 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
 
     private static final String SUBSCRIPTION_SYSTEM_VALIDATOR = "system";
 
+    private static final int CLOSE_LOCK_STRIPES = 64;
+
+    /**
+     * Serialize the closing of a given subscription on this node, see {@link #closeIfAccepted(Subscription)}.
+     */
+    private final Striped<Lock> closeLocks = Striped.lock(CLOSE_LOCK_STRIPES);
+
     @Autowired
     private PlanService planService;
 
@@ -88,6 +100,9 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
     @Autowired
     private NotifierService notifierService;
 
+    @Autowired
+    private EventManager eventManager;
+
     @Override
     public SubscriptionEntity findById(String subscription) {
         try {
@@ -334,7 +349,9 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                     }
                 }
 
-                return convert(subscription);
+                SubscriptionEntity subscriptionEntity = convert(subscription);
+                eventManager.publishEvent(SubscriptionEvent.UPDATE, subscriptionEntity);
+                return subscriptionEntity;
             }
 
             throw new SubscriptionNotUpdatableException(updateSubscription.getId());
@@ -356,7 +373,6 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
             }
 
             Subscription subscription = optSubscription.get();
-            Subscription previousSubscription = new Subscription(subscription);
             if (subscription.getStatus() != Subscription.Status.PENDING) {
                 throw new SubscriptionAlreadyProcessedException(subscription.getId());
             }
@@ -367,58 +383,17 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                 throw new PlanAlreadyClosedException(planEntity.getId());
             }
 
-            subscription.setProcessedBy(userId);
-            subscription.setProcessedAt(new Date());
-
-            if (processSubscription.isAccepted()) {
-                subscription.setStatus(Subscription.Status.ACCEPTED);
-                subscription.setStartingAt((processSubscription.getStartingAt() != null) ?
-                        processSubscription.getStartingAt() : new Date());
-                subscription.setEndingAt(processSubscription.getEndingAt());
-                subscription.setReason(processSubscription.getReason());
-            } else {
-                subscription.setStatus(Subscription.Status.REJECTED);
-                subscription.setReason(processSubscription.getReason());
-                subscription.setClosedAt(new Date());
-            }
-
-            subscription = subscriptionRepository.update(subscription);
-
             final ApplicationEntity application = applicationService.findById(subscription.getApplication());
-            final PlanEntity plan = planService.findById(subscription.getPlan());
-            final String apiId = plan.getApis().iterator().next();
+            final String apiId = planEntity.getApis().iterator().next();
             final ApiModelEntity api = apiService.findByIdForTemplates(apiId);
-            final PrimaryOwnerEntity owner = application.getPrimaryOwner();
-            createAudit(
-                    apiId,
-                    subscription.getApplication(),
-                    SUBSCRIPTION_UPDATED,
-                    subscription.getUpdatedAt(),
-                    previousSubscription,
-                    subscription);
 
-            SubscriptionEntity subscriptionEntity = convert(subscription);
-
-            final Map<String, Object> params = new NotificationParamsBuilder()
-                    .owner(owner)
-                    .application(application)
-                    .api(api)
-                    .plan(plan)
-                    .subscription(subscriptionEntity)
-                    .build();
-            if (subscription.getStatus() == Subscription.Status.ACCEPTED) {
-                notifierService.trigger(ApiHook.SUBSCRIPTION_ACCEPTED, apiId, params);
-                notifierService.trigger(ApplicationHook.SUBSCRIPTION_ACCEPTED, application.getId(), params);
-            } else {
-                notifierService.trigger(ApiHook.SUBSCRIPTION_REJECTED, apiId, params);
-                notifierService.trigger(ApplicationHook.SUBSCRIPTION_REJECTED, application.getId(), params);
-            }
-
-            if (plan.getSecurity() == PlanSecurityType.API_KEY &&
-                    subscription.getStatus() == Subscription.Status.ACCEPTED) {
-                apiKeyService.generate(subscription.getId());
+            final PendingNotifications notifications = new PendingNotifications(notifierService);
+            final SubscriptionEntity subscriptionEntity =
+                    process(subscription, processSubscription, userId, planEntity, application, apiId, api, notifications);
+            notifications.trigger();
+            if (isApiKeyToGenerate(planEntity, subscriptionEntity)) {
+                apiKeyService.generate(subscriptionEntity.getId());
             }
-
             return subscriptionEntity;
         } catch (TechnicalException ex) {
             logger.error("An error occurs while trying to process subscription {} by {}",
@@ -429,6 +404,114 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         }
     }
 
+    @Override
+    public List<SubscriptionEntity> process(String api, Collection<ProcessSubscriptionEntity> processSubscriptions, String userId) {
+        try {
+            logger.debug("{} subscriptions of API {} processed by {}", processSubscriptions.size(), api, userId);
+
+            // A subscription processed twice would get two API keys
+            final Set<String> ids = new LinkedHashSet<>(processSubscriptions.size());
+            for (ProcessSubscriptionEntity processSubscription : processSubscriptions) {
+                if (!ids.add(processSubscription.getId())) {
+                    throw new SubscriptionAlreadyProcessedException(processSubscription.getId());
+                }
+            }
+
+            final Map<String, Subscription> subscriptions = findByApiAndIds(api, Subscription.Status.PENDING, ids,
+                    subscription -> new SubscriptionAlreadyProcessedException(subscription.getId()));
+
+            // Check everything before updating anything
+            final Map<String, PlanEntity> plans = findPlans(subscriptions.values());
+            for (PlanEntity plan : plans.values()) {
+                if (plan.getStatus() == PlanStatus.CLOSED) {
+                    throw new PlanAlreadyClosedException(plan.getId());
+                }
+            }
+            final Map<String, ApplicationEntity> applications = findApplications(subscriptions.values());
+            final ApiModelEntity apiModel = apiService.findByIdForTemplates(api);
+
+            final List<SubscriptionEntity> processedSubscriptions = new ArrayList<>(processSubscriptions.size());
+            final PendingNotifications notifications = new PendingNotifications(notifierService);
+            for (ProcessSubscriptionEntity processSubscription : processSubscriptions) {
+                final Subscription subscription = subscriptions.get(processSubscription.getId());
+                processedSubscriptions.add(process(subscription, processSubscription, userId,
+                        plans.get(subscription.getPlan()), applications.get(subscription.getApplication()), api,
+                        apiModel, notifications));
+            }
+            notifications.trigger();
+
+            final List<String> apiKeysToGenerate = processedSubscriptions.stream()
+                    .filter(subscription -> isApiKeyToGenerate(plans.get(subscription.getPlan()), subscription))
+                    .map(SubscriptionEntity::getId)
+                    .collect(Collectors.toList());
+            if (!apiKeysToGenerate.isEmpty()) {
+                apiKeyService.generate(apiKeysToGenerate);
+            }
+            return processedSubscriptions;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to process subscriptions of API {} by {}", api, userId, ex);
+            throw new TechnicalManagementException(String.format(
+                    "An error occurs while trying to process subscriptions of API %s by %s", api, userId), ex);
+        }
+    }
+
+    private SubscriptionEntity process(Subscription subscription, ProcessSubscriptionEntity processSubscription,
+                                       String userId, PlanEntity plan, ApplicationEntity application,
+                                       String apiId, ApiModelEntity api, PendingNotifications notifications)
+            throws TechnicalException {
+        Subscription previousSubscription = new Subscription(subscription);
+
+        subscription.setProcessedBy(userId);
+        subscription.setProcessedAt(new Date());
+
+        if (processSubscription.isAccepted()) {
+            subscription.setStatus(Subscription.Status.ACCEPTED);
+            subscription.setStartingAt((processSubscription.getStartingAt() != null) ?
+                    processSubscription.getStartingAt() : new Date());
+            subscription.setEndingAt(processSubscription.getEndingAt());
+            subscription.setReason(processSubscription.getReason());
+        } else {
+            subscription.setStatus(Subscription.Status.REJECTED);
+            subscription.setReason(processSubscription.getReason());
+            subscription.setClosedAt(new Date());
+        }
+
+        subscription = subscriptionRepository.update(subscription);
+
+        final PrimaryOwnerEntity owner = application.getPrimaryOwner();
+        createAudit(
+                apiId,
+                subscription.getApplication(),
+                SUBSCRIPTION_UPDATED,
+                subscription.getUpdatedAt(),
+                previousSubscription,
+                subscription);
+
+        SubscriptionEntity subscriptionEntity = convert(subscription);
+        eventManager.publishEvent(SubscriptionEvent.UPDATE, subscriptionEntity);
+
+        final Map<String, Object> params = new NotificationParamsBuilder()
+                .owner(owner)
+                .application(application)
+                .api(api)
+                .plan(plan)
+                .subscription(subscriptionEntity)
+                .build();
+        if (subscription.getStatus() == Subscription.Status.ACCEPTED) {
+            notifications.add(ApiHook.SUBSCRIPTION_ACCEPTED, apiId, params);
+            notifications.add(ApplicationHook.SUBSCRIPTION_ACCEPTED, application.getId(), params);
+        } else {
+            notifications.add(ApiHook.SUBSCRIPTION_REJECTED, apiId, params);
+            notifications.add(ApplicationHook.SUBSCRIPTION_REJECTED, application.getId(), params);
+        }
+
+        return subscriptionEntity;
+    }
+
+    private boolean isApiKeyToGenerate(PlanEntity plan, SubscriptionEntity subscription) {
+        return plan.getSecurity() == PlanSecurityType.API_KEY && subscription.getStatus() == SubscriptionStatus.ACCEPTED;
+    }
+
     @Override
     public SubscriptionEntity close(String subscriptionId) {
         try {
@@ -442,51 +525,21 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
             Subscription subscription = optSubscription.get();
 
             if (subscription.getStatus() == Subscription.Status.ACCEPTED) {
-                Subscription previousSubscription = new Subscription(subscription);
-                final Date now = new Date();
-                subscription.setUpdatedAt(now);
-                subscription.setStatus(Subscription.Status.CLOSED);
-
-                subscription.setClosedAt(new Date());
-
-                subscription = subscriptionRepository.update(subscription);
-
-                // Send an email to subscriber
                 final ApplicationEntity application = applicationService.findById(subscription.getApplication());
                 final PlanEntity plan = planService.findById(subscription.getPlan());
                 String apiId = plan.getApis().iterator().next();
                 final ApiModelEntity api = apiService.findByIdForTemplates(apiId);
-                final PrimaryOwnerEntity owner = application.getPrimaryOwner();
-                final Map<String, Object> params = new NotificationParamsBuilder()
-                        .owner(owner)
-                        .api(api)
-                        .plan(plan)
-                        .application(application)
-                        .build();
-
-                notifierService.trigger(ApiHook.SUBSCRIPTION_CLOSED, apiId, params);
-                notifierService.trigger(ApplicationHook.SUBSCRIPTION_CLOSED, application.getId(), params);
-                createAudit(
-                        apiId,
-                        subscription.getApplication(),
-                        SUBSCRIPTION_CLOSED,
-                        subscription.getUpdatedAt(),
-                        previousSubscription,
-                        subscription);
 
-                // API Keys are automatically revoked
-                Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscription.getId());
-                for (ApiKeyEntity apiKey : apiKeys) {
-                    Date expireAt = apiKey.getExpireAt();
-                    if (!apiKey.isRevoked() && (expireAt == null || expireAt.equals(now) || expireAt.before(now))) {
-                        apiKey.setExpireAt(now);
-                        apiKey.setRevokedAt(now);
-                        apiKey.setRevoked(true);
-                        apiKeyService.revoke(apiKey.getKey(), false);
-                    }
+                final List<String> apiKeysToRevoke = new ArrayList<>();
+                final PendingNotifications notifications = new PendingNotifications(notifierService);
+                final SubscriptionEntity closedSubscription =
+                        close(subscription, plan, application, apiId, api, apiKeysToRevoke, notifications);
+                if (closedSubscription == null) {
+                    throw new SubscriptionNotClosableException(subscription);
                 }
-
-                return convert(subscription);
+                revoke(apiKeysToRevoke);
+                notifications.trigger();
+                return closedSubscription;
             }
 
             throw new SubscriptionNotClosableException(subscription);
@@ -497,6 +550,178 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         }
     }
 
+    @Override
+    public List<SubscriptionEntity> close(String api, Collection<String> subscriptionIds) {
+        try {
+            logger.debug("Close {} subscriptions of API {}", subscriptionIds.size(), api);
+
+            final Map<String, Subscription> subscriptions = findByApiAndIds(api, Subscription.Status.ACCEPTED,
+                    new LinkedHashSet<>(subscriptionIds), SubscriptionNotClosableException::new);
+            final Map<String, PlanEntity> plans = findPlans(subscriptions.values());
+            final Map<String, ApplicationEntity> applications = findApplications(subscriptions.values());
+            final ApiModelEntity apiModel = apiService.findByIdForTemplates(api);
+
+            final List<SubscriptionEntity> closedSubscriptions = new ArrayList<>(subscriptions.size());
+            final List<String> apiKeysToRevoke = new ArrayList<>();
+            final PendingNotifications notifications = new PendingNotifications(notifierService);
+            for (Subscription subscription : subscriptions.values()) {
+                final SubscriptionEntity closedSubscription = close(subscription, plans.get(subscription.getPlan()),
+                        applications.get(subscription.getApplication()), api, apiModel, apiKeysToRevoke, notifications);
+                if (closedSubscription != null) {
+                    closedSubscriptions.add(closedSubscription);
+                }
+            }
+            revoke(apiKeysToRevoke);
+            notifications.trigger();
+            return closedSubscriptions;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to close subscriptions of API {}", api, ex);
+            throw new TechnicalManagementException(String.format(
+                    "An error occurs while trying to close subscriptions of API %s", api), ex);
+        }
+    }
+
+    @Override
+    public List<ApiKeyEntity> renewApiKeys(String api, Collection<String> subscriptionIds) {
+        try {
+            logger.debug("Renew the API keys of {} subscriptions of API {}", subscriptionIds.size(), api);
+
+            final Map<String, Subscription> subscriptions = findByApiAndIds(api, Subscription.Status.ACCEPTED,
+                    new LinkedHashSet<>(subscriptionIds),
+                    subscription -> new SubscriptionClosedException(subscription.getId()));
+            return apiKeyService.renew(subscriptions.keySet());
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to renew the API keys of subscriptions of API {}", api, ex);
+            throw new TechnicalManagementException(String.format(
+                    "An error occurs while trying to renew the API keys of subscriptions of API %s", api), ex);
+        }
+    }
+
+    /**
+     * Close a subscription. Its API keys are automatically revoked: they are added to <code>apiKeysToRevoke</code> so
+     * that the keys of several subscriptions are revoked at once, and its notifications are added to
+     * <code>notifications</code> to be sent once everything is closed.
+     *
+     * @return the closed subscription, or <code>null</code> if it is no more accepted
+     */
+    private SubscriptionEntity close(Subscription subscription, PlanEntity plan, ApplicationEntity application,
+                                     String apiId, ApiModelEntity api, List<String> apiKeysToRevoke,
+                                     PendingNotifications notifications)
+            throws TechnicalException {
+        Subscription previousSubscription = new Subscription(subscription);
+        final Date now = new Date();
+
+        subscription = closeIfAccepted(subscription);
+        if (subscription == null) {
+            return null;
+        }
+
+        // Send an email to subscriber
+        final PrimaryOwnerEntity owner = application.getPrimaryOwner();
+        final Map<String, Object> params = new NotificationParamsBuilder()
+                .owner(owner)
+                .api(api)
+                .plan(plan)
+                .application(application)
+                .build();
+
+        notifications.add(ApiHook.SUBSCRIPTION_CLOSED, apiId, params);
+        notifications.add(ApplicationHook.SUBSCRIPTION_CLOSED, application.getId(), params);
+        createAudit(
+                apiId,
+                subscription.getApplication(),
+                SUBSCRIPTION_CLOSED,
+                subscription.getUpdatedAt(),
+                previousSubscription,
+                subscription);
+
+        Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscription.getId());
+        for (ApiKeyEntity apiKey : apiKeys) {
+            Date expireAt = apiKey.getExpireAt();
+            if (!apiKey.isRevoked() && (expireAt == null || expireAt.equals(now) || expireAt.before(now))) {
+                apiKeysToRevoke.add(apiKey.getKey());
+            }
+        }
+
+        SubscriptionEntity subscriptionEntity = convert(subscription);
+        eventManager.publishEvent(SubscriptionEvent.UPDATE, subscriptionEntity);
+        return subscriptionEntity;
+    }
+
+    /**
+     * Close a subscription only if it has not been changed since it has been read, by another node closing it too for
+     * instance. The repository offers no conditional update, so the subscription is read again just before being
+     * updated, while holding a lock which prevents another thread of this node from closing it at the same time.
+     *
+     * @return the closed subscription, or <code>null</code> if it is no more accepted or has been changed meanwhile
+     */
+    private Subscription closeIfAccepted(Subscription subscription) throws TechnicalException {
+        final Date updatedAt = subscription.getUpdatedAt();
+        final Lock lock = closeLocks.get(subscription.getId());
+        lock.lock();
+        try {
+            final Optional<Subscription> optCurrent = subscriptionRepository.findById(subscription.getId());
+            if (!optCurrent.isPresent()) {
+                logger.debug("Subscription {} has been deleted, it is not closed", subscription.getId());
+                return null;
+            }
+            final Subscription current = optCurrent.get();
+            if (current.getStatus() != Subscription.Status.ACCEPTED || !Objects.equals(current.getUpdatedAt(), updatedAt)) {
+                logger.debug("Subscription {} has been changed meanwhile, it is not closed", subscription.getId());
+                return null;
+            }
+
+            final Date now = new Date();
+            current.setUpdatedAt(now);
+            current.setStatus(Subscription.Status.CLOSED);
+            current.setClosedAt(now);
+            return subscriptionRepository.update(current);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void revoke(List<String> apiKeys) {
+        if (!apiKeys.isEmpty()) {
+            apiKeyService.revoke(apiKeys, false);
+        }
+    }
+
+    /**
+     * Find the given subscriptions of an API, checking they all have the given status. The repository can not search
+     * subscriptions by IDs, so they are read one by one rather than searching all the subscriptions of the API.
+     */
+    private Map<String, Subscription> findByApiAndIds(String api, Subscription.Status status, Set<String> ids,
+                                                          Function<Subscription, ? extends RuntimeException> invalidStatus)
+            throws TechnicalException {
+        final Map<String, Subscription> subscriptions = new LinkedHashMap<>(ids.size());
+        for (String id : ids) {
+            final Optional<Subscription> optSubscription = subscriptionRepository.findById(id);
+            if (!optSubscription.isPresent() || !api.equals(optSubscription.get().getApi())) {
+                throw new SubscriptionNotFoundException(id);
+            }
+            if (optSubscription.get().getStatus() != status) {
+                throw invalidStatus.apply(optSubscription.get());
+            }
+            subscriptions.put(id, optSubscription.get());
+        }
+        return subscriptions;
+    }
+
+    private Map<String, PlanEntity> findPlans(Collection<Subscription> subscriptions) {
+        return subscriptions.stream()
+                .map(Subscription::getPlan)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), planService::findById));
+    }
+
+    private Map<String, ApplicationEntity> findApplications(Collection<Subscription> subscriptions) {
+        return subscriptions.stream()
+                .map(Subscription::getApplication)
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), applicationService::findById));
+    }
+
     @Override
     public void delete(String subscriptionId) {
         try {
@@ -514,6 +739,7 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
 
             // Delete subscription
             subscriptionRepository.delete(subscriptionId);
+            eventManager.publishEvent(SubscriptionEvent.DELETE, convert(subscription));
             createAudit(
                     planService.findById(subscription.getPlan()).getApis().iterator().next(),
                     subscription.getApplication(),
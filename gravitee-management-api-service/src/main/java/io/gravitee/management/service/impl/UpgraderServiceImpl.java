@@ -18,14 +18,32 @@ package io.gravitee.management.service.impl;
 import io.gravitee.common.service.AbstractService;
 import io.gravitee.management.service.InitializerService;
 import io.gravitee.management.service.Upgrader;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ParameterRepository;
+import io.gravitee.repository.management.model.Parameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
-import java.util.Comparator;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
 
 /**
+ * Run the {@link Upgrader}s at startup.
+ *
+ * Upgraders are run according to their order and dependencies: an ordered upgrader waits for the ordered upgraders of
+ * a lower order, and every upgrader waits for its declared dependencies. Upgraders which do not depend on each other
+ * (the ones of a same order, or the ones which are not ordered) are run concurrently.
+ * An upgrader exposing a fingerprint is skipped when the fingerprint recorded by its last successful run is unchanged.
+ * Background upgraders are started once the other ones are completed, without holding the node startup: their
+ * completion is exposed by {@link #backgroundCompletion()}.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -38,6 +56,16 @@ public class UpgraderServiceImpl extends AbstractService<UpgraderServiceImpl> im
      */
     private final Logger logger = LoggerFactory.getLogger(UpgraderServiceImpl.class);
 
+    private final static String UPGRADER_PARAMETER_PREFIX = "upgrader.";
+
+    @Autowired
+    private ParameterRepository parameterRepository;
+
+    @Value("${services.upgraders.pool.size:4}")
+    private int poolSize;
+
+    private final CompletableFuture<Void> backgroundCompletion = new CompletableFuture<>();
+
     @Override
     protected String name() {
         return "Upgrader service";
@@ -47,10 +75,160 @@ public class UpgraderServiceImpl extends AbstractService<UpgraderServiceImpl> im
     protected void doStart() throws Exception {
         super.doStart();
 
-        Map<String, Upgrader> upgraderBeans = applicationContext.getBeansOfType(Upgrader.class);
-        upgraderBeans.values().stream().sorted(Comparator.comparing(Upgrader::getOrder)).forEach(upgrader -> {
-            logger.info("Running upgrader {}", upgrader.getClass().getName());
-            upgrader.upgrade();
+        final long start = System.currentTimeMillis();
+        final Map<Class<?>, Upgrader> upgraders = new LinkedHashMap<>();
+        applicationContext.getBeansOfType(Upgrader.class).values().stream()
+                .sorted(Comparator.comparing(Upgrader::getOrder))
+                .forEach(upgrader -> upgraders.put(ClassUtils.getUserClass(upgrader), upgrader));
+
+        final Map<String, String> fingerprints = findFingerprints(upgraders.values());
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, poolSize), new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "upgrader-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
         });
+
+        final Map<Class<?>, CompletableFuture<Void>> runs = new HashMap<>();
+        final Map<String, Long> durations = new ConcurrentSkipListMap<>();
+        final List<CompletableFuture<Void>> foreground = upgraders.values().stream()
+                .filter(upgrader -> !upgrader.isBackground())
+                .map(upgrader -> schedule(upgrader, upgraders, runs, new HashSet<>(), fingerprints, durations, executor))
+                .collect(toList());
+
+        try {
+            CompletableFuture.allOf(foreground.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException ce) {
+            executor.shutdown();
+            backgroundCompletion.completeExceptionally(ce);
+            throw ce;
+        } finally {
+            logger.info("Upgraders completed in {} ms: {}", System.currentTimeMillis() - start, durations);
+        }
+
+        final List<CompletableFuture<Void>> background = upgraders.values().stream()
+                .filter(Upgrader::isBackground)
+                .map(upgrader -> schedule(upgrader, upgraders, runs, new HashSet<>(), fingerprints, durations, executor))
+                .collect(toList());
+        CompletableFuture.allOf(background.toArray(new CompletableFuture[0]))
+                .whenComplete((result, throwable) -> {
+                    executor.shutdown();
+                    if (throwable != null) {
+                        logger.error("An error occurs while running background upgraders", throwable);
+                        backgroundCompletion.completeExceptionally(throwable);
+                    } else {
+                        backgroundCompletion.complete(null);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> backgroundCompletion() {
+        return backgroundCompletion;
+    }
+
+    private CompletableFuture<Void> schedule(Upgrader upgrader, Map<Class<?>, Upgrader> upgraders,
+                                             Map<Class<?>, CompletableFuture<Void>> runs, Set<Class<?>> path,
+                                             Map<String, String> fingerprints, Map<String, Long> durations,
+                                             Executor executor) {
+        final Class<?> type = ClassUtils.getUserClass(upgrader);
+        final CompletableFuture<Void> scheduled = runs.get(type);
+        if (scheduled != null) {
+            return scheduled;
+        }
+        if (!path.add(type)) {
+            throw new IllegalStateException("Cyclic dependency between upgraders: " + path);
+        }
+
+        final List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (Upgrader dependencyUpgrader : dependencies(upgrader, type, upgraders)) {
+            dependencies.add(schedule(dependencyUpgrader, upgraders, runs, path, fingerprints, durations, executor));
+        }
+        path.remove(type);
+
+        final CompletableFuture<Void> run = CompletableFuture
+                .allOf(dependencies.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> run(upgrader, type, fingerprints, durations), executor);
+        runs.put(type, run);
+        return run;
+    }
+
+    /**
+     * The declared dependencies of the upgrader and, when it is ordered, the ordered upgraders of a lower order.
+     * A foreground upgrader never waits for a background one.
+     */
+    private Collection<Upgrader> dependencies(Upgrader upgrader, Class<?> type, Map<Class<?>, Upgrader> upgraders) {
+        final Set<Upgrader> dependencies = new LinkedHashSet<>();
+        if (upgrader.isOrdered()) {
+            upgraders.values().stream()
+                    .filter(other -> other.isOrdered() && other.getOrder() < upgrader.getOrder())
+                    .filter(other -> upgrader.isBackground() || !other.isBackground())
+                    .forEach(dependencies::add);
+        }
+        for (Class<? extends Upgrader> dependency : upgrader.getDependencies()) {
+            final Upgrader dependencyUpgrader = upgraders.get(dependency);
+            if (dependencyUpgrader == null) {
+                logger.warn("Upgrader {} depends on {} which is not available", type.getName(), dependency.getName());
+            } else {
+                dependencies.add(dependencyUpgrader);
+            }
+        }
+        return dependencies;
+    }
+
+    private void run(Upgrader upgrader, Class<?> type, Map<String, String> fingerprints, Map<String, Long> durations) {
+        final String key = UPGRADER_PARAMETER_PREFIX + type.getSimpleName();
+        final String fingerprint = upgrader.getFingerprint();
+        if (fingerprint != null && fingerprint.equals(fingerprints.get(key))) {
+            logger.info("Upgrader {} is up to date, skip it", type.getName());
+            return;
+        }
+
+        logger.info("Running upgrader {}", type.getName());
+        final long start = System.currentTimeMillis();
+        try {
+            if (upgrader.upgrade() && fingerprint != null) {
+                saveFingerprint(key, fingerprint, fingerprints.containsKey(key));
+            }
+        } finally {
+            final long duration = System.currentTimeMillis() - start;
+            durations.put(type.getSimpleName(), duration);
+            logger.info("Upgrader {} run in {} ms", type.getName(), duration);
+        }
+    }
+
+    private Map<String, String> findFingerprints(Collection<Upgrader> upgraders) {
+        final Map<String, String> fingerprints = new HashMap<>();
+        try {
+            final List<String> keys = upgraders.stream()
+                    .filter(upgrader -> upgrader.getFingerprint() != null)
+                    .map(upgrader -> UPGRADER_PARAMETER_PREFIX + ClassUtils.getUserClass(upgrader).getSimpleName())
+                    .collect(toList());
+            if (!keys.isEmpty()) {
+                parameterRepository.findAll(keys).forEach(parameter -> fingerprints.put(parameter.getKey(), parameter.getValue()));
+            }
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to read the upgraders fingerprints, all upgraders will be run", ex);
+        }
+        return fingerprints;
+    }
+
+    private void saveFingerprint(String key, String fingerprint, boolean exists) {
+        final Parameter parameter = new Parameter();
+        parameter.setKey(key);
+        parameter.setValue(fingerprint);
+        try {
+            if (exists) {
+                parameterRepository.update(parameter);
+            } else {
+                parameterRepository.create(parameter);
+            }
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to save the fingerprint of upgrader {}", key, ex);
+        }
     }
 }
@@ -50,12 +50,18 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.xml.bind.DatatypeConverter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.gravitee.management.service.common.JWTHelper.DefaultValues.DEFAULT_JWT_EMAIL_REGISTRATION_EXPIRE_AFTER;
@@ -119,6 +125,32 @@ public class UserServiceImpl extends AbstractService implements UserService {
 
     private PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
+    private final static long CONNECTIONS_FLUSH_INTERVAL_SECONDS = 5;
+
+    /**
+     * Last connection dates waiting to be written, by user. Successive logins of a user between two flushes result in
+     * a single repository write.
+     */
+    private final Map<String, Date> pendingConnections = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService connectionsWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "user-connections-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        connectionsWriter.scheduleWithFixedDelay(this::flushConnections,
+                CONNECTIONS_FLUSH_INTERVAL_SECONDS, CONNECTIONS_FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionsWriter.shutdown();
+        flushConnections();
+    }
+
     @Override
     public UserEntity connect(String userId) {
         try {
@@ -130,18 +162,33 @@ public class UserServiceImpl extends AbstractService implements UserService {
 
             User user = checkUser.get();
             User previousUser = new User(user);
+
+            // Known user: the connection date is written in background, audit is kept synchronous so that it is
+            // attributed to the authenticated user
+            if (user.getLastConnectionAt() != null) {
+                final Date now = new Date();
+                pendingConnections.put(userId, now);
+                user.setLastConnectionAt(now);
+                user.setUpdatedAt(now);
+                auditService.createPortalAuditLog(
+                        Collections.singletonMap(USER, userId),
+                        User.AuditEvent.USER_CONNECTED,
+                        now,
+                        previousUser,
+                        user);
+                return convert(user, true);
+            }
+
             // First connection: create default application for user & notify
-            if (user.getLastConnectionAt() == null) {
-                notifierService.trigger(PortalHook.USER_FIRST_LOGIN, new NotificationParamsBuilder()
-                        .user(convert(user, false))
-                        .build());
-                if (defaultApplicationForFirstConnection) {
-                    LOGGER.debug("Create a default application for {}", userId);
-                    NewApplicationEntity defaultApp = new NewApplicationEntity();
-                    defaultApp.setName("Default application");
-                    defaultApp.setDescription("My default application");
-                    applicationService.create(defaultApp, userId);
-                }
+            notifierService.trigger(PortalHook.USER_FIRST_LOGIN, new NotificationParamsBuilder()
+                    .user(convert(user, false))
+                    .build());
+            if (defaultApplicationForFirstConnection) {
+                LOGGER.debug("Create a default application for {}", userId);
+                NewApplicationEntity defaultApp = new NewApplicationEntity();
+                defaultApp.setName("Default application");
+                defaultApp.setDescription("My default application");
+                applicationService.create(defaultApp, userId);
             }
 
             // Set date fields
@@ -165,6 +212,26 @@ public class UserServiceImpl extends AbstractService implements UserService {
         }
     }
 
+    private void flushConnections() {
+        for (String userId : new ArrayList<>(pendingConnections.keySet())) {
+            final Date lastConnectionAt = pendingConnections.remove(userId);
+            if (lastConnectionAt == null) {
+                continue;
+            }
+            try {
+                Optional<User> optionalUser = userRepository.findById(userId);
+                if (optionalUser.isPresent()) {
+                    User user = optionalUser.get();
+                    user.setLastConnectionAt(lastConnectionAt);
+                    user.setUpdatedAt(lastConnectionAt);
+                    searchEngineService.index(convert(userRepository.update(user), false));
+                }
+            } catch (Exception ex) {
+                LOGGER.error("An error occurs while trying to save the last connection of {}", userId, ex);
+            }
+        }
+    }
+
     @Override
     public UserEntity findById(String id) {
         try {
@@ -54,4 +54,12 @@ public class DefaultApiHeaderUpgrader implements Upgrader, Ordered {
     public int getOrder() {
         return 300;
     }
+
+    /**
+     * Only the API headers are involved, no other upgrader has to be waited for.
+     */
+    @Override
+    public boolean isOrdered() {
+        return false;
+    }
 }
@@ -67,4 +67,12 @@ public class DefaultMetadataUpgrader implements Upgrader, Ordered {
     public int getOrder() {
         return 100;
     }
+
+    /**
+     * Only the default metadata is involved, no other upgrader has to be waited for.
+     */
+    @Override
+    public boolean isOrdered() {
+        return false;
+    }
 }
@@ -15,11 +15,10 @@
  */
 package io.gravitee.management.service.impl.upgrade;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import io.gravitee.management.model.NewRoleEntity;
-import io.gravitee.management.model.permissions.ApiPermission;
-import io.gravitee.management.model.permissions.ApplicationPermission;
-import io.gravitee.management.model.permissions.ManagementPermission;
-import io.gravitee.management.model.permissions.PortalPermission;
+import io.gravitee.management.model.permissions.*;
 import io.gravitee.management.service.RoleService;
 import io.gravitee.management.service.Upgrader;
 import org.slf4j.Logger;
@@ -28,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -186,4 +186,30 @@ public class DefaultRolesUpgrader implements Upgrader, Ordered {
     public int getOrder() {
         return 150;
     }
+
+    /**
+     * Only the roles are involved, no other upgrader has to be waited for.
+     */
+    @Override
+    public boolean isOrdered() {
+        return false;
+    }
+
+    /**
+     * System roles are granted every permission of their scope: they only have to be updated when the permissions change.
+     */
+    @Override
+    public String getFingerprint() {
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (RoleScope scope : new RoleScope[]{MANAGEMENT, PORTAL, API, APPLICATION, GROUP}) {
+            hasher.putString(scope.name(), StandardCharsets.UTF_8);
+            for (Permission permission : Permission.findByScope(scope)) {
+                hasher.putString(permission.getName(), StandardCharsets.UTF_8).putInt(permission.getMask());
+            }
+        }
+        for (SystemRole systemRole : SystemRole.values()) {
+            hasher.putString(systemRole.name(), StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
 }
@@ -62,4 +62,17 @@ public class DefaultViewUpgrader implements Upgrader, Ordered {
     public int getOrder() {
         return 200;
     }
+
+    /**
+     * Only the default view is involved, no other upgrader has to be waited for.
+     */
+    @Override
+    public boolean isOrdered() {
+        return false;
+    }
+
+    @Override
+    public String getFingerprint() {
+        return View.ALL_ID;
+    }
 }
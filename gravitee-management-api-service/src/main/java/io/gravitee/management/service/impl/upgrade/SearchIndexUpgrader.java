@@ -95,4 +95,20 @@ public class SearchIndexUpgrader implements Upgrader, Ordered {
     public int getOrder() {
         return 250;
     }
+
+    /**
+     * The index is built from the APIs, pages and users, which are not installed by any other upgrader.
+     */
+    @Override
+    public boolean isOrdered() {
+        return false;
+    }
+
+    /**
+     * The index is recreated at each startup: it is always rebuilt, but without holding the node startup.
+     */
+    @Override
+    public boolean isBackground() {
+        return true;
+    }
 }
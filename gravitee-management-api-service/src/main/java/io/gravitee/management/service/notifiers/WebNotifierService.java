@@ -16,9 +16,11 @@
 package io.gravitee.management.service.notifiers;
 
 import io.gravitee.common.http.HttpMethod;
+import io.gravitee.management.model.notification.WebhookDeadLetterEntity;
 import io.gravitee.management.service.notification.Hook;
 import io.gravitee.repository.management.model.GenericNotificationConfig;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,5 +28,20 @@ import java.util.Map;
  * @author GraviteeSource Team
  */
 public interface WebNotifierService {
+
+    /**
+     * Send the request and wait for the response, failing if the endpoint does not answer with a 2xx status.
+     */
     void request(HttpMethod method, final String uri, final Map<String, String> headers, String body, boolean useSystemProxy);
+
+    /**
+     * Queue the request for an asynchronous delivery, retried with backoff until the endpoint accepts it or the
+     * delivery is given up.
+     */
+    void send(HttpMethod method, final String uri, final Map<String, String> headers, String body, boolean useSystemProxy);
+
+    /**
+     * @return the last given up deliveries, most recent first, bounded by the dead letters capacity.
+     */
+    List<WebhookDeadLetterEntity> findDeadLetters();
 }
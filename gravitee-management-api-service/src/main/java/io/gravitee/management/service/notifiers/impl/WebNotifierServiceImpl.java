@@ -15,26 +15,25 @@
  */
 package io.gravitee.management.service.notifiers.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.gravitee.common.http.HttpHeaders;
 import io.gravitee.common.http.HttpMethod;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.common.utils.UUID;
-import io.gravitee.fetcher.api.FetcherException;
-import io.gravitee.management.model.*;
-import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.metrics.LatencyMetrics;
+import io.gravitee.management.model.notification.WebhookDeadLetterEntity;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
-import io.gravitee.management.service.notification.Hook;
 import io.gravitee.management.service.notifiers.WebNotifierService;
-import io.gravitee.management.service.notifiers.WebhookNotifierService;
 import io.gravitee.management.service.vertx.VertxCompletableFuture;
-import io.gravitee.repository.management.model.GenericNotificationConfig;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
-import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.ProxyOptions;
 import io.vertx.core.net.ProxyType;
 import org.slf4j.Logger;
@@ -43,14 +42,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.net.URI;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-
-import static io.gravitee.management.service.notification.NotificationParamsBuilder.*;
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Send HTTP requests to the webhook endpoints.
+ *
+ * Requests go through one keep-alive connection pool per endpoint host, whose size and wait queue are bounded, and
+ * responses are handled on the Vert.x event loop so that a slow endpoint only holds connections of its own pool.
+ * Asynchronous deliveries are retried with an exponential backoff and jitter, endpoints failing repeatedly are skipped
+ * for a while, and given up deliveries are kept in a bounded dead letter store so that they can be inspected and
+ * replayed. Clients of endpoints not used for a while, or beyond the maximum number of clients, are closed.
+ *
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com) 
  * @author GraviteeSource Team
  */
@@ -60,6 +68,9 @@ public class WebNotifierServiceImpl implements WebNotifierService {
     private final Logger LOGGER = LoggerFactory.getLogger(WebNotifierServiceImpl.class);
 
     private static final String HTTPS_SCHEME = "https";
+    private static final long METRICS_LOG_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+    private static final int POOL_IDLE_TIMEOUT_SECONDS = 60;
+    private static final long CLIENT_EXPIRY_MINUTES = 10;
 
     @Value("${httpClient.timeout:10000}")
     private int httpClientTimeout;
@@ -84,9 +95,69 @@ public class WebNotifierServiceImpl implements WebNotifierService {
     @Value("${httpClient.proxy.https.password:#{null}}")
     private String httpClientProxyHttpsPassword;
 
+    @Value("${notifiers.webhook.pool.maxSize:10}")
+    private int maxPoolSize;
+    @Value("${notifiers.webhook.queue.capacity:1000}")
+    private int queueCapacity;
+    @Value("${notifiers.webhook.retry.maxAttempts:5}")
+    private int maxAttempts;
+    @Value("${notifiers.webhook.retry.initialDelay:1000}")
+    private long initialRetryDelay;
+    @Value("${notifiers.webhook.retry.maxDelay:60000}")
+    private long maxRetryDelay;
+    @Value("${notifiers.webhook.circuitBreaker.failureThreshold:5}")
+    private int circuitBreakerFailureThreshold;
+    @Value("${notifiers.webhook.circuitBreaker.openDuration:30000}")
+    private long circuitBreakerOpenDuration;
+    @Value("${notifiers.webhook.deadLetters.capacity:100}")
+    private int deadLettersCapacity;
+    @Value("${notifiers.webhook.clients.maxSize:100}")
+    private int maxClients;
+
     @Autowired
     private Vertx vertx;
 
+    private Clock clock = Clock.systemUTC();
+
+    private Cache<String, HttpClient> httpClients;
+    private Cache<String, CircuitBreaker> circuitBreakers;
+    private final Deque<WebhookDeadLetterEntity> deadLetters = new ArrayDeque<>();
+    private final AtomicInteger pendingDeliveries = new AtomicInteger();
+    private final LatencyMetrics metrics = new LatencyMetrics("Webhook deliveries");
+    private long metricsTimerId = -1;
+
+    @PostConstruct
+    public void init() {
+        httpClients = CacheBuilder.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(CLIENT_EXPIRY_MINUTES, TimeUnit.MINUTES)
+                .removalListener((RemovalListener<String, HttpClient>) notification -> close(notification.getValue()))
+                .build();
+        circuitBreakers = CacheBuilder.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(CLIENT_EXPIRY_MINUTES, TimeUnit.MINUTES)
+                .build();
+        metricsTimerId = vertx.setPeriodic(METRICS_LOG_INTERVAL, timerId -> {
+            metrics.max("pending", pendingDeliveries.get());
+            metrics.log(LOGGER);
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        vertx.cancelTimer(metricsTimerId);
+        httpClients.invalidateAll();
+    }
+
+    private static void close(HttpClient httpClient) {
+        try {
+            httpClient.close();
+        } catch (IllegalStateException ise) {
+            // Do not take care about exception when closing client
+        }
+    }
+
+    @Override
     public void request(HttpMethod method, final String uri, final Map<String, String> headers, String body, boolean useSystemProxy) {
         if (uri == null || uri.isEmpty()) {
             LOGGER.error("Webhook Notifier configuration is empty");
@@ -94,21 +165,188 @@ public class WebNotifierServiceImpl implements WebNotifierService {
         }
 
         CompletableFuture<Buffer> future = new VertxCompletableFuture<>(vertx);
-        URI requestUri = URI.create(uri);
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
+        execute(new Delivery(method, uri, headers, body, useSystemProxy), future);
+
+        try {
+            future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOGGER.error(e.getMessage(), e);
+            throw new TechnicalManagementException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void send(HttpMethod method, final String uri, final Map<String, String> headers, String body, boolean useSystemProxy) {
+        if (uri == null || uri.isEmpty()) {
+            LOGGER.error("Webhook Notifier configuration is empty");
+            return;
+        }
+
+        final Delivery delivery = new Delivery(method, uri, headers, body, useSystemProxy);
+        if (pendingDeliveries.incrementAndGet() > queueCapacity) {
+            pendingDeliveries.decrementAndGet();
+            metrics.increment("rejected");
+            giveUp(delivery, "the delivery queue is full");
+            return;
+        }
+        attempt(delivery);
+    }
+
+    @Override
+    public List<WebhookDeadLetterEntity> findDeadLetters() {
+        synchronized (deadLetters) {
+            return new ArrayList<>(deadLetters);
+        }
+    }
+
+    private void attempt(Delivery delivery) {
+        final CircuitBreaker circuitBreaker = circuitBreaker(delivery.endpoint);
+        final long now = clock.millis();
+        if (!circuitBreaker.allowRequest(now)) {
+            // the request is not sent, which is not an attempt, but the delivery is not deferred forever
+            metrics.increment("suspended");
+            if (++delivery.deferrals < maxAttempts) {
+                vertx.setTimer(Math.max(1, circuitBreaker.openUntil(now)), timerId -> attempt(delivery));
+            } else {
+                pendingDeliveries.decrementAndGet();
+                giveUp(delivery, "the endpoint is failing");
+            }
+            return;
+        }
+        delivery.attempts++;
+        final long start = System.nanoTime();
+
+        final CompletableFuture<Buffer> future = new CompletableFuture<>();
+        future.whenComplete((buffer, throwable) -> {
+            metrics.record(System.nanoTime() - start);
+            if (throwable == null) {
+                circuitBreaker.onSuccess();
+                metrics.increment("delivered");
+                pendingDeliveries.decrementAndGet();
+                LOGGER.debug("Webhook delivered to {} after {} attempt(s)", delivery.endpoint, delivery.attempts);
+            } else {
+                if (circuitBreaker.onFailure(clock.millis(), circuitBreakerFailureThreshold, circuitBreakerOpenDuration)) {
+                    LOGGER.warn("Webhook endpoint {} is failing, deliveries are suspended for {} ms", delivery.endpoint, circuitBreakerOpenDuration);
+                }
+                final boolean retryable = !(throwable instanceof WebhookResponseException) || ((WebhookResponseException) throwable).isRetryable();
+                onFailure(delivery, throwable.getMessage(), retryable);
+            }
+        });
+
+        try {
+            execute(delivery, future);
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+    }
+
+    private CircuitBreaker circuitBreaker(String endpoint) {
+        try {
+            return circuitBreakers.get(endpoint, CircuitBreaker::new);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            throw new TechnicalManagementException("Unable to get the circuit breaker of " + endpoint, ex.getCause());
+        }
+    }
+
+    private void onFailure(Delivery delivery, String reason, boolean retryable) {
+        metrics.increment("failed");
+        if (retryable && delivery.attempts < maxAttempts) {
+            final long delay = retryDelay(delivery.attempts);
+            LOGGER.debug("Webhook delivery to {} failed ({}), retrying in {} ms", delivery.endpoint, reason, delay);
+            metrics.increment("retried");
+            vertx.setTimer(delay, timerId -> attempt(delivery));
+        } else {
+            pendingDeliveries.decrementAndGet();
+            giveUp(delivery, reason);
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: the delay doubles with each attempt, up to the maximum delay, and a random part
+     * of up to half of it is removed so that retries to the same endpoint are spread over time.
+     */
+    private long retryDelay(int attempts) {
+        final long delay = Math.min(maxRetryDelay, initialRetryDelay << Math.min(attempts - 1, 30));
+        return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void giveUp(Delivery delivery, String reason) {
+        // the URI and the payload may hold secrets, they are only kept in the dead letters
+        LOGGER.warn("Webhook delivery to {} has been given up after {} attempt(s): {}", delivery.endpoint, delivery.attempts, reason);
+        metrics.increment("given up");
+
+        final WebhookDeadLetterEntity deadLetter = new WebhookDeadLetterEntity();
+        deadLetter.setMethod(delivery.method.name());
+        deadLetter.setUri(delivery.uri);
+        deadLetter.setBody(delivery.body);
+        deadLetter.setAttempts(delivery.attempts);
+        deadLetter.setReason(reason);
+        deadLetter.setGivenUpAt(new Date(clock.millis()));
+        synchronized (deadLetters) {
+            deadLetters.addFirst(deadLetter);
+            while (deadLetters.size() > deadLettersCapacity) {
+                deadLetters.pollLast();
+            }
+        }
+    }
+
+    private void execute(Delivery delivery, CompletableFuture<Buffer> future) {
+        final HttpClient httpClient;
+        try {
+            httpClient = httpClients.get(delivery.client, () -> createHttpClient(delivery));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            throw new TechnicalManagementException("Unable to create the HTTP client of " + delivery.endpoint, ex.getCause());
+        }
+
+        HttpClientRequest request = httpClient.request(
+                io.vertx.core.http.HttpMethod.valueOf(delivery.method.name()),
+                delivery.port,
+                delivery.requestUri.getHost(),
+                delivery.requestUri.toString());
+        request.setTimeout(httpClientTimeout);
 
+        final Buffer payload = Buffer.buffer(delivery.body);
+
+        //headers
+        request.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        request.putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(payload.length()));
+        if (delivery.headers != null) {
+            delivery.headers.forEach(request::putHeader);
+        }
+        request.putHeader("X-Gravitee-Request-Id", UUID.toString(UUID.random()));
+
+        request.handler(response -> {
+            LOGGER.debug("Web response status code : {}", response.statusCode());
+            // The body is always read so that the connection goes back to the pool
+            response.bodyHandler(buffer -> {
+                if (response.statusCode() / 100 == HttpStatusCode.OK_200 / 100) {
+                    future.complete(buffer);
+                } else {
+                    future.completeExceptionally(new WebhookResponseException("Error on endpoint '" + delivery.endpoint + "'. Status code: " + response.statusCode() + ". Message: " + response.statusMessage(), response.statusCode()));
+                }
+            });
+            response.exceptionHandler(future::completeExceptionally);
+        });
+        request.exceptionHandler(future::completeExceptionally);
+
+        request.end(payload);
+    }
+
+    private HttpClient createHttpClient(Delivery delivery) {
         final HttpClientOptions options = new HttpClientOptions()
-                .setSsl(ssl)
+                .setSsl(delivery.ssl)
                 .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
+                .setMaxPoolSize(maxPoolSize)
+                .setMaxWaitQueueSize(queueCapacity)
+                .setKeepAlive(true)
+                .setTcpKeepAlive(true)
+                .setIdleTimeout(POOL_IDLE_TIMEOUT_SECONDS)
                 .setConnectTimeout(httpClientTimeout);
 
-        if (useSystemProxy) {
+        if (delivery.useSystemProxy) {
             ProxyOptions proxyOptions = new ProxyOptions();
             proxyOptions.setType(ProxyType.valueOf(httpClientProxyType));
-            if (HTTPS_SCHEME.equals(requestUri.getScheme())) {
+            if (delivery.ssl) {
                 proxyOptions.setHost(httpClientProxyHttpsHost);
                 proxyOptions.setPort(httpClientProxyHttpsPort);
                 proxyOptions.setUsername(httpClientProxyHttpsUsername);
@@ -122,57 +360,83 @@ public class WebNotifierServiceImpl implements WebNotifierService {
             options.setProxyOptions(proxyOptions);
         }
 
-        final HttpClient httpClient = vertx.createHttpClient(options);
+        return vertx.createHttpClient(options);
+    }
+
+    private static final class Delivery {
+        private final HttpMethod method;
+        private final String uri;
+        private final URI requestUri;
+        private final Map<String, String> headers;
+        private final String body;
+        private final boolean useSystemProxy;
+        private final boolean ssl;
+        private final int port;
+        private final String endpoint;
+        private final String client;
+        private volatile int attempts;
+        private volatile int deferrals;
 
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
+        private Delivery(HttpMethod method, String uri, Map<String, String> headers, String body, boolean useSystemProxy) {
+            this.method = method;
+            this.uri = uri;
+            this.requestUri = URI.create(uri);
+            this.headers = headers;
+            this.body = body;
+            this.useSystemProxy = useSystemProxy;
+            this.ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
+            this.port = requestUri.getPort() != -1 ? requestUri.getPort() : (ssl ? 443 : 80);
+            this.endpoint = requestUri.getHost() + ':' + port;
+            this.client = (ssl ? HTTPS_SCHEME : "http") + "://" + endpoint + (useSystemProxy ? "#proxy" : "");
+        }
+    }
 
-        HttpClientRequest request = httpClient.request(
-                io.vertx.core.http.HttpMethod.valueOf(method.name()),
-                port,
-                requestUri.getHost(),
-                requestUri.toString(),
-                response -> LOGGER.debug("Web response status code : {}", response.statusCode())
-        );
-        request.setTimeout(httpClientTimeout);
+    /**
+     * Tracks the consecutive failures of an endpoint. Once the threshold is reached, requests are not sent anymore
+     * until the open duration is elapsed, then a single failure opens the circuit again.
+     */
+    private static final class CircuitBreaker {
+        private int failures;
+        private long openUntil;
 
-        //headers
-        request.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
-        request.putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(body.length()));
-        headers.forEach(request::putHeader);
-        request.putHeader("X-Gravitee-Request-Id", UUID.toString(UUID.random()));
-        request.write(body);
+        synchronized boolean allowRequest(long now) {
+            return now >= openUntil;
+        }
 
-        request.handler(response -> {
-            if (response.statusCode() == HttpStatusCode.OK_200) {
-                response.bodyHandler(buffer -> {
-                    future.complete(buffer);
+        synchronized long openUntil(long now) {
+            return Math.max(0, openUntil - now);
+        }
 
-                    // Close client
-                    httpClient.close();
-                });
-            } else {
-                future.completeExceptionally(new TechnicalManagementException(" Error on url '" + uri + "'. Status code: " + response.statusCode() + ". Message: " + response.statusMessage(), null));
-            }
-        });
-        request.exceptionHandler(event -> {
-            try {
-                future.completeExceptionally(event);
-
-                // Close client
-                httpClient.close();
-            } catch (IllegalStateException ise) {
-                // Do not take care about exception when closing client
+        synchronized void onSuccess() {
+            failures = 0;
+            openUntil = 0;
+        }
+
+        synchronized boolean onFailure(long now, int threshold, long openDuration) {
+            if (++failures >= threshold) {
+                failures = threshold - 1;
+                openUntil = now + openDuration;
+                return true;
             }
-        });
+            return false;
+        }
+    }
 
-        request.end();
+    private static final class WebhookResponseException extends TechnicalManagementException {
+        private final int statusCode;
 
-        try {
-            future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            LOGGER.error(e.getMessage(), e);
-            throw new TechnicalManagementException(e.getMessage(), e);
+        private WebhookResponseException(String message, int statusCode) {
+            super(message, null);
+            this.statusCode = statusCode;
+        }
+
+        /**
+         * Server errors, rate limiting and timeouts may be transient, other client errors are not.
+         */
+        private boolean isRetryable() {
+            return statusCode >= HttpStatusCode.INTERNAL_SERVER_ERROR_500
+                    || statusCode == HttpStatusCode.TOO_MANY_REQUESTS_429
+                    || statusCode == HttpStatusCode.REQUEST_TIMEOUT_408;
         }
     }
 }
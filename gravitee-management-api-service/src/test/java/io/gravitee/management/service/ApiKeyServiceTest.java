@@ -19,18 +19,22 @@ import io.gravitee.management.model.*;
 import io.gravitee.management.service.exceptions.ApiKeyNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.impl.ApiKeyServiceImpl;
+import io.gravitee.management.service.notification.ApiHook;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiKeyRepository;
 import io.gravitee.repository.management.model.ApiKey;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
@@ -389,4 +393,63 @@ public class ApiKeyServiceTest {
         apiKeyService.findAll(APPLICATION_NAME, API_KEY);
     }
     */
+
+    @Test
+    public void shouldRevokeInBulk() throws TechnicalException {
+        // Prepare API keys sharing the same plan
+        final ApiKey key1 = new ApiKey();
+        key1.setKey("key-1");
+        key1.setPlan(PLAN_ID);
+        final ApiKey key2 = new ApiKey();
+        key2.setKey("key-2");
+        key2.setPlan(PLAN_ID);
+        when(apiKeyRepository.findById("key-1")).thenReturn(Optional.of(key1));
+        when(apiKeyRepository.findById("key-2")).thenReturn(Optional.of(key2));
+
+        when(plan.getApis()).thenReturn(Collections.singleton(API_ID));
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+
+        // Run
+        apiKeyService.revoke(Arrays.asList("key-1", "key-2"), false);
+
+        // Verify
+        assertTrue(key1.isRevoked());
+        assertTrue(key2.isRevoked());
+        verify(apiKeyRepository, times(2)).update(any());
+        verify(planService, times(1)).findById(PLAN_ID);
+        verify(notifierService, never()).trigger(any(ApiHook.class), anyString(), anyMap());
+    }
+
+    @Test
+    public void shouldRenewInBulkAndNotifyOnce() throws TechnicalException {
+        // Prepare subscriptions sharing the same plan and application
+        final SubscriptionEntity sub1 = mock(SubscriptionEntity.class);
+        when(sub1.getApplication()).thenReturn(APPLICATION_ID);
+        when(sub1.getPlan()).thenReturn(PLAN_ID);
+        final SubscriptionEntity sub2 = mock(SubscriptionEntity.class);
+        when(sub2.getApplication()).thenReturn(APPLICATION_ID);
+        when(sub2.getPlan()).thenReturn(PLAN_ID);
+        when(subscriptionService.findById("subscription-1")).thenReturn(sub1);
+        when(subscriptionService.findById("subscription-2")).thenReturn(sub2);
+
+        when(apiKeyGenerator.generate()).thenReturn("key-1", "key-2");
+        when(apiKeyRepository.create(any())).thenAnswer(returnsFirstArg());
+        when(apiKeyRepository.findBySubscription(anyString())).thenReturn(Collections.emptySet());
+        when(plan.getApis()).thenReturn(Collections.singleton(API_ID));
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+        when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(mock(ApiModelEntity.class));
+
+        // Run
+        final List<ApiKeyEntity> apiKeys = apiKeyService.renew(Arrays.asList("subscription-1", "subscription-2"));
+
+        // Verify
+        assertEquals(2, apiKeys.size());
+        verify(apiKeyRepository, times(2)).create(any());
+        verify(planService, times(1)).findById(PLAN_ID);
+        verify(notifierService, never()).trigger(any(ApiHook.class), anyString(), anyMap());
+        final ArgumentCaptor<List> params = ArgumentCaptor.forClass(List.class);
+        verify(notifierService, times(1)).triggerAll(eq(ApiHook.APIKEY_RENEWED), eq(API_ID), params.capture());
+        assertEquals(2, params.getValue().size());
+    }
 }
@@ -18,6 +18,7 @@ package io.gravitee.management.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.definition.jackson.datatype.GraviteeMapper;
 import io.gravitee.management.idp.api.identity.SearchableUser;
 import io.gravitee.management.model.*;
@@ -67,6 +68,9 @@ public class ApiService_CreateOrUpdateWithDefinitionTest {
     @Mock
     private ApiRepository apiRepository;
 
+    @Mock
+    private EventManager eventManager;
+
     @Mock
     private MembershipRepository membershipRepository;
 
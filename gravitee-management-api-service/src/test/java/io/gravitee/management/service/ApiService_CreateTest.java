@@ -43,9 +43,9 @@ import java.util.Optional;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Azize Elamrani (azize dot elamrani at gmail dot com)
@@ -171,6 +171,24 @@ public class ApiService_CreateTest {
         testCreationWithContextPath("/context//toto", "/context/toto");
     }
 
+    @Test
+    public void shouldCheckContextPathsFromIndex() throws TechnicalException {
+        when(apiRepository.search(null)).thenReturn(asList(api));
+        when(api.getId()).thenReturn(API_ID);
+        when(api.getDefinition()).thenReturn("{\"id\": \"" + API_ID + "\",\"name\": \"" + API_NAME + "\",\"proxy\": {\"context_path\": \"/products/sect\"}}");
+
+        apiService.checkContextPath("/products/ecom");
+        apiService.checkContextPath("/product");
+        try {
+            apiService.checkContextPath("/products/sect/search");
+            fail("Context path should conflict with the existing one");
+        } catch (ApiContextPathAlreadyExistsException ex) {
+            // expected
+        }
+
+        verify(apiRepository, times(1)).search(null);
+    }
+
     private void testCreationWithContextPath(String existingContextPath, String contextPathToCreate) throws TechnicalException {
         when(apiRepository.findById(anyString())).thenReturn(Optional.empty());
         when(apiRepository.create(any())).thenReturn(api);
@@ -0,0 +1,182 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.gravitee.definition.jackson.datatype.GraviteeMapper;
+import io.gravitee.management.model.ApiMetadataEntity;
+import io.gravitee.management.model.ApiModelEntity;
+import io.gravitee.management.model.UserEntity;
+import io.gravitee.management.model.permissions.SystemRole;
+import io.gravitee.management.service.event.MetadataEvent;
+import io.gravitee.management.service.impl.ApiServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.RoleScope;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiService_FindByIdForTemplatesTest {
+
+    private static final String API_ID = "id-api";
+    private static final String API_ID_2 = "id-api-2";
+    private static final String USER_NAME = "myUser";
+
+    @InjectMocks
+    private ApiServiceImpl apiService = new ApiServiceImpl();
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @Mock
+    private ApiMetadataService apiMetadataService;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private ObjectMapper objectMapper = new GraviteeMapper();
+
+    @Before
+    public void setUp() throws TechnicalException {
+        final Membership po = new Membership(USER_NAME, API_ID, MembershipReferenceType.API);
+        po.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
+        when(membershipRepository.findByReferenceAndRole(any(), any(), any(), any()))
+                .thenReturn(Collections.singleton(po));
+
+        final ApiMetadataEntity metadata = new ApiMetadataEntity();
+        metadata.setKey("email-support");
+        metadata.setDefaultValue("support@gravitee.io");
+        when(apiMetadataService.findAllByApi(any())).thenReturn(Collections.singletonList(metadata));
+    }
+
+    @Test
+    public void shouldBuildTemplateModelOnce() throws TechnicalException {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api(API_ID)));
+
+        final ApiModelEntity model = apiService.findByIdForTemplates(API_ID);
+
+        assertEquals("support@gravitee.io", model.getMetadata().get("email-support"));
+        assertNotSame(model, apiService.findByIdForTemplates(API_ID));
+        verify(apiRepository, times(1)).findById(API_ID);
+        verify(apiMetadataService, times(1)).findAllByApi(API_ID);
+    }
+
+    @Test
+    public void shouldNotExposeCachedTemplateModel() throws TechnicalException {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api(API_ID)));
+
+        final ApiModelEntity model = apiService.findByIdForTemplates(API_ID);
+        model.setName("modified");
+        model.getMetadata().put("email-support", "modified@gravitee.io");
+
+        final ApiModelEntity otherModel = apiService.findByIdForTemplates(API_ID);
+        assertNull(otherModel.getName());
+        assertEquals("support@gravitee.io", otherModel.getMetadata().get("email-support"));
+    }
+
+    @Test
+    public void shouldBuildTemplateModelAgainWhenMetadataChange() throws TechnicalException {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api(API_ID)));
+
+        apiService.findByIdForTemplates(API_ID);
+        apiService.onEvent(new SimpleEvent<>(MetadataEvent.API_METADATA_UPDATED, API_ID));
+        apiService.findByIdForTemplates(API_ID);
+        apiService.onEvent(new SimpleEvent<>(MetadataEvent.DEFAULT_METADATA_UPDATED, "email-support"));
+        apiService.findByIdForTemplates(API_ID);
+
+        verify(apiMetadataService, times(3)).findAllByApi(API_ID);
+    }
+
+    @Test
+    public void shouldNotServeTemplateModelBuiltWhileMetadataChange() throws TechnicalException {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api(API_ID)));
+        final ApiMetadataEntity metadata = new ApiMetadataEntity();
+        metadata.setKey("email-support");
+        metadata.setDefaultValue("support@gravitee.io");
+        when(apiMetadataService.findAllByApi(API_ID)).thenAnswer(invocation -> {
+            // the metadata are updated by another request while the model is built
+            apiService.onEvent(new SimpleEvent<>(MetadataEvent.API_METADATA_UPDATED, API_ID));
+            return Collections.singletonList(metadata);
+        }).thenReturn(Collections.singletonList(metadata));
+
+        apiService.findByIdForTemplates(API_ID);
+        apiService.findByIdForTemplates(API_ID);
+        apiService.findByIdForTemplates(API_ID);
+
+        verify(apiMetadataService, times(2)).findAllByApi(API_ID);
+    }
+
+    @Test
+    public void shouldLoadMissingTemplateModelsInBulk() throws TechnicalException {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api(API_ID)));
+        final ApiModelEntity cachedModel = apiService.findByIdForTemplates(API_ID);
+
+        final Membership po = new Membership(USER_NAME, API_ID_2, MembershipReferenceType.API);
+        po.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
+        when(membershipRepository.findByReferencesAndRole(any(), any(), any(), any()))
+                .thenReturn(Collections.singleton(po));
+        final UserEntity user = new UserEntity();
+        user.setId(USER_NAME);
+        when(userService.findByIds(any())).thenReturn(Collections.singleton(user));
+        when(apiRepository.search(any(ApiCriteria.class))).thenReturn(Collections.singletonList(api(API_ID_2)));
+
+        final Map<String, ApiModelEntity> models = apiService.findByIdsForTemplates(Arrays.asList(API_ID, API_ID_2, "unknown"));
+
+        assertEquals(2, models.size());
+        assertEquals(cachedModel.getId(), models.get(API_ID).getId());
+        assertEquals(API_ID_2, models.get(API_ID_2).getId());
+        assertEquals(API_ID_2, apiService.findByIdForTemplates(API_ID_2).getId());
+        verify(apiRepository, times(1)).search(any(ApiCriteria.class));
+        verify(apiRepository, times(1)).findById(API_ID);
+        verify(apiRepository, never()).findById(API_ID_2);
+    }
+
+    private static Api api(String apiId) {
+        final Api api = new Api();
+        api.setId(apiId);
+        return api;
+    }
+}
@@ -18,15 +18,21 @@ package io.gravitee.management.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ser.PropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.common.event.impl.SimpleEvent;
 import io.gravitee.definition.jackson.datatype.GraviteeMapper;
 import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.api.ApiQuery;
+import io.gravitee.management.model.common.PageableImpl;
 import io.gravitee.management.model.permissions.SystemRole;
+import io.gravitee.management.service.event.MembershipEvent;
 import io.gravitee.management.service.impl.ApiServiceImpl;
 import io.gravitee.management.service.jackson.filter.ApiPermissionFilter;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
 import io.gravitee.repository.management.model.Api;
 import io.gravitee.repository.management.model.Membership;
 import io.gravitee.repository.management.model.MembershipReferenceType;
@@ -38,8 +44,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 import static io.gravitee.repository.management.model.Visibility.PUBLIC;
@@ -47,8 +56,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Azize Elamrani (azize dot elamrani at gmail dot com)
@@ -85,13 +93,15 @@ public class ApiService_FindByUserTest {
 
     @Test
     public void shouldFindByUser() throws TechnicalException {
-        when(apiRepository.search(new ApiCriteria.Builder().visibility(PUBLIC).build())).thenReturn(singletonList(api));
-        when(apiRepository.search(new ApiCriteria.Builder().ids(api.getId()).build())).thenReturn(singletonList(api));
+        when(api.getId()).thenReturn(API_ID);
+        when(apiRepository.search(eq(new ApiCriteria.Builder().visibility(PUBLIC).build()), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(singletonList(api));
+        when(apiRepository.search(new ApiCriteria.Builder().ids(API_ID).build())).thenReturn(singletonList(api));
 
-        Membership membership = new Membership(USER_NAME, api.getId(), MembershipReferenceType.API);
+        Membership membership = new Membership(USER_NAME, API_ID, MembershipReferenceType.API);
         membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), "USER"));
         Set<Membership> memberships = Collections.singleton(membership);
-        when(membershipRepository.findByUserAndReferenceType(anyString(), any(MembershipReferenceType.class)))
+        when(membershipRepository.findByUserAndReferenceType(USER_NAME, MembershipReferenceType.API))
                 .thenReturn(memberships);
         Membership po = new Membership(USER_NAME, API_ID, MembershipReferenceType.API);
         po.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
@@ -106,14 +116,96 @@ public class ApiService_FindByUserTest {
 
     @Test
     public void shouldNotFindByUserBecauseNotExists() throws TechnicalException {
-        when(apiRepository.search(new ApiCriteria.Builder().visibility(PUBLIC).build())).thenReturn(emptyList());
+        when(apiRepository.search(eq(new ApiCriteria.Builder().visibility(PUBLIC).build()), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(emptyList());
         when(membershipRepository.findByUserAndReferenceType(anyString(), any(MembershipReferenceType.class)))
                 .thenReturn(Collections.emptySet());
-        when(apiRepository.search(new ApiCriteria.Builder().ids(USER_NAME).build())).thenReturn(emptyList());
 
         final Set<ApiEntity> apiEntities = apiService.findByUser(USER_NAME, null);
 
         assertNotNull(apiEntities);
         assertTrue(apiEntities.isEmpty());
+        verify(apiRepository, never()).search(any(ApiCriteria.class));
+    }
+
+    @Test
+    public void shouldFindIdsByUserOnce() throws TechnicalException {
+        Api publicApi = new Api();
+        publicApi.setId("public-api");
+        Api groupApi = new Api();
+        groupApi.setId("group-api");
+        when(apiRepository.search(eq(new ApiCriteria.Builder().visibility(PUBLIC).build()), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(singletonList(publicApi));
+        when(apiRepository.search(eq(new ApiCriteria.Builder().groups("group").build()), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(singletonList(groupApi));
+
+        Membership apiMembership = new Membership(USER_NAME, API_ID, MembershipReferenceType.API);
+        apiMembership.setRoles(Collections.singletonMap(RoleScope.API.getId(), "USER"));
+        when(membershipRepository.findByUserAndReferenceType(USER_NAME, MembershipReferenceType.API))
+                .thenReturn(Collections.singleton(apiMembership));
+        Membership groupMembership = new Membership(USER_NAME, "group", MembershipReferenceType.GROUP);
+        groupMembership.setRoles(Collections.singletonMap(RoleScope.API.getId(), "USER"));
+        when(membershipRepository.findByUserAndReferenceType(USER_NAME, MembershipReferenceType.GROUP))
+                .thenReturn(Collections.singleton(groupMembership));
+
+        assertEquals(new HashSet<>(Arrays.asList("public-api", API_ID, "group-api")), apiService.findIdsByUser(USER_NAME));
+        assertEquals(new HashSet<>(Arrays.asList("public-api", API_ID, "group-api")), apiService.findIdsByUser(USER_NAME));
+
+        verify(membershipRepository, times(1)).findByUserAndReferenceType(USER_NAME, MembershipReferenceType.API);
+        verify(membershipRepository, times(1)).findByUserAndReferenceType(USER_NAME, MembershipReferenceType.GROUP);
+        verify(apiRepository, times(2)).search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class));
+    }
+
+    @Test
+    public void shouldOnlyEvictMembershipsOfUpdatedUser() throws TechnicalException {
+        when(membershipRepository.findByUserAndReferenceType(anyString(), any(MembershipReferenceType.class)))
+                .thenReturn(Collections.emptySet());
+
+        apiService.findIdsByUser(USER_NAME);
+        apiService.findIdsByUser("otherUser");
+        ReflectionTestUtils.invokeMethod(apiService, "onMembershipEvent",
+                new SimpleEvent<>(MembershipEvent.USER_MEMBERSHIPS_UPDATED, USER_NAME));
+        apiService.findIdsByUser(USER_NAME);
+        apiService.findIdsByUser("otherUser");
+
+        verify(membershipRepository, times(2)).findByUserAndReferenceType(USER_NAME, MembershipReferenceType.API);
+        verify(membershipRepository, times(1)).findByUserAndReferenceType("otherUser", MembershipReferenceType.API);
+        // the public APIs are shared by all users and not evicted
+        verify(apiRepository, times(1)).search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class));
+    }
+
+    @Test
+    public void shouldFindPageByUser() throws TechnicalException {
+        Api api1 = new Api();
+        api1.setId("api-1");
+        api1.setName("a");
+        Api api2 = new Api();
+        api2.setId("api-2");
+        api2.setName("B");
+        Api api3 = new Api();
+        api3.setId("api-3");
+        api3.setName("c");
+        // the visible APIs matching the query, unsorted
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(Arrays.asList(api3, api1, api2));
+        when(apiRepository.search(eq(new ApiCriteria.Builder().visibility(PUBLIC).build()), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(Arrays.asList(api1, api2, api3));
+        when(membershipRepository.findByUserAndReferenceType(anyString(), any(MembershipReferenceType.class)))
+                .thenReturn(Collections.emptySet());
+        when(apiRepository.search(new ApiCriteria.Builder().ids("api-2").build())).thenReturn(singletonList(api2));
+        Membership po = new Membership(USER_NAME, "api-2", MembershipReferenceType.API);
+        po.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
+        when(membershipRepository.findByReferencesAndRole(any(), any(), any(), any()))
+                .thenReturn(Collections.singleton(po));
+
+        final Page<ApiEntity> page = apiService.findByUser(USER_NAME, new ApiQuery(),
+                new PageableImpl(2, 1));
+
+        assertEquals(2, page.getPageNumber());
+        assertEquals(3, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals("api-2", page.getContent().get(0).getId());
+        // only the APIs of the page are loaded with their definition
+        verify(apiRepository, times(1)).search(any(ApiCriteria.class));
     }
 }
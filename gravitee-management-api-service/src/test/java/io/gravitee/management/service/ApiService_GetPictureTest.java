@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.InlinePictureEntity;
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.service.exceptions.ApiNotFoundException;
+import io.gravitee.management.service.impl.ApiServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiService_GetPictureTest {
+
+    private static final String API_ID = "id-api";
+    // "picture" encoded in base64
+    private static final String PICTURE = "data:image/png;base64,cGljdHVyZQ==";
+
+    @InjectMocks
+    private ApiServiceImpl apiService = new ApiServiceImpl();
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    private final Api api = new Api();
+
+    @Before
+    public void setUp() throws TechnicalException {
+        api.setId(API_ID);
+        api.setPicture(PICTURE);
+        api.setUpdatedAt(new Date(1000));
+
+        final Api lightApi = new Api();
+        lightApi.setId(API_ID);
+        lightApi.setUpdatedAt(api.getUpdatedAt());
+
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class))).thenReturn(singletonList(lightApi));
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api));
+    }
+
+    @Test
+    public void shouldGetPicture() {
+        final InlinePictureEntity picture = apiService.getPicture(API_ID);
+
+        assertEquals("image/png", picture.getType());
+        assertArrayEquals("picture".getBytes(), picture.getContent());
+        assertNotNull(picture.getHash());
+    }
+
+    @Test
+    public void shouldGetPictureFromCache() throws TechnicalException {
+        final InlinePictureEntity picture = apiService.getPicture(API_ID);
+        final InlinePictureEntity cachedPicture = apiService.getPicture(API_ID);
+
+        assertSame(picture, cachedPicture);
+        verify(apiRepository, times(1)).findById(API_ID);
+    }
+
+    @Test
+    public void shouldReloadPictureWhenApiUpdated() throws TechnicalException {
+        final InlinePictureEntity picture = apiService.getPicture(API_ID);
+
+        final Api updatedLightApi = new Api();
+        updatedLightApi.setId(API_ID);
+        updatedLightApi.setUpdatedAt(new Date(2000));
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class))).thenReturn(singletonList(updatedLightApi));
+        api.setPicture("data:image/jpeg;base64,cGljdHVyZQ==");
+        api.setUpdatedAt(updatedLightApi.getUpdatedAt());
+
+        final InlinePictureEntity updatedPicture = apiService.getPicture(API_ID);
+
+        assertEquals("image/jpeg", updatedPicture.getType());
+        assertEquals(picture.getHash(), updatedPicture.getHash());
+        verify(apiRepository, times(2)).findById(API_ID);
+    }
+
+    @Test
+    public void shouldNotCachePictureWithoutUpdateDate() throws TechnicalException {
+        api.setUpdatedAt(null);
+
+        apiService.getPicture(API_ID, null);
+        final InlinePictureEntity picture = apiService.getPicture(API_ID, null);
+
+        assertArrayEquals("picture".getBytes(), picture.getContent());
+        verify(apiRepository, times(2)).findById(API_ID);
+    }
+
+    @Test
+    public void shouldGetPictureWithKnownUpdateDateWithoutLightRead() throws TechnicalException {
+        apiService.getPicture(API_ID, api.getUpdatedAt());
+        apiService.getPicture(API_ID, new Date(api.getUpdatedAt().getTime()));
+
+        verify(apiRepository, times(1)).findById(API_ID);
+        verify(apiRepository, never()).search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class));
+    }
+
+    @Test(expected = ApiNotFoundException.class)
+    public void shouldNotGetPictureBecauseNotExists() throws TechnicalException {
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class))).thenReturn(emptyList());
+
+        apiService.getPicture(API_ID);
+    }
+
+    @Test
+    public void shouldGetPictureHashWithoutReadingApi() throws TechnicalException {
+        final ApiEntity apiEntity = new ApiEntity();
+        apiEntity.setId(API_ID);
+        apiEntity.setPicture(PICTURE);
+        apiEntity.setUpdatedAt(api.getUpdatedAt());
+
+        final String hash = apiService.getPictureHash(apiEntity);
+
+        assertEquals(apiService.getPicture(API_ID, api.getUpdatedAt()).getHash(), hash);
+        verify(apiRepository, never()).findById(API_ID);
+    }
+
+    @Test
+    public void shouldNotGetHashOfInvalidPicture() {
+        final ApiEntity apiEntity = new ApiEntity();
+        apiEntity.setId(API_ID);
+        apiEntity.setPicture("data:text/plain;base64,cGljdHVyZQ==");
+
+        assertNull(apiService.getPictureHash(apiEntity));
+    }
+}
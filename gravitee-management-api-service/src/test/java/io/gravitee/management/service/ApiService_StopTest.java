@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.ser.PropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.definition.jackson.datatype.GraviteeMapper;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.EventType;
@@ -64,6 +65,9 @@ public class ApiService_StopTest {
     @Mock
     private ApiRepository apiRepository;
 
+    @Mock
+    private EventManager eventManager;
+
     @Mock
     private MembershipRepository membershipRepository;
 
@@ -18,6 +18,7 @@ package io.gravitee.management.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ser.PropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.definition.jackson.datatype.GraviteeMapper;
 import io.gravitee.definition.model.Proxy;
 import io.gravitee.management.model.api.ApiEntity;
@@ -25,6 +26,7 @@ import io.gravitee.management.model.api.UpdateApiEntity;
 import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.service.exceptions.ApiContextPathAlreadyExistsException;
 import io.gravitee.management.service.exceptions.ApiNotFoundException;
+import io.gravitee.management.service.exceptions.InvalidDataException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.impl.ApiServiceImpl;
 import io.gravitee.management.service.jackson.filter.ApiPermissionFilter;
@@ -50,8 +52,11 @@ import java.util.Optional;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -71,6 +76,9 @@ public class ApiService_UpdateTest {
     @Mock
     private ApiRepository apiRepository;
 
+    @Mock
+    private EventManager eventManager;
+
     @Mock
     private MembershipRepository membershipRepository;
 
@@ -121,6 +129,25 @@ public class ApiService_UpdateTest {
         assertEquals(API_NAME, apiEntity.getName());
     }
 
+    @Test
+    public void shouldNotUpdateWithInvalidPicture() throws TechnicalException {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api));
+        when(existingApi.getName()).thenReturn(API_NAME);
+        when(existingApi.getVersion()).thenReturn("v1");
+        when(existingApi.getDescription()).thenReturn("Ma description");
+        when(existingApi.getPicture()).thenReturn("data:image/png;base64,not base64!");
+        final Proxy proxy = mock(Proxy.class);
+        when(existingApi.getProxy()).thenReturn(proxy);
+        when(proxy.getContextPath()).thenReturn("/context");
+
+        try {
+            apiService.update(API_ID, existingApi);
+            fail("An invalid picture must be rejected");
+        } catch (InvalidDataException ide) {
+            verify(apiRepository, never()).update(any());
+        }
+    }
+
     @Test(expected = ApiNotFoundException.class)
     public void shouldNotUpdateBecauseNotFound() throws TechnicalException {
         when(apiRepository.findById(API_ID)).thenReturn(Optional.empty());
@@ -96,7 +96,24 @@ public class ApplicationService_CreateTest {
 
     @Test(expected = ClientIdAlreadyExistsException.class)
     public void shouldNotCreateBecauseClientIdExists() throws TechnicalException {
+        when(applicationRepository.findByClientId(CLIENT_ID)).thenReturn(Optional.of(application));
+        when(application.getId()).thenReturn("other-app");
+        when(application.getStatus()).thenReturn(ApplicationStatus.ACTIVE);
+
+        when(newApplication.getName()).thenReturn(APPLICATION_NAME);
+        when(newApplication.getClientId()).thenReturn(CLIENT_ID);
+        when(newApplication.getDescription()).thenReturn("My description");
+
+        applicationService.create(newApplication, USER_NAME);
+    }
+
+    @Test(expected = ClientIdAlreadyExistsException.class)
+    public void shouldNotCreateBecauseClientIdExistsOnActiveApplication() throws TechnicalException {
+        Application archived = mock(Application.class);
+        when(archived.getStatus()).thenReturn(ApplicationStatus.ARCHIVED);
+        when(applicationRepository.findByClientId(CLIENT_ID)).thenReturn(Optional.of(archived));
         when(applicationRepository.findAll(ApplicationStatus.ACTIVE)).thenReturn(Sets.newSet(application));
+        when(application.getId()).thenReturn("other-app");
         when(application.getClientId()).thenReturn(CLIENT_ID);
 
         when(newApplication.getName()).thenReturn(APPLICATION_NAME);
@@ -108,7 +125,7 @@ public class ApplicationService_CreateTest {
 
     @Test(expected = TechnicalManagementException.class)
     public void shouldNotCreateForUserBecauseTechnicalException() throws TechnicalException {
-        when(applicationRepository.findAll(ApplicationStatus.ACTIVE)).thenThrow(TechnicalException.class);
+        when(applicationRepository.findByClientId(CLIENT_ID)).thenThrow(TechnicalException.class);
         when(newApplication.getName()).thenReturn(APPLICATION_NAME);
         when(newApplication.getClientId()).thenReturn(CLIENT_ID);
         when(newApplication.getDescription()).thenReturn("My description");
@@ -35,7 +35,6 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentMatcher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.internal.util.collections.Sets;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Collections;
@@ -168,10 +167,10 @@ public class ApplicationService_UpdateTest {
     public void shouldNotUpdateBecauseDifferentApplication() throws TechnicalException {
         Application other = mock(Application.class);
         when(other.getId()).thenReturn("other-app");
-        when(other.getClientId()).thenReturn(CLIENT_ID);
+        when(other.getStatus()).thenReturn(ApplicationStatus.ACTIVE);
 
         when(applicationRepository.findById(APPLICATION_ID)).thenReturn(Optional.of(application));
-        when(applicationRepository.findAll(ApplicationStatus.ACTIVE)).thenReturn(Sets.newSet(other));
+        when(applicationRepository.findByClientId(CLIENT_ID)).thenReturn(Optional.of(other));
 
         when(application.getId()).thenReturn(APPLICATION_ID);
         when(existingApplication.getClientId()).thenReturn(CLIENT_ID);
@@ -15,8 +15,10 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.common.event.impl.SimpleEvent;
 import io.gravitee.management.model.PortalConfigEntity;
 import io.gravitee.management.model.parameters.Key;
+import io.gravitee.management.service.event.ParameterEvent;
 import io.gravitee.management.service.impl.ConfigServiceImpl;
 import io.gravitee.repository.management.model.Parameter;
 import org.junit.Test;
@@ -71,6 +73,32 @@ public class ConfigServiceTest {
         assertEquals("analytics", Boolean.TRUE, portalConfig.getPortal().getAnalytics().isEnabled());
     }
 
+    @Test
+    public void shouldCachePortalConfig() {
+        when(mockParameterService.findAll(any(List.class)))
+                .thenReturn(Collections.singletonMap(COMPANY_NAME.key(), singletonList("ACME")));
+
+        PortalConfigEntity first = configService.getPortalConfig();
+        PortalConfigEntity second = configService.getPortalConfig();
+
+        assertNotSame(first, second);
+        assertEquals("ACME", second.getCompany().getName());
+        verify(mockParameterService, times(1)).findAll(any(List.class));
+    }
+
+    @Test
+    public void shouldReloadPortalConfigWhenParameterIsUpdated() {
+        when(mockParameterService.findAll(any(List.class)))
+                .thenReturn(Collections.singletonMap(COMPANY_NAME.key(), singletonList("ACME")))
+                .thenReturn(Collections.singletonMap(COMPANY_NAME.key(), singletonList("Gravitee")));
+
+        assertEquals("ACME", configService.getPortalConfig().getCompany().getName());
+        configService.onEvent(new SimpleEvent<>(ParameterEvent.UPDATED, COMPANY_NAME.key()));
+
+        assertEquals("Gravitee", configService.getPortalConfig().getCompany().getName());
+        verify(mockParameterService, times(2)).findAll(any(List.class));
+    }
+
     @Test
     public void shouldCreateProtalConfig() {
         PortalConfigEntity portalConfigEntity = new PortalConfigEntity();
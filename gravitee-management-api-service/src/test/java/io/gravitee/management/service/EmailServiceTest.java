@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import com.google.common.cache.Cache;
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.impl.EmailServiceImpl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.*;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.ReflectionTestUtils.getField;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EmailServiceTest {
+
+    private static final String TEMPLATE = "template.html";
+
+    @Rule
+    public TemporaryFolder templatesFolder = new TemporaryFolder();
+
+    private EmailServiceImpl emailService = new EmailServiceImpl();
+
+    private RecordingMailSender mailSender = new RecordingMailSender();
+
+    @Before
+    public void init() throws Exception {
+        final StringTemplateLoader templateLoader = new StringTemplateLoader();
+        templateLoader.putTemplate(TEMPLATE, "<html><body><img src=\"logo.png\"/><p>Hello ${name}</p></body></html>");
+        final Configuration configuration = new Configuration(Configuration.VERSION_2_3_28);
+        configuration.setTemplateLoader(templateLoader);
+
+        Files.write(templatesFolder.newFile("logo.png").toPath(), new byte[]{1, 2, 3});
+
+        setField(emailService, "mailSender", mailSender);
+        setField(emailService, "freemarkerConfiguration", configuration);
+        setField(emailService, "templatesPath", templatesFolder.getRoot().getAbsolutePath());
+        setField(emailService, "subject", "[Gravitee.io] %s");
+        setField(emailService, "defaultFrom", "noreply@gravitee.io");
+        setField(emailService, "enabled", true);
+    }
+
+    @Test
+    public void shouldSendInBatches() {
+        setField(emailService, "batchSize", 2);
+
+        emailService.sendEmailNotifications(notifications(5, "John"));
+
+        assertEquals(Arrays.asList(2, 2, 1), mailSender.batches);
+        assertEquals(5, mailSender.messages.size());
+    }
+
+    @Test
+    public void shouldUseDefaultBatchSize() {
+        setField(emailService, "batchSize", 0);
+
+        emailService.sendEmailNotifications(notifications(51, "John"));
+
+        assertEquals(Arrays.asList(50, 1), mailSender.batches);
+    }
+
+    @Test
+    public void shouldLimitSendingRate() {
+        setField(emailService, "batchSize", 5);
+        setField(emailService, "batchRate", 20d);
+
+        final long start = System.currentTimeMillis();
+        emailService.sendEmailNotifications(notifications(15, "John"));
+        final long elapsed = System.currentTimeMillis() - start;
+
+        // the first batch is sent right away, each following one waits for the permits of the previous one
+        assertEquals(Arrays.asList(5, 5, 5), mailSender.batches);
+        assertTrue("Emails have been sent in " + elapsed + " ms", elapsed >= 400);
+    }
+
+    @Test
+    public void shouldInlineImagesOncePerContent() throws Exception {
+        emailService.sendEmailNotifications(notifications(2, "John"));
+        emailService.sendEmailNotifications(notifications(1, "John"));
+
+        final Cache<?, ?> inlinedContents = (Cache<?, ?>) getField(emailService, "inlinedContents");
+        assertEquals(1, inlinedContents.size());
+
+        emailService.sendEmailNotifications(notifications(1, "Jane"));
+        assertEquals(2, inlinedContents.size());
+
+        assertEquals(4, mailSender.messages.size());
+        for (MimeMessage message : mailSender.messages) {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            message.writeTo(content);
+            assertTrue(content.toString().contains("src=\"cid:logo.png\""));
+            assertTrue(content.toString().contains("Content-ID: <logo.png>"));
+        }
+    }
+
+    @Test(expected = TechnicalManagementException.class)
+    public void shouldFailWhenNoEmailHasBeenSent() {
+        mailSender.failing = true;
+
+        emailService.sendEmailNotifications(notifications(3, "John"));
+    }
+
+    @Test
+    public void shouldNotThrowFromAsyncDispatch() {
+        mailSender.failing = true;
+
+        emailService.sendAsyncEmailNotifications(notifications(3, "John"));
+        emailService.sendAsyncEmailNotification(notifications(1, "John").get(0));
+
+        assertEquals(Arrays.asList(3), mailSender.batches);
+    }
+
+    private List<EmailNotification> notifications(int count, String name) {
+        final List<EmailNotification> notifications = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final EmailNotification notification = new EmailNotification();
+            notification.setTo("user" + i + "@gravitee.io");
+            notification.setSubject("Subject");
+            notification.setTemplate(TEMPLATE);
+            notification.setParams(new HashMap<>(singletonMap("name", name)));
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+
+    private static class RecordingMailSender implements JavaMailSender {
+        private final List<Integer> batches = new ArrayList<>();
+        private final List<MimeMessage> messages = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            return new MimeMessage(Session.getInstance(new Properties()));
+        }
+
+        @Override
+        public MimeMessage createMimeMessage(InputStream contentStream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessage mimeMessage) {
+            if (failing) {
+                throw new MailSendException("SMTP server is down");
+            }
+            messages.add(mimeMessage);
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            batches.add(mimeMessages.length);
+            if (failing) {
+                throw new MailSendException("SMTP server is down");
+            }
+            messages.addAll(Arrays.asList(mimeMessages));
+        }
+
+        @Override
+        public void send(MimeMessagePreparator mimeMessagePreparator) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessagePreparator... mimeMessagePreparators) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(SimpleMailMessage simpleMessage) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
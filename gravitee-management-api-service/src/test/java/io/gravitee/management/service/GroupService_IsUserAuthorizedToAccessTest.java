@@ -15,13 +15,16 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.common.event.impl.SimpleEvent;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.MemberEntity;
 import io.gravitee.management.model.Visibility;
+import io.gravitee.management.service.event.MembershipEvent;
 import io.gravitee.management.service.impl.GroupServiceImpl;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.GroupRepository;
-import io.gravitee.repository.management.model.Group;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.model.Membership;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
 import org.junit.Test;
@@ -55,6 +58,9 @@ public class GroupService_IsUserAuthorizedToAccessTest {
     @Mock
     private GroupRepository groupRepository;
 
+    @Mock
+    private MembershipRepository membershipRepository;
+
     @Mock
     private ApiEntity api;
 
@@ -152,27 +158,19 @@ public class GroupService_IsUserAuthorizedToAccessTest {
                 "user",
                 RoleScope.API)).
                 thenReturn(null);
-        when(membershipService.getMember(
-                MembershipReferenceType.GROUP,
-                "grp2",
-                "user",
-                RoleScope.API)).
-                thenReturn(new MemberEntity());
+        when(membershipRepository.findByUserAndReferenceType("user", MembershipReferenceType.GROUP)).
+                thenReturn(Collections.singleton(new Membership("user", "grp2", MembershipReferenceType.GROUP)));
 
         boolean userAuthorizedToAccess = groupService.isUserAuthorizedToAccessApiData(api, Collections.singletonList("grp1"), "user");
 
         assertTrue(userAuthorizedToAccess);
-        verify(membershipService, times(2)).getMember(any(), any(), any(), any());
+        verify(membershipService, times(1)).getMember(any(), any(), any(), any());
         verify(membershipService, times(1)).
                 getMember(MembershipReferenceType.API,
                         api.getId(),
                         "user",
                         RoleScope.API);
-        verify(membershipService, times(1)).
-                getMember(MembershipReferenceType.GROUP,
-                        "grp2",
-                        "user",
-                        RoleScope.API);
+        verify(membershipRepository, times(1)).findByUserAndReferenceType("user", MembershipReferenceType.GROUP);
         verify(api, atLeast(2)).getGroups();
         verify(groupRepository, never()).findAll();
     }
@@ -188,27 +186,19 @@ public class GroupService_IsUserAuthorizedToAccessTest {
                 "user",
                 RoleScope.API)).
                 thenReturn(null);
-        when(membershipService.getMember(
-                MembershipReferenceType.GROUP,
-                "grp2",
-                "user",
-                RoleScope.API)).
-                thenReturn(null);
+        when(membershipRepository.findByUserAndReferenceType("user", MembershipReferenceType.GROUP)).
+                thenReturn(Collections.singleton(new Membership("user", "grp1", MembershipReferenceType.GROUP)));
 
         boolean userAuthorizedToAccess = groupService.isUserAuthorizedToAccessApiData(api, Collections.singletonList("grp1"), "user");
 
         assertFalse(userAuthorizedToAccess);
-        verify(membershipService, times(2)).getMember(any(), any(), any(), any());
+        verify(membershipService, times(1)).getMember(any(), any(), any(), any());
         verify(membershipService, times(1)).
                 getMember(MembershipReferenceType.API,
                         api.getId(),
                         "user",
                         RoleScope.API);
-        verify(membershipService, times(1)).
-                getMember(MembershipReferenceType.GROUP,
-                        "grp2",
-                        "user",
-                        RoleScope.API);
+        verify(membershipRepository, times(1)).findByUserAndReferenceType("user", MembershipReferenceType.GROUP);
         verify(api, atLeast(2)).getGroups();
         verify(groupRepository, never()).findAll();
     }
@@ -217,11 +207,6 @@ public class GroupService_IsUserAuthorizedToAccessTest {
     public void shouldNotBeAuthorizedForPublicApiIfMemberOfUnauthorizedGroups() throws TechnicalException {
         when(api.getVisibility()).thenReturn(Visibility.PUBLIC);
         when(api.getId()).thenReturn("apiId");
-        Group grp1 = new Group();
-        Group grp2 = new Group();
-        grp1.setId("grp1");
-        grp2.setId("grp2");
-        when(groupRepository.findAll()).thenReturn(new HashSet<>(Arrays.asList(grp1, grp2)));
         when(api.getGroups()).thenReturn(new HashSet<>(Arrays.asList("grp1", "grp2")));
         when(membershipService.getMember(
                 MembershipReferenceType.API,
@@ -229,28 +214,36 @@ public class GroupService_IsUserAuthorizedToAccessTest {
                 "user",
                 RoleScope.API)).
                 thenReturn(null);
-        when(membershipService.getMember(
-                MembershipReferenceType.GROUP,
-                "grp2",
-                "user",
-                RoleScope.API)).
-                thenReturn(null);
+        when(membershipRepository.findByUserAndReferenceType("user", MembershipReferenceType.GROUP)).
+                thenReturn(Collections.singleton(new Membership("user", "grp1", MembershipReferenceType.GROUP)));
 
         boolean userAuthorizedToAccess = groupService.isUserAuthorizedToAccessApiData(api, Collections.singletonList("grp1"), "user");
 
         assertFalse(userAuthorizedToAccess);
-        verify(membershipService, times(2)).getMember(any(), any(), any(), any());
+        verify(membershipService, times(1)).getMember(any(), any(), any(), any());
         verify(membershipService, times(1)).
                 getMember(MembershipReferenceType.API,
                         api.getId(),
                         "user",
                         RoleScope.API);
-        verify(membershipService, times(1)).
-                getMember(MembershipReferenceType.GROUP,
-                        "grp2",
-                        "user",
-                        RoleScope.API);
+        verify(membershipRepository, times(1)).findByUserAndReferenceType("user", MembershipReferenceType.GROUP);
         verify(api, never()).getGroups();
-        verify(groupRepository, times(1)).findAll();
+        verify(groupRepository, never()).findAll();
+    }
+
+    @Test
+    public void shouldLoadUserGroupsOnceUntilMembershipsChange() throws TechnicalException {
+        when(membershipRepository.findByUserAndReferenceType("user", MembershipReferenceType.GROUP)).
+                thenReturn(Collections.singleton(new Membership("user", "grp2", MembershipReferenceType.GROUP)));
+
+        assertTrue(groupService.isUserAuthorizedToAccessPortalData(Collections.singletonList("grp1"), "user"));
+        assertTrue(groupService.isUserAuthorizedToAccessPortalData(Collections.singletonList("grp1"), "user"));
+        verify(membershipRepository, times(1)).findByUserAndReferenceType("user", MembershipReferenceType.GROUP);
+
+        ((GroupServiceImpl) groupService).onEvent(new SimpleEvent<>(MembershipEvent.USER_MEMBERSHIPS_UPDATED, "user"));
+
+        assertTrue(groupService.isUserAuthorizedToAccessPortalData(Collections.singletonList("grp1"), "user"));
+        verify(membershipRepository, times(2)).findByUserAndReferenceType("user", MembershipReferenceType.GROUP);
+        verify(groupRepository, never()).findAll();
     }
 }
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.MediaEntity;
+import io.gravitee.management.service.exceptions.UploadUnAuthorized;
+import io.gravitee.management.service.impl.MediaServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.media.api.MediaRepository;
+import io.gravitee.repository.media.model.Media;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.xml.bind.DatatypeConverter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MediaServiceTest {
+
+    private static final String API_ID = "my-api";
+    private static final byte[] CONTENT = "my-image".getBytes();
+    private static final String HASH = "my-hash";
+
+    @InjectMocks
+    private MediaService mediaService = new MediaServiceImpl();
+
+    @Mock
+    private MediaRepository mediaRepository;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ConfigService configService;
+
+    @Before
+    public void init() {
+        when(configService.getPortalConfig().getPortal().getUploadMedia().getMaxSizeInOctet()).thenReturn(1024);
+    }
+
+    @Test
+    public void shouldSaveApiMedia() throws TechnicalException {
+        when(mediaRepository.findByHash(anyString(), eq(API_ID), eq("image"))).thenReturn(Optional.empty());
+
+        final String hash = mediaService.saveApiMedia(API_ID, newMedia(CONTENT));
+
+        final ArgumentCaptor<Media> mediaCaptor = ArgumentCaptor.forClass(Media.class);
+        verify(mediaRepository).save(mediaCaptor.capture());
+        assertEquals(hash, mediaCaptor.getValue().getHash());
+        assertEquals(API_ID, mediaCaptor.getValue().getApi());
+        assertArrayEquals(CONTENT, mediaCaptor.getValue().getData());
+        assertEquals(CONTENT.length, mediaCaptor.getValue().getSize(), 0);
+    }
+
+    @Test
+    public void shouldNotSaveExistingMedia() throws TechnicalException {
+        final Media existing = new Media();
+        existing.setHash(HASH);
+        when(mediaRepository.findByHash(anyString(), eq("image"))).thenReturn(Optional.of(existing));
+
+        assertEquals(HASH, mediaService.savePortalMedia(newMedia(CONTENT)));
+        verify(mediaRepository, never()).save(any());
+    }
+
+    @Test(expected = UploadUnAuthorized.class)
+    public void shouldNotSaveTooLargeMedia() throws TechnicalException {
+        try {
+            mediaService.savePortalMedia(newMedia(new byte[2048]));
+        } finally {
+            verify(mediaRepository, never()).save(any());
+        }
+    }
+
+    @Test
+    public void shouldFindMediaFromCache() throws IOException {
+        final Media media = new Media();
+        media.setHash(HASH);
+        media.setType("image");
+        media.setSubType("png");
+        media.setData(CONTENT);
+        when(mediaRepository.findByHash(HASH, API_ID, "image")).thenReturn(Optional.of(media));
+
+        final MediaEntity first = mediaService.findby(HASH, API_ID);
+        final MediaEntity second = mediaService.findby(HASH, API_ID);
+
+        assertArrayEquals(CONTENT, IOUtils.toByteArray(first.getData()));
+        assertArrayEquals(CONTENT, IOUtils.toByteArray(second.getData()));
+        assertEquals("image/png", second.getMimeType());
+        assertEquals(CONTENT.length, second.getSize());
+        verify(mediaRepository, times(1)).findByHash(HASH, API_ID, "image");
+    }
+
+    @Test
+    public void shouldNotFindUnknownMedia() {
+        when(mediaRepository.findByHash(HASH, "image")).thenReturn(Optional.empty());
+
+        assertNull(mediaService.findby(HASH));
+    }
+
+    @Test
+    public void shouldKnowMediaExistsWithoutReadingItAgain() {
+        when(mediaRepository.findByHash(HASH, API_ID, "image")).thenReturn(Optional.of(media()));
+
+        assertTrue(mediaService.exists(HASH, API_ID));
+        assertTrue(mediaService.exists(HASH, API_ID));
+        assertFalse(mediaService.exists(HASH, "other-api"));
+        verify(mediaRepository, times(1)).findByHash(HASH, API_ID, "image");
+    }
+
+    @Test
+    public void shouldEvictMediaWrittenAgain() throws Exception {
+        final String hash = DatatypeConverter.printHexBinary(MessageDigest.getInstance("MD5").digest(CONTENT));
+        final Media media = media();
+        // found, then deleted and uploaded again
+        when(mediaRepository.findByHash(hash, API_ID, "image"))
+                .thenReturn(Optional.of(media), Optional.empty(), Optional.of(media));
+
+        mediaService.findby(hash, API_ID);
+        mediaService.saveApiMedia(API_ID, newMedia(CONTENT));
+        mediaService.findby(hash, API_ID);
+
+        verify(mediaRepository).save(any());
+        verify(mediaRepository, times(3)).findByHash(hash, API_ID, "image");
+    }
+
+    private static Media media() {
+        final Media media = new Media();
+        media.setHash(HASH);
+        media.setType("image");
+        media.setSubType("png");
+        media.setData(CONTENT);
+        return media;
+    }
+
+    private static MediaEntity newMedia(byte[] content) {
+        return new MediaEntity(new ByteArrayInputStream(content), "image", "png", "image.png", content.length);
+    }
+}
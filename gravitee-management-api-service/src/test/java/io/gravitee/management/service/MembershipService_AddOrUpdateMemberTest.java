@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.common.event.EventManager;
 import io.gravitee.management.model.GroupEntity;
 import io.gravitee.management.model.MemberEntity;
 import io.gravitee.management.model.RoleEntity;
@@ -78,6 +79,9 @@ public class MembershipService_AddOrUpdateMemberTest {
     @Mock
     private IdentityService identityService;
 
+    @Mock
+    private EventManager eventManager;
+
     @Test
     public void shouldAddApiGroupMembership() throws Exception {
         UserEntity userEntity = new UserEntity();
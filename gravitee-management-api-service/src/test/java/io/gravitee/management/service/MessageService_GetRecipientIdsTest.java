@@ -31,6 +31,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 
@@ -232,4 +233,53 @@ public class MessageService_GetRecipientIdsTest {
         verify(mockMembershipRepository, times(1)).findByReferencesAndRole(eq(MembershipReferenceType.GROUP), any(), any(), any());
         verify(mockMembershipRepository, times(1)).findByReferencesAndRole(eq(MembershipReferenceType.APPLICATION), any(), any(), any());
     }
+
+    @Test
+    public void shouldNotGetApplicationMembersWithoutSubscription() throws TechnicalException {
+        Api api = new Api();
+        api.setId("api-id");
+        MessageEntity messageEntity = new MessageEntity();
+        messageEntity.setChannel(MessageChannel.MAIL);
+        MessageRecipientEntity messageRecipientEntity = new MessageRecipientEntity();
+        messageRecipientEntity.setRoleScope("APPLICATION");
+        messageRecipientEntity.setRoleValues(Collections.singletonList("OWNER"));
+        messageEntity.setRecipient(messageRecipientEntity);
+        when(mockSubscriptionRepository.search(any()))
+                .thenReturn(Collections.emptyList());
+
+        Set<String> recipientIds = messageService.getRecipientsId(api, messageEntity);
+
+        assertNotNull("not null", recipientIds);
+        assertTrue("empty", recipientIds.isEmpty());
+        verify(mockMembershipRepository, never()).findByReferencesAndRole(any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldGetApiConsumersOfDistinctApplications() throws TechnicalException {
+        Api api = new Api();
+        api.setId("api-id");
+        MessageEntity messageEntity = new MessageEntity();
+        messageEntity.setChannel(MessageChannel.MAIL);
+        MessageRecipientEntity messageRecipientEntity = new MessageRecipientEntity();
+        messageRecipientEntity.setRoleScope("APPLICATION");
+        messageRecipientEntity.setRoleValues(Arrays.asList("OWNER", "OWNER"));
+        messageEntity.setRecipient(messageRecipientEntity);
+        Subscription subscription = new Subscription();
+        subscription.setApplication("app-id");
+        Subscription otherPlanSubscription = new Subscription();
+        otherPlanSubscription.setApplication("app-id");
+        when(mockSubscriptionRepository.search(any()))
+                .thenReturn(Arrays.asList(subscription, otherPlanSubscription));
+        Membership membership = new Membership();
+        membership.setUserId("user-id");
+        when(mockMembershipRepository.findByReferencesAndRole(
+                MembershipReferenceType.APPLICATION, Collections.singletonList("app-id"), RoleScope.APPLICATION, "OWNER"))
+                .thenReturn(Collections.singleton(membership));
+
+        Set<String> recipientIds = messageService.getRecipientsId(api, messageEntity);
+
+        assertEquals("size=1", 1, recipientIds.size());
+        assertTrue("user=user-id", recipientIds.contains("user-id"));
+        verify(mockMembershipRepository, times(1)).findByReferencesAndRole(any(), any(), any(), any());
+    }
 }
@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.MessageChannel;
+import io.gravitee.management.model.MessageEntity;
+import io.gravitee.management.model.MessageRecipientEntity;
+import io.gravitee.management.service.impl.MessageServiceImpl;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.UserRepository;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.repository.management.model.User;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class MessageService_SendMailsTest {
+
+    @InjectMocks
+    private MessageServiceImpl messageService = new MessageServiceImpl();
+
+    @Mock
+    private MembershipRepository membershipRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private AuditService auditService;
+
+    private final Map<String, User> users = new HashMap<>();
+
+    @Before
+    public void init() throws Exception {
+        setField(messageService, "defaultFrom", "noreply@gravitee.io");
+        setField(messageService, "maxRecipientsPerEmail", 300);
+
+        when(userRepository.findByIds(any())).thenAnswer(invocation -> {
+            final Set<User> found = new HashSet<>();
+            for (Object id : (Collection<?>) invocation.getArguments()[0]) {
+                if (users.containsKey(id)) {
+                    found.add(users.get(id));
+                }
+            }
+            return found;
+        });
+    }
+
+    @Test
+    public void shouldSendMailsAcrossPages() throws Exception {
+        final List<String> userIds = new ArrayList<>();
+        for (int i = 0; i < 1150; i++) {
+            userIds.add("user-" + i);
+            addUser("user-" + i, "user-" + i + "@gravitee.io");
+        }
+        addMembers(userIds);
+
+        final int sent = messageService.create(message());
+
+        assertEquals(1150, sent);
+
+        // users are read by pages of 500
+        final ArgumentCaptor<List> pages = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(3)).findByIds(pages.capture());
+        assertEquals(Arrays.asList(500, 500, 150), pages.getAllValues().stream().map(List::size).collect(Collectors.toList()));
+
+        // an email is sent every 300 recipients, whatever the page they come from, and the last one holds the rest
+        final List<EmailNotification> notifications = sentNotifications(3);
+        final List<Integer> bccSizes = new ArrayList<>();
+        final Set<String> bcc = new HashSet<>();
+        for (EmailNotification notification : notifications) {
+            bccSizes.add(notification.getBcc().length);
+            bcc.addAll(Arrays.asList(notification.getBcc()));
+            assertEquals("noreply@gravitee.io", notification.getTo()[0]);
+            assertEquals("Title", notification.getSubject());
+        }
+        assertEquals(Arrays.asList(300, 300, 300, 250), bccSizes);
+        assertEquals(1150, bcc.size());
+    }
+
+    @Test
+    public void shouldSendMailsOnceToDuplicatedEmails() throws Exception {
+        addUser("user-1", "john@gravitee.io");
+        addUser("user-2", "john@gravitee.io");
+        addUser("user-3", "jane@gravitee.io");
+        addMembers(Arrays.asList("user-1", "user-2", "user-3"));
+
+        final int sent = messageService.create(message());
+
+        assertEquals(2, sent);
+        final List<EmailNotification> notifications = sentNotifications(1);
+        assertEquals(1, notifications.size());
+        assertEquals(new HashSet<>(Arrays.asList("john@gravitee.io", "jane@gravitee.io")),
+                new HashSet<>(Arrays.asList(notifications.get(0).getBcc())));
+    }
+
+    @Test
+    public void shouldSkipRecipientsWithoutEmail() throws Exception {
+        addUser("user-1", "john@gravitee.io");
+        addUser("user-2", null);
+        addUser("user-3", "");
+        // user-4 has been deleted
+        addMembers(Arrays.asList("user-1", "user-2", "user-3", "user-4"));
+
+        final int sent = messageService.create(message());
+
+        assertEquals(1, sent);
+        final List<EmailNotification> notifications = sentNotifications(1);
+        assertEquals(Collections.singletonList("john@gravitee.io"), Arrays.asList(notifications.get(0).getBcc()));
+    }
+
+    @Test
+    public void shouldNotSendMailsWithoutEmail() throws Exception {
+        addUser("user-1", null);
+        addMembers(Arrays.asList("user-1", "user-2"));
+
+        final int sent = messageService.create(message());
+
+        assertEquals(0, sent);
+        verify(emailService, never()).sendAsyncEmailNotifications(any());
+    }
+
+    private void addUser(String id, String email) {
+        final User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        users.put(id, user);
+    }
+
+    private void addMembers(Collection<String> userIds) throws Exception {
+        // memberships of a same role only differ by their user
+        final Set<Membership> memberships = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String userId : userIds) {
+            final Membership membership = new Membership();
+            membership.setUserId(userId);
+            memberships.add(membership);
+        }
+        when(membershipRepository.findByRole(RoleScope.MANAGEMENT, "USER")).thenReturn(memberships);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmailNotification> sentNotifications(int dispatches) {
+        final ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(emailService, times(dispatches)).sendAsyncEmailNotifications(captor.capture());
+        final List<EmailNotification> notifications = new ArrayList<>();
+        captor.getAllValues().forEach(notifications::addAll);
+        return notifications;
+    }
+
+    private MessageEntity message() {
+        final MessageRecipientEntity recipient = new MessageRecipientEntity();
+        recipient.setRoleScope("MANAGEMENT");
+        recipient.setRoleValues(Collections.singletonList("USER"));
+
+        final MessageEntity message = new MessageEntity();
+        message.setChannel(MessageChannel.MAIL);
+        message.setTitle("Title");
+        message.setText("Text");
+        message.setRecipient(recipient);
+        return message;
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.common.event.EventManager;
+import io.gravitee.fetcher.api.Fetcher;
+import io.gravitee.fetcher.api.FetcherConfiguration;
+import io.gravitee.management.fetcher.FetcherConfigurationFactory;
+import io.gravitee.management.model.PageEntity;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.impl.PageServiceImpl;
+import io.gravitee.plugin.core.api.PluginManager;
+import io.gravitee.plugin.fetcher.FetcherPlugin;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.PageRepository;
+import io.gravitee.repository.management.model.Page;
+import io.gravitee.repository.management.model.PageSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.ApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PageService_FetchTest {
+
+    private static final String CONTENT = "# Title\r\n\r\nSome content\n";
+
+    @InjectMocks
+    private PageServiceImpl pageService = new PageServiceImpl();
+
+    @Mock
+    private PageRepository pageRepository;
+
+    @Mock
+    private PluginManager<FetcherPlugin> fetcherPluginManager;
+
+    @Mock
+    private FetcherPlugin fetcherPlugin;
+
+    @Mock
+    private FetcherConfigurationFactory fetcherConfigurationFactory;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ApplicationContext applicationContext;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private EventManager eventManager;
+
+    @Before
+    public void init() throws TechnicalException {
+        DummyFetcher.instances.set(0);
+        DummyFetcher.latency = 0;
+        when(fetcherPluginManager.get("dummy")).thenReturn(fetcherPlugin);
+        doReturn(DummyFetcher.class).when(fetcherPlugin).fetcher();
+        doReturn(DummyConfiguration.class).when(fetcherPlugin).configuration();
+        when(fetcherPlugin.clazz()).thenReturn(DummyFetcher.class.getName());
+        when(fetcherConfigurationFactory.create(eq(DummyConfiguration.class), anyString())).thenReturn(new DummyConfiguration());
+        when(pageRepository.update(any(Page.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        pageService.init();
+    }
+
+    @After
+    public void close() {
+        pageService.close();
+    }
+
+    @Test
+    public void shouldFetchContentKeepingLineEndings() throws TechnicalException {
+        when(pageRepository.findById("page1")).thenReturn(Optional.of(page("page1")));
+
+        final PageEntity pageEntity = pageService.fetch("page1", "contributor");
+
+        assertEquals(CONTENT, pageEntity.getContent());
+        assertEquals("contributor", pageEntity.getLastContributor());
+    }
+
+    @Test
+    public void shouldFetchAllReusingFetcherConfiguration() throws TechnicalException {
+        when(pageRepository.findById("page1")).thenReturn(Optional.of(page("page1")));
+        when(pageRepository.findById("page2")).thenReturn(Optional.of(page("page2")));
+
+        final List<PageEntity> pages = pageService.fetchAll(Arrays.asList("page1", "page2"), "contributor");
+
+        assertEquals(2, pages.size());
+        assertEquals("page1", pages.get(0).getId());
+        assertEquals(CONTENT, pages.get(1).getContent());
+        // fetchers are not thread-safe, one is created per fetch
+        assertEquals(2, DummyFetcher.instances.get());
+        verify(fetcherPluginManager, times(1)).get("dummy");
+        verify(fetcherConfigurationFactory, times(1)).create(eq(DummyConfiguration.class), anyString());
+        verify(pageRepository, times(2)).update(any(Page.class));
+    }
+
+    @Test
+    public void shouldNotFetchContentWhenTimeoutExceeded() throws TechnicalException {
+        setField(pageService, "fetchTimeout", 50L);
+        DummyFetcher.latency = 5_000;
+        when(pageRepository.findById("page1")).thenReturn(Optional.of(page("page1")));
+
+        try {
+            pageService.fetch("page1", "contributor");
+            fail("The fetch should have timed out");
+        } catch (TechnicalManagementException e) {
+            verify(pageRepository, never()).update(any(Page.class));
+        }
+    }
+
+    @Test
+    public void shouldNotFetchAllWhenOneFetcherCannotBeCreated() throws TechnicalException {
+        final Page invalidPage = page("page2");
+        invalidPage.getSource().setConfiguration("{invalid}");
+        when(pageRepository.findById("page1")).thenReturn(Optional.of(page("page1")));
+        when(pageRepository.findById("page2")).thenReturn(Optional.of(invalidPage));
+        when(fetcherConfigurationFactory.create(DummyConfiguration.class, "{invalid}"))
+                .thenThrow(new IllegalArgumentException("invalid configuration"));
+
+        try {
+            pageService.fetchAll(Arrays.asList("page1", "page2"), "contributor");
+            fail("The fetch should have failed");
+        } catch (TechnicalManagementException e) {
+            verify(pageRepository, never()).update(any(Page.class));
+        }
+    }
+
+    private static Page page(String id) {
+        final PageSource source = new PageSource();
+        source.setType("dummy");
+        source.setConfiguration("{}");
+        final Page page = new Page();
+        page.setId(id);
+        page.setSource(source);
+        return page;
+    }
+
+    public static class DummyConfiguration implements FetcherConfiguration {
+    }
+
+    public static class DummyFetcher implements Fetcher {
+
+        private static final AtomicInteger instances = new AtomicInteger();
+        private static volatile long latency;
+
+        public DummyFetcher(DummyConfiguration configuration) {
+            instances.incrementAndGet();
+        }
+
+        @Override
+        public InputStream fetch() {
+            if (latency > 0) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
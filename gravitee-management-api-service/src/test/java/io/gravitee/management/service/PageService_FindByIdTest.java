@@ -15,7 +15,14 @@
  */
 package io.gravitee.management.service;
 
+import freemarker.template.Configuration;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.common.event.impl.SimpleEvent;
+import io.gravitee.management.model.ApiModelEntity;
 import io.gravitee.management.model.PageEntity;
+import io.gravitee.management.service.event.ApiModelEvent;
+import io.gravitee.management.service.event.MetadataEvent;
 import io.gravitee.management.service.exceptions.PageNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.impl.PageServiceImpl;
@@ -24,15 +31,20 @@ import io.gravitee.repository.management.api.PageRepository;
 import io.gravitee.repository.management.model.Page;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Date;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 /**
  * @author Azize ELAMRANI (azize.elamrani at graviteesource.com)
@@ -43,6 +55,7 @@ import static org.mockito.Mockito.when;
 public class PageService_FindByIdTest {
 
     private static final String PAGE_ID = "ba01aef0-e3da-4499-81ae-f0e3daa4995a";
+    private static final String API_ID = "myAPI";
 
     @InjectMocks
     private PageServiceImpl pageService = new PageServiceImpl();
@@ -50,6 +63,12 @@ public class PageService_FindByIdTest {
     @Mock
     private PageRepository pageRepository;
 
+    @Mock
+    private ApiService apiService;
+
+    @Mock
+    private EventManager eventManager;
+
     @Mock
     private Page page1;
 
@@ -79,4 +98,70 @@ public class PageService_FindByIdTest {
 
         pageService.findById(PAGE_ID);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldRenderPageOnceUntilApiChanges() throws TechnicalException {
+        setField(pageService, "freemarkerConfiguration", new Configuration(Configuration.VERSION_2_3_28));
+        pageService.init();
+        final ArgumentCaptor<EventListener> listener = ArgumentCaptor.forClass(EventListener.class);
+        verify(eventManager).subscribeForEvents(listener.capture(), eq(ApiModelEvent.class));
+        when(page1.getId()).thenReturn(PAGE_ID);
+        when(page1.getApi()).thenReturn(API_ID);
+        when(page1.getContent()).thenReturn("Hello ${api.name}");
+        when(page1.getUpdatedAt()).thenReturn(new Date(1));
+        when(pageRepository.findById(PAGE_ID)).thenReturn(Optional.of(page1));
+        final ApiModelEntity apiModel = new ApiModelEntity();
+        apiModel.setName("World");
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModel);
+
+        assertEquals("Hello World", pageService.findById(PAGE_ID, true).getContent());
+        assertEquals("Hello World", pageService.findById(PAGE_ID, true).getContent());
+        verify(apiService, times(1)).findByIdForTemplates(API_ID);
+
+        apiModel.setName("Gravitee");
+        listener.getValue().onEvent(new SimpleEvent<>(ApiModelEvent.UPDATED, API_ID));
+
+        assertEquals("Hello Gravitee", pageService.findById(PAGE_ID, true).getContent());
+        verify(apiService, times(2)).findByIdForTemplates(API_ID);
+        verify(apiService, never()).findByIdLight(anyString());
+    }
+
+    @Test
+    public void shouldRenderPageAgainWhenPageChanges() throws TechnicalException {
+        setField(pageService, "freemarkerConfiguration", new Configuration(Configuration.VERSION_2_3_28));
+        when(page1.getId()).thenReturn(PAGE_ID);
+        when(page1.getApi()).thenReturn(API_ID);
+        when(page1.getContent()).thenReturn("Hello ${api.name}");
+        when(page1.getUpdatedAt()).thenReturn(new Date(1));
+        when(pageRepository.findById(PAGE_ID)).thenReturn(Optional.of(page1));
+        final ApiModelEntity apiModel = new ApiModelEntity();
+        apiModel.setName("World");
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModel);
+
+        assertEquals("Hello World", pageService.findById(PAGE_ID, true).getContent());
+
+        when(page1.getContent()).thenReturn("Bye ${api.name}");
+        when(page1.getUpdatedAt()).thenReturn(new Date(2));
+
+        assertEquals("Bye World", pageService.findById(PAGE_ID, true).getContent());
+    }
+
+    @Test
+    public void shouldRenderPageAgainWhenApiMetadataChange() throws TechnicalException {
+        setField(pageService, "freemarkerConfiguration", new Configuration(Configuration.VERSION_2_3_28));
+        when(page1.getId()).thenReturn(PAGE_ID);
+        when(page1.getApi()).thenReturn(API_ID);
+        when(page1.getContent()).thenReturn("Hello ${api.name}");
+        when(pageRepository.findById(PAGE_ID)).thenReturn(Optional.of(page1));
+        final ApiModelEntity apiModel = new ApiModelEntity();
+        apiModel.setName("World");
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModel);
+
+        pageService.findById(PAGE_ID, true);
+        pageService.onEvent(new SimpleEvent<>(MetadataEvent.API_METADATA_UPDATED, API_ID));
+        pageService.findById(PAGE_ID, true);
+
+        verify(apiService, times(2)).findByIdForTemplates(API_ID);
+    }
 }
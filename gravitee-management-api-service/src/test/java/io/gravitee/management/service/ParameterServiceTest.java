@@ -15,7 +15,9 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.common.event.EventManager;
 import io.gravitee.management.model.parameters.Key;
+import io.gravitee.management.service.event.ParameterEvent;
 import io.gravitee.management.service.impl.ParameterServiceImpl;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ParameterRepository;
@@ -25,6 +27,8 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -43,6 +47,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -60,6 +65,8 @@ public class ParameterServiceTest {
     private ParameterRepository parameterRepository;
     @Mock
     private AuditService auditService;
+    @Mock
+    private EventManager eventManager;
 
     @Test
     public void shouldFindAll() throws TechnicalException {
@@ -205,6 +212,43 @@ public class ParameterServiceTest {
                 any(), eq(parameter), eq(newParameter));
     }
 
+    @Test
+    public void shouldPublishUpdateOnceCommitted() throws TechnicalException {
+        final Parameter parameter = new Parameter();
+        parameter.setKey(PORTAL_TOP_APIS.key());
+        parameter.setValue("api1");
+        when(parameterRepository.findById(PORTAL_TOP_APIS.key())).thenReturn(of(parameter));
+        when(parameterRepository.update(any(Parameter.class))).thenReturn(parameter);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            parameterService.save(PORTAL_TOP_APIS, "api2");
+            verify(eventManager, never()).publishEvent(any(ParameterEvent.class), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(eventManager).publishEvent(ParameterEvent.UPDATED, PORTAL_TOP_APIS.key());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldNotPublishUpdateWhenRolledBack() throws TechnicalException {
+        when(parameterRepository.findById(PORTAL_TOP_APIS.key())).thenReturn(empty());
+        when(parameterRepository.create(any(Parameter.class))).thenReturn(new Parameter());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            parameterService.save(PORTAL_TOP_APIS, "api1");
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            verify(eventManager, never()).publishEvent(any(ParameterEvent.class), any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     public void shouldFindAsBoolean() throws TechnicalException {
         final Parameter parameter = new Parameter();
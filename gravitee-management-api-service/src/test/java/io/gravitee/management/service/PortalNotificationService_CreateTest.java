@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.impl.PortalNotificationServiceImpl;
+import io.gravitee.management.service.notification.PortalHook;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.PortalNotificationRepository;
+import io.gravitee.repository.management.model.PortalNotification;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.StringReader;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PortalNotificationService_CreateTest {
+
+    @InjectMocks
+    private PortalNotificationService portalNotificationService = new PortalNotificationServiceImpl();
+
+    @Mock
+    private PortalNotificationRepository portalNotificationRepository;
+
+    @Mock
+    private Configuration freemarkerConfiguration;
+
+    @Test
+    public void shouldRenderOnceAndCreateByBatches() throws Exception {
+        final Template template = new Template("message",
+                new StringReader("title: ${title}\nmessage: ${message}"),
+                new Configuration(Configuration.VERSION_2_3_0));
+        when(freemarkerConfiguration.getTemplate(anyString())).thenReturn(template);
+
+        final List<String> users = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            users.add("user-" + i);
+        }
+        users.add("user-0");
+
+        final Map<String, Object> params = new HashMap<>();
+        params.put("title", "a title");
+        params.put("message", "a message");
+
+        portalNotificationService.create(PortalHook.MESSAGE, users, params);
+
+        verify(freemarkerConfiguration, times(1)).getTemplate(anyString());
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(portalNotificationRepository, times(3)).create(captor.capture());
+
+        final Set<String> notifiedUsers = new HashSet<>();
+        int notifications = 0;
+        for (List<PortalNotification> batch : captor.getAllValues()) {
+            for (PortalNotification notification : batch) {
+                assertEquals("a title", notification.getTitle());
+                assertEquals("a message", notification.getMessage());
+                notifiedUsers.add(notification.getUser());
+                notifications++;
+            }
+        }
+        assertEquals(1200, notifications);
+        assertEquals(1200, notifiedUsers.size());
+    }
+
+    @Test(expected = TechnicalManagementException.class)
+    public void shouldNotCreateBecauseTechnicalException() throws Exception {
+        final Template template = new Template("message",
+                new StringReader("title: t\nmessage: m"),
+                new Configuration(Configuration.VERSION_2_3_0));
+        when(freemarkerConfiguration.getTemplate(anyString())).thenReturn(template);
+        doThrow(TechnicalException.class).when(portalNotificationRepository).create(anyList());
+
+        portalNotificationService.create(PortalHook.MESSAGE, Collections.singletonList("user"), Collections.emptyMap());
+    }
+}
@@ -21,6 +21,7 @@ import io.gravitee.management.model.*;
 import io.gravitee.management.model.parameters.Key;
 import io.gravitee.management.service.exceptions.RatingAlreadyExistsException;
 import io.gravitee.management.service.exceptions.RatingNotFoundException;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.impl.RatingServiceImpl;
 import io.gravitee.management.service.notification.ApiHook;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -39,8 +40,10 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -307,4 +310,91 @@ public class RatingServiceTest {
         assertEquals(1, ratingSummary.getNumberOfRatingsByRate().get(new Byte("3")), 0);
         assertEquals(1, ratingSummary.getNumberOfRatingsByRate().get(new Byte("4")), 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldMaintainSummaryIncrementally() throws TechnicalException {
+        final Rating r = new Rating();
+        r.setApi(API_ID);
+        r.setRate(new Byte("4"));
+        r.setUser(USER);
+
+        when(ratingRepository.findByApi(API_ID)).thenReturn(singletonList(rating));
+        when(ratingRepository.findByApiAndUser(API_ID, USER)).thenReturn(empty());
+        when(ratingRepository.create(any())).thenReturn(r);
+        when(newRatingEntity.getApi()).thenReturn(API_ID);
+
+        assertEquals(1, ratingService.findSummaryByApi(API_ID).getNumberOfRatings());
+
+        ratingService.create(newRatingEntity);
+
+        final RatingSummaryEntity ratingSummary = ratingService.findSummaryByApi(API_ID);
+        assertEquals(2, ratingSummary.getNumberOfRatings());
+        assertEquals(3.5, ratingSummary.getAverageRate(), 0);
+        assertEquals(1, ratingSummary.getNumberOfRatingsByRate().get(new Byte("4")), 0);
+
+        when(ratingRepository.findById(RATING_ID)).thenReturn(of(rating));
+        ratingService.delete(RATING_ID);
+
+        final RatingSummaryEntity summaryAfterDelete = ratingService.findSummaryByApi(API_ID);
+        assertEquals(1, summaryAfterDelete.getNumberOfRatings());
+        assertEquals(4, summaryAfterDelete.getAverageRate(), 0);
+        assertNull(summaryAfterDelete.getNumberOfRatingsByRate().get(RATE));
+
+        verify(ratingRepository, times(1)).findByApi(API_ID);
+    }
+
+    @Test
+    public void shouldFindSummariesByApis() throws TechnicalException {
+        final Rating r = new Rating();
+        r.setRate(new Byte("4"));
+
+        when(ratingRepository.findByApi(API_ID)).thenReturn(singletonList(rating));
+        when(ratingRepository.findByApi("other-api")).thenReturn(singletonList(r));
+
+        final Map<String, RatingSummaryEntity> summaries = ratingService.findSummariesByApis(asList(API_ID, "other-api"));
+        assertEquals(2, summaries.size());
+        assertEquals(3, summaries.get(API_ID).getAverageRate(), 0);
+        assertEquals(4, summaries.get("other-api").getAverageRate(), 0);
+    }
+
+    @Test
+    public void shouldLoadMissingSummariesInBulk() throws TechnicalException {
+        when(ratingRepository.findByApi(API_ID)).thenReturn(singletonList(rating));
+        when(ratingRepository.findByApi("other-api")).thenReturn(emptyList());
+
+        ratingService.findSummaryByApi(API_ID);
+        final Map<String, RatingSummaryEntity> summaries = ratingService.findSummariesByApis(asList(API_ID, "other-api"));
+
+        assertEquals(2, summaries.size());
+        assertEquals(0, summaries.get("other-api").getNumberOfRatings());
+        verify(ratingRepository, times(1)).findByApi(API_ID);
+        verify(ratingRepository, times(1)).findByApi("other-api");
+    }
+
+    @Test(expected = TechnicalManagementException.class)
+    public void shouldNotFindSummariesByApisBecauseTechnicalException() throws TechnicalException {
+        when(ratingRepository.findByApi(API_ID)).thenReturn(singletonList(rating));
+        when(ratingRepository.findByApi("other-api")).thenThrow(TechnicalException.class);
+
+        ratingService.findSummariesByApis(asList(API_ID, "other-api"));
+    }
+
+    @Test
+    public void shouldReadSummaryAgainWhenRatingChangedWhileLoading() throws TechnicalException {
+        final Rating r = new Rating();
+        r.setRate(new Byte("4"));
+
+        when(ratingRepository.findByApi(API_ID)).thenAnswer(invocation -> {
+            // a rating of the API is created by another request during the read
+            final Object revision = ReflectionTestUtils.invokeMethod(ratingService, "beginSummaryUpdate", API_ID);
+            ReflectionTestUtils.invokeMethod(revision, "end");
+            return singletonList(rating);
+        }).thenReturn(asList(rating, r));
+
+        final RatingSummaryEntity ratingSummary = ratingService.findSummaryByApi(API_ID);
+
+        assertEquals(2, ratingSummary.getNumberOfRatings());
+        assertEquals(3.5, ratingSummary.getAverageRate(), 0);
+        verify(ratingRepository, times(2)).findByApi(API_ID);
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import io.gravitee.management.service.impl.SecureRandomApiKeyGenerator;
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SecureRandomApiKeyGeneratorTest {
+
+    @InjectMocks
+    private ApiKeyGenerator apiKeyGenerator = new SecureRandomApiKeyGenerator();
+
+    @Test
+    public void shouldGenerate() throws TechnicalException {
+        // check if correct uuid
+        final UUID uuid = UUID.fromString(apiKeyGenerator.generate());
+        assertEquals(4, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    public void shouldGenerateUniqueKeys() {
+        final Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(keys.add(apiKeyGenerator.generate()));
+        }
+    }
+
+    @Test
+    public void shouldGenerateHex() {
+        setField(apiKeyGenerator, "format", "hex");
+        setField(apiKeyGenerator, "entropy", 32);
+
+        assertTrue(apiKeyGenerator.generate().matches("[0-9a-f]{64}"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotStartWithLowEntropy() {
+        setField(apiKeyGenerator, "entropy", 8);
+
+        ((SecureRandomApiKeyGenerator) apiKeyGenerator).init();
+    }
+
+    @Test
+    public void shouldGenerateUniqueKeysConcurrently() throws Exception {
+        final Set<String> keys = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 2_500; j++) {
+                        assertTrue(keys.add(apiKeyGenerator.generate()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(10_000, keys.size());
+    }
+
+    @Test
+    public void shouldGenerateBase64Url() {
+        setField(apiKeyGenerator, "format", "base64url");
+
+        assertTrue(apiKeyGenerator.generate().matches("[A-Za-z0-9_-]{22}"));
+    }
+}
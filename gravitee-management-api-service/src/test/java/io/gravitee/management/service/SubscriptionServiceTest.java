@@ -15,6 +15,7 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.common.event.EventManager;
 import io.gravitee.management.idp.api.authentication.UserDetails;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
@@ -28,6 +29,7 @@ import io.gravitee.repository.management.api.search.SubscriptionCriteria;
 import io.gravitee.repository.management.model.Subscription;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
@@ -91,6 +93,8 @@ public class SubscriptionServiceTest {
     private ConfigurableEnvironment environment;
     @Mock
     private NotifierService notifierService;
+    @Mock
+    private EventManager eventManager;
 
     @Test
     public void shouldFindById() throws TechnicalException {
@@ -265,7 +269,7 @@ public class SubscriptionServiceTest {
         // Verify
         verify(subscriptionRepository, times(1)).create(any(Subscription.class));
         verify(subscriptionRepository, never()).update(any(Subscription.class));
-        verify(apiKeyService, never()).generate(any());
+        verify(apiKeyService, never()).generate(any(String.class));
         assertNotNull(subscriptionEntity.getId());
         assertNotNull(subscriptionEntity.getApplication());
         assertNotNull(subscriptionEntity.getCreatedAt());
@@ -361,7 +365,7 @@ public class SubscriptionServiceTest {
         // Verify
         verify(subscriptionRepository, times(1)).create(any(Subscription.class));
         verify(subscriptionRepository, times(1)).update(any(Subscription.class));
-        verify(apiKeyService, times(1)).generate(any());
+        verify(apiKeyService, times(1)).generate(any(String.class));
         assertNotNull(subscriptionEntity.getId());
         assertNotNull(subscriptionEntity.getApplication());
         assertNotNull(subscriptionEntity.getCreatedAt());
@@ -459,7 +463,7 @@ public class SubscriptionServiceTest {
         // Verify
         verify(subscriptionRepository, times(1)).create(any(Subscription.class));
         verify(subscriptionRepository, times(1)).update(any(Subscription.class));
-        verify(apiKeyService, never()).generate(any());
+        verify(apiKeyService, never()).generate(any(String.class));
         assertNotNull(subscriptionEntity.getId());
         assertNotNull(subscriptionEntity.getApplication());
         assertNotNull(subscriptionEntity.getCreatedAt());
@@ -725,7 +729,7 @@ public class SubscriptionServiceTest {
 
         subscriptionService.close(SUBSCRIPTION_ID);
 
-        verify(apiKeyService).revoke("api-key", false);
+        verify(apiKeyService).revoke(Collections.singletonList("api-key"), false);
         verify(notifierService).trigger(eq(ApiHook.SUBSCRIPTION_CLOSED), anyString(), anyMap());
         verify(notifierService).trigger(eq(ApplicationHook.SUBSCRIPTION_CLOSED), anyString(), anyMap());
     }
@@ -755,7 +759,7 @@ public class SubscriptionServiceTest {
         final SubscriptionEntity subscriptionEntity = subscriptionService.process(processSubscription, SUBSCRIPTION_VALIDATOR);
 
         // Verify
-        verify(apiKeyService, never()).generate(any());
+        verify(apiKeyService, never()).generate(any(String.class));
         assertEquals(SubscriptionStatus.REJECTED, subscriptionEntity.getStatus());
         assertEquals(SUBSCRIPTION_VALIDATOR, subscriptionEntity.getProcessedBy());
         assertNotNull(subscriptionEntity.getProcessedAt());
@@ -829,4 +833,235 @@ public class SubscriptionServiceTest {
         // Run
         subscriptionService.create(new NewSubscriptionEntity(PLAN_ID, APPLICATION_ID));
     }
+
+    @Test
+    public void shouldProcessInBulk() throws Exception {
+        // Prepare data
+        final Subscription sub1 = pendingSubscription("subscription-1");
+        final Subscription sub2 = pendingSubscription("subscription-2");
+
+        final ProcessSubscriptionEntity process1 = new ProcessSubscriptionEntity();
+        process1.setId("subscription-1");
+        process1.setAccepted(true);
+        final ProcessSubscriptionEntity process2 = new ProcessSubscriptionEntity();
+        process2.setId("subscription-2");
+        process2.setAccepted(false);
+
+        when(plan.getSecurity()).thenReturn(PlanSecurityType.API_KEY);
+
+        // Stub
+        when(subscriptionRepository.findById("subscription-1")).thenReturn(Optional.of(sub1));
+        when(subscriptionRepository.findById("subscription-2")).thenReturn(Optional.of(sub2));
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+        when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModelEntity);
+        when(subscriptionRepository.update(any())).thenAnswer(returnsFirstArg());
+
+        // Run
+        final List<SubscriptionEntity> subscriptions = subscriptionService.process(API_ID,
+                Arrays.asList(process1, process2), SUBSCRIPTION_VALIDATOR);
+
+        // Verify
+        assertEquals(SubscriptionStatus.ACCEPTED, subscriptions.get(0).getStatus());
+        assertEquals(SubscriptionStatus.REJECTED, subscriptions.get(1).getStatus());
+        verify(subscriptionRepository, never()).search(any(SubscriptionCriteria.class));
+        verify(planService, times(1)).findById(PLAN_ID);
+        verify(applicationService, times(1)).findById(APPLICATION_ID);
+        verify(apiService, times(1)).findByIdForTemplates(API_ID);
+        verify(apiKeyService, times(1)).generate(Collections.singletonList("subscription-1"));
+        verify(notifierService).trigger(eq(ApiHook.SUBSCRIPTION_ACCEPTED), eq(API_ID), anyMap());
+        verify(notifierService).trigger(eq(ApiHook.SUBSCRIPTION_REJECTED), eq(API_ID), anyMap());
+    }
+
+    @Test(expected = SubscriptionAlreadyProcessedException.class)
+    public void shouldNotProcessInBulkBecauseAlreadyProcessed() throws Exception {
+        // Prepare data
+        final Subscription sub1 = pendingSubscription("subscription-1");
+        final Subscription sub2 = pendingSubscription("subscription-2");
+        sub2.setStatus(Subscription.Status.ACCEPTED);
+
+        final ProcessSubscriptionEntity process1 = new ProcessSubscriptionEntity();
+        process1.setId("subscription-1");
+        final ProcessSubscriptionEntity process2 = new ProcessSubscriptionEntity();
+        process2.setId("subscription-2");
+
+        // Stub
+        when(subscriptionRepository.findById("subscription-1")).thenReturn(Optional.of(sub1));
+        when(subscriptionRepository.findById("subscription-2")).thenReturn(Optional.of(sub2));
+
+        try {
+            // Run
+            subscriptionService.process(API_ID, Arrays.asList(process1, process2), SUBSCRIPTION_VALIDATOR);
+        } finally {
+            verify(subscriptionRepository, never()).update(any());
+        }
+    }
+
+    @Test(expected = SubscriptionAlreadyProcessedException.class)
+    public void shouldNotProcessInBulkBecauseDuplicated() throws Exception {
+        // Prepare data
+        final ProcessSubscriptionEntity process1 = new ProcessSubscriptionEntity();
+        process1.setId("subscription-1");
+        process1.setAccepted(true);
+        final ProcessSubscriptionEntity process2 = new ProcessSubscriptionEntity();
+        process2.setId("subscription-1");
+        process2.setAccepted(true);
+
+        try {
+            // Run
+            subscriptionService.process(API_ID, Arrays.asList(process1, process2), SUBSCRIPTION_VALIDATOR);
+        } finally {
+            verify(subscriptionRepository, never()).update(any());
+            verify(apiKeyService, never()).generate(anyListOf(String.class));
+        }
+    }
+
+    @Test(expected = SubscriptionNotFoundException.class)
+    public void shouldNotCloseInBulkBecauseSubscriptionOfAnotherApi() throws Exception {
+        // Prepare data
+        final Subscription subscription = pendingSubscription(SUBSCRIPTION_ID);
+        subscription.setApi("another-api");
+
+        // Stub
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(subscription));
+
+        // Run
+        subscriptionService.close(API_ID, Collections.singletonList(SUBSCRIPTION_ID));
+    }
+
+    @Test
+    public void shouldCloseInBulk() throws Exception {
+        // Prepare data
+        final Subscription sub1 = pendingSubscription("subscription-1");
+        sub1.setStatus(Subscription.Status.ACCEPTED);
+        final Subscription sub2 = pendingSubscription("subscription-2");
+        sub2.setStatus(Subscription.Status.ACCEPTED);
+
+        // Stub
+        when(subscriptionRepository.findById("subscription-1")).thenReturn(Optional.of(sub1));
+        when(subscriptionRepository.findById("subscription-2")).thenReturn(Optional.of(sub2));
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+        when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModelEntity);
+        when(subscriptionRepository.update(any())).thenAnswer(returnsFirstArg());
+
+        // Run
+        final List<SubscriptionEntity> subscriptions = subscriptionService.close(API_ID,
+                Arrays.asList("subscription-1", "subscription-2", "subscription-1"));
+
+        // Verify
+        assertEquals(2, subscriptions.size());
+        verify(subscriptionRepository, times(2)).update(any());
+        subscriptions.forEach(subscription -> assertEquals(SubscriptionStatus.CLOSED, subscription.getStatus()));
+        verify(planService, times(1)).findById(PLAN_ID);
+        verify(notifierService, never()).trigger(eq(ApiHook.SUBSCRIPTION_CLOSED), anyString(), anyMap());
+        final ArgumentCaptor<List> params = ArgumentCaptor.forClass(List.class);
+        verify(notifierService).triggerAll(eq(ApiHook.SUBSCRIPTION_CLOSED), eq(API_ID), params.capture());
+        assertEquals(2, params.getValue().size());
+        verify(notifierService).triggerAll(eq(ApplicationHook.SUBSCRIPTION_CLOSED), eq(APPLICATION_ID), anyList());
+    }
+
+    @Test(expected = SubscriptionNotClosableException.class)
+    public void shouldNotCloseSubscriptionClosedMeanwhile() throws Exception {
+        // Prepare data
+        final Subscription subscription = pendingSubscription(SUBSCRIPTION_ID);
+        subscription.setStatus(Subscription.Status.ACCEPTED);
+        final Subscription closedSubscription = new Subscription(subscription);
+        closedSubscription.setStatus(Subscription.Status.CLOSED);
+
+        // Stub
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID))
+                .thenReturn(Optional.of(subscription))
+                .thenReturn(Optional.of(closedSubscription));
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+        when(plan.getApis()).thenReturn(Collections.singleton(API_ID));
+        when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
+
+        try {
+            // Run
+            subscriptionService.close(SUBSCRIPTION_ID);
+        } finally {
+            verify(subscriptionRepository, never()).update(any());
+            verify(notifierService, never()).trigger(any(ApiHook.class), anyString(), anyMap());
+        }
+    }
+
+    @Test
+    public void shouldCloseInBulkOnlySubscriptionsNotChangedMeanwhile() throws Exception {
+        // Prepare data
+        final Subscription sub1 = pendingSubscription("subscription-1");
+        sub1.setStatus(Subscription.Status.ACCEPTED);
+        sub1.setUpdatedAt(new Date(0));
+        final Subscription sub2 = pendingSubscription("subscription-2");
+        sub2.setStatus(Subscription.Status.ACCEPTED);
+        sub2.setUpdatedAt(new Date(0));
+        final Subscription extendedSub2 = new Subscription(sub2);
+        extendedSub2.setUpdatedAt(new Date(1));
+
+        // Stub
+        when(subscriptionRepository.findById("subscription-1")).thenReturn(Optional.of(sub1));
+        when(subscriptionRepository.findById("subscription-2"))
+                .thenReturn(Optional.of(sub2))
+                .thenReturn(Optional.of(extendedSub2));
+        when(planService.findById(PLAN_ID)).thenReturn(plan);
+        when(applicationService.findById(APPLICATION_ID)).thenReturn(application);
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(apiModelEntity);
+        when(subscriptionRepository.update(any())).thenAnswer(returnsFirstArg());
+
+        // Run
+        final List<SubscriptionEntity> subscriptions = subscriptionService.close(API_ID,
+                Arrays.asList("subscription-1", "subscription-2"));
+
+        // Verify
+        assertEquals(1, subscriptions.size());
+        assertEquals("subscription-1", subscriptions.get(0).getId());
+        verify(subscriptionRepository, times(1)).update(any());
+        verify(notifierService).trigger(eq(ApiHook.SUBSCRIPTION_CLOSED), eq(API_ID), anyMap());
+    }
+
+    @Test
+    public void shouldRenewApiKeysInBulk() throws Exception {
+        // Prepare data
+        final Subscription sub1 = pendingSubscription("subscription-1");
+        sub1.setStatus(Subscription.Status.ACCEPTED);
+        final Subscription sub2 = pendingSubscription("subscription-2");
+        sub2.setStatus(Subscription.Status.ACCEPTED);
+
+        // Stub
+        when(subscriptionRepository.findById("subscription-1")).thenReturn(Optional.of(sub1));
+        when(subscriptionRepository.findById("subscription-2")).thenReturn(Optional.of(sub2));
+
+        // Run
+        subscriptionService.renewApiKeys(API_ID, Arrays.asList("subscription-1", "subscription-2", "subscription-1"));
+
+        // Verify
+        verify(apiKeyService, times(1)).renew(new LinkedHashSet<>(Arrays.asList("subscription-1", "subscription-2")));
+    }
+
+    @Test(expected = SubscriptionClosedException.class)
+    public void shouldNotRenewApiKeysInBulkBecauseSubscriptionClosed() throws Exception {
+        // Prepare data
+        final Subscription sub1 = pendingSubscription("subscription-1");
+        sub1.setStatus(Subscription.Status.CLOSED);
+
+        // Stub
+        when(subscriptionRepository.findById("subscription-1")).thenReturn(Optional.of(sub1));
+
+        try {
+            // Run
+            subscriptionService.renewApiKeys(API_ID, Collections.singletonList("subscription-1"));
+        } finally {
+            verify(apiKeyService, never()).renew(anyCollectionOf(String.class));
+        }
+    }
+
+    private Subscription pendingSubscription(String id) {
+        final Subscription subscription = new Subscription();
+        subscription.setId(id);
+        subscription.setApi(API_ID);
+        subscription.setApplication(APPLICATION_ID);
+        subscription.setPlan(PLAN_ID);
+        subscription.setStatus(Subscription.Status.PENDING);
+        return subscription;
+    }
 }
@@ -1,42 +0,0 @@
-/**
- * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *         http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package io.gravitee.management.service;
-
-import java.util.UUID;
-
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.runners.MockitoJUnitRunner;
-
-import io.gravitee.management.service.impl.UUIDApiKeyGenerator;
-import io.gravitee.repository.exceptions.TechnicalException;
-
-/**
- * @author Azize Elamrani (azize dot elamrani at gmail dot com)
- */
-@RunWith(MockitoJUnitRunner.class)
-public class UUIDApiKeyGeneratorTest {
-
-    @InjectMocks
-    private ApiKeyGenerator uuidApiKeyGenerator = new UUIDApiKeyGenerator();
-
-    @Test
-    public void shouldGenerate() throws TechnicalException {
-        // check if correct uuid
-        UUID.fromString(uuidApiKeyGenerator.generate());
-    }
-}
@@ -0,0 +1,382 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.service.impl.UpgraderServiceImpl;
+import io.gravitee.repository.management.api.ParameterRepository;
+import io.gravitee.repository.management.model.Parameter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.ApplicationContext;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UpgraderServiceTest {
+
+    @InjectMocks
+    private UpgraderServiceImpl upgraderService = new UpgraderServiceImpl();
+
+    @Mock
+    private ParameterRepository parameterRepository;
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    private final List<String> runs = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void shouldSkipUpToDateUpgrader() throws Exception {
+        FingerprintUpgrader upgrader = new FingerprintUpgrader(runs, "v1");
+        when(parameterRepository.findAll(anyListOf(String.class)))
+                .thenReturn(Collections.singletonList(parameter("upgrader.FingerprintUpgrader", "v1")));
+
+        start(upgrader);
+
+        assertTrue(runs.isEmpty());
+        verify(parameterRepository, never()).create(any(Parameter.class));
+        verify(parameterRepository, never()).update(any(Parameter.class));
+    }
+
+    @Test
+    public void shouldRunAndRecordChangedFingerprint() throws Exception {
+        FingerprintUpgrader upgrader = new FingerprintUpgrader(runs, "v2");
+        when(parameterRepository.findAll(anyListOf(String.class)))
+                .thenReturn(Collections.singletonList(parameter("upgrader.FingerprintUpgrader", "v1")));
+
+        start(upgrader);
+
+        assertEquals(Collections.singletonList("FingerprintUpgrader"), runs);
+        verify(parameterRepository).update(argThat(new ArgumentMatcher<Parameter>() {
+            public boolean matches(Object argument) {
+                final Parameter parameter = (Parameter) argument;
+                return "upgrader.FingerprintUpgrader".equals(parameter.getKey()) && "v2".equals(parameter.getValue());
+            }
+        }));
+    }
+
+    @Test
+    public void shouldRunDependenciesFirst() throws Exception {
+        when(parameterRepository.findAll(anyListOf(String.class))).thenReturn(Collections.emptyList());
+
+        start(new DependentUpgrader(runs), new FingerprintUpgrader(runs, "v1"));
+
+        assertEquals(asList("FingerprintUpgrader", "DependentUpgrader"), runs);
+        verify(parameterRepository).create(any(Parameter.class));
+    }
+
+    @Test
+    public void shouldRunUpgradersByOrder() throws Exception {
+        setField(upgraderService, "poolSize", 4);
+        when(parameterRepository.findAll(anyListOf(String.class))).thenReturn(Collections.emptyList());
+
+        // the slowest upgraders come first
+        start(new ThirdUpgrader(runs, new CountDownLatch(1)), new SecondUpgrader(runs), new FirstUpgrader(runs));
+
+        assertEquals(asList("FirstUpgrader", "SecondUpgrader", "ThirdUpgrader"), runs);
+    }
+
+    @Test
+    public void shouldNotWaitForUnorderedUpgraders() throws Exception {
+        setField(upgraderService, "poolSize", 4);
+        when(parameterRepository.findAll(anyListOf(String.class))).thenReturn(Collections.emptyList());
+
+        // the unordered upgrader has the lowest order but is only completed once the last ordered one is
+        final CountDownLatch completed = new CountDownLatch(1);
+        start(new UnorderedUpgrader(runs, completed), new FirstUpgrader(runs), new ThirdUpgrader(runs, completed));
+
+        assertEquals(asList("FirstUpgrader", "ThirdUpgrader", "UnorderedUpgrader"), runs);
+    }
+
+    @Test
+    public void shouldRunIndependentUpgradersConcurrently() throws Exception {
+        setField(upgraderService, "poolSize", 4);
+        when(parameterRepository.findAll(anyListOf(String.class))).thenReturn(Collections.emptyList());
+
+        // each upgrader only completes once the other one has started
+        final CountDownLatch started = new CountDownLatch(2);
+        start(new IndependentUpgrader(runs, started, 100), new OtherIndependentUpgrader(runs, started));
+
+        assertEquals(asList("IndependentUpgrader", "OtherIndependentUpgrader"), runs.stream().sorted().collect(toList()));
+    }
+
+    @Test
+    public void shouldCompleteBackgroundUpgraders() throws Exception {
+        when(parameterRepository.findAll(anyListOf(String.class))).thenReturn(Collections.emptyList());
+
+        final CountDownLatch released = new CountDownLatch(1);
+        start(new BackgroundUpgrader(runs, released));
+
+        assertFalse(upgraderService.backgroundCompletion().isDone());
+        released.countDown();
+        upgraderService.backgroundCompletion().get(5, TimeUnit.SECONDS);
+        assertEquals(Collections.singletonList("BackgroundUpgrader"), runs);
+    }
+
+    private void start(Upgrader... upgraders) throws Exception {
+        Map<String, Upgrader> beans = new LinkedHashMap<>();
+        for (Upgrader upgrader : upgraders) {
+            beans.put(upgrader.getClass().getSimpleName(), upgrader);
+        }
+        when(applicationContext.getBeansOfType(Upgrader.class)).thenReturn(beans);
+        upgraderService.setApplicationContext(applicationContext);
+
+        upgraderService.start();
+    }
+
+    private static Parameter parameter(String key, String value) {
+        Parameter parameter = new Parameter();
+        parameter.setKey(key);
+        parameter.setValue(value);
+        return parameter;
+    }
+
+    private static class FingerprintUpgrader implements Upgrader {
+        private final List<String> runs;
+        private final String fingerprint;
+
+        private FingerprintUpgrader(List<String> runs, String fingerprint) {
+            this.runs = runs;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean upgrade() {
+            runs.add(getClass().getSimpleName());
+            return true;
+        }
+
+        @Override
+        public int getOrder() {
+            return 200;
+        }
+
+        @Override
+        public String getFingerprint() {
+            return fingerprint;
+        }
+    }
+
+    private static class DependentUpgrader implements Upgrader {
+        private final List<String> runs;
+
+        private DependentUpgrader(List<String> runs) {
+            this.runs = runs;
+        }
+
+        @Override
+        public boolean upgrade() {
+            runs.add(getClass().getSimpleName());
+            return true;
+        }
+
+        @Override
+        public int getOrder() {
+            return 100;
+        }
+
+        @Override
+        public Collection<Class<? extends Upgrader>> getDependencies() {
+            return Collections.singletonList(FingerprintUpgrader.class);
+        }
+
+        @Override
+        public boolean isOrdered() {
+            return false;
+        }
+    }
+
+    private static class OrderedUpgrader implements Upgrader {
+        private final List<String> runs;
+        private final int order;
+        private final long duration;
+
+        private OrderedUpgrader(List<String> runs, int order, long duration) {
+            this.runs = runs;
+            this.order = order;
+            this.duration = duration;
+        }
+
+        @Override
+        public boolean upgrade() {
+            try {
+                Thread.sleep(duration);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            runs.add(getClass().getSimpleName());
+            return true;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+
+    private static class FirstUpgrader extends OrderedUpgrader {
+        private FirstUpgrader(List<String> runs) {
+            super(runs, 100, 200);
+        }
+    }
+
+    private static class SecondUpgrader extends OrderedUpgrader {
+        private SecondUpgrader(List<String> runs) {
+            super(runs, 200, 100);
+        }
+    }
+
+    private static class ThirdUpgrader extends OrderedUpgrader {
+        private final CountDownLatch completed;
+
+        private ThirdUpgrader(List<String> runs, CountDownLatch completed) {
+            super(runs, 300, 0);
+            this.completed = completed;
+        }
+
+        @Override
+        public boolean upgrade() {
+            super.upgrade();
+            completed.countDown();
+            return true;
+        }
+    }
+
+    private static class UnorderedUpgrader implements Upgrader {
+        private final List<String> runs;
+        private final CountDownLatch awaited;
+
+        private UnorderedUpgrader(List<String> runs, CountDownLatch awaited) {
+            this.runs = runs;
+            this.awaited = awaited;
+        }
+
+        @Override
+        public boolean upgrade() {
+            try {
+                if (awaited.await(5, TimeUnit.SECONDS)) {
+                    runs.add(getClass().getSimpleName());
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+
+        @Override
+        public boolean isOrdered() {
+            return false;
+        }
+    }
+
+    private static class IndependentUpgrader implements Upgrader {
+        private final List<String> runs;
+        private final CountDownLatch started;
+        private final int order;
+
+        private IndependentUpgrader(List<String> runs, CountDownLatch started, int order) {
+            this.runs = runs;
+            this.started = started;
+            this.order = order;
+        }
+
+        @Override
+        public boolean upgrade() {
+            started.countDown();
+            try {
+                if (started.await(5, TimeUnit.SECONDS)) {
+                    runs.add(getClass().getSimpleName());
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public boolean isOrdered() {
+            return false;
+        }
+    }
+
+    private static class OtherIndependentUpgrader extends IndependentUpgrader {
+        private OtherIndependentUpgrader(List<String> runs, CountDownLatch started) {
+            super(runs, started, 200);
+        }
+    }
+
+    private static class BackgroundUpgrader implements Upgrader {
+        private final List<String> runs;
+        private final CountDownLatch released;
+
+        private BackgroundUpgrader(List<String> runs, CountDownLatch released) {
+            this.runs = runs;
+            this.released = released;
+        }
+
+        @Override
+        public boolean upgrade() {
+            try {
+                if (released.await(5, TimeUnit.SECONDS)) {
+                    runs.add(getClass().getSimpleName());
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+
+        @Override
+        public boolean isBackground() {
+            return true;
+        }
+    }
+}
@@ -252,6 +252,24 @@ public class UserServiceTest {
         verify(applicationService, never()).create(any(), eq(USER_NAME));
     }
 
+    @Test
+    public void shouldCoalesceLastConnectionWrites() throws TechnicalException {
+        when(user.getLastConnectionAt()).thenReturn(new Date());
+        when(userRepository.findById(USER_NAME)).thenReturn(of(user));
+        when(userRepository.update(user)).thenReturn(user);
+
+        userService.connect(USER_NAME);
+        userService.connect(USER_NAME);
+
+        verify(userRepository, never()).update(any());
+        verify(auditService, times(2)).createPortalAuditLog(any(), eq(User.AuditEvent.USER_CONNECTED), any(), any(), any());
+
+        userService.close();
+
+        verify(userRepository, times(1)).update(user);
+        verify(searchEngineService, times(1)).index(any());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void shouldNotCreateUserIfRegistrationIsDisabled() {
         when(mockParameterService.findAsBoolean(Key.PORTAL_USERCREATION_ENABLED)).thenReturn(Boolean.FALSE);
@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.management.model.notification.WebhookDeadLetterEntity;
+import io.gravitee.management.service.notifiers.impl.WebNotifierServiceImpl;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.net.ConnectException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebNotifierServiceTest {
+
+    private static final String URI = "http://localhost:8080/hook";
+    private static final long OPEN_DURATION = 100;
+
+    @InjectMocks
+    private WebNotifierServiceImpl webNotifierService = new WebNotifierServiceImpl();
+
+    @Mock
+    private Vertx vertx;
+
+    @Mock
+    private HttpClient httpClient;
+
+    @Mock
+    private HttpClientRequest request;
+
+    private final MutableClock clock = new MutableClock();
+
+    @Before
+    public void init() {
+        setField(webNotifierService, "httpClientTimeout", 1000);
+        setField(webNotifierService, "maxPoolSize", 10);
+        setField(webNotifierService, "queueCapacity", 100);
+        setField(webNotifierService, "maxAttempts", 1);
+        setField(webNotifierService, "initialRetryDelay", 1000L);
+        setField(webNotifierService, "maxRetryDelay", 60000L);
+        setField(webNotifierService, "circuitBreakerFailureThreshold", 2);
+        setField(webNotifierService, "circuitBreakerOpenDuration", 60000L);
+        setField(webNotifierService, "deadLettersCapacity", 100);
+        setField(webNotifierService, "maxClients", 100);
+        setField(webNotifierService, "clock", clock);
+
+        when(vertx.createHttpClient(any(HttpClientOptions.class))).thenReturn(httpClient);
+        when(httpClient.request(any(io.vertx.core.http.HttpMethod.class), anyInt(), anyString(), anyString())).thenReturn(request);
+        webNotifierService.init();
+    }
+
+    @Test
+    public void shouldRetryFailedDelivery() {
+        setField(webNotifierService, "maxAttempts", 3);
+        setField(webNotifierService, "circuitBreakerFailureThreshold", 10);
+
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+
+        final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+        final Handler<Long> retry = captureRetry(1, delay);
+        assertTrue(delay.getValue() >= 500 && delay.getValue() <= 1000);
+
+        retry.handle(1L);
+        respond(200);
+
+        verifyRequests(2);
+        verify(vertx, times(1)).setTimer(anyLong(), any(Handler.class));
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttempts() {
+        setField(webNotifierService, "maxAttempts", 2);
+        setField(webNotifierService, "circuitBreakerFailureThreshold", 10);
+
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+        captureRetry(1, ArgumentCaptor.forClass(Long.class)).handle(1L);
+        failRequest();
+
+        verifyRequests(2);
+        verify(vertx, times(1)).setTimer(anyLong(), any(Handler.class));
+    }
+
+    @Test
+    public void shouldNotRetryClientError() {
+        setField(webNotifierService, "maxAttempts", 3);
+
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        respond(400);
+
+        verifyRequests(1);
+        verify(vertx, never()).setTimer(anyLong(), any(Handler.class));
+    }
+
+    @Test
+    public void shouldOpenCircuitBreakerAfterConsecutiveFailures() {
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        webNotifierService.send(HttpMethod.POST, "http://localhost:8080/other-hook", null, "{}", false);
+
+        verifyRequests(2);
+    }
+
+    @Test
+    public void shouldRecoverFromHalfOpenCircuitBreaker() {
+        setField(webNotifierService, "circuitBreakerOpenDuration", OPEN_DURATION);
+
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+        verifyRequests(2);
+
+        // half-open: a single failure opens the circuit again
+        clock.advance(OPEN_DURATION * 2);
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        verifyRequests(3);
+
+        // half-open: a success closes the circuit
+        clock.advance(OPEN_DURATION * 2);
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        respond(200);
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        verifyRequests(6);
+    }
+
+    @Test
+    public void shouldKeepLastGivenUpDeliveries() {
+        setField(webNotifierService, "deadLettersCapacity", 2);
+        setField(webNotifierService, "circuitBreakerFailureThreshold", 10);
+
+        webNotifierService.send(HttpMethod.POST, URI, null, "{\"id\":1}", false);
+        failRequest();
+        webNotifierService.send(HttpMethod.POST, URI, null, "{\"id\":2}", false);
+        failRequest();
+        webNotifierService.send(HttpMethod.PUT, URI, null, "{\"id\":3}", false);
+        respond(400);
+
+        final List<WebhookDeadLetterEntity> deadLetters = webNotifierService.findDeadLetters();
+        assertEquals(2, deadLetters.size());
+        assertEquals("PUT", deadLetters.get(0).getMethod());
+        assertEquals(URI, deadLetters.get(0).getUri());
+        assertEquals("{\"id\":3}", deadLetters.get(0).getBody());
+        assertEquals(1, deadLetters.get(0).getAttempts());
+        assertEquals("{\"id\":2}", deadLetters.get(1).getBody());
+    }
+
+    @Test
+    public void shouldNotCountSuspendedDeliveriesAsAttempts() {
+        setField(webNotifierService, "maxAttempts", 2);
+        setField(webNotifierService, "circuitBreakerFailureThreshold", 1);
+
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        failRequest();
+
+        // the circuit is open: the retry is deferred without sending the request
+        captureRetry(1, ArgumentCaptor.forClass(Long.class)).handle(1L);
+        verifyRequests(1);
+
+        clock.advance(60001);
+        captureRetry(2, ArgumentCaptor.forClass(Long.class)).handle(2L);
+        verifyRequests(2);
+        failRequest();
+
+        final List<WebhookDeadLetterEntity> deadLetters = webNotifierService.findDeadLetters();
+        assertEquals(1, deadLetters.size());
+        assertEquals(2, deadLetters.get(0).getAttempts());
+    }
+
+    @Test
+    public void shouldCloseLeastRecentlyUsedClient() {
+        setField(webNotifierService, "maxClients", 1);
+        webNotifierService.init();
+
+        webNotifierService.send(HttpMethod.POST, URI, null, "{}", false);
+        respond(200);
+        verify(httpClient, never()).close();
+
+        webNotifierService.send(HttpMethod.POST, "http://otherhost:8080/hook", null, "{}", false);
+        verify(httpClient, times(1)).close();
+    }
+
+    private void verifyRequests(int count) {
+        verify(httpClient, times(count)).request(any(io.vertx.core.http.HttpMethod.class), anyInt(), anyString(), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void failRequest() {
+        final ArgumentCaptor<Handler> handler = ArgumentCaptor.forClass(Handler.class);
+        verify(request, atLeastOnce()).exceptionHandler(handler.capture());
+        handler.getValue().handle(new ConnectException("Connection refused"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respond(int statusCode) {
+        final HttpClientResponse response = mock(HttpClientResponse.class);
+        when(response.statusCode()).thenReturn(statusCode);
+
+        final ArgumentCaptor<Handler> handler = ArgumentCaptor.forClass(Handler.class);
+        verify(request, atLeastOnce()).handler(handler.capture());
+        handler.getValue().handle(response);
+
+        final ArgumentCaptor<Handler> bodyHandler = ArgumentCaptor.forClass(Handler.class);
+        verify(response).bodyHandler(bodyHandler.capture());
+        bodyHandler.getValue().handle(Buffer.buffer());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private long millis = System.currentTimeMillis();
+
+        private void advance(long duration) {
+            millis += duration;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Handler<Long> captureRetry(int count, ArgumentCaptor<Long> delay) {
+        final ArgumentCaptor<Handler> handler = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx, times(count)).setTimer(delay.capture(), handler.capture());
+        return handler.getValue();
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.event;
+
+import io.gravitee.common.event.impl.SimpleEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AsyncEventListenerTest {
+
+    private AsyncEventListener<ApiEvent, String> listener;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        listener.close();
+    }
+
+    @Test
+    public void shouldNotHoldPublisher() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch handled = new CountDownLatch(2);
+        listener = new AsyncEventListener<>("test", event -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            handled.countDown();
+        }, Function.identity(), 2, 10);
+
+        listener.onEvent(new SimpleEvent<>(ApiEvent.DEPLOY, "api-1"));
+        listener.onEvent(new SimpleEvent<>(ApiEvent.DEPLOY, "api-2"));
+
+        assertEquals(2, handled.getCount());
+        release.countDown();
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldKeepOrderPerKey() throws InterruptedException {
+        final List<ApiEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch handled = new CountDownLatch(3);
+        listener = new AsyncEventListener<>("test", event -> {
+            events.add(event.type());
+            handled.countDown();
+        }, Function.identity(), 4, 1);
+
+        listener.onEvent(new SimpleEvent<>(ApiEvent.DEPLOY, "api"));
+        listener.onEvent(new SimpleEvent<>(ApiEvent.UPDATE, "api"));
+        listener.onEvent(new SimpleEvent<>(ApiEvent.UNDEPLOY, "api"));
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals(asList(ApiEvent.DEPLOY, ApiEvent.UPDATE, ApiEvent.UNDEPLOY), events);
+    }
+
+    @Test
+    public void shouldContinueAfterListenerFailure() throws InterruptedException {
+        final CountDownLatch handled = new CountDownLatch(1);
+        listener = new AsyncEventListener<>("test", event -> {
+            if (event.type() == ApiEvent.DEPLOY) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            handled.countDown();
+        }, Function.identity(), 1, 10);
+
+        listener.onEvent(new SimpleEvent<>(ApiEvent.DEPLOY, "api"));
+        listener.onEvent(new SimpleEvent<>(ApiEvent.UNDEPLOY, "api"));
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ContextPathIndexTest {
+
+    private final ContextPathIndex index = new ContextPathIndex();
+
+    @Test
+    public void shouldFindConflictsWithPrefixes() {
+        index.load(singletonMap("api-1", "/products/"));
+
+        assertTrue(index.isLoaded());
+        assertEquals("api-1", index.findConflict("/products/", null));
+        assertEquals("api-1", index.findConflict("/products/sect/", null));
+        assertNull(index.findConflict("/product/", null));
+        assertNull(index.findConflict("/products/", "api-1"));
+    }
+
+    @Test
+    public void shouldFindConflictsWithLongerPaths() {
+        index.load(singletonMap("api-1", "/products/sect/"));
+
+        assertEquals("api-1", index.findConflict("/products/", null));
+        assertNull(index.findConflict("/products/ecom/", null));
+    }
+
+    @Test
+    public void shouldKeepPathOwnedByOtherApis() {
+        final Map<String, String> paths = new HashMap<>();
+        paths.put("api-1", "/shared/");
+        paths.put("api-2", "/shared/");
+        index.load(paths);
+
+        assertNotNull(index.findConflict("/shared/", "api-1"));
+        index.remove("api-2");
+        assertNull(index.findConflict("/shared/", "api-1"));
+        assertEquals("api-1", index.findConflict("/shared/", null));
+        index.remove("api-1");
+        assertNull(index.findConflict("/shared/", null));
+    }
+
+    @Test
+    public void shouldMoveApiToReservedPath() {
+        index.load(singletonMap("api-1", "/old/"));
+
+        assertNull(index.reserve("api-1", "/new/"));
+        index.confirm("api-1");
+
+        assertNull(index.findConflict("/old/", null));
+        assertEquals("api-1", index.findConflict("/new/", null));
+    }
+
+    @Test
+    public void shouldNotReserveConflictingPath() {
+        index.load(singletonMap("api-1", "/products/"));
+
+        assertEquals("api-1", index.reserve("api-2", "/products/sect/"));
+        assertNull(index.findConflict("/other/", null));
+    }
+
+    @Test
+    public void shouldRestorePreviousPathOfFailedUpdate() {
+        index.load(singletonMap("api-1", "/old/"));
+
+        assertNull(index.reserve("api-1", "/new/"));
+        index.restore("api-1", "/old/");
+
+        assertNull(index.findConflict("/new/", null));
+        assertEquals("api-1", index.findConflict("/old/", null));
+    }
+
+    @Test
+    public void shouldKeepPendingReservationsOnLoad() {
+        index.load(emptyMap());
+        assertNull(index.reserve("api-1", "/products/"));
+
+        index.load(emptyMap());
+
+        assertEquals("api-1", index.findConflict("/products/", null));
+    }
+
+    @Test
+    public void shouldKeepReservationConfirmedDuringLoad() {
+        index.load(emptyMap());
+        assertNull(index.reserve("api-1", "/products/"));
+
+        // the repository is read before the API is written, which is confirmed before the load ends
+        index.beginLoad();
+        index.confirm("api-1");
+        index.load(emptyMap());
+
+        assertEquals("api-1", index.findConflict("/products/", null));
+    }
+
+    @Test
+    public void shouldKeepRemovalDuringLoad() {
+        index.load(singletonMap("api-1", "/products/"));
+
+        index.beginLoad();
+        index.remove("api-1");
+        index.load(singletonMap("api-1", "/products/"));
+
+        assertNull(index.findConflict("/products/", null));
+    }
+
+    @Test
+    public void shouldForgetChangesOnceLoaded() {
+        index.beginLoad();
+        index.remove("api-1");
+        index.load(emptyMap());
+
+        index.load(singletonMap("api-1", "/products/"));
+
+        assertEquals("api-1", index.findConflict("/products/", null));
+    }
+
+    @Test
+    public void shouldNotBeLoadedWhenLoadIsCancelled() {
+        index.beginLoad();
+        index.remove("api-1");
+        index.cancelLoad();
+
+        assertFalse(index.isLoaded());
+        index.load(singletonMap("api-1", "/products/"));
+        assertEquals("api-1", index.findConflict("/products/", null));
+    }
+}
@@ -24,6 +24,7 @@ import io.gravitee.common.service.AbstractService;
 import io.gravitee.management.model.configuration.dictionary.DictionaryEntity;
 import io.gravitee.management.model.configuration.dictionary.DictionaryProviderEntity;
 import io.gravitee.management.model.configuration.dictionary.DictionaryTriggerEntity;
+import io.gravitee.management.service.event.AsyncEventListener;
 import io.gravitee.management.service.event.DictionaryEvent;
 import io.gravitee.management.services.dictionary.provider.http.HttpProvider;
 import io.gravitee.management.services.dictionary.provider.http.configuration.HttpProviderConfiguration;
@@ -31,9 +32,10 @@ import io.vertx.core.Vertx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -60,7 +62,15 @@ public class DictionaryService extends AbstractService implements EventListener<
     @Autowired
     private Vertx vertx;
 
-    private final Map<DictionaryEntity, Long> timers = new HashMap<>();
+    @Value("${services.events.lanes:4}")
+    private int eventLanes;
+
+    @Value("${services.events.capacity:1000}")
+    private int eventCapacity;
+
+    private final Map<DictionaryEntity, Long> timers = new ConcurrentHashMap<>();
+
+    private AsyncEventListener<DictionaryEvent, DictionaryEntity> eventListener;
 
     @Override
     protected String name() {
@@ -71,12 +81,18 @@ public class DictionaryService extends AbstractService implements EventListener<
     protected void doStart() throws Exception {
         super.doStart();
 
-        eventManager.subscribeForEvents(this, DictionaryEvent.class);
+        // Providers are polled on the event lanes, not on the publisher thread
+        eventListener = new AsyncEventListener<>("dictionary", this, DictionaryEntity::getId, eventLanes, eventCapacity);
+        eventManager.subscribeForEvents(eventListener, DictionaryEvent.class);
     }
 
     @Override
     protected void doStop() throws Exception {
         super.doStop();
+
+        if (eventListener != null) {
+            eventListener.close();
+        }
     }
 
     @Override
@@ -26,14 +26,16 @@ import io.gravitee.definition.model.services.schedule.Trigger;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.event.ApiEvent;
+import io.gravitee.management.service.event.AsyncEventListener;
 import io.gravitee.management.services.dynamicproperties.provider.http.HttpProvider;
 import io.vertx.core.Vertx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Alexandre FARIA (lusoalex on github.com)
@@ -54,7 +56,15 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
     @Autowired
     private Vertx vertx;
 
-    private final Map<ApiEntity, Long> timers = new HashMap<>();
+    @Value("${services.events.lanes:4}")
+    private int eventLanes;
+
+    @Value("${services.events.capacity:1000}")
+    private int eventCapacity;
+
+    private final Map<ApiEntity, Long> timers = new ConcurrentHashMap<>();
+
+    private AsyncEventListener<ApiEvent, ApiEntity> eventListener;
 
     @Override
     protected String name() {
@@ -65,12 +75,18 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
     protected void doStart() throws Exception {
         super.doStart();
 
-        eventManager.subscribeForEvents(this, ApiEvent.class);
+        // Providers are polled on the event lanes, not on the publisher thread
+        eventListener = new AsyncEventListener<>("dynamic-properties", this, ApiEntity::getId, eventLanes, eventCapacity);
+        eventManager.subscribeForEvents(eventListener, ApiEvent.class);
     }
 
     @Override
     protected void doStop() throws Exception {
         super.doStop();
+
+        if (eventListener != null) {
+            eventListener.close();
+        }
     }
 
     @Override
@@ -15,6 +15,9 @@
  */
 package io.gravitee.management.services.subscriptions;
 
+import io.gravitee.common.event.Event;
+import io.gravitee.common.event.EventListener;
+import io.gravitee.common.event.EventManager;
 import io.gravitee.common.service.AbstractService;
 import io.gravitee.management.model.SubscriptionEntity;
 import io.gravitee.management.model.SubscriptionStatus;
@@ -22,6 +25,7 @@ import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
 import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.SubscriptionService;
+import io.gravitee.management.service.event.SubscriptionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,19 +34,30 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 
 import java.time.Instant;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Date;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 /**
+ * Close the accepted subscriptions once their ending date is reached.
+ *
+ * Ending dates are kept in memory, ordered by date, so that each run only looks at the subscriptions which are due.
+ * The index is built from the repository on the first run, then fed by subscription events. Every
+ * <code>sync-interval</code> milliseconds, the subscriptions updated since the previous synchronization are read to
+ * catch up with the changes made on other nodes. Events received while the repository is read are buffered and
+ * applied afterwards, so that they are not overwritten by older data. Since the index may still be stale, the due
+ * subscriptions are read again from the repository and only the ones whose persisted ending date is reached are
+ * closed, each of them being closed only if it has not been changed meanwhile.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class ScheduledSubscriptionsService extends AbstractService implements Runnable {
+public class ScheduledSubscriptionsService extends AbstractService implements Runnable,
+        EventListener<SubscriptionEvent, SubscriptionEntity> {
 
     /**
      * Logger.
@@ -58,6 +73,12 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
     @Value("${services.subscriptions.enabled:true}")
     private boolean enabled;
 
+    @Value("${services.subscriptions.sync-interval:60000}")
+    private long syncInterval = 60_000;
+
+    @Value("${services.subscriptions.batch-size:100}")
+    private int batchSize = 100;
+
     private final AtomicLong counter = new AtomicLong(0);
 
     @Autowired
@@ -66,6 +87,23 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
     @Autowired
     private SubscriptionService subscriptionService;
 
+    @Autowired
+    private EventManager eventManager;
+
+    /**
+     * Overlap between two synchronizations, covering the clock skew between the nodes.
+     */
+    private static final long SYNC_OVERLAP = 60_000;
+
+    private volatile ExpiryIndex expiries = new ExpiryIndex();
+
+    /**
+     * Events received while the repository is read, <code>null</code> otherwise. Guarded by <code>this</code>.
+     */
+    private List<SubscriptionEntity> pendingEvents;
+
+    private long lastSync;
+
     @Override
     protected String name() {
         return "Subscriptions Refresher Service";
@@ -76,31 +114,249 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
         if (enabled) {
             super.doStart();
             logger.info("Subscriptions Refresher service has been initialized with cron [{}]", cronTrigger);
+            eventManager.subscribeForEvents(this, SubscriptionEvent.class);
             scheduler.schedule(this, new CronTrigger(cronTrigger));
         } else {
             logger.warn("Subscriptions Refresher service has been disabled");
         }
     }
 
+    @Override
+    public synchronized void onEvent(Event<SubscriptionEvent, SubscriptionEntity> event) {
+        SubscriptionEntity subscription = event.content();
+        if (event.type() == SubscriptionEvent.DELETE) {
+            // Whatever its status, a deleted subscription must leave the index
+            subscription = deleted(subscription);
+        }
+        if (pendingEvents != null) {
+            pendingEvents.add(subscription);
+        }
+        expiries.apply(subscription);
+    }
+
     @Override
     public void run() {
         logger.debug("Refresh subscriptions #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
-        final Set<String> apiIds = apiService.findAllLight().stream()
-                .map(ApiEntity::getId)
+        final long now = System.currentTimeMillis();
+        if (lastSync == 0) {
+            scan();
+            lastSync = now;
+        } else if (now - lastSync >= syncInterval) {
+            sync(lastSync - SYNC_OVERLAP);
+            lastSync = now;
+        }
+
+        final List<Expiry> dueSubscriptions = expiries.pollDue(now);
+        if (!dueSubscriptions.isEmpty()) {
+            final List<SubscriptionEntity> subscriptions = findDue(dueSubscriptions, now);
+            subscriptions.stream()
+                    .filter(subscription -> subscription.getApi() == null)
+                    .forEach(subscription -> close(subscription.getId()));
+            final Map<String, List<String>> dueByApi = subscriptions.stream()
+                    .filter(subscription -> subscription.getApi() != null)
+                    .collect(groupingBy(SubscriptionEntity::getApi, mapping(SubscriptionEntity::getId, toList())));
+            if (!dueByApi.isEmpty()) {
+                try {
+                    // the closing notifications of all these APIs need their template models
+                    apiService.findByIdsForTemplates(dueByApi.keySet());
+                } catch (Exception ex) {
+                    logger.debug("Unable to load the template models of APIs {}: {}", dueByApi.keySet(), ex.getMessage());
+                }
+                dueByApi.forEach(this::close);
+            }
+        }
+
+        logger.debug("Refresh subscriptions #{} ended at {}", counter.get(), Instant.now().toString());
+    }
+
+    /**
+     * Build a new index from all the accepted subscriptions, then swap it with the current one.
+     */
+    private void scan() {
+        startBuffering();
+        Collection<SubscriptionEntity> subscriptions = null;
+        try {
+            final Set<String> apiIds = apiService.findAllLight().stream()
+                    .map(ApiEntity::getId)
+                    .collect(toSet());
+
+            final SubscriptionQuery query = new SubscriptionQuery();
+            query.setApis(apiIds);
+            query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
+            subscriptions = subscriptionService.search(query);
+        } finally {
+            stopBuffering(new ExpiryIndex(), subscriptions);
+        }
+        logger.debug("{} accepted subscriptions with an ending date", expiries.size());
+    }
+
+    /**
+     * Apply the subscriptions updated since the given date, whatever their status, to the current index.
+     */
+    private void sync(long from) {
+        startBuffering();
+        Collection<SubscriptionEntity> subscriptions = null;
+        try {
+            final SubscriptionQuery query = new SubscriptionQuery();
+            query.setFrom(from);
+            subscriptions = subscriptionService.search(query);
+        } finally {
+            stopBuffering(expiries, subscriptions);
+        }
+        logger.debug("{} subscriptions updated since {}", subscriptions.size(), from);
+    }
+
+    private synchronized void startBuffering() {
+        pendingEvents = new ArrayList<>();
+    }
+
+    /**
+     * Apply the subscriptions read from the repository to the given index, then the events received meanwhile, which
+     * are more recent, and make it the current index. Nothing is applied if the repository could not be read.
+     */
+    private synchronized void stopBuffering(ExpiryIndex index, Collection<SubscriptionEntity> subscriptions) {
+        if (subscriptions != null) {
+            subscriptions.forEach(index::apply);
+            pendingEvents.forEach(index::apply);
+            expiries = index;
+        }
+        pendingEvents = null;
+    }
+
+    private static SubscriptionEntity deleted(SubscriptionEntity subscription) {
+        final SubscriptionEntity deleted = new SubscriptionEntity();
+        deleted.setId(subscription.getId());
+        deleted.setStatus(SubscriptionStatus.CLOSED);
+        return deleted;
+    }
+
+    /**
+     * Read the due subscriptions again, with a single search for the ones attached to an API, and keep the ones which
+     * are still accepted with a persisted ending date in the past. The ones whose ending date has been moved are put
+     * back in the index.
+     */
+    private List<SubscriptionEntity> findDue(List<Expiry> dueSubscriptions, long now) {
+        final Set<String> ids = dueSubscriptions.stream().map(Expiry::getSubscription).collect(toSet());
+        final Set<String> apis = dueSubscriptions.stream()
+                .map(Expiry::getApi)
+                .filter(Objects::nonNull)
                 .collect(toSet());
 
-        final SubscriptionQuery query = new SubscriptionQuery();
-        query.setApis(apiIds);
-        query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
-        final Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
-        final Date now = new Date();
-        subscriptions
-                .forEach(subscription -> {
-                    if (subscription.getEndingAt() != null && subscription.getEndingAt().before(now)) {
-                        subscriptionService.close(subscription.getId());
+        final List<SubscriptionEntity> subscriptions = new ArrayList<>(ids.size());
+        if (!apis.isEmpty()) {
+            final SubscriptionQuery query = new SubscriptionQuery();
+            query.setApis(apis);
+            query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
+            subscriptionService.search(query).stream()
+                    .filter(subscription -> ids.contains(subscription.getId()))
+                    .forEach(subscriptions::add);
+        }
+        dueSubscriptions.stream()
+                .filter(expiry -> expiry.api == null)
+                .forEach(expiry -> {
+                    try {
+                        final SubscriptionEntity subscription = subscriptionService.findById(expiry.subscription);
+                        if (subscription.getStatus() == SubscriptionStatus.ACCEPTED) {
+                            subscriptions.add(subscription);
+                        }
+                    } catch (Exception ex) {
+                        logger.debug("Unable to read subscription {}: {}", expiry.subscription, ex.getMessage());
                     }
                 });
 
-        logger.debug("Refresh subscriptions #{} ended at {}", counter.get(), Instant.now().toString());
+        final List<SubscriptionEntity> due = new ArrayList<>(subscriptions.size());
+        for (SubscriptionEntity subscription : subscriptions) {
+            if (subscription.getEndingAt() == null) {
+                continue;
+            }
+            if (subscription.getEndingAt().getTime() < now) {
+                due.add(subscription);
+            } else {
+                expiries.apply(subscription);
+            }
+        }
+        return due;
+    }
+
+    private void close(String api, List<String> subscriptions) {
+        for (int from = 0; from < subscriptions.size(); from += batchSize) {
+            final List<String> batch = subscriptions.subList(from, Math.min(from + batchSize, subscriptions.size()));
+            try {
+                subscriptionService.close(api, batch);
+            } catch (Exception ex) {
+                // One of the subscriptions may have been closed in the meantime, by an other node for instance
+                logger.debug("Unable to close subscriptions {} of API {} at once, close them one by one", batch, api, ex);
+                batch.forEach(this::close);
+            }
+        }
+    }
+
+    private void close(String subscription) {
+        try {
+            subscriptionService.close(subscription);
+        } catch (Exception ex) {
+            logger.warn("Unable to close subscription {}: {}", subscription, ex.getMessage());
+        }
+    }
+
+    private static final class ExpiryIndex {
+
+        private final Map<String, Expiry> bySubscription = new HashMap<>();
+        private final TreeSet<Expiry> byEndingAt = new TreeSet<>(
+                Comparator.comparingLong(Expiry::getEndingAt).thenComparing(Expiry::getSubscription));
+
+        /**
+         * Index the subscription if it is accepted with an ending date, remove it from the index otherwise.
+         */
+        synchronized void apply(SubscriptionEntity subscription) {
+            final Expiry previous = bySubscription.remove(subscription.getId());
+            if (previous != null) {
+                byEndingAt.remove(previous);
+            }
+            if (subscription.getStatus() == SubscriptionStatus.ACCEPTED && subscription.getEndingAt() != null) {
+                final Expiry expiry = new Expiry(subscription);
+                bySubscription.put(expiry.subscription, expiry);
+                byEndingAt.add(expiry);
+            }
+        }
+
+        synchronized List<Expiry> pollDue(long now) {
+            final List<Expiry> due = new ArrayList<>();
+            while (!byEndingAt.isEmpty() && byEndingAt.first().endingAt < now) {
+                final Expiry expiry = byEndingAt.pollFirst();
+                bySubscription.remove(expiry.subscription);
+                due.add(expiry);
+            }
+            return due;
+        }
+
+        synchronized int size() {
+            return bySubscription.size();
+        }
+    }
+
+    private static final class Expiry {
+
+        private final String subscription;
+        private final String api;
+        private final long endingAt;
+
+        private Expiry(SubscriptionEntity subscription) {
+            this.subscription = subscription.getId();
+            this.api = subscription.getApi();
+            this.endingAt = subscription.getEndingAt().getTime();
+        }
+
+        String getSubscription() {
+            return subscription;
+        }
+
+        String getApi() {
+            return api;
+        }
+
+        long getEndingAt() {
+            return endingAt;
+        }
     }
 }
@@ -15,12 +15,14 @@
  */
 package io.gravitee.management.services.subscriptions;
 
+import io.gravitee.common.event.impl.SimpleEvent;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.SubscriptionEntity;
 import io.gravitee.management.model.SubscriptionStatus;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
 import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.SubscriptionService;
+import io.gravitee.management.service.event.SubscriptionEvent;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -81,15 +83,117 @@ public class ScheduledSubscriptionsServiceTest {
         service.run();
 
         verify(apiService, times(1)).findAllLight();
-        verify(subscriptionService, times(1)).search(query);
-        verify(subscriptionService, times(1)).close("end_date_in_the_past");
-        verify(subscriptionService, never()).close("no_end_date");
-        verify(subscriptionService, never()).close("end_date_in_the_future");
+        // once to build the index, once to read the due subscriptions again
+        verify(subscriptionService, times(2)).search(query);
+        verify(subscriptionService, times(1)).close("API_ID", Collections.singletonList("end_date_in_the_past"));
+        verify(subscriptionService, never()).close(anyString());
+    }
+
+    @Test
+    public void shouldCloseSubscriptionsNotifiedAfterScan() {
+        final SubscriptionEntity sub1 = createSubscription("sub1", SubscriptionStatus.ACCEPTED, new Date(0));
+        when(apiService.findAllLight()).thenReturn(Collections.emptySet());
+        when(subscriptionService.search(any()))
+                .thenReturn(Collections.emptySet())
+                .thenReturn(Collections.singleton(sub1));
+        service.run();
+
+        service.onEvent(new SimpleEvent<>(SubscriptionEvent.UPDATE, sub1));
+        service.onEvent(new SimpleEvent<>(SubscriptionEvent.UPDATE, createSubscription(
+                "sub2",
+                SubscriptionStatus.ACCEPTED,
+                new Date(0))));
+        service.onEvent(new SimpleEvent<>(SubscriptionEvent.DELETE, createSubscription(
+                "sub2",
+                SubscriptionStatus.ACCEPTED,
+                new Date(0))));
+        service.run();
+        service.run();
+
+        verify(apiService, times(1)).findAllLight();
+        verify(subscriptionService, times(1)).close("API_ID", Collections.singletonList("sub1"));
+    }
+
+    @Test
+    public void shouldCloseOneByOneWhenBatchFails() {
+        when(apiService.findAllLight()).thenReturn(Collections.emptySet());
+        when(subscriptionService.search(any())).thenReturn(Arrays.asList(
+                createSubscription("sub1", SubscriptionStatus.ACCEPTED, new Date(0)),
+                createSubscription("sub2", SubscriptionStatus.ACCEPTED, new Date(1))));
+        when(subscriptionService.close(eq("API_ID"), anyList())).thenThrow(new IllegalStateException());
+
+        service.run();
+
+        verify(subscriptionService, times(1)).close("sub1");
+        verify(subscriptionService, times(1)).close("sub2");
+    }
+
+    @Test
+    public void shouldNotCloseSubscriptionExtendedOnAnotherNode() {
+        when(apiService.findAllLight()).thenReturn(Collections.emptySet());
+        when(subscriptionService.search(any()))
+                .thenReturn(Collections.singleton(createSubscription("sub1", SubscriptionStatus.ACCEPTED, new Date(0))))
+                .thenReturn(Collections.singleton(createSubscription("sub1", SubscriptionStatus.ACCEPTED, new Date(Long.MAX_VALUE))));
+
+        service.run();
+        service.run();
+
+        verify(subscriptionService, times(2)).search(any());
+        verify(subscriptionService, never()).close(anyString(), anyList());
+        verify(subscriptionService, never()).close(anyString());
+    }
+
+    @Test
+    public void shouldNotCloseSubscriptionClosedOnAnotherNode() {
+        when(apiService.findAllLight()).thenReturn(Collections.emptySet());
+        when(subscriptionService.search(any()))
+                .thenReturn(Collections.singleton(createSubscription("sub1", SubscriptionStatus.ACCEPTED, new Date(0))))
+                .thenReturn(Collections.emptySet());
+
+        service.run();
+
+        verify(subscriptionService, never()).close(anyString(), anyList());
+        verify(subscriptionService, never()).close(anyString());
+    }
+
+    @Test
+    public void shouldKeepSubscriptionsNotifiedWhileScanning() {
+        final SubscriptionEntity sub1 = createSubscription("sub1", SubscriptionStatus.ACCEPTED, new Date(0));
+        when(apiService.findAllLight()).thenReturn(Collections.emptySet());
+        when(subscriptionService.search(any()))
+                .thenAnswer(invocation -> {
+                    // notified after the repository has been read
+                    service.onEvent(new SimpleEvent<>(SubscriptionEvent.UPDATE, sub1));
+                    return Collections.emptySet();
+                })
+                .thenReturn(Collections.singleton(sub1));
+
+        service.run();
+
+        verify(subscriptionService, times(1)).close("API_ID", Collections.singletonList("sub1"));
+    }
+
+    @Test
+    public void shouldNotCloseSubscriptionDeletedWhileScanning() {
+        final SubscriptionEntity sub1 = createSubscription("sub1", SubscriptionStatus.ACCEPTED, new Date(0));
+        when(apiService.findAllLight()).thenReturn(Collections.emptySet());
+        when(subscriptionService.search(any()))
+                .thenAnswer(invocation -> {
+                    service.onEvent(new SimpleEvent<>(SubscriptionEvent.DELETE, sub1));
+                    return Collections.singleton(sub1);
+                });
+
+        service.run();
+
+        // the due subscriptions are not read again since none remains
+        verify(subscriptionService, times(1)).search(any());
+        verify(subscriptionService, never()).close(anyString(), anyList());
     }
 
     private SubscriptionEntity createSubscription(String id, SubscriptionStatus status, Date endingDate) {
         SubscriptionEntity subscriptionEntity = mock(SubscriptionEntity.class);
         when(subscriptionEntity.getId()).thenReturn(id);
+        when(subscriptionEntity.getApi()).thenReturn("API_ID");
         when(subscriptionEntity.getStatus()).thenReturn(status);
         when(subscriptionEntity.getEndingAt()).thenReturn(endingDate);
         return subscriptionEntity;
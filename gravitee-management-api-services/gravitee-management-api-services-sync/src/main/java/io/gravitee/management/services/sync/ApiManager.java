@@ -23,11 +23,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Registry of the deployed APIs.
+ *
+ * The state is held in an immutable {@link Snapshot} which is replaced as a whole on each change (copy-on-write):
+ * readers never lock and always see a consistent set of APIs. Events resulting from a change are published
+ * once the new snapshot is visible, on a dedicated dispatcher thread so that the sync thread is never held by
+ * event listeners.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -38,44 +47,199 @@ public class ApiManager {
     @Autowired
     private EventManager eventManager;
 
-    private final Map<String, ApiEntity> apis = new HashMap<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "api-manager-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public void deploy(ApiEntity api) {
-        logger.info("Deployment of {}", api);
+        apply(Collections.singleton(api), Collections.emptySet());
+    }
 
-            apis.put(api.getId(), api);
+    /**
+     * Update a deployed API. The update is always published, even when the given instance is the one already
+     * registered or has not been redeployed since.
+     */
+    public synchronized void update(ApiEntity api) {
+        apply(Collections.singleton(api), Collections.emptySet(), Collections.singleton(api.getId()));
+    }
 
-            if (api.getState() == Lifecycle.State.STARTED) {
-                eventManager.publishEvent(ApiEvent.DEPLOY, api);
-            } else {
-                logger.debug("{} is not enabled. Skip deployment.", api);
-            }
+    public void undeploy(String apiId) {
+        apply(Collections.emptySet(), Collections.singleton(apiId));
     }
 
-    public void update(ApiEntity api) {
-        apis.put(api.getId(), api);
-            eventManager.publishEvent(ApiEvent.UPDATE, api);
+    /**
+     * Apply a set of deployments and undeployments as a single change: only one new snapshot is published,
+     * whatever the number of APIs involved.
+     *
+     * @param apis APIs to deploy or to update.
+     * @param undeployedApis identifiers of the APIs to undeploy.
+     * @return the difference between the previous snapshot and the new one.
+     */
+    public synchronized Diff apply(Collection<ApiEntity> apis, Collection<String> undeployedApis) {
+        return apply(apis, undeployedApis, Collections.emptySet());
     }
 
-    public void undeploy(String apiId) {
-        ApiEntity currentApi = apis.remove(apiId);
-        if (currentApi != null) {
-            logger.info("Undeployment of {}", currentApi);
+    private Diff apply(Collection<ApiEntity> apis, Collection<String> undeployedApis, Set<String> updatedApis) {
+        Snapshot previous = snapshot;
+        Map<String, ApiEntity> next = new HashMap<>(previous.apis);
+        apis.forEach(api -> next.put(api.getId(), api));
+        undeployedApis.forEach(next::remove);
 
-            eventManager.publishEvent(ApiEvent.UNDEPLOY, currentApi);
-            logger.info("{} has been undeployed", apiId);
+        Snapshot current = new Snapshot(previous.version + 1, next);
+        Diff diff = current.diff(previous, updatedApis);
+        if (diff.isEmpty()) {
+            return diff;
         }
+
+        snapshot = current;
+        publish(diff);
+        return diff;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
     }
 
     public Collection<ApiEntity> apis() {
-        return apis.values();
+        return snapshot.apis.values();
     }
 
     public ApiEntity get(String name) {
-        return apis.get(name);
+        return snapshot.apis.get(name);
     }
 
     public void setEventManager(EventManager eventManager) {
         this.eventManager = eventManager;
     }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void publish(Diff diff) {
+        dispatcher.execute(() -> {
+            diff.undeployed.forEach(api -> {
+                logger.info("Undeployment of {}", api);
+                if (publish(ApiEvent.UNDEPLOY, api)) {
+                    logger.info("{} has been undeployed", api.getId());
+                }
+            });
+            diff.deployed.forEach(api -> {
+                logger.info("Deployment of {}", api);
+                if (api.getState() == Lifecycle.State.STARTED) {
+                    publish(ApiEvent.DEPLOY, api);
+                } else {
+                    logger.debug("{} is not enabled. Skip deployment.", api);
+                }
+            });
+            diff.updated.forEach(api -> publish(ApiEvent.UPDATE, api));
+        });
+    }
+
+    /**
+     * Publish a single event: a failing listener must neither prevent the remaining events of the change from
+     * being published nor kill the dispatcher thread.
+     */
+    private boolean publish(ApiEvent event, ApiEntity api) {
+        try {
+            eventManager.publishEvent(event, api);
+            return true;
+        } catch (Exception ex) {
+            logger.error("Unable to publish {} event for API {}", event, api.getId(), ex);
+            return false;
+        }
+    }
+
+    /**
+     * Immutable, versioned view of the deployed APIs.
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, Collections.emptyMap());
+
+        private final long version;
+        private final Map<String, ApiEntity> apis;
+
+        private Snapshot(long version, Map<String, ApiEntity> apis) {
+            this.version = version;
+            this.apis = Collections.unmodifiableMap(apis);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Map<String, ApiEntity> getApis() {
+            return apis;
+        }
+
+        /**
+         * Compute the changes from a previous snapshot to this one. An API is updated when it has been redeployed
+         * since the previous snapshot, according to its deployment date.
+         */
+        public Diff diff(Snapshot previous) {
+            return diff(previous, Collections.emptySet());
+        }
+
+        private Diff diff(Snapshot previous, Set<String> updatedApis) {
+            List<ApiEntity> deployed = new ArrayList<>();
+            List<ApiEntity> updated = new ArrayList<>();
+            List<ApiEntity> undeployed = new ArrayList<>();
+
+            apis.forEach((id, api) -> {
+                ApiEntity previousApi = previous.apis.get(id);
+                if (previousApi == null) {
+                    deployed.add(api);
+                } else if (updatedApis.contains(id)
+                        || (previousApi != api && !Objects.equals(previousApi.getDeployedAt(), api.getDeployedAt()))) {
+                    updated.add(api);
+                }
+            });
+            previous.apis.forEach((id, api) -> {
+                if (!apis.containsKey(id)) {
+                    undeployed.add(api);
+                }
+            });
+
+            return new Diff(deployed, updated, undeployed);
+        }
+    }
+
+    /**
+     * Changes between two snapshots.
+     */
+    public static final class Diff {
+
+        private final List<ApiEntity> deployed;
+        private final List<ApiEntity> updated;
+        private final List<ApiEntity> undeployed;
+
+        private Diff(List<ApiEntity> deployed, List<ApiEntity> updated, List<ApiEntity> undeployed) {
+            this.deployed = Collections.unmodifiableList(deployed);
+            this.updated = Collections.unmodifiableList(updated);
+            this.undeployed = Collections.unmodifiableList(undeployed);
+        }
+
+        public List<ApiEntity> getDeployed() {
+            return deployed;
+        }
+
+        public List<ApiEntity> getUpdated() {
+            return updated;
+        }
+
+        public List<ApiEntity> getUndeployed() {
+            return undeployed;
+        }
+
+        public boolean isEmpty() {
+            return deployed.isEmpty() && updated.isEmpty() && undeployed.isEmpty();
+        }
+    }
 }
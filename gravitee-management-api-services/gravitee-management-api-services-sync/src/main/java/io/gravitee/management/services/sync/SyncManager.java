@@ -203,11 +203,16 @@ public class SyncManager {
     }
 
     private void computeApiEvents(Map<String, Event> apiEvents) {
+        // All the changes of a sync are applied as a single snapshot of the deployed APIs
+        final Map<String, ApiEntity> deployedApis = apiManager.snapshot().getApis();
+        final List<ApiEntity> apisToDeploy = new ArrayList<>();
+        final List<String> apisToUndeploy = new ArrayList<>();
+
         apiEvents.forEach((apiId, apiEvent) -> {
             switch (apiEvent.getType()) {
                 case UNPUBLISH_API:
                 case STOP_API:
-                    apiManager.undeploy(apiId);
+                    apisToUndeploy.add(apiId);
                     break;
                 case START_API:
                 case PUBLISH_API:
@@ -221,15 +226,11 @@ public class SyncManager {
 
                         if (apiToDeploy != null) {
                             // Get deployed API
-                            ApiEntity deployedApi = apiManager.get(apiToDeploy.getId());
-
-                            // API is not yet deployed, so let's do it !
-                            if (deployedApi == null) {
-                                apiManager.deploy(apiToDeploy);
-                            } else {
-                                if (deployedApi.getDeployedAt().before(apiToDeploy.getDeployedAt())) {
-                                    apiManager.update(apiToDeploy);
-                                }
+                            ApiEntity deployedApi = deployedApis.get(apiToDeploy.getId());
+
+                            // API is not yet deployed or has been redeployed since
+                            if (deployedApi == null || deployedApi.getDeployedAt().before(apiToDeploy.getDeployedAt())) {
+                                apisToDeploy.add(apiToDeploy);
                             }
                         }
                     } catch (Exception e) {
@@ -238,6 +239,10 @@ public class SyncManager {
                     break;
             }
         });
+
+        if (!apisToDeploy.isEmpty() || !apisToUndeploy.isEmpty()) {
+            apiManager.apply(apisToDeploy, apisToUndeploy);
+        }
     }
 
     private Event getLastDictionaryEvent(final String dictionary) {
@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.services.sync;
+
+import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.event.EventManager;
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.service.event.ApiEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiManagerTest {
+
+    @InjectMocks
+    private ApiManager apiManager = new ApiManager();
+
+    @Mock
+    private EventManager eventManager;
+
+    private ApiEntity api;
+
+    @Before
+    public void init() {
+        api = api("api-id", 1000);
+    }
+
+    @Test
+    public void shouldDeployApi() throws InterruptedException {
+        final ApiManager.Diff diff = apiManager.apply(Collections.singleton(api), Collections.emptySet());
+
+        assertEquals(Collections.singletonList(api), diff.getDeployed());
+        assertTrue(diff.getUpdated().isEmpty());
+        assertSame(api, apiManager.get("api-id"));
+        assertEquals(1, apiManager.snapshot().getVersion());
+
+        apiManager.close();
+        verify(eventManager).publishEvent(ApiEvent.DEPLOY, api);
+    }
+
+    @Test
+    public void shouldNotPublishDeploymentOfStoppedApi() throws InterruptedException {
+        api.setState(Lifecycle.State.STOPPED);
+
+        apiManager.deploy(api);
+
+        apiManager.close();
+        assertSame(api, apiManager.get("api-id"));
+        verify(eventManager, never()).publishEvent(any(ApiEvent.class), any());
+    }
+
+    @Test
+    public void shouldUpdateRedeployedApi() throws InterruptedException {
+        apiManager.deploy(api);
+        final ApiEntity redeployed = api("api-id", 2000);
+
+        final ApiManager.Diff diff = apiManager.apply(Collections.singleton(redeployed), Collections.emptySet());
+
+        assertTrue(diff.getDeployed().isEmpty());
+        assertEquals(Collections.singletonList(redeployed), diff.getUpdated());
+        assertSame(redeployed, apiManager.get("api-id"));
+
+        apiManager.close();
+        verify(eventManager).publishEvent(ApiEvent.UPDATE, redeployed);
+    }
+
+    @Test
+    public void shouldNotUpdateApiWhichHasNotBeenRedeployed() throws InterruptedException {
+        apiManager.deploy(api);
+
+        final ApiManager.Diff diff = apiManager.apply(Collections.singleton(api("api-id", 1000)), Collections.emptySet());
+
+        assertTrue(diff.isEmpty());
+        assertSame(api, apiManager.get("api-id"));
+        assertEquals(1, apiManager.snapshot().getVersion());
+
+        apiManager.close();
+        verify(eventManager, never()).publishEvent(eq(ApiEvent.UPDATE), any());
+    }
+
+    @Test
+    public void shouldPublishExplicitUpdateOfRegisteredInstance() throws InterruptedException {
+        apiManager.deploy(api);
+        api.setName("updated");
+
+        apiManager.update(api);
+
+        assertEquals(2, apiManager.snapshot().getVersion());
+        apiManager.close();
+        verify(eventManager).publishEvent(ApiEvent.UPDATE, api);
+    }
+
+    @Test
+    public void shouldUndeployApi() throws InterruptedException {
+        apiManager.deploy(api);
+
+        final ApiManager.Diff diff = apiManager.apply(Collections.emptySet(), Collections.singleton("api-id"));
+
+        assertEquals(Collections.singletonList(api), diff.getUndeployed());
+        assertNull(apiManager.get("api-id"));
+
+        apiManager.close();
+        verify(eventManager).publishEvent(ApiEvent.UNDEPLOY, api);
+    }
+
+    @Test
+    public void shouldNotUndeployUnknownApi() {
+        final ApiManager.Diff diff = apiManager.apply(Collections.emptySet(), Collections.singleton("unknown"));
+
+        assertTrue(diff.isEmpty());
+        assertEquals(0, apiManager.snapshot().getVersion());
+    }
+
+    @Test
+    public void shouldPublishUndeploymentsThenDeploymentsThenUpdates() throws InterruptedException {
+        final ApiEntity undeployed = api("undeployed", 1000);
+        final ApiEntity updated = api("updated", 1000);
+        apiManager.deploy(undeployed);
+        apiManager.deploy(updated);
+
+        final ApiEntity redeployed = api("updated", 2000);
+        final ApiManager.Diff diff = apiManager.apply(Arrays.asList(redeployed, api), Collections.singleton("undeployed"));
+
+        assertEquals(Collections.singletonList(api), diff.getDeployed());
+        assertEquals(Collections.singletonList(redeployed), diff.getUpdated());
+        assertEquals(Collections.singletonList(undeployed), diff.getUndeployed());
+        assertEquals(3, apiManager.snapshot().getVersion());
+
+        apiManager.close();
+        final InOrder inOrder = inOrder(eventManager);
+        inOrder.verify(eventManager).publishEvent(ApiEvent.DEPLOY, undeployed);
+        inOrder.verify(eventManager).publishEvent(ApiEvent.DEPLOY, updated);
+        inOrder.verify(eventManager).publishEvent(ApiEvent.UNDEPLOY, undeployed);
+        inOrder.verify(eventManager).publishEvent(ApiEvent.DEPLOY, api);
+        inOrder.verify(eventManager).publishEvent(ApiEvent.UPDATE, redeployed);
+    }
+
+    @Test
+    public void shouldPublishRemainingEventsWhenOneFails() throws InterruptedException {
+        final ApiEntity failing = api("failing", 1000);
+        doThrow(new IllegalStateException("listener failure")).when(eventManager).publishEvent(ApiEvent.DEPLOY, failing);
+
+        apiManager.apply(Arrays.asList(failing, api), Collections.emptySet());
+        final ApiEntity other = api("other", 1000);
+        apiManager.deploy(other);
+
+        apiManager.close();
+        verify(eventManager).publishEvent(ApiEvent.DEPLOY, failing);
+        verify(eventManager).publishEvent(ApiEvent.DEPLOY, api);
+        verify(eventManager).publishEvent(ApiEvent.DEPLOY, other);
+    }
+
+    private static ApiEntity api(String id, long deployedAt) {
+        final ApiEntity api = new ApiEntity();
+        api.setId(id);
+        api.setState(Lifecycle.State.STARTED);
+        api.setDeployedAt(new Date(deployedAt));
+        return api;
+    }
+}
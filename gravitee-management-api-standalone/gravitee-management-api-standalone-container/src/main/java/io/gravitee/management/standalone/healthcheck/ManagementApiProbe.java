@@ -28,7 +28,8 @@ import org.springframework.beans.factory.annotation.Value;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * HTTP Probe used to check the Management API itself.
+ * HTTP Probe used to check the Management API itself. It is healthy as soon as the HTTP port is open, even while
+ * the caches are warming up: readiness must be checked with the {@link WarmUpProbe}.
  *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.standalone.healthcheck;
+
+import io.gravitee.management.standalone.warmup.WarmUpService;
+import io.gravitee.node.api.healthcheck.Probe;
+import io.gravitee.node.api.healthcheck.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Readiness probe reporting whether the warm-up of the Management API caches is done. It is kept apart from the
+ * {@link ManagementApiProbe} so that a node still warming up is not reported as failing: the readiness check of
+ * the node (e.g. the one of a load balancer or of Kubernetes) must target the <code>warmup</code> probe, whereas
+ * the liveness check targets the <code>management-api</code> one.
+ *
+ * @author GraviteeSource Team
+ */
+public class WarmUpProbe implements Probe {
+
+    @Autowired
+    private WarmUpService warmUpService;
+
+    @Override
+    public String id() {
+        return "warmup";
+    }
+
+    @Override
+    public CompletableFuture<Result> check() {
+        return CompletableFuture.completedFuture(warmUpService.isReady()
+                ? Result.healthy()
+                : Result.unhealthy(new IllegalStateException("Warm-up in progress")));
+    }
+}
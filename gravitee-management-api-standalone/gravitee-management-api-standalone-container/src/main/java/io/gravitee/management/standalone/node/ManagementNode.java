@@ -18,6 +18,7 @@ package io.gravitee.management.standalone.node;
 import io.gravitee.common.component.LifecycleComponent;
 import io.gravitee.management.service.InitializerService;
 import io.gravitee.management.standalone.jetty.JettyEmbeddedContainer;
+import io.gravitee.management.standalone.warmup.WarmUpService;
 import io.gravitee.node.container.AbstractNode;
 import io.gravitee.plugin.alert.AlertEngineService;
 
@@ -46,6 +47,7 @@ public class ManagementNode extends AbstractNode {
         components.add(JettyEmbeddedContainer.class);
         components.add(InitializerService.class);
         components.add(AlertEngineService.class);
+        components.add(WarmUpService.class);
         return components;
     }
 }
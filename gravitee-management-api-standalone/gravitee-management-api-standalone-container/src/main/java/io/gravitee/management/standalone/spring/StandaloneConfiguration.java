@@ -21,6 +21,7 @@ import io.gravitee.management.standalone.jetty.JettyConfiguration;
 import io.gravitee.management.standalone.jetty.JettyEmbeddedContainer;
 import io.gravitee.management.standalone.jetty.JettyServerFactory;
 import io.gravitee.management.standalone.node.ManagementNode;
+import io.gravitee.management.standalone.warmup.WarmUpService;
 import io.gravitee.node.api.Node;
 import io.gravitee.node.vertx.spring.VertxConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -58,4 +59,9 @@ public class StandaloneConfiguration {
     public JettyEmbeddedContainer container() {
         return new JettyEmbeddedContainer();
     }
+
+    @Bean
+    public WarmUpService warmUpService() {
+        return new WarmUpService();
+    }
 }
@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.standalone.warmup;
+
+import io.gravitee.common.component.AbstractLifecycleComponent;
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.model.metrics.LatencyMetrics;
+import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.ConfigService;
+import io.gravitee.management.service.InitializerService;
+import io.gravitee.management.service.RatingService;
+import io.gravitee.management.service.RoleService;
+import io.gravitee.management.service.search.SearchEngineService;
+import io.gravitee.management.service.search.query.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-load the data hit by the first portal users once the node is started:
+ * <ul>
+ *     <li>roles: fills the role cache,</li>
+ *     <li>portal-config: builds the portal configuration,</li>
+ *     <li>apis: fills the rating summary cache and the picture cache of the most recently updated APIs,</li>
+ *     <li>context-paths: loads the index of the context paths checked by API creations and updates,</li>
+ *     <li>search-index: waits for the index to be rebuilt by the background upgraders, then runs a first search to
+ *     open the index searcher, no application cache is involved,</li>
+ *     <li>default-pictures: loads the default API picture.</li>
+ * </ul>
+ * The node is reported as ready by the {@link io.gravitee.management.standalone.healthcheck.WarmUpProbe} only when
+ * the warm-up is completed or when its timeout is reached. The duration of each task is logged through
+ * {@link LatencyMetrics} once the warm-up is completed.
+ *
+ * @author GraviteeSource Team
+ */
+public class WarmUpService extends AbstractLifecycleComponent<WarmUpService> {
+
+    private final Logger logger = LoggerFactory.getLogger(WarmUpService.class);
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.tasks:roles,portal-config,apis,context-paths,search-index,default-pictures}")
+    private String[] tasks;
+
+    @Value("${warmup.timeout:30000}")
+    private long timeout;
+
+    @Value("${warmup.pool.size:4}")
+    private int poolSize;
+
+    @Value("${warmup.apis.pictures.max:200}")
+    private int maxPictures;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private ApiService apiService;
+
+    @Autowired
+    private SearchEngineService searchEngineService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private InitializerService<?> initializerService;
+
+    private ExecutorService executor;
+
+    private volatile boolean ready;
+
+    private volatile long deadline;
+
+    private final LatencyMetrics metrics = new LatencyMetrics("Warm-up tasks");
+
+    private final Set<String> pendingTasks = new ConcurrentSkipListSet<>();
+
+    @Override
+    protected void doStart() throws Exception {
+        if (!enabled) {
+            logger.info("Warm-up is disabled");
+            ready = true;
+            return;
+        }
+
+        final Map<String, Runnable> available = new HashMap<>();
+        available.put("roles", () -> roleService.findAll());
+        available.put("portal-config", () -> configService.getPortalConfig());
+        available.put("apis", this::warmUpApis);
+        available.put("context-paths", () -> apiService.loadContextPaths());
+        available.put("search-index", this::warmUpSearchIndex);
+        available.put("default-pictures", () -> apiService.getDefaultPicture());
+
+        executor = Executors.newFixedThreadPool(Math.max(1, poolSize), new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "warmup-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        final long start = System.currentTimeMillis();
+        deadline = start + timeout;
+        final List<CompletableFuture<Void>> runs = new ArrayList<>();
+        for (String task : new LinkedHashSet<>(Arrays.asList(tasks))) {
+            final Runnable runnable = available.get(task.trim());
+            if (runnable == null) {
+                logger.warn("Unknown warm-up task [{}], available tasks are {}", task, available.keySet());
+            } else {
+                pendingTasks.add(task.trim());
+                runs.add(CompletableFuture.runAsync(() -> run(task.trim(), runnable), executor));
+            }
+        }
+
+        CompletableFuture.allOf(runs.toArray(new CompletableFuture[0]))
+                .whenComplete((result, throwable) -> {
+                    logger.info("Warm-up completed in {} ms", System.currentTimeMillis() - start);
+                    metrics.log(logger);
+                    ready = true;
+                    executor.shutdown();
+                });
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return <code>true</code> when the warm-up is disabled, completed or timed out.
+     */
+    public boolean isReady() {
+        if (!ready && deadline > 0 && System.currentTimeMillis() >= deadline) {
+            logger.warn("Warm-up not completed after {} ms, pending tasks: {}", timeout, pendingTasks);
+            ready = true;
+        }
+        return ready;
+    }
+
+    /**
+     * Rating summaries are loaded by a single query for all the APIs, whereas pictures are loaded one by one: only the
+     * pictures of the most recently updated APIs are loaded.
+     */
+    private void warmUpApis() {
+        final Set<ApiEntity> apis = apiService.findAllLight();
+        if (ratingService.isEnabled()) {
+            ratingService.findSummariesByApis(apis.stream().map(ApiEntity::getId).collect(Collectors.toList()));
+        }
+        final List<ApiEntity> recentApis = apis.stream()
+                .sorted(Comparator.comparing(ApiEntity::getUpdatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(Math.max(0, maxPictures))
+                .collect(Collectors.toList());
+        for (ApiEntity api : recentApis) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            apiService.getPicture(api.getId(), api.getUpdatedAt());
+        }
+    }
+
+    private void warmUpSearchIndex() {
+        try {
+            initializerService.backgroundCompletion().get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException ee) {
+            logger.warn("Background upgraders failed, the search index may be incomplete", ee.getCause());
+        }
+        searchEngineService.search(QueryBuilder.create(ApiEntity.class).setQuery("*:*").build());
+    }
+
+    private void run(String task, Runnable runnable) {
+        final long start = System.nanoTime();
+        try {
+            runnable.run();
+        } catch (Exception ex) {
+            metrics.increment("failed");
+            logger.warn("Warm-up task [{}] failed", task, ex);
+        } finally {
+            final long duration = System.nanoTime() - start;
+            metrics.record(duration);
+            metrics.max(task + " (ms)", TimeUnit.NANOSECONDS.toMillis(duration));
+            pendingTasks.remove(task);
+            logger.debug("Warm-up task [{}] done in {} ms", task, TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+    }
+}
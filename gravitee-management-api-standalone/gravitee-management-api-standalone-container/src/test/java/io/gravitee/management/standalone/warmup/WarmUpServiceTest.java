@@ -0,0 +1,231 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.standalone.warmup;
+
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.ConfigService;
+import io.gravitee.management.service.InitializerService;
+import io.gravitee.management.service.RatingService;
+import io.gravitee.management.service.RoleService;
+import io.gravitee.management.service.search.SearchEngineService;
+import io.gravitee.management.service.search.query.Query;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WarmUpServiceTest {
+
+    private static final String[] ALL_TASKS = {"roles", "portal-config", "apis", "context-paths", "search-index", "default-pictures"};
+
+    @InjectMocks
+    private WarmUpService warmUpService = new WarmUpService();
+
+    @Mock
+    private RoleService roleService;
+
+    @Mock
+    private ConfigService configService;
+
+    @Mock
+    private ApiService apiService;
+
+    @Mock
+    private SearchEngineService searchEngineService;
+
+    @Mock
+    private RatingService ratingService;
+
+    @Mock
+    private InitializerService<?> initializerService;
+
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @Before
+    public void init() {
+        setField(warmUpService, "enabled", true);
+        setField(warmUpService, "tasks", ALL_TASKS);
+        setField(warmUpService, "timeout", 5000L);
+        setField(warmUpService, "poolSize", 2);
+        setField(warmUpService, "maxPictures", 200);
+        when(apiService.findAllLight()).thenReturn(Collections.emptySet());
+        when(initializerService.backgroundCompletion()).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @After
+    public void close() throws Exception {
+        released.countDown();
+        warmUpService.stop();
+    }
+
+    @Test
+    public void shouldRunAllTasks() throws Exception {
+        warmUpService.start();
+
+        awaitReady();
+        verify(roleService).findAll();
+        verify(configService).getPortalConfig();
+        verify(apiService).findAllLight();
+        verify(apiService).loadContextPaths();
+        verify(searchEngineService).search(any(Query.class));
+        verify(apiService).getDefaultPicture();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldWarmUpApiPicturesAndRatings() throws Exception {
+        setField(warmUpService, "tasks", new String[]{"apis"});
+        final ApiEntity api1 = api("api-1", new Date(1000));
+        final ApiEntity api2 = api("api-2", new Date(2000));
+        when(apiService.findAllLight()).thenReturn(new LinkedHashSet<>(Arrays.asList(api1, api2)));
+        when(ratingService.isEnabled()).thenReturn(true);
+
+        warmUpService.start();
+
+        awaitReady();
+        final ArgumentCaptor<Collection> apis = ArgumentCaptor.forClass(Collection.class);
+        verify(ratingService).findSummariesByApis(apis.capture());
+        assertEquals(new HashSet<>(Arrays.asList("api-1", "api-2")), new HashSet<>(apis.getValue()));
+        verify(apiService).getPicture("api-1", api1.getUpdatedAt());
+        verify(apiService).getPicture("api-2", api2.getUpdatedAt());
+    }
+
+    @Test
+    public void shouldOnlyWarmUpPicturesOfMostRecentlyUpdatedApis() throws Exception {
+        setField(warmUpService, "tasks", new String[]{"apis"});
+        setField(warmUpService, "maxPictures", 1);
+        final ApiEntity oldApi = api("old-api", new Date(1000));
+        final ApiEntity recentApi = api("recent-api", new Date(2000));
+        when(apiService.findAllLight()).thenReturn(new LinkedHashSet<>(Arrays.asList(oldApi, recentApi)));
+
+        warmUpService.start();
+
+        awaitReady();
+        verify(apiService).getPicture("recent-api", recentApi.getUpdatedAt());
+        verify(apiService, never()).getPicture(eq("old-api"), any(Date.class));
+    }
+
+    @Test
+    public void shouldNotWarmUpRatingsWhenDisabled() throws Exception {
+        setField(warmUpService, "tasks", new String[]{"apis"});
+        when(apiService.findAllLight()).thenReturn(Collections.singleton(api("api-1", new Date())));
+
+        warmUpService.start();
+
+        awaitReady();
+        verify(ratingService, never()).findSummariesByApis(any());
+        verify(apiService).getPicture(eq("api-1"), any(Date.class));
+    }
+
+    @Test
+    public void shouldBeReadyWhenTaskFails() throws Exception {
+        when(roleService.findAll()).thenThrow(new IllegalStateException("Repository unavailable"));
+
+        warmUpService.start();
+
+        awaitReady();
+        verify(configService).getPortalConfig();
+        verify(apiService).getDefaultPicture();
+    }
+
+    @Test
+    public void shouldBeReadyWhenTimeoutIsReached() throws Exception {
+        setField(warmUpService, "tasks", new String[]{"roles"});
+        setField(warmUpService, "timeout", 200L);
+        when(roleService.findAll()).thenAnswer(invocation -> {
+            released.await(10, TimeUnit.SECONDS);
+            return Collections.emptyList();
+        });
+
+        warmUpService.start();
+
+        assertFalse(warmUpService.isReady());
+        Thread.sleep(400);
+        assertTrue(warmUpService.isReady());
+    }
+
+    @Test
+    public void shouldSearchOnceBackgroundUpgradersAreCompleted() throws Exception {
+        setField(warmUpService, "tasks", new String[]{"search-index"});
+        final CompletableFuture<Void> upgraders = new CompletableFuture<>();
+        when(initializerService.backgroundCompletion()).thenReturn(upgraders);
+
+        warmUpService.start();
+
+        Thread.sleep(100);
+        assertFalse(warmUpService.isReady());
+        verify(searchEngineService, never()).search(any(Query.class));
+
+        upgraders.complete(null);
+        awaitReady();
+        verify(searchEngineService).search(any(Query.class));
+    }
+
+    @Test
+    public void shouldIgnoreUnknownTask() throws Exception {
+        setField(warmUpService, "tasks", new String[]{"unknown", " roles "});
+
+        warmUpService.start();
+
+        awaitReady();
+        verify(roleService).findAll();
+        verifyZeroInteractions(configService, apiService, searchEngineService, ratingService);
+    }
+
+    @Test
+    public void shouldBeReadyWhenDisabled() throws Exception {
+        setField(warmUpService, "enabled", false);
+
+        warmUpService.start();
+
+        assertTrue(warmUpService.isReady());
+        verifyZeroInteractions(roleService, configService, apiService, searchEngineService, ratingService);
+    }
+
+    private void awaitReady() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (!warmUpService.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("Warm-up not completed", warmUpService.isReady());
+    }
+
+    private static ApiEntity api(String id, Date updatedAt) {
+        final ApiEntity api = new ApiEntity();
+        api.setId(id);
+        api.setUpdatedAt(updatedAt);
+        return api;
+    }
+}